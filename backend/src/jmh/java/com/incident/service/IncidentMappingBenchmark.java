@@ -0,0 +1,63 @@
+package com.incident.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.incident.dto.IncidentResponse;
+import com.incident.entity.Incident;
+import com.incident.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncidentMappingBenchmark {
+    private Incident incident;
+    private IncidentResponse response;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        // Same module set Spring Boot registers for the HTTP and STOMP converters
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        incident = Incident.builder()
+            .id(42L)
+            .incidentId("INC-20260101120000-0042")
+            .type(Incident.IncidentType.FIRE)
+            .description("Smoke visible from the third floor of a residential building. ".repeat(20))
+            .latitude(40.7128)
+            .longitude(-74.0060)
+            .address("123 Main Street, Downtown")
+            .gpsAccuracy(12.0)
+            .imageUrl("/uploads/3f1c2a9e-photo.jpg")
+            .status(Incident.IncidentStatus.VERIFIED)
+            .confidenceScore(80)
+            .confirmationCount(3)
+            .reporter(User.builder().username("witness").build())
+            .adminNotes("Engine 7 dispatched")
+            .createdAt(LocalDateTime.now())
+            .updatedAt(LocalDateTime.now())
+            .build();
+        response = IncidentService.toResponse(incident);
+    }
+
+    @Benchmark
+    public IncidentResponse toResponse() {
+        return IncidentService.toResponse(incident);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] toResponseAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(IncidentService.toResponse(incident));
+    }
+}
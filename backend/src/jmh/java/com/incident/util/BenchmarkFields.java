@@ -0,0 +1,22 @@
+package com.incident.util;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+
+/**
+ * Sets @Value-injected fields on components constructed outside Spring
+ */
+public final class BenchmarkFields {
+    private BenchmarkFields() {
+    }
+
+    public static void set(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException("No field " + name + " on " + target.getClass());
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,58 @@
+package com.incident.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of assigning one report during a surge, with the surge already holding a given
+ * number of reports within 200 m. Per-report cost should not grow with the surge size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClusterGridBenchmark {
+    private static final double LAT = 40.7128;
+    private static final double LON = -74.0060;
+    private static final double SPREAD = 0.0018; // ~200 m
+
+    @Param({"100", "10000"})
+    private int surgeReports;
+
+    private ClusterGrid grid;
+    private Random random;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        grid = new ClusterGrid(300, 30 * 60_000L, 16);
+        random = new Random(42);
+        now = 1_700_000_000_000L;
+        for (int i = 0; i < surgeReports; i++) {
+            double lat = LAT + random.nextDouble() * SPREAD;
+            double lon = LON + random.nextDouble() * SPREAD;
+            long[] linked = grid.linkedClusters(2, lat, lon, now);
+            long cluster = linked.length == 0 ? i : linked[0];
+            for (int j = 1; j < linked.length; j++) {
+                grid.union(cluster, linked[j]);
+            }
+            grid.add(2, lat, lon, now, cluster);
+        }
+        if (grid.linkedClusters(2, LAT + SPREAD / 2, LON + SPREAD / 2, now).length != 1) {
+            throw new IllegalStateException("Surge did not end up in one cluster");
+        }
+    }
+
+    @Benchmark
+    public long assignReport() {
+        double lat = LAT + random.nextDouble() * SPREAD;
+        double lon = LON + random.nextDouble() * SPREAD;
+        long[] linked = grid.linkedClusters(2, lat, lon, now);
+        grid.add(2, lat, lon, now, linked[0]);
+        return linked[0];
+    }
+}
@@ -0,0 +1,43 @@
+package com.incident.util;
+
+import com.incident.entity.Incident;
+import com.incident.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfidenceScoreCalculatorBenchmark {
+    private ConfidenceScoreCalculator calculator;
+    private Incident incident;
+
+    @Setup
+    public void setUp() {
+        calculator = new ConfidenceScoreCalculator();
+        BenchmarkFields.set(calculator, "baseScore", 30);
+        BenchmarkFields.set(calculator, "imageBonus", 20);
+        BenchmarkFields.set(calculator, "confirmationBonus", 15);
+        BenchmarkFields.set(calculator, "reputationBonusMax", 20);
+        BenchmarkFields.set(calculator, "gpsAccuracyBonusMax", 15);
+
+        incident = Incident.builder()
+            .type(Incident.IncidentType.FIRE)
+            .imageUrl("/uploads/photo.jpg")
+            .gpsAccuracy(12.0)
+            .confirmationCount(2)
+            .reporter(User.builder().reputation(User.ReputationLevel.RELIABLE).build())
+            .createdAt(LocalDateTime.now().minusMinutes(20))
+            .build();
+    }
+
+    @Benchmark
+    public int calculate() {
+        return calculator.calculate(incident);
+    }
+}
@@ -0,0 +1,91 @@
+package com.incident.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching one incident against 100,000 registered fences spread over a ~200 x 200 km
+ * region: mostly circles of 200 m to 5 km, a fifth hexagons up to ~10 km across, and a
+ * few hundred district- and region-wide fences.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeofenceIndexBenchmark {
+    private static final double LAT = 40.0;
+    private static final double LON = -74.5;
+    private static final double SPREAD = 1.8; // ~200 km
+
+    @Param({"100000"})
+    private int fences;
+
+    private GeofenceIndex index;
+    private Random random;
+    private long matched;
+
+    @Setup
+    public void setUp() {
+        index = new GeofenceIndex(1);
+        random = new Random(42);
+        List<GeofenceIndex.Fence> all = new ArrayList<>(fences);
+        for (int i = 0; i < fences; i++) {
+            double lat = LAT + random.nextDouble() * SPREAD;
+            double lon = LON + random.nextDouble() * SPREAD;
+            int typeMask = random.nextInt(3) == 0 ? 0 : 1 << random.nextInt(5);
+            if (i % 500 == 0) {
+                all.add(GeofenceIndex.Fence.circle(i, "owner-" + (i % 5000), typeMask, lat, lon,
+                    20_000 + random.nextDouble() * 80_000));
+            } else if (i % 5 == 0) {
+                all.add(hexagon(i, typeMask, lat, lon, 0.005 + random.nextDouble() * 0.04));
+            } else {
+                all.add(GeofenceIndex.Fence.circle(i, "owner-" + (i % 5000), typeMask, lat, lon,
+                    200 + random.nextDouble() * 4800));
+            }
+            index.add(all.get(i));
+        }
+        // The index must find exactly what testing every fence finds
+        for (int i = 0; i < 200; i++) {
+            double lat = LAT + random.nextDouble() * SPREAD;
+            double lon = LON + random.nextDouble() * SPREAD;
+            int type = random.nextInt(5);
+            long expected = all.stream().filter(fence -> fence.contains(type, lat, lon)).count();
+            if (index.match(type, lat, lon).size() != expected) {
+                throw new IllegalStateException("Index disagrees with a full scan at " + lat + "," + lon);
+            }
+        }
+    }
+
+    @Benchmark
+    public int matchIncident() {
+        double lat = LAT + random.nextDouble() * SPREAD;
+        double lon = LON + random.nextDouble() * SPREAD;
+        int[] count = new int[1];
+        index.match(random.nextInt(5), lat, lon, fence -> count[0]++);
+        matched += count[0];
+        return count[0];
+    }
+
+    @TearDown
+    public void reportMatches() {
+        if (matched == 0) {
+            throw new IllegalStateException("No incident matched any fence");
+        }
+    }
+
+    private GeofenceIndex.Fence hexagon(long id, int typeMask, double lat, double lon, double radiusDegrees) {
+        double[] lats = new double[6];
+        double[] lons = new double[6];
+        for (int v = 0; v < 6; v++) {
+            lats[v] = lat + radiusDegrees * Math.sin(v * Math.PI / 3);
+            lons[v] = lon + radiusDegrees * Math.cos(v * Math.PI / 3);
+        }
+        return GeofenceIndex.Fence.polygon(id, "owner-" + (id % 5000), typeMask, lats, lons);
+    }
+}
@@ -0,0 +1,25 @@
+package com.incident.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncidentIdGeneratorBenchmark {
+
+    @Benchmark
+    public String generate() {
+        return IncidentIdGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateContended() {
+        return IncidentIdGenerator.generate();
+    }
+}
@@ -0,0 +1,101 @@
+package com.incident.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans over a memory-mapped archive segment. Scores are nanoseconds per row in the
+ * scanned range, so 1 / score is rows per nanosecond. Setup checks the filtered counts
+ * against a plain loop over the generated rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncidentSegmentBenchmark {
+    private static final int ROWS = 2_000_000;
+    private static final String[] TYPES = {"ACCIDENT", "MEDICAL", "FIRE", "INFRASTRUCTURE", "CRIME"};
+    private static final long START = 1_600_000_000_000L;
+
+    private Path directory;
+    private IncidentSegment segment;
+    private int fireCode;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        List<IncidentSegmentWriter.Row> rows = new ArrayList<>(ROWS);
+        long created = START;
+        long fires = 0, inBox = 0;
+        for (int i = 0; i < ROWS; i++) {
+            created += random.nextInt(60_000);
+            double lat = 40.0 + random.nextDouble();
+            double lon = -74.5 + random.nextDouble();
+            String type = TYPES[random.nextInt(TYPES.length)];
+            if (type.equals("FIRE")) fires++;
+            if (lat >= 40.25 && lat <= 40.5 && lon >= -74.25 && lon <= -74.0) inBox++;
+            rows.add(new IncidentSegmentWriter.Row(i, "INC-" + i, created, lat, lon, type,
+                i % 7 == 0 ? "FALSE" : "RESOLVED", "Incident " + i, null));
+        }
+        directory = Files.createTempDirectory("segment-bench");
+        Path file = directory.resolve("bench.seg");
+        IncidentSegmentWriter.write(file, rows);
+        segment = IncidentSegment.open(file);
+        fireCode = segment.typeCode("FIRE");
+
+        if (segment.scan(Long.MIN_VALUE, Long.MAX_VALUE, fireCode, -1, -90, -180, 90, 180, 0).matched != fires) {
+            throw new IllegalStateException("Type scan count mismatch");
+        }
+        // Fixed-point rounding can move a handful of points across the edge
+        long boxed = segment.scan(Long.MIN_VALUE, Long.MAX_VALUE, -1, -1, 40.25, -74.25, 40.5, -74.0, 0).matched;
+        if (Math.abs(boxed - inBox) > 10) {
+            throw new IllegalStateException("Bounding box count mismatch: " + boxed + " vs " + inBox);
+        }
+        if (segment.getCreatedMillis(ROWS - 1) != created) {
+            throw new IllegalStateException("Timestamp decode mismatch");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long countAll() {
+        return segment.scan(Long.MIN_VALUE, Long.MAX_VALUE, -1, -1, -90, -180, 90, 180, 0).matched;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long typeFilter() {
+        return segment.scan(Long.MIN_VALUE, Long.MAX_VALUE, fireCode, -1, -90, -180, 90, 180, 0).matched;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long boundingBox() {
+        return segment.scan(Long.MIN_VALUE, Long.MAX_VALUE, -1, -1, 40.25, -74.25, 40.5, -74.0, 0).matched;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long typeAndBoundingBox() {
+        return segment.scan(Long.MIN_VALUE, Long.MAX_VALUE, fireCode, -1, 40.25, -74.25, 40.5, -74.0, 0).matched;
+    }
+}
@@ -0,0 +1,93 @@
+package com.incident.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch distance kernels against the scalar haversine over the same points.
+ * Setup verifies the kernels against the scalar reference before anything is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationBatchBenchmark {
+    private static final double ORIGIN_LAT = 40.7128;
+    private static final double ORIGIN_LON = -74.0060;
+
+    @Param({"1000", "100000"})
+    private int points;
+
+    @Param({"2", "20"})
+    private double radiusKm;
+
+    private double[] lats;
+    private double[] lons;
+    private double[] out;
+    private boolean[] mask;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        lats = new double[points];
+        lons = new double[points];
+        out = new double[points];
+        mask = new boolean[points];
+        for (int i = 0; i < points; i++) {
+            // Points spread over roughly twice the search radius
+            lats[i] = ORIGIN_LAT + (random.nextDouble() * 2 - 1) * radiusKm / 55.0;
+            lons[i] = ORIGIN_LON + (random.nextDouble() * 2 - 1) * radiusKm / 42.0;
+        }
+        verifyAccuracy();
+    }
+
+    private void verifyAccuracy() {
+        double[] exact = new double[points];
+        double[] approximate = new double[points];
+        LocationUtil.calculateDistances(ORIGIN_LAT, ORIGIN_LON, lats, lons, exact);
+        LocationUtil.approximateDistances(ORIGIN_LAT, ORIGIN_LON, lats, lons, approximate);
+        LocationUtil.withinRadius(ORIGIN_LAT, ORIGIN_LON, lats, lons, radiusKm, mask);
+        for (int i = 0; i < points; i++) {
+            double reference = LocationUtil.calculateDistance(ORIGIN_LAT, ORIGIN_LON, lats[i], lons[i]);
+            if (Math.abs(exact[i] - reference) > 1e-9) {
+                throw new IllegalStateException("Batch haversine diverged at " + i);
+            }
+            double bound = LocationUtil.approximationErrorBound(ORIGIN_LAT, reference);
+            if (Math.abs(approximate[i] - reference) > bound * reference + 1e-12) {
+                throw new IllegalStateException("Equirectangular error above documented bound at " + i);
+            }
+            if (mask[i] != (reference <= radiusKm)) {
+                throw new IllegalStateException("Radius mask disagrees with haversine at " + i);
+            }
+        }
+    }
+
+    @Benchmark
+    public double[] scalarHaversine() {
+        for (int i = 0; i < points; i++) {
+            out[i] = LocationUtil.calculateDistance(ORIGIN_LAT, ORIGIN_LON, lats[i], lons[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] batchHaversine() {
+        LocationUtil.calculateDistances(ORIGIN_LAT, ORIGIN_LON, lats, lons, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] batchEquirectangular() {
+        LocationUtil.approximateDistances(ORIGIN_LAT, ORIGIN_LON, lats, lons, out);
+        return out;
+    }
+
+    @Benchmark
+    public int radiusMask() {
+        return LocationUtil.withinRadius(ORIGIN_LAT, ORIGIN_LON, lats, lons, radiusKm, mask);
+    }
+}
@@ -0,0 +1,33 @@
+package com.incident.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationUtilBenchmark {
+    private double lat1;
+    private double lon1;
+    private double lat2;
+    private double lon2;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        lat1 = 40.7128 + random.nextDouble(-0.05, 0.05);
+        lon1 = -74.0060 + random.nextDouble(-0.05, 0.05);
+        lat2 = 40.7128 + random.nextDouble(-0.05, 0.05);
+        lon2 = -74.0060 + random.nextDouble(-0.05, 0.05);
+    }
+
+    @Benchmark
+    public double calculateDistance() {
+        return LocationUtil.calculateDistance(lat1, lon1, lat2, lon2);
+    }
+}
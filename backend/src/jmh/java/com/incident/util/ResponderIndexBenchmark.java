@@ -0,0 +1,55 @@
+package com.incident.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest-responder lookup and ping cost with a city's worth of responders spread over
+ * roughly 40 x 40 km.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponderIndexBenchmark {
+    private static final double LAT = 40.7128;
+    private static final double LON = -74.0060;
+    private static final double SPREAD = 0.36; // ~40 km
+
+    @Param({"500", "20000"})
+    private int responders;
+
+    private ResponderIndex index;
+    private Random random;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        index = new ResponderIndex(1);
+        random = new Random(42);
+        now = 1_700_000_000_000L;
+        for (int i = 0; i < responders; i++) {
+            index.update("responder-" + i, LAT + random.nextDouble() * SPREAD, LON + random.nextDouble() * SPREAD,
+                random.nextInt(4) != 0, now);
+        }
+    }
+
+    @Benchmark
+    public List<ResponderIndex.Candidate> nearestFive() {
+        return index.nearest(LAT + random.nextDouble() * SPREAD, LON + random.nextDouble() * SPREAD, 5, 50, now);
+    }
+
+    @Benchmark
+    public ResponderIndex.Location ping() {
+        String id = "responder-" + random.nextInt(responders);
+        ResponderIndex.Location last = index.get(id);
+        // A few seconds of movement, sometimes across a cell boundary
+        return index.update(id, last.latitude() + (random.nextDouble() - 0.5) * 0.001,
+            last.longitude() + (random.nextDouble() - 0.5) * 0.001, last.available(), now);
+    }
+}
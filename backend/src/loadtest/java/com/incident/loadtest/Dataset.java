@@ -0,0 +1,43 @@
+package com.incident.loadtest;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Synthetic dataset description, loaded from YAML. Weights are relative and need not sum to 1.
+ */
+@Data
+public class Dataset {
+    private String name = "default";
+    private Long seed = 42L; // Same seed and sizes give the same rows
+    private Integer users = 50_000;
+    private Integer incidents = 1_000_000;
+    private Integer days = 365; // Incidents are created over this many days up to now
+    private Double latitude = 40.7128; // Centre of the background area
+    private Double longitude = -74.0060;
+    private Double spreadKm = 25.0; // Half-width of the background area
+    private Double backgroundWeight = 1.0; // Incidents anywhere in the area, against the hotspot weights
+    private List<Hotspot> hotspots = new ArrayList<>();
+    private Map<String, Number> types = new LinkedHashMap<>(); // Weight per incident type; empty means even
+    private Map<String, Number> statuses = new LinkedHashMap<>(); // Weight per final status; empty means even
+    private Double confirmationsPerIncident = 1.5; // Poisson mean
+    private Integer maxConfirmations = 20;
+    private Double imageShare = 0.2;
+    private Double confirmMeanMinutes = 20.0; // Mean delay of each confirmation after the report
+    private Double transitionMeanMinutes = 45.0; // Mean delay between status changes
+    private Integer archiveAfterDays = 30; // Closed incidents older than this go to the archive partitions
+
+    @Data
+    public static class Hotspot {
+        private String name = "hotspot";
+        private Double latitude;
+        private Double longitude;
+        private Double radiusMeters = 500.0; // Standard deviation of the distance from the centre
+        private Double weight = 1.0;
+        private Integer recentDays; // Only active over the last this many days, e.g. an ongoing surge
+    }
+}
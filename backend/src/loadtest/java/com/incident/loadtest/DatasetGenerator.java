@@ -0,0 +1,633 @@
+package com.incident.loadtest;
+
+import com.incident.util.CopyRows;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Fills a database with a synthetic dataset for capacity testing: users, incidents spread
+ * over hotspots and time, their confirmations, status transitions, timeline rows and event
+ * log, consistent with what the application would have written. CopyRows are streamed with the
+ * PostgreSQL COPY protocol, in chunks that each commit on their own connection, so several
+ * chunks load in parallel.
+ *
+ * The schema must exist: start the application once against the database first. Generated
+ * users are named synthetic-u{id} with the password "password".
+ *
+ * Run: mvn -Ploadtest verify -DskipTests -Dloadtest.main=com.incident.loadtest.DatasetGenerator -Dloadtest.args="..."
+ *
+ * Arguments (all optional, key=value):
+ *   dataset=city              bundled dataset name or path to a YAML file
+ *   jdbcUrl=jdbc:postgresql://localhost:5432/incident_db
+ *   dbUser=postgres dbPassword=root
+ *   incidents=1000000 users=50000 days=365 seed=42   override the dataset
+ *   threads=4                 parallel COPY connections, default one per CPU
+ *   chunk=20000               incidents per COPY transaction
+ */
+public class DatasetGenerator {
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final DateTimeFormatter INCIDENT_ID_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final String[] STATUS_PATH = {"VERIFIED", "IN_PROGRESS", "RESOLVED"};
+    private static final String[] STREETS = {"Main", "Oak", "Pine", "Maple", "Cedar", "Elm", "Washington", "Lake",
+        "Hill", "Park", "River", "Church", "Market", "Broad", "Spring", "Ridge", "Harbor", "Mill", "Union", "Bridge"};
+    private static final String[] STREET_TYPES = {"Street", "Avenue", "Road", "Boulevard", "Lane", "Place"};
+    private static final Map<String, String[]> DESCRIPTIONS = Map.of(
+        "ACCIDENT", new String[]{
+            "Two vehicle collision at the intersection, traffic backed up in both directions",
+            "Car hit a pole, driver appears shaken but conscious",
+            "Motorcycle down on the highway ramp, one lane blocked",
+            "Rear-end crash near the bus stop, minor injuries reported"},
+        "MEDICAL", new String[]{
+            "Elderly person collapsed on the sidewalk and is not responding",
+            "Cyclist with a head injury after a fall, bleeding",
+            "Person having trouble breathing outside the subway entrance",
+            "Child with a severe allergic reaction at the playground"},
+        "FIRE", new String[]{
+            "Smoke coming from the roof of an apartment building",
+            "Kitchen fire in a restaurant, people evacuating",
+            "Dumpster fire spreading towards parked cars",
+            "Strong smell of gas and visible flames near the construction site"},
+        "INFRASTRUCTURE", new String[]{
+            "Water main break flooding the street",
+            "Downed power line across the road, sparks visible",
+            "Large pothole causing cars to swerve into the next lane",
+            "Traffic lights out at a busy intersection"},
+        "CRIME", new String[]{
+            "Break-in at a corner store, window smashed",
+            "Car being broken into in the parking garage",
+            "Fight outside the bar, several people involved",
+            "Bike stolen from the rack outside the library"});
+    private static final Map<String, String> STATUS_NOTES = Map.of(
+        "VERIFIED", "Verified by responder on scene",
+        "IN_PROGRESS", "Crew dispatched",
+        "RESOLVED", "Resolved, scene cleared",
+        "FALSE", "No incident found at location");
+
+    private final Dataset dataset;
+    private final String jdbcUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final int threads;
+    private final int chunkSize;
+    private final long nowMillis = System.currentTimeMillis();
+    private final ZoneOffset offset = ZoneId.systemDefault().getRules().getOffset(LocalDateTime.now());
+
+    private String[] typeNames;
+    private double[] typeWeights;
+    private String[] statusNames;
+    private double[] statusWeights;
+    private double[] placeWeights;
+    private long userBase;
+    private long incidentBase;
+    private Long adminId;
+    private String adminUsername;
+    private AtomicIntegerArray verifiedByUser;
+    private AtomicIntegerArray falseByUser;
+
+    private record Step(long atMillis, String status, long userIndex) {
+        boolean confirmation() {
+            return status == null;
+        }
+    }
+
+    private record ChunkResult(long incidents, long confirmations, long timeline, long events,
+                               long generateNanos, long copyNanos) {
+    }
+
+    public DatasetGenerator(Dataset dataset, String jdbcUrl, String dbUser, String dbPassword, int threads, int chunkSize) {
+        this.dataset = dataset;
+        this.jdbcUrl = jdbcUrl;
+        this.dbUser = dbUser;
+        this.dbPassword = dbPassword;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Dataset dataset = loadDataset(options.getOrDefault("dataset", "city"));
+        if (options.containsKey("incidents")) dataset.setIncidents(Integer.parseInt(options.get("incidents")));
+        if (options.containsKey("users")) dataset.setUsers(Integer.parseInt(options.get("users")));
+        if (options.containsKey("days")) dataset.setDays(Integer.parseInt(options.get("days")));
+        if (options.containsKey("seed")) dataset.setSeed(Long.parseLong(options.get("seed")));
+
+        new DatasetGenerator(dataset,
+            options.getOrDefault("jdbcUrl", "jdbc:postgresql://localhost:5432/incident_db"),
+            options.getOrDefault("dbUser", "postgres"),
+            options.getOrDefault("dbPassword", "root"),
+            Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+            Integer.parseInt(options.getOrDefault("chunk", "20000")))
+            .run();
+        System.exit(0);
+    }
+
+    public void run() throws Exception {
+        prepareWeights();
+        long started = System.nanoTime();
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(true);
+            prepareDatabase(connection);
+
+            long usersStarted = System.nanoTime();
+            copyUsers(connection);
+            report("users", dataset.getUsers(), usersStarted);
+        }
+
+        long incidentsStarted = System.nanoTime();
+        ChunkResult totals = copyIncidents();
+        report("incidents", totals.incidents(), incidentsStarted);
+        System.out.printf("  with %,d confirmations, %,d timeline rows and %,d events%n",
+            totals.confirmations(), totals.timeline(), totals.events());
+        // Summed over threads: if COPY dominates, the database is the bottleneck
+        System.out.printf("  generating took %.1fs and COPY %.1fs of thread time%n",
+            totals.generateNanos() / 1e9, totals.copyNanos() / 1e9);
+        long rows = dataset.getUsers() + totals.incidents() + totals.confirmations() + totals.timeline() + totals.events();
+
+        try (Connection connection = connect()) {
+            long finishStarted = System.nanoTime();
+            finish(connection);
+            System.out.printf("Reputations, sequences and statistics updated in %.1fs%n",
+                (System.nanoTime() - finishStarted) / 1e9);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%nDataset '%s': %,d rows in %.1fs (%,.0f rows/s)%n", dataset.getName(), rows, seconds, rows / seconds);
+    }
+
+    private void prepareWeights() {
+        typeNames = dataset.getTypes().isEmpty()
+            ? new String[]{"ACCIDENT", "MEDICAL", "FIRE", "INFRASTRUCTURE", "CRIME"}
+            : dataset.getTypes().keySet().toArray(String[]::new);
+        typeWeights = weights(typeNames, dataset.getTypes());
+        statusNames = dataset.getStatuses().isEmpty()
+            ? new String[]{"UNVERIFIED", "VERIFIED", "IN_PROGRESS", "RESOLVED", "FALSE"}
+            : dataset.getStatuses().keySet().toArray(String[]::new);
+        statusWeights = weights(statusNames, dataset.getStatuses());
+
+        // Index 0 is the background area, then one entry per hotspot
+        double[] places = new double[dataset.getHotspots().size() + 1];
+        places[0] = dataset.getBackgroundWeight();
+        for (int i = 0; i < dataset.getHotspots().size(); i++) {
+            places[i + 1] = dataset.getHotspots().get(i).getWeight();
+        }
+        placeWeights = cumulative(places);
+
+        verifiedByUser = new AtomicIntegerArray(dataset.getUsers());
+        falseByUser = new AtomicIntegerArray(dataset.getUsers());
+    }
+
+    private void prepareDatabase(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("""
+                    SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid
+                                   WHERE c.relname = 'incidents' AND pg_table_is_visible(c.oid))
+                    """)) {
+                rs.next();
+                if (!rs.getBoolean(1)) {
+                    throw new IllegalStateException("incidents is not partitioned yet; start the application once against "
+                        + jdbcUrl + " first");
+                }
+            }
+            userBase = queryLong(statement, "SELECT COALESCE(MAX(id), 0) + 1 FROM users");
+            incidentBase = queryLong(statement, "SELECT COALESCE(MAX(id), 0) + 1 FROM incidents");
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT id, username FROM users WHERE role = 'ADMIN' ORDER BY id LIMIT 1")) {
+                if (rs.next()) {
+                    adminId = rs.getLong(1);
+                    adminUsername = rs.getString(2);
+                } else {
+                    adminUsername = "admin";
+                }
+            }
+
+            // Month partitions for the whole span, and year partitions for archived rows, like
+            // IncidentPartitionService; rows outside them would all land in the default partitions
+            YearMonth first = YearMonth.from(LocalDateTime.now().minusDays(dataset.getDays()));
+            for (YearMonth month = first; !month.isAfter(YearMonth.now()); month = month.plusMonths(1)) {
+                createPartition(statement, "incidents_hot",
+                    String.format("incidents_hot_p%d_%02d", month.getYear(), month.getMonthValue()),
+                    month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+            }
+            if (dataset.getArchiveAfterDays() != null) {
+                for (int year = first.getYear(); year <= YearMonth.now().getYear(); year++) {
+                    createPartition(statement, "incidents_archive", "incidents_archive_p" + year,
+                        LocalDateTime.of(year, 1, 1, 0, 0), LocalDateTime.of(year + 1, 1, 1, 0, 0));
+                }
+            }
+        }
+    }
+
+    private void copyUsers(Connection connection) throws Exception {
+        String password = new BCryptPasswordEncoder().encode("password");
+        SplittableRandom random = new SplittableRandom(dataset.getSeed());
+        CopyRows users = new CopyRows();
+        for (int i = 0; i < dataset.getUsers(); i++) {
+            long id = userBase + i;
+            long createdAt = nowMillis - (long) ((dataset.getDays() + 30) * random.nextDouble() * 86_400_000L);
+            users.col(id).col(username(i)).col(password).col(username(i) + "@synthetic.local")
+                .col("PUBLIC").col("NEW").col(0L).col(0L).col(timestamp(createdAt)).col("t");
+            users.end();
+        }
+        users.copyIn(connection, "COPY users (id, username, password, email, role, reputation, verified_reports, "
+            + "false_reports, created_at, active) FROM STDIN");
+    }
+
+    private ChunkResult copyIncidents() throws Exception {
+        BlockingQueue<Connection> connections = new ArrayBlockingQueue<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Connection connection = connect();
+            connection.setAutoCommit(false);
+            connections.add(connection);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<ChunkResult>> futures = new ArrayList<>();
+            int chunks = (dataset.getIncidents() + chunkSize - 1) / chunkSize;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int from = chunk * chunkSize;
+                int to = Math.min(dataset.getIncidents(), from + chunkSize);
+                int index = chunk;
+                futures.add(pool.submit(() -> {
+                    Connection connection = connections.take();
+                    try {
+                        return copyChunk(connection, index, from, to);
+                    } finally {
+                        connections.add(connection);
+                    }
+                }));
+            }
+
+            long incidents = 0, confirmations = 0, timeline = 0, events = 0, generateNanos = 0, copyNanos = 0;
+            for (Future<ChunkResult> future : futures) {
+                ChunkResult result = future.get();
+                incidents += result.incidents();
+                confirmations += result.confirmations();
+                timeline += result.timeline();
+                events += result.events();
+                generateNanos += result.generateNanos();
+                copyNanos += result.copyNanos();
+                if ((incidents / chunkSize) % 10 == 0) {
+                    System.out.printf("  %,d of %,d incidents%n", incidents, dataset.getIncidents());
+                }
+            }
+            return new ChunkResult(incidents, confirmations, timeline, events, generateNanos, copyNanos);
+        } finally {
+            pool.shutdownNow();
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Generate and load incidents [from, to) in one transaction. The random stream depends
+     * only on the seed and the chunk, so the rows do not depend on the thread count.
+     */
+    private ChunkResult copyChunk(Connection connection, int chunk, int from, int to) throws Exception {
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(dataset.getSeed() * 1_000_003L + chunk);
+        CopyRows incidents = new CopyRows();
+        CopyRows confirmations = new CopyRows();
+        CopyRows timeline = new CopyRows();
+        CopyRows events = new CopyRows();
+        for (int i = from; i < to; i++) {
+            generateIncident(incidentBase + i, random, incidents, confirmations, timeline, events);
+        }
+        long generated = System.nanoTime();
+        try {
+            incidents.copyIn(connection, "COPY incidents (id, incident_id, type, description, latitude, longitude, address, "
+                + "gps_accuracy, image_url, status, confidence_score, confirmation_count, reporter_id, admin_notes, "
+                + "created_at, updated_at, archived, version) FROM STDIN");
+            confirmations.copyIn(connection,
+                "COPY confirmations (incident_id, user_id, latitude, longitude, created_at) FROM STDIN");
+            timeline.copyIn(connection,
+                "COPY incident_timeline (incident_id, status, notes, updated_by_id, created_at) FROM STDIN");
+            events.copyIn(connection, "COPY incident_events (incident_id, version, event_type, status, confidence_score, notes, "
+                + "actor, created_at) FROM STDIN");
+            connection.commit();
+        } catch (Exception e) {
+            connection.rollback();
+            throw e;
+        }
+        return new ChunkResult(incidents.count(), confirmations.count(), timeline.count(), events.count(),
+            generated - started, System.nanoTime() - generated);
+    }
+
+    private void generateIncident(long id, SplittableRandom random, CopyRows incidents, CopyRows confirmations,
+                                  CopyRows timeline, CopyRows events) {
+        // Where and when
+        int place = pick(placeWeights, random);
+        double latitude, longitude;
+        long createdAt;
+        if (place == 0) {
+            double spreadDegrees = dataset.getSpreadKm() / KM_PER_DEGREE;
+            latitude = dataset.getLatitude() + (2 * random.nextDouble() - 1) * spreadDegrees;
+            longitude = dataset.getLongitude()
+                + (2 * random.nextDouble() - 1) * spreadDegrees / Math.cos(Math.toRadians(dataset.getLatitude()));
+            createdAt = nowMillis - (long) (random.nextDouble() * dataset.getDays() * 86_400_000L);
+        } else {
+            Dataset.Hotspot hotspot = dataset.getHotspots().get(place - 1);
+            double radiusDegrees = hotspot.getRadiusMeters() / 1000.0 / KM_PER_DEGREE;
+            latitude = hotspot.getLatitude() + gaussian(random) * radiusDegrees;
+            longitude = hotspot.getLongitude()
+                + gaussian(random) * radiusDegrees / Math.cos(Math.toRadians(hotspot.getLatitude()));
+            int days = hotspot.getRecentDays() != null ? hotspot.getRecentDays() : dataset.getDays();
+            createdAt = nowMillis - (long) (random.nextDouble() * days * 86_400_000L);
+        }
+
+        String type = typeNames[pick(typeWeights, random)];
+        String[] descriptions = DESCRIPTIONS.getOrDefault(type, DESCRIPTIONS.get("ACCIDENT"));
+        // A few heavy reporters and a long tail
+        int reporter = (int) (dataset.getUsers() * Math.pow(random.nextDouble(), 3));
+        boolean image = random.nextDouble() < dataset.getImageShare();
+        double gpsAccuracy = Math.round(5 + random.nextDouble() * 75);
+        // ConfidenceScoreCalculator at report time, including the freshness bonus
+        int score = 30 + (image ? 20 : 0) + reputationBonus(reporter) + (gpsAccuracy <= 10 ? 15 : gpsAccuracy <= 50 ? 7 : 3) + 5;
+        score = Math.min(100, score);
+
+        // Confirmations and status changes, in time order
+        List<Step> steps = new ArrayList<>();
+        int confirmationCount = Math.min(poisson(dataset.getConfirmationsPerIncident(), random), dataset.getMaxConfirmations());
+        for (int c = 0; c < confirmationCount; c++) {
+            long at = createdAt + exponentialMillis(dataset.getConfirmMeanMinutes(), random);
+            int confirmer = (int) (random.nextDouble() * dataset.getUsers());
+            if (at < nowMillis && confirmer != reporter
+                    && steps.stream().noneMatch(s -> s.userIndex() == confirmer)) {
+                steps.add(new Step(at, null, confirmer));
+            }
+        }
+        String finalStatus = statusNames[pick(statusWeights, random)];
+        List<String> path = switch (finalStatus) {
+            case "FALSE" -> List.of("FALSE");
+            case "VERIFIED" -> List.of(STATUS_PATH[0]);
+            case "IN_PROGRESS" -> List.of(STATUS_PATH[0], STATUS_PATH[1]);
+            case "RESOLVED" -> List.of(STATUS_PATH);
+            default -> List.of();
+        };
+        long at = createdAt;
+        for (String status : path) {
+            at += exponentialMillis(dataset.getTransitionMeanMinutes(), random);
+            if (at >= nowMillis) break;
+            steps.add(new Step(at, status, -1));
+        }
+        steps.sort((a, b) -> Long.compare(a.atMillis(), b.atMillis()));
+
+        String reporterName = username(reporter);
+        int version = 1;
+        events.col(id).col(version).col("CREATED").col("UNVERIFIED").col(score).col("Incident reported")
+            .col(reporterName).col(timestamp(createdAt));
+        events.end();
+        timeline.col(id).col("UNVERIFIED").col("Incident reported").col((Long) null).col(timestamp(createdAt));
+        timeline.end();
+
+        String status = "UNVERIFIED";
+        String adminNotes = null;
+        int confirmed = 0;
+        long updatedAt = createdAt;
+        for (Step step : steps) {
+            String when = timestamp(step.atMillis());
+            if (step.confirmation()) {
+                confirmations.col(id).col(userBase + step.userIndex())
+                    .col(latitude + gaussian(random) * 0.0005).col(longitude + gaussian(random) * 0.0005).col(when);
+                confirmations.end();
+                confirmed++;
+                events.col(id).col(++version).col("CONFIRMED").col((String) null).col((Long) null).col((String) null)
+                    .col(username(step.userIndex())).col(when);
+                events.end();
+                if (confirmed <= 3 && score < 100) {
+                    score = Math.min(100, score + 15);
+                    events.col(id).col(++version).col("RESCORED").col((String) null).col(score).col((String) null)
+                        .col(username(step.userIndex())).col(when);
+                    events.end();
+                }
+            } else {
+                status = step.status();
+                String notes = STATUS_NOTES.get(status);
+                timeline.col(id).col(status).col(notes).col(adminId).col(when);
+                timeline.end();
+                events.col(id).col(++version).col("STATUS_CHANGED").col(status).col((Long) null).col(notes)
+                    .col(adminUsername).col(when);
+                events.end();
+                if (!notes.equals(adminNotes)) {
+                    events.col(id).col(++version).col("NOTES_EDITED").col((String) null).col((Long) null).col(notes)
+                        .col(adminUsername).col(when);
+                    events.end();
+                    adminNotes = notes;
+                }
+                if (status.equals("VERIFIED")) {
+                    verifiedByUser.incrementAndGet(reporter);
+                } else if (status.equals("FALSE")) {
+                    falseByUser.incrementAndGet(reporter);
+                }
+            }
+            updatedAt = step.atMillis();
+        }
+
+        boolean archived = dataset.getArchiveAfterDays() != null
+            && (status.equals("RESOLVED") || status.equals("FALSE"))
+            && createdAt < nowMillis - dataset.getArchiveAfterDays() * 86_400_000L;
+        String street = STREETS[random.nextInt(STREETS.length)] + " " + STREET_TYPES[random.nextInt(STREET_TYPES.length)];
+        incidents.col(id)
+            .col("INC-" + INCIDENT_ID_TIME.format(LocalDateTime.ofEpochSecond(createdAt / 1000, 0, offset)) + "-" + id)
+            .col(type)
+            .col(descriptions[random.nextInt(descriptions.length)])
+            .col(latitude)
+            .col(longitude)
+            .col((1 + random.nextInt(2000)) + " " + street)
+            .col(gpsAccuracy)
+            .col(image ? "/uploads/synthetic-" + id + ".jpg" : null)
+            .col(status)
+            .col(score)
+            .col(confirmed)
+            .col(userBase + reporter)
+            .col(adminNotes)
+            .col(timestamp(createdAt))
+            .col(timestamp(updatedAt))
+            .col(archived ? "t" : "f")
+            .col(version);
+        incidents.end();
+    }
+
+    /**
+     * Reputation counts as the status changes would have left them, then sequences and
+     * planner statistics so queries against the new rows are planned sensibly
+     */
+    private void finish(Connection connection) throws Exception {
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP TABLE synthetic_user_stats (id bigint, verified integer, falsified integer) "
+                + "ON COMMIT DROP");
+            CopyRows stats = new CopyRows();
+            for (int i = 0; i < dataset.getUsers(); i++) {
+                if (verifiedByUser.get(i) > 0 || falseByUser.get(i) > 0) {
+                    stats.col(userBase + i).col(verifiedByUser.get(i)).col(falseByUser.get(i));
+                    stats.end();
+                }
+            }
+            stats.copyIn(connection, "COPY synthetic_user_stats FROM STDIN");
+            statement.execute("""
+                UPDATE users u SET
+                    verified_reports = s.verified,
+                    false_reports = s.falsified,
+                    reputation = CASE
+                        WHEN s.falsified >= 3 THEN 'NEW'
+                        WHEN s.verified >= 10 THEN 'TRUSTED'
+                        WHEN s.verified >= 3 THEN 'RELIABLE'
+                        ELSE 'NEW' END
+                FROM synthetic_user_stats s
+                WHERE u.id = s.id
+                """);
+            statement.execute("SELECT setval(pg_get_serial_sequence('users', 'id'), (SELECT MAX(id) FROM users))");
+            statement.execute("SELECT setval('incidents_id_seq', (SELECT MAX(id) FROM incidents))");
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE users, incidents, confirmations, incident_timeline, incident_events");
+        }
+    }
+
+    private int reputationBonus(int userIndex) {
+        // Fixed per user: 5% trusted and 15% reliable reporters
+        long bucket = ((userIndex * 2654435761L) >>> 8) % 100;
+        return bucket < 5 ? 20 : bucket < 20 ? 10 : 0;
+    }
+
+    private String username(long userIndex) {
+        return "synthetic-u" + (userBase + userIndex);
+    }
+
+    private String timestamp(long epochMillis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000),
+            (int) Math.floorMod(epochMillis, 1000) * 1_000_000, offset).toString();
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(jdbcUrl, dbUser, dbPassword);
+    }
+
+    private static void createPartition(Statement statement, String parent, String name,
+                                        LocalDateTime from, LocalDateTime to) {
+        try {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + parent
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        } catch (SQLException e) {
+            // Typically rows for this range already sit in the default partition
+            System.out.println("Could not create partition " + name + ": " + e.getMessage());
+        }
+    }
+
+    private static long queryLong(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void report(String table, long rows, long startedNanos) {
+        double seconds = (System.nanoTime() - startedNanos) / 1e9;
+        System.out.printf("%-10s %,12d rows in %6.1fs (%,.0f rows/s)%n", table, rows, seconds, rows / seconds);
+    }
+
+    private static double[] weights(String[] names, Map<String, Number> configured) {
+        double[] weights = new double[names.length];
+        for (int i = 0; i < names.length; i++) {
+            weights[i] = configured.isEmpty() ? 1 : configured.get(names[i]).doubleValue();
+        }
+        return cumulative(weights);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, SplittableRandom random) {
+        double r = random.nextDouble();
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (r < cumulative[i]) return i;
+        }
+        return cumulative.length - 1;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static long exponentialMillis(double meanMinutes, SplittableRandom random) {
+        return (long) (-Math.log(1 - random.nextDouble()) * meanMinutes * 60_000);
+    }
+
+    private static int poisson(double mean, SplittableRandom random) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private static Dataset loadDataset(String name) throws Exception {
+        Yaml yaml = new Yaml(new Constructor(Dataset.class, new LoaderOptions()));
+        Path file = Path.of(name);
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                return yaml.load(in);
+            }
+        }
+        try (InputStream in = DatasetGenerator.class.getResourceAsStream("/datasets/" + name + ".yml")) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown dataset: " + name);
+            }
+            return yaml.load(in);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
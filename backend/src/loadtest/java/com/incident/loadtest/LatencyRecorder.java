@@ -0,0 +1,72 @@
+package com.incident.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HDR latency histograms per endpoint, in microseconds. Latencies are measured from the
+ * intended send time, so a stalled server is not hidden by coordinated omission.
+ */
+public class LatencyRecorder {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> totals = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long intendedStartNanos, boolean success) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartNanos);
+        recorder(endpoint).recordValue(Math.min(Math.max(micros, 0), MAX_LATENCY_MICROS));
+        if (!success) {
+            errors.computeIfAbsent(endpoint, k -> new LongAdder()).increment();
+        }
+    }
+
+    public void recordMicros(String endpoint, long micros) {
+        recorder(endpoint).recordValue(Math.min(Math.max(micros, 0), MAX_LATENCY_MICROS));
+    }
+
+    /**
+     * Fold everything recorded since the last call into the per-endpoint totals
+     */
+    public synchronized void drain() {
+        recorders.forEach((endpoint, recorder) -> totals
+            .computeIfAbsent(endpoint, k -> new Histogram(MAX_LATENCY_MICROS, 3))
+            .add(recorder.getIntervalHistogram()));
+    }
+
+    public void report(PrintStream out, double elapsedSeconds, Path outputDir) throws IOException {
+        drain();
+        Files.createDirectories(outputDir);
+        out.printf("%-22s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+            "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Histogram> entry : totals.entrySet()) {
+            Histogram h = entry.getValue();
+            long errorCount = errors.getOrDefault(entry.getKey(), new LongAdder()).sum();
+            out.printf("%-22s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                entry.getKey(), h.getTotalCount(), errorCount, h.getTotalCount() / elapsedSeconds,
+                h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0,
+                h.getMaxValue() / 1000.0);
+
+            // Full percentile distribution, plottable with HdrHistogram's tooling
+            try (PrintStream file = new PrintStream(Files.newOutputStream(
+                    outputDir.resolve(entry.getKey().replace('/', '_') + ".hgrm")))) {
+                h.outputPercentileDistribution(file, 1000.0);
+            }
+        }
+    }
+
+    private Recorder recorder(String endpoint) {
+        return recorders.computeIfAbsent(endpoint, k -> new Recorder(MAX_LATENCY_MICROS, 3));
+    }
+}
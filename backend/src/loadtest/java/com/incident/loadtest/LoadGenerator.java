@@ -0,0 +1,236 @@
+package com.incident.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Open-loop request driver. Each operation fires at its configured rate regardless of how
+ * quickly earlier requests complete, and latency is taken from the scheduled send time.
+ */
+public class LoadGenerator {
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final long TICK_MILLIS = 10;
+
+    private final String baseUrl;
+    private final Scenario scenario;
+    private final LatencyRecorder recorder;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Long> reportedIds = new CopyOnWriteArrayList<>();
+    private final AtomicLong userSequence = new AtomicLong();
+    private final byte[] image;
+    private volatile String adminToken;
+
+    public LoadGenerator(String baseUrl, Scenario scenario, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.scenario = scenario;
+        this.recorder = recorder;
+        this.httpClient = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(Math.max(8, Runtime.getRuntime().availableProcessors() * 2)))
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.image = new byte[scenario.getImageBytes()];
+        ThreadLocalRandom.current().nextBytes(image);
+    }
+
+    public void login() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+            "username", scenario.getAdminUsername(), "password", scenario.getAdminPassword()));
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Admin login failed: " + response.statusCode());
+        }
+        adminToken = objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    public void run(Scenario.Phase phase) throws InterruptedException {
+        double radius = phase.getRadiusMeters() != null ? phase.getRadiusMeters() : scenario.getRadiusMeters();
+        List<Operation> operations = List.of(
+            new Operation(phase.getReportsPerSecond(), start -> report(radius, false, start)),
+            new Operation(phase.getImageReportsPerSecond(), start -> report(radius, true, start)),
+            new Operation(phase.getConfirmsPerSecond(), this::confirm),
+            new Operation(phase.getQueriesPerSecond(), this::query),
+            new Operation(phase.getAdminPerSecond(), this::admin)
+        );
+
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+        long phaseStart = System.nanoTime();
+        long phaseNanos = TimeUnit.SECONDS.toNanos(phase.getDurationSeconds());
+        ticker.scheduleAtFixedRate(() -> {
+            long now = Math.min(System.nanoTime() - phaseStart, phaseNanos);
+            for (Operation operation : operations) {
+                operation.fireUpTo(phaseStart, now);
+            }
+        }, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(phaseNanos) + TICK_MILLIS);
+        ticker.shutdown();
+        ticker.awaitTermination(5, TimeUnit.SECONDS);
+        recorder.drain();
+    }
+
+    private void report(double radiusMeters, boolean withImage, long intendedStart) {
+        // Uniform point in the disc around the scenario centre
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double distance = radiusMeters * Math.sqrt(random.nextDouble());
+        double bearing = random.nextDouble(2 * Math.PI);
+        double latitude = scenario.getLatitude() + distance * Math.cos(bearing) / METERS_PER_DEGREE;
+        double longitude = scenario.getLongitude() + distance * Math.sin(bearing)
+            / (METERS_PER_DEGREE * Math.cos(Math.toRadians(scenario.getLatitude())));
+
+        Multipart form = new Multipart()
+            .field("type", "FIRE")
+            .field("description", "Load test report: smoke and flames visible near the intersection")
+            .field("latitude", Double.toString(latitude))
+            .field("longitude", Double.toString(longitude))
+            .field("gpsAccuracy", Double.toString(5 + random.nextDouble(40)))
+            .field("reporterUsername", "lt-reporter-" + userSequence.incrementAndGet());
+        if (withImage) {
+            form.file("image", "photo.jpg", "image/jpeg", image);
+        }
+
+        String endpoint = withImage ? "report+image" : "report";
+        send(endpoint, intendedStart, HttpRequest.newBuilder(URI.create(baseUrl + "/api/incidents/public/report"))
+            .header("Content-Type", form.contentType())
+            .POST(HttpRequest.BodyPublishers.ofByteArray(form.build()))
+            .build(), body -> {
+                JsonNode id = objectMapper.readTree(body).get("id");
+                if (id != null && !id.isNull()) {
+                    reportedIds.add(id.asLong());
+                }
+            });
+    }
+
+    private void confirm(long intendedStart) {
+        if (reportedIds.isEmpty()) {
+            return;
+        }
+        long incidentId = reportedIds.get(ThreadLocalRandom.current().nextInt(reportedIds.size()));
+        String body = "{\"incidentId\":" + incidentId + ",\"latitude\":" + scenario.getLatitude()
+            + ",\"longitude\":" + scenario.getLongitude() + "}";
+        send("confirm", intendedStart, HttpRequest.newBuilder(URI.create(baseUrl
+                + "/api/incidents/public/confirm?username=lt-confirmer-" + userSequence.incrementAndGet()))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build(), null);
+    }
+
+    private void query(long intendedStart) {
+        send("query", intendedStart, HttpRequest.newBuilder(URI.create(baseUrl + "/api/incidents/public/query"
+                + "?latitude=" + scenario.getLatitude() + "&longitude=" + scenario.getLongitude()
+                + "&radiusKm=" + scenario.getQueryRadiusKm() + "&limit=50"))
+            .GET()
+            .build(), null);
+    }
+
+    private void admin(long intendedStart) {
+        if (ThreadLocalRandom.current().nextBoolean() || reportedIds.isEmpty()) {
+            send("admin-prioritized", intendedStart, HttpRequest.newBuilder(URI.create(baseUrl
+                    + "/api/incidents/admin/prioritized?status=UNVERIFIED&limit=50"))
+                .header("Authorization", "Bearer " + adminToken)
+                .GET()
+                .build(), null);
+        } else {
+            long incidentId = reportedIds.get(ThreadLocalRandom.current().nextInt(reportedIds.size()));
+            send("admin-status", intendedStart, HttpRequest.newBuilder(URI.create(baseUrl
+                    + "/api/incidents/admin/" + incidentId + "/status"))
+                .header("Authorization", "Bearer " + adminToken)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"status\":\"IN_PROGRESS\",\"notes\":\"Load test\"}"))
+                .build(), null);
+        }
+    }
+
+    private void send(String endpoint, long intendedStart, HttpRequest request, BodyHandler onSuccess) {
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .whenComplete((response, error) -> {
+                boolean success = error == null && response.statusCode() < 400;
+                recorder.record(endpoint, intendedStart, success);
+                if (success && onSuccess != null) {
+                    try {
+                        onSuccess.accept(response.body());
+                    } catch (Exception e) {
+                        // Response bodies are only mined for ids
+                    }
+                }
+            });
+    }
+
+    private interface BodyHandler {
+        void accept(String body) throws Exception;
+    }
+
+    private static class Operation {
+        private final double ratePerSecond;
+        private final LongConsumer action;
+        private long fired;
+
+        Operation(Double ratePerSecond, LongConsumer action) {
+            this.ratePerSecond = ratePerSecond != null ? ratePerSecond : 0.0;
+            this.action = action;
+        }
+
+        /**
+         * Fire every request whose scheduled time is at or before elapsedNanos
+         */
+        void fireUpTo(long phaseStart, long elapsedNanos) {
+            if (ratePerSecond <= 0) return;
+            long due = (long) (elapsedNanos / 1e9 * ratePerSecond);
+            while (fired < due) {
+                long intendedStart = phaseStart + (long) (fired * 1e9 / ratePerSecond);
+                fired++;
+                action.accept(intendedStart);
+            }
+        }
+    }
+
+    private static class Multipart {
+        private final String boundary = "----lt" + UUID.randomUUID();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        Multipart field(String name, String value) {
+            write("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n");
+            return this;
+        }
+
+        Multipart file(String name, String filename, String contentType, byte[] content) {
+            write("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name
+                + "\"; filename=\"" + filename + "\"\r\nContent-Type: " + contentType + "\r\n\r\n");
+            body.writeBytes(content);
+            write("\r\n");
+            return this;
+        }
+
+        String contentType() {
+            return "multipart/form-data; boundary=" + boundary;
+        }
+
+        byte[] build() {
+            write("--" + boundary + "--\r\n");
+            return body.toByteArray();
+        }
+
+        private void write(String text) {
+            body.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
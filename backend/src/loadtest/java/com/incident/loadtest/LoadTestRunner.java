@@ -0,0 +1,139 @@
+package com.incident.loadtest;
+
+import com.incident.IncidentResponsePlatformApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the platform (against an embedded PostgreSQL unless a database or target URL is given),
+ * subscribes STOMP clients, runs the scenario phases and prints per-endpoint HDR percentiles.
+ *
+ * Arguments (all optional, key=value):
+ *   scenario=surge            bundled scenario name or path to a YAML file
+ *   target=http://host:8080   drive an already running instance instead of booting one
+ *   jdbcUrl=jdbc:postgresql://localhost:5432/incident_db  use a local database instead of embedded
+ *   dbUser=postgres dbPassword=root
+ *   pg.shared_buffers=512MB   server settings for the embedded PostgreSQL
+ *   app.ingest.mode=async     any app.* or spring.* key is passed through to the booted application
+ *   out=target/loadtest       where .hgrm percentile files are written
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Scenario scenario = loadScenario(options.getOrDefault("scenario", "surge"));
+        Path outputDir = Path.of(options.getOrDefault("out", "target/loadtest"), scenario.getName());
+
+        EmbeddedPostgres embedded = null;
+        ConfigurableApplicationContext app = null;
+        String baseUrl = options.get("target");
+        try {
+            if (baseUrl == null) {
+                String jdbcUrl = options.get("jdbcUrl");
+                String dbUser = options.getOrDefault("dbUser", "postgres");
+                String dbPassword = options.getOrDefault("dbPassword", "postgres");
+                if (jdbcUrl == null) {
+                    EmbeddedPostgres.Builder builder = EmbeddedPostgres.builder();
+                    options.forEach((key, value) -> {
+                        if (key.startsWith("pg.")) {
+                            builder.setServerConfig(key.substring(3), value);
+                        }
+                    });
+                    embedded = builder.start();
+                    jdbcUrl = embedded.getJdbcUrl("postgres", "postgres");
+                    dbPassword = "";
+                    System.out.println("Started embedded PostgreSQL at " + jdbcUrl);
+                }
+                List<String> appArgs = new ArrayList<>(List.of(
+                    "--server.port=0",
+                    "--spring.datasource.url=" + jdbcUrl,
+                    "--spring.datasource.username=" + dbUser,
+                    "--spring.datasource.password=" + dbPassword,
+                    "--app.file.upload-dir=" + Files.createTempDirectory("loadtest-uploads"),
+                    "--logging.level.com.incident=INFO",
+                    // Every simulated client shares one IP here
+                    "--app.rate-limit.enabled=false"));
+                options.forEach((key, value) -> {
+                    if (key.startsWith("app.") || key.startsWith("spring.")) {
+                        appArgs.add("--" + key + "=" + value);
+                    }
+                });
+                app = SpringApplication.run(IncidentResponsePlatformApplication.class, appArgs.toArray(String[]::new));
+                int port = ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+                baseUrl = "http://localhost:" + port;
+            }
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            LoadGenerator generator = new LoadGenerator(baseUrl, scenario, recorder);
+            generator.login();
+
+            try (StompSubscribers subscribers = new StompSubscribers()) {
+                if (scenario.getSubscribers() > 0) {
+                    subscribers.connect(baseUrl, scenario.getSubscribers(), recorder);
+                    System.out.println("Connected " + scenario.getSubscribers() + " STOMP subscribers");
+                }
+
+                long started = System.nanoTime();
+                for (Scenario.Phase phase : scenario.getPhases()) {
+                    System.out.printf("Running phase '%s' for %ds%n", phase.getName(), phase.getDurationSeconds());
+                    generator.run(phase);
+                }
+                // Let in-flight requests and broadcasts land before reporting
+                Thread.sleep(2000);
+                double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+                System.out.printf("%nScenario '%s' against %s (%.1fs)%n", scenario.getName(), baseUrl, elapsedSeconds);
+                recorder.report(System.out, elapsedSeconds, outputDir);
+                System.out.println("Percentile distributions written to " + outputDir.toAbsolutePath());
+            }
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static Scenario loadScenario(String name) throws Exception {
+        Yaml yaml = new Yaml(new Constructor(Scenario.class, new LoaderOptions()));
+        Path file = Path.of(name);
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                return yaml.load(in);
+            }
+        }
+        try (InputStream in = LoadTestRunner.class.getResourceAsStream("/scenarios/" + name + ".yml")) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown scenario: " + name);
+            }
+            return yaml.load(in);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
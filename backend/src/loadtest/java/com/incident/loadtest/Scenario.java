@@ -0,0 +1,35 @@
+package com.incident.loadtest;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load test script, loaded from YAML. Rates are requests per second and phases run in order.
+ */
+@Data
+public class Scenario {
+    private String name = "default";
+    private Double latitude = 40.7128;
+    private Double longitude = -74.0060;
+    private Double radiusMeters = 300.0;
+    private Integer subscribers = 0; // STOMP clients on /topic/incidents
+    private Integer imageBytes = 200_000;
+    private Double queryRadiusKm = 2.0;
+    private String adminUsername = "admin";
+    private String adminPassword = "admin123";
+    private List<Phase> phases = new ArrayList<>();
+
+    @Data
+    public static class Phase {
+        private String name = "phase";
+        private Integer durationSeconds = 30;
+        private Double radiusMeters; // Overrides the scenario radius when set
+        private Double reportsPerSecond = 0.0;
+        private Double imageReportsPerSecond = 0.0;
+        private Double confirmsPerSecond = 0.0;
+        private Double queriesPerSecond = 0.0;
+        private Double adminPerSecond = 0.0;
+    }
+}
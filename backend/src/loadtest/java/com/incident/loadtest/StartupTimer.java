@@ -0,0 +1,200 @@
+package com.incident.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Time-to-first-request of the packaged application, started as a fresh JVM per run: the
+ * plain jar as built by default, and the fast-startup build with each optimisation added in
+ * turn. A run ends when GET /api/incidents/public/query first answers 200. Runs of the
+ * variants are interleaved so drift on the machine affects them alike.
+ *
+ * Needs both artifacts: mvn -Pfast-startup,loadtest verify -DskipTests -Dloadtest.main=com.incident.loadtest.StartupTimer
+ *
+ * Arguments (all optional, key=value):
+ *   runs=5                    measured runs per variant, after one unmeasured run that creates the schema
+ *   jdbcUrl=jdbc:postgresql://localhost:5432/incident_db  use a local database instead of embedded
+ *   dbUser=postgres dbPassword=root
+ *   dir=target                where the jars were built
+ *   out=target/startup-timer  application logs of every run
+ */
+public class StartupTimer {
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+    private static final Duration TIMEOUT = Duration.ofMinutes(3);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Path dir = Path.of(options.getOrDefault("dir", "target"));
+        Path outputDir = Path.of(options.getOrDefault("out", "target/startup-timer"));
+        Files.createDirectories(outputDir);
+
+        Path fatJar = find(dir, name -> name.endsWith(".jar") && !name.endsWith("-startup.jar"));
+        Path startupDir = dir.resolve("startup");
+        Path thinJar = find(startupDir, name -> name.endsWith("-startup.jar"));
+        Path archive = startupDir.resolve("app.jsa");
+
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("default", List.of("-jar", fatJar.toString()));
+        variants.put("fast-startup profile", List.of("-jar", thinJar.toString(), "--spring.profiles.active=fast-startup"));
+        variants.put("+ AOT", List.of("-Dspring.aot.enabled=true", "-jar", thinJar.toString(),
+            "--spring.profiles.active=fast-startup"));
+        variants.put("+ AOT + AppCDS", List.of("-XX:SharedArchiveFile=" + archive, "-Xlog:cds=error",
+            "-Dspring.aot.enabled=true", "-jar", thinJar.toString(), "--spring.profiles.active=fast-startup"));
+
+        EmbeddedPostgres embedded = null;
+        try {
+            String jdbcUrl = options.get("jdbcUrl");
+            String dbUser = options.getOrDefault("dbUser", "postgres");
+            String dbPassword = options.getOrDefault("dbPassword", "postgres");
+            if (jdbcUrl == null) {
+                embedded = EmbeddedPostgres.builder().start();
+                jdbcUrl = embedded.getJdbcUrl("postgres", "postgres");
+                dbPassword = "";
+                System.out.println("Started embedded PostgreSQL at " + jdbcUrl);
+            }
+            List<String> appArgs = List.of(
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + dbUser,
+                "--spring.datasource.password=" + dbPassword,
+                "--app.file.upload-dir=" + Files.createTempDirectory("startup-uploads"),
+                "--app.segments.dir=" + Files.createTempDirectory("startup-segments"));
+
+            // Creates and seeds the schema the fast-startup profile only validates
+            System.out.println("Unmeasured first run of the default build");
+            start(variants.get("default"), appArgs, outputDir.resolve("schema.log"));
+
+            Map<String, List<double[]>> results = new LinkedHashMap<>();
+            for (int run = 1; run <= runs; run++) {
+                for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+                    String name = variant.getKey().replaceAll("[^a-zA-Z0-9]+", "-").replaceAll("^-|-$", "");
+                    Path log = outputDir.resolve(name + "-" + run + ".log");
+                    double[] result = start(variant.getValue(), appArgs, log);
+                    results.computeIfAbsent(variant.getKey(), k -> new ArrayList<>()).add(result);
+                    System.out.printf("run %d %-22s first request %6.0f ms, started in %6.0f ms%n",
+                        run, variant.getKey(), result[0], result[1]);
+                }
+            }
+
+            System.out.printf("%nTime to first request over %d runs (ms)%n", runs);
+            System.out.printf("%-22s %8s %8s %8s %14s%n", "variant", "min", "median", "max", "started in");
+            for (Map.Entry<String, List<double[]>> entry : results.entrySet()) {
+                double[] first = entry.getValue().stream().mapToDouble(r -> r[0]).sorted().toArray();
+                double[] started = entry.getValue().stream().mapToDouble(r -> r[1]).sorted().toArray();
+                System.out.printf("%-22s %8.0f %8.0f %8.0f %14.0f%n", entry.getKey(),
+                    first[0], median(first), first[first.length - 1], median(started));
+            }
+            System.out.println("Application logs written to " + outputDir.toAbsolutePath());
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Launch one JVM and wait for its first successful request
+     *
+     * @return milliseconds to the first 200, and the startup time the application logged
+     */
+    private static double[] start(List<String> variant, List<String> appArgs, Path log) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(variant);
+        command.addAll(appArgs);
+        command.add("--server.port=" + port);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                + "/api/incidents/public/query?latitude=40.7128&longitude=-74.0060&radiusKm=5"))
+            .timeout(Duration.ofSeconds(30))
+            .build();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() - started > TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("No response within " + TIMEOUT + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(20);
+            }
+            double firstRequestMillis = (System.nanoTime() - started) / 1e6;
+            return new double[]{firstRequestMillis, loggedStartupMillis(log)};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static double loggedStartupMillis(Path log) throws IOException {
+        try (Stream<String> lines = Files.lines(log)) {
+            return lines.map(STARTED::matcher)
+                .filter(Matcher::find)
+                .mapToDouble(m -> Double.parseDouble(m.group(1)) * 1000)
+                .findFirst()
+                .orElse(Double.NaN);
+        }
+    }
+
+    private static Path find(Path dir, Predicate<String> name) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> name.test(file.getFileName().toString()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No jar in " + dir
+                    + "; build with mvn -Pfast-startup,loadtest verify -DskipTests"));
+        }
+    }
+
+    private static double median(double[] sorted) {
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,89 @@
+package com.incident.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * N STOMP clients subscribed to /topic/incidents. Each received frame records, per incident
+ * it carries, the delay between the incident's updatedAt and receipt: the top-level field of
+ * a full frame, changes.updatedAt of a delta and deltas[].changes.updatedAt of a batch.
+ * updatedAt is stamped by the server's clock when the row is written, before the commit, and
+ * frames are sent after the commit, so the delay is an upper bound on commit-to-client latency
+ * (it includes the rest of the transaction and the commit) and assumes client and server
+ * share a clock and time zone.
+ */
+public class StompSubscribers implements AutoCloseable {
+    private static final String ENDPOINT = "broadcast-delay";
+
+    private final WebSocketStompClient stompClient;
+    private final ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+    private final List<StompSession> sessions = new ArrayList<>();
+
+    public StompSubscribers() {
+        heartbeatScheduler.setPoolSize(2);
+        heartbeatScheduler.initialize();
+        stompClient = new WebSocketStompClient(
+            new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setTaskScheduler(heartbeatScheduler);
+    }
+
+    public void connect(String baseUrl, int count, LatencyRecorder recorder) throws Exception {
+        for (int i = 0; i < count; i++) {
+            StompSession session = stompClient.connectAsync(baseUrl + "/ws", new StompSessionHandlerAdapter() {
+            }).get(10, TimeUnit.SECONDS);
+            session.subscribe("/topic/incidents", new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return JsonNode.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    long receivedAtMillis = System.currentTimeMillis();
+                    JsonNode frame = (JsonNode) payload;
+                    record(recorder, frame.path("updatedAt"), receivedAtMillis);
+                    record(recorder, frame.path("changes").path("updatedAt"), receivedAtMillis);
+                    for (JsonNode delta : frame.path("deltas")) {
+                        record(recorder, delta.path("changes").path("updatedAt"), receivedAtMillis);
+                    }
+                }
+            });
+            sessions.add(session);
+        }
+    }
+
+    private static void record(LatencyRecorder recorder, JsonNode updatedAt, long receivedAtMillis) {
+        if (!updatedAt.isTextual()) return;
+        try {
+            long writtenAtMillis = LocalDateTime.parse(updatedAt.asText())
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            recorder.recordMicros(ENDPOINT, (receivedAtMillis - writtenAtMillis) * 1000);
+        } catch (Exception e) {
+            // Unparseable timestamp; ignore for latency purposes
+        }
+    }
+
+    @Override
+    public void close() {
+        sessions.forEach(StompSession::disconnect);
+        stompClient.stop();
+        heartbeatScheduler.shutdown();
+    }
+}
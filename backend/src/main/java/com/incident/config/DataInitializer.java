@@ -3,12 +3,13 @@ package com.incident.config;
 import com.incident.entity.Incident;
 import com.incident.entity.IncidentTimeline;
 import com.incident.entity.User;
-import com.incident.repository.IncidentRepository;
 import com.incident.repository.IncidentTimelineRepository;
 import com.incident.repository.UserRepository;
+import com.incident.service.IncidentShardRouter;
 import com.incident.util.IncidentIdGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -20,15 +21,22 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
     private final UserRepository userRepository;
-    private final IncidentRepository incidentRepository;
+    private final IncidentShardRouter shardRouter;
     private final IncidentTimelineRepository timelineRepository;
     private final PasswordEncoder passwordEncoder;
 
+    // Off on nodes started with the fast-startup profile, where the first node has seeded already
+    @Value("${app.seed.enabled:true}")
+    private boolean seedEnabled;
+
     @Override
     public void run(String... args) {
+        if (!seedEnabled) {
+            return;
+        }
         // Create default admin user if not exists
-        User adminUser = null;
-        if (!userRepository.existsByUsername("admin")) {
+        User adminUser = userRepository.findByUsername("admin").orElse(null);
+        if (adminUser == null) {
             adminUser = User.builder()
                 .username("admin")
                 .email("admin@incident.local")
@@ -40,7 +48,6 @@ public class DataInitializer implements CommandLineRunner {
             adminUser = userRepository.save(adminUser);
             log.info("Created default admin user: admin/admin123");
         } else {
-            adminUser = userRepository.findByUsername("admin").orElse(null);
             log.info("Admin user already exists");
         }
 
@@ -61,7 +68,7 @@ public class DataInitializer implements CommandLineRunner {
         }
 
         // Seed sample incidents if database is empty (for demo)
-        if (incidentRepository.count() == 0 && adminUser != null) {
+        if (!shardRouter.existsAny()) {
             log.info("Database is empty, seeding sample incidents for demo...");
             seedSampleIncidents(adminUser);
         }
@@ -82,7 +89,7 @@ public class DataInitializer implements CommandLineRunner {
             .confirmationCount(2)
             .reporter(adminUser)
             .build();
-        incident1 = incidentRepository.save(incident1);
+        incident1 = shardRouter.save(incident1);
         timelineRepository.save(IncidentTimeline.builder()
             .incident(incident1)
             .status(Incident.IncidentStatus.UNVERIFIED)
@@ -103,7 +110,7 @@ public class DataInitializer implements CommandLineRunner {
             .confirmationCount(1)
             .reporter(adminUser)
             .build();
-        incident2 = incidentRepository.save(incident2);
+        incident2 = shardRouter.save(incident2);
         timelineRepository.save(IncidentTimeline.builder()
             .incident(incident2)
             .status(Incident.IncidentStatus.UNVERIFIED)
@@ -130,7 +137,7 @@ public class DataInitializer implements CommandLineRunner {
             .confirmationCount(0)
             .reporter(adminUser)
             .build();
-        incident3 = incidentRepository.save(incident3);
+        incident3 = shardRouter.save(incident3);
         timelineRepository.save(IncidentTimeline.builder()
             .incident(incident3)
             .status(Incident.IncidentStatus.UNVERIFIED)
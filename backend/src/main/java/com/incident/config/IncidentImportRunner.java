@@ -0,0 +1,56 @@
+package com.incident.config;
+
+import com.incident.dto.IncidentImportResponse;
+import com.incident.entity.IncidentImport;
+import com.incident.service.IncidentImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line import: started with --app.import.file=history.csv (or .ndjson), the
+ * application imports the file after the schema is in place and exits. --app.import.id
+ * resumes an interrupted import of the same file.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.import.file")
+public class IncidentImportRunner implements CommandLineRunner {
+    private final IncidentImportService importService;
+    private final ConfigurableApplicationContext context;
+    private final Path file;
+    private final String importId;
+
+    public IncidentImportRunner(IncidentImportService importService,
+                                ConfigurableApplicationContext context,
+                                @Value("${app.import.file}") Path file,
+                                @Value("${app.import.id:}") String importId) {
+        this.importService = importService;
+        this.context = context;
+        this.file = file;
+        this.importId = importId;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        IncidentImport.Format format = file.getFileName().toString().toLowerCase().endsWith(".csv")
+            ? IncidentImport.Format.CSV : IncidentImport.Format.NDJSON;
+        log.info("Importing {} as {}", file, format);
+        IncidentImportResponse response;
+        try (InputStream input = Files.newInputStream(file)) {
+            response = importService.importIncidents(input, format, importId.isEmpty() ? null : importId, null,
+                error -> log.warn("Row {} rejected: {}", error.getRow(), error.getMessage()));
+        }
+        log.info("Import {} done: {} imported, {} rejected, {} skipped from earlier runs",
+            response.getImportId(), response.getImported(), response.getFailed(), response.getSkipped());
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -0,0 +1,131 @@
+package com.incident.config;
+
+import com.incident.service.IncidentPartitionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Converts the incidents table that Hibernate creates into the partitioned layout managed
+ * by IncidentPartitionService, and owns the incidents indexes. Runs once per database, in a single transaction, and before
+ * the search column and seed data are added.
+ * <p>
+ * Keys on a partitioned table include the partition columns, so confirmations and timeline
+ * rows reference incidents without a foreign key. Incidents are never deleted (archiving moves
+ * them between partitions), so no orphans arise; anything that does delete incidents must
+ * delete their confirmations and timeline rows first. The reporter foreign key is added here
+ * after the conversion, since Hibernate does not alter the partitioned table.
+ */
+@Slf4j
+@Component
+@Order(-1)
+public class IncidentPartitionInitializer implements CommandLineRunner {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IncidentPartitionService partitionService;
+    private final boolean enabled;
+
+    public IncidentPartitionInitializer(JdbcTemplate jdbcTemplate,
+                                        TransactionTemplate transactionTemplate,
+                                        IncidentPartitionService partitionService,
+                                        @Value("${app.partitions.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.partitionService = partitionService;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (enabled) {
+            Boolean partitioned = jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid
+                               WHERE c.relname = 'incidents' AND pg_table_is_visible(c.oid))
+                """, Boolean.class);
+            if (!Boolean.TRUE.equals(partitioned)) {
+                transactionTemplate.executeWithoutResult(status -> convert());
+            }
+        }
+
+        // Hibernate's schema update does not alter a partitioned table, so columns added to
+        // Incident after the conversion are added here
+        jdbcTemplate.execute("ALTER TABLE incidents ADD COLUMN IF NOT EXISTS cluster_id bigint");
+        jdbcTemplate.execute("ALTER TABLE incidents ADD COLUMN IF NOT EXISTS image_hash bigint");
+        jdbcTemplate.execute("ALTER TABLE incidents ADD COLUMN IF NOT EXISTS version integer");
+        // Rows written before incidents carried their event log version; 0 when they have no events
+        int backfilled = jdbcTemplate.update("""
+            UPDATE incidents i SET version = COALESCE(
+                (SELECT MAX(e.version) FROM incident_events e WHERE e.incident_id = i.id), 0)
+            WHERE i.version IS NULL
+            """);
+        if (backfilled > 0) {
+            log.info("Backfilled versions of {} incidents", backfilled);
+        }
+
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_location ON incidents (latitude, longitude)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_status ON incidents (status)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_created_at ON incidents (created_at)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_cluster ON incidents (cluster_id)");
+        // Also where the shard router claims ids, whether or not this table is partitioned
+        partitionService.enforceUniqueIncidentIds();
+
+        if (enabled) {
+            partitionService.createHotPartitions(YearMonth.now());
+            partitionService.markPartitioned();
+            log.info("Incident partitions ready");
+        }
+    }
+
+    private void convert() {
+        jdbcTemplate.execute("LOCK TABLE incidents IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("ALTER TABLE incidents RENAME TO incidents_unpartitioned");
+
+        jdbcTemplate.execute(
+            "CREATE TABLE incidents (LIKE incidents_unpartitioned INCLUDING DEFAULTS) PARTITION BY LIST (archived)");
+        // SearchIndexInitializer adds the generated search column back
+        jdbcTemplate.execute("ALTER TABLE incidents DROP COLUMN IF EXISTS search_vector");
+        jdbcTemplate.execute(
+            "CREATE TABLE incidents_hot PARTITION OF incidents FOR VALUES IN (false) PARTITION BY RANGE (created_at)");
+        jdbcTemplate.execute("CREATE TABLE incidents_hot_default PARTITION OF incidents_hot DEFAULT");
+        jdbcTemplate.execute(
+            "CREATE TABLE incidents_archive PARTITION OF incidents FOR VALUES IN (true) PARTITION BY RANGE (created_at)");
+        jdbcTemplate.execute("CREATE TABLE incidents_archive_default PARTITION OF incidents_archive DEFAULT");
+
+        // Month partitions go in before the copy so existing rows do not land in the default
+        LocalDateTime oldest = jdbcTemplate.queryForObject(
+            "SELECT MIN(created_at) FROM incidents_unpartitioned", LocalDateTime.class);
+        partitionService.createHotPartitions(oldest != null ? YearMonth.from(oldest) : YearMonth.now());
+
+        String columns = jdbcTemplate.queryForObject("""
+            SELECT string_agg(quote_ident(column_name), ', ' ORDER BY ordinal_position)
+            FROM information_schema.columns
+            WHERE table_schema = current_schema() AND table_name = 'incidents'
+            """, String.class);
+        int copied = jdbcTemplate.update(
+            "INSERT INTO incidents (" + columns + ") SELECT " + columns + " FROM incidents_unpartitioned");
+        // Also drops the identity sequence and the confirmation/timeline foreign keys
+        jdbcTemplate.execute("DROP TABLE incidents_unpartitioned CASCADE");
+
+        // Identity columns are not allowed on partitioned tables before PostgreSQL 17
+        jdbcTemplate.execute("CREATE SEQUENCE incidents_id_seq OWNED BY incidents.id");
+        jdbcTemplate.execute("SELECT setval('incidents_id_seq', COALESCE((SELECT MAX(id) FROM incidents), 0) + 1, false)");
+        jdbcTemplate.execute("ALTER TABLE incidents ALTER COLUMN id SET DEFAULT nextval('incidents_id_seq')");
+
+        // Unique keys on a partitioned table must include the partition columns; ids come from
+        // the sequence and incident_id is claimed in incident_ids, so both stay unique
+        jdbcTemplate.execute("ALTER TABLE incidents ADD PRIMARY KEY (id, archived, created_at)");
+        jdbcTemplate.execute(
+            "CREATE UNIQUE INDEX uk_incidents_incident_id ON incidents (incident_id, archived, created_at)");
+        jdbcTemplate.execute(
+            "ALTER TABLE incidents ADD CONSTRAINT fk_incidents_reporter FOREIGN KEY (reporter_id) REFERENCES users (id)");
+
+        log.info("Converted incidents to a partitioned table ({} rows copied)", copied);
+    }
+}
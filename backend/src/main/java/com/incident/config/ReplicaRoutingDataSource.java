@@ -0,0 +1,154 @@
+package com.incident.config;
+
+import com.incident.util.ClientAddress;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to replica pools and everything else to the
+ * primary. Replicas are picked round-robin, skipping any that failed their last health check
+ * or refused a connection. A client that wrote recently keeps reading from the primary for the
+ * read-your-writes window so it never sees a replica that has not caught up yet.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager asks for a
+ * connection before the read-only flag is visible, the proxy defers that until the first
+ * statement.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long readYourWritesNanos;
+    private final Map<String, Long> lastWriteByClient = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter failovers;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+                                    Duration readYourWritesWindow, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+
+        this.primaryRoutes = meterRegistry.counter("datasource.route", "target", "primary");
+        this.replicaRoutes = meterRegistry.counter("datasource.route", "target", "replica");
+        this.failovers = meterRegistry.counter("datasource.replica.failovers");
+        Gauge.builder("datasource.replicas.healthy", replicas,
+            r -> r.stream().filter(replica -> replica.healthy).count()).register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String client = currentClient();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (client != null && readYourWritesNanos > 0) {
+                lastWriteByClient.put(client, System.nanoTime());
+            }
+            return fromPrimary();
+        }
+        if (client != null && wroteRecently(client)) {
+            return fromPrimary();
+        }
+
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.pool.getConnection();
+                replicaRoutes.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.healthy = false;
+                failovers.increment();
+                log.warn("Replica {} unavailable, failing over: {}", replica.pool.getPoolName(), e.getMessage());
+            }
+        }
+        // No healthy replica left; reads are still correct on the primary
+        return fromPrimary();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Routing datasource uses the configured pool credentials");
+    }
+
+    /**
+     * Re-validate every replica so failed ones come back into rotation, and forget
+     * clients whose read-your-writes window has passed
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica-health-check-interval-ms:10000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.pool.getConnection()) {
+                healthy = connection.isValid(2);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.info("Replica {} is now {}", replica.pool.getPoolName(), healthy ? "healthy" : "unhealthy");
+            }
+            replica.healthy = healthy;
+        }
+        long now = System.nanoTime();
+        lastWriteByClient.values().removeIf(writtenAt -> now - writtenAt > readYourWritesNanos);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    private Connection fromPrimary() throws SQLException {
+        primaryRoutes.increment();
+        return primary.getConnection();
+    }
+
+    private boolean wroteRecently(String client) {
+        Long writtenAt = lastWriteByClient.get(client);
+        return writtenAt != null && System.nanoTime() - writtenAt < readYourWritesNanos;
+    }
+
+    // Authenticated username, else the caller's forwarded address; null off request threads
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        String address = ClientAddress.current();
+        return address != null ? "ip:" + address : null;
+    }
+
+    private static class Replica {
+        private final HikariDataSource pool;
+        private volatile boolean healthy = true;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+}
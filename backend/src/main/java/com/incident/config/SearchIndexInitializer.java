@@ -0,0 +1,35 @@
+package com.incident.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maintains the full-text search column on incidents. The column is generated by
+ * PostgreSQL from description and address, so it stays current on every write
+ * without any application code, and is indexed with GIN for @@ lookups.
+ */
+@Slf4j
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class SearchIndexInitializer implements CommandLineRunner {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        jdbcTemplate.execute("""
+            ALTER TABLE incidents ADD COLUMN IF NOT EXISTS search_vector tsvector
+            GENERATED ALWAYS AS (
+                setweight(to_tsvector('english', coalesce(description, '')), 'A') ||
+                setweight(to_tsvector('english', coalesce(address, '')), 'B')
+            ) STORED
+            """);
+        jdbcTemplate.execute(
+            "CREATE INDEX IF NOT EXISTS idx_incidents_search ON incidents USING GIN (search_vector)");
+        log.info("Full-text search index ready");
+    }
+}
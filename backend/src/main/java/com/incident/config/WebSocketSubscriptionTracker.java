@@ -0,0 +1,78 @@
+package com.incident.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts STOMP subscriptions per destination. The simple broker does not expose its
+ * subscriber count, and anonymous SockJS sessions are not in the SimpUserRegistry.
+ */
+@Component
+public class WebSocketSubscriptionTracker {
+    private final Map<String, Map<String, String>> subscriptionsBySession = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> countsByDestination = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public WebSocketSubscriptionTracker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (accessor.getSessionId() == null || accessor.getSubscriptionId() == null || destination == null) {
+            return;
+        }
+        subscriptionsBySession
+            .computeIfAbsent(accessor.getSessionId(), k -> new ConcurrentHashMap<>())
+            .put(accessor.getSubscriptionId(), destination);
+        counter(destination).incrementAndGet();
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = subscriptionsBySession.get(accessor.getSessionId());
+        if (subscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String destination = subscriptions.remove(accessor.getSubscriptionId());
+        if (destination != null) {
+            counter(destination).decrementAndGet();
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = subscriptionsBySession.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(destination -> counter(destination).decrementAndGet());
+        }
+    }
+
+    public int getSubscriberCount(String destination) {
+        AtomicInteger count = countsByDestination.get(destination);
+        return count != null ? count.get() : 0;
+    }
+
+    private AtomicInteger counter(String destination) {
+        return countsByDestination.computeIfAbsent(destination, d -> {
+            AtomicInteger count = new AtomicInteger();
+            Gauge.builder("websocket.subscriptions", count, AtomicInteger::get)
+                .tag("destination", d)
+                .register(meterRegistry);
+            return count;
+        });
+    }
+}
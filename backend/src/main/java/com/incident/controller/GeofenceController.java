@@ -0,0 +1,39 @@
+package com.incident.controller;
+
+import com.incident.dto.GeofenceRequest;
+import com.incident.dto.GeofenceResponse;
+import com.incident.service.GeofenceService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/geofences")
+@RequiredArgsConstructor
+public class GeofenceController {
+    private final GeofenceService geofenceService;
+
+    @PostMapping
+    public ResponseEntity<GeofenceResponse> createGeofence(
+            @Valid @RequestBody GeofenceRequest request,
+            Authentication authentication) {
+        GeofenceResponse response = geofenceService.createGeofence(request, authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<GeofenceResponse>> getGeofences(Authentication authentication) {
+        return ResponseEntity.ok(geofenceService.getGeofences(authentication.getName()));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteGeofence(@PathVariable Long id, Authentication authentication) {
+        geofenceService.deleteGeofence(id, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,17 +1,36 @@
 package com.incident.controller;
 
 import com.incident.dto.*;
+import com.incident.entity.Incident;
+import com.incident.entity.IncidentImport;
 import com.incident.service.FileStorageService;
+import com.incident.service.ImageDuplicateService;
+import com.incident.service.IncidentBulkStatusService;
+import com.incident.service.IncidentClusteringService;
+import com.incident.service.IncidentImportService;
+import com.incident.service.IncidentIngestQueue;
+import com.incident.service.IncidentQueryCache;
+import com.incident.service.IncidentSegmentArchiveService;
 import com.incident.service.IncidentService;
+import com.incident.service.IncidentStreamService;
+import com.incident.service.TileClusterService;
+import com.incident.util.IncidentIdGenerator;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/incidents")
@@ -19,9 +38,18 @@ import java.util.List;
 public class IncidentController {
     private final IncidentService incidentService;
     private final FileStorageService fileStorageService;
+    private final TileClusterService tileClusterService;
+    private final IncidentIngestQueue ingestQueue;
+    private final IncidentQueryCache queryCache;
+    private final IncidentSegmentArchiveService segmentArchiveService;
+    private final IncidentStreamService streamService;
+    private final IncidentClusteringService clusteringService;
+    private final IncidentBulkStatusService bulkStatusService;
+    private final IncidentImportService importService;
+    private final ImageDuplicateService imageDuplicateService;
 
     @PostMapping("/public/report")
-    public ResponseEntity<IncidentResponse> createIncident(
+    public ResponseEntity<?> createIncident(
             @Valid @ModelAttribute IncidentCreateRequest request,
             @RequestParam(required = false) MultipartFile image,
             @RequestParam(required = false, defaultValue = "anonymous") String reporterUsername) {
@@ -31,19 +59,64 @@ public class IncidentController {
                 imageUrl = fileStorageService.storeFile(image);
             }
 
-            IncidentResponse response = incidentService.createIncident(request, imageUrl, reporterUsername);
+            if (ingestQueue.isAsyncMode()) {
+                return enqueueIncident(request, imageUrl, reporterUsername);
+            }
+
+            // Decoded before the transaction so it does not hold a connection meanwhile
+            Long imageHash = imageDuplicateService.hash(imageUrl);
+            IncidentResponse response = incidentService.createIncident(request, imageUrl, imageHash, reporterUsername);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
+    private ResponseEntity<?> enqueueIncident(IncidentCreateRequest request, String imageUrl, String reporterUsername) {
+        String incidentId = IncidentIdGenerator.generate();
+        if (!ingestQueue.offer(incidentId, request, imageUrl, reporterUsername)) {
+            fileStorageService.deleteFile(imageUrl);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "5")
+                .body(Map.of("error", "Report queue is full, please retry shortly"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(IncidentAcceptedResponse.builder()
+            .incidentId(incidentId)
+            .status("ACCEPTED")
+            .acceptedAt(LocalDateTime.now())
+            .build());
+    }
+
     @GetMapping("/public/query")
     public ResponseEntity<List<IncidentResponse>> queryIncidents(@ModelAttribute IncidentQueryRequest request) {
-        List<IncidentResponse> incidents = incidentService.queryIncidents(request);
+        List<IncidentResponse> incidents = queryCache.get(request, incidentService::queryIncidents);
         return ResponseEntity.ok(incidents);
     }
 
+    /**
+     * Incident updates as Server-Sent Events. Browsers resend the Last-Event-ID header on
+     * reconnect; clients that cannot set headers may pass lastEventId instead.
+     */
+    @GetMapping(value = "/public/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamIncidents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId) {
+        return streamService.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    @GetMapping("/public/clusters")
+    public ResponseEntity<List<ClusterResponse>> getActiveClusters(@ModelAttribute IncidentQueryRequest request) {
+        return ResponseEntity.ok(clusteringService.getActiveClusters(request));
+    }
+
+    @GetMapping("/public/tiles/{z}/{x}/{y}")
+    public ResponseEntity<byte[]> getTile(@PathVariable int z, @PathVariable long x, @PathVariable long y) {
+        byte[] tile = tileClusterService.getEncodedTile(z, x, y);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(tile);
+    }
+
     @GetMapping("/public/{incidentId}")
     public ResponseEntity<IncidentResponse> getIncidentByIncidentId(@PathVariable String incidentId) {
         IncidentResponse incident = incidentService.getIncidentByIncidentId(incidentId);
@@ -77,18 +150,101 @@ public class IncidentController {
         return ResponseEntity.ok(incidents);
     }
 
+    @GetMapping("/admin/clusters")
+    public ResponseEntity<List<ClusterResponse>> getClustersForTriage(
+            @RequestParam(defaultValue = "true") boolean active,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(clusteringService.getClustersForTriage(active, limit));
+    }
+
+    @GetMapping("/admin/clusters/{id}/incidents")
+    public ResponseEntity<List<IncidentResponse>> getClusterIncidents(@PathVariable Long id) {
+        return ResponseEntity.ok(incidentService.getClusterIncidents(id));
+    }
+
+    @GetMapping("/admin/search")
+    public ResponseEntity<List<IncidentResponse>> searchIncidents(
+            @RequestParam String q,
+            @ModelAttribute IncidentQueryRequest request) {
+        List<IncidentResponse> incidents = incidentService.searchIncidents(q, request);
+        return ResponseEntity.ok(incidents);
+    }
+
+    @GetMapping("/admin/history")
+    public ResponseEntity<List<IncidentResponse>> getHistoricalIncidents(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @ModelAttribute IncidentQueryRequest request) {
+        List<IncidentResponse> incidents = incidentService.getHistoricalIncidents(from, to, request);
+        return ResponseEntity.ok(incidents);
+    }
+
+    @GetMapping("/admin/archive")
+    public ResponseEntity<ArchiveQueryResponse> queryArchive(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Incident.IncidentType type,
+            @RequestParam(required = false) Incident.IncidentStatus status,
+            @RequestParam(required = false) Double south,
+            @RequestParam(required = false) Double west,
+            @RequestParam(required = false) Double north,
+            @RequestParam(required = false) Double east,
+            @RequestParam(defaultValue = "100") int limit) {
+        ArchiveQueryResponse response = segmentArchiveService.query(from, to, type, status, south, west, north, east, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/admin/archive/export")
+    public ResponseEntity<Map<String, Integer>> exportArchive() {
+        int exported = segmentArchiveService.exportArchived();
+        return ResponseEntity.ok(Map.of("exported", exported));
+    }
+
     @GetMapping("/admin/{id}")
     public ResponseEntity<IncidentResponse> getIncidentById(@PathVariable Long id) {
         IncidentResponse incident = incidentService.getIncidentById(id);
         return ResponseEntity.ok(incident);
     }
 
+    @GetMapping("/admin/{id}/responders")
+    public ResponseEntity<List<ResponderCandidate>> getNearestResponders(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "5") int k) {
+        return ResponseEntity.ok(incidentService.getNearestResponders(id, k));
+    }
+
     @GetMapping("/admin/{id}/timeline")
     public ResponseEntity<List<IncidentTimelineResponse>> getIncidentTimeline(@PathVariable Long id) {
         List<IncidentTimelineResponse> timeline = incidentService.getIncidentTimeline(id);
         return ResponseEntity.ok(timeline);
     }
 
+    @PostMapping("/admin/{id}/rebuild")
+    public ResponseEntity<IncidentResponse> rebuildFromEvents(@PathVariable Long id) {
+        IncidentResponse response = incidentService.rebuildFromEvents(id);
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/admin/status")
+    public ResponseEntity<BulkStatusUpdateResponse> updateStatuses(
+            @Valid @RequestBody BulkStatusUpdateRequest request,
+            Authentication authentication) {
+        BulkStatusUpdateResponse response = bulkStatusService.updateStatus(request, authentication.getName());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/admin/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<IncidentImportResponse> importIncidents(
+            @RequestParam(required = false) String importId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            Authentication authentication) {
+        IncidentImport.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+            ? IncidentImport.Format.CSV : IncidentImport.Format.NDJSON;
+        IncidentImportResponse response = importService.importIncidents(body, format, importId, authentication.getName(), null);
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/admin/{id}/status")
     public ResponseEntity<IncidentResponse> updateStatus(
             @PathVariable Long id,
@@ -0,0 +1,25 @@
+package com.incident.controller;
+
+import com.incident.dto.ResponderPingRequest;
+import com.incident.service.ResponderLocationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/responders")
+@RequiredArgsConstructor
+public class ResponderController {
+    private final ResponderLocationService locationService;
+
+    @PostMapping("/location")
+    public ResponseEntity<Void> recordLocation(
+            @Valid @RequestBody ResponderPingRequest request,
+            Authentication authentication) {
+        locationService.recordPing(authentication.getName(), request.getLatitude(), request.getLongitude(),
+            !Boolean.FALSE.equals(request.getAvailable()));
+        return ResponseEntity.noContent().build();
+    }
+}
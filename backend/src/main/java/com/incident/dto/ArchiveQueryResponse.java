@@ -0,0 +1,23 @@
+package com.incident.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveQueryResponse {
+    private long matched; // All matching rows; incidents holds at most the requested limit
+    private long rowsScanned;
+    private int segmentsScanned;
+    private double scanMillis;
+    private Map<String, Long> countsByType;
+    private Map<String, Long> countsByStatus;
+    private List<ArchivedIncident> incidents;
+}
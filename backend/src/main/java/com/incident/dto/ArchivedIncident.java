@@ -0,0 +1,24 @@
+package com.incident.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedIncident {
+    private Long id;
+    private String incidentId;
+    private String type;
+    private String status;
+    private Double latitude;
+    private Double longitude;
+    private LocalDateTime createdAt;
+    private String description;
+    private String address;
+}
@@ -0,0 +1,30 @@
+package com.incident.dto;
+
+import com.incident.entity.Incident;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Target status for many incidents, picked by ids or by a filter (at least one criterion).
+ * Incidents already in the target status are left alone.
+ */
+@Data
+public class BulkStatusUpdateRequest {
+    @NotNull(message = "Status is required")
+    private Incident.IncidentStatus status;
+
+    @Size(max = 500, message = "Notes must be at most 500 characters")
+    private String notes;
+
+    private List<Long> ids;
+
+    // Filter, combined with AND
+    private Incident.IncidentStatus currentStatus;
+    private Incident.IncidentType type;
+    private Long clusterId;
+    private LocalDateTime createdBefore;
+}
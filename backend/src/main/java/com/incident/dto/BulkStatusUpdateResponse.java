@@ -0,0 +1,17 @@
+package com.incident.dto;
+
+import com.incident.entity.Incident;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResponse {
+    private Incident.IncidentStatus status;
+    private Integer updated;
+    private Boolean limitReached; // More incidents matched; send the request again for the rest
+}
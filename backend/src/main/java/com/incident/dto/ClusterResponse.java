@@ -0,0 +1,28 @@
+package com.incident.dto;
+
+import com.incident.entity.Incident;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterResponse {
+    private Long id;
+    private Incident.IncidentType type;
+    private Double latitude; // Centroid of the reports
+    private Double longitude;
+    private Long primaryIncidentId;
+    private Integer incidentCount;
+    private Integer openCount;
+    private Integer confirmationCount;
+    private Integer confidenceScore; // Combined: the event is doubted only as far as every report is
+    private LocalDateTime firstReportedAt;
+    private LocalDateTime lastReportedAt;
+    private Double distanceKm; // Distance from query point
+}
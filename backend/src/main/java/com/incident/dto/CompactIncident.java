@@ -0,0 +1,27 @@
+package com.incident.dto;
+
+import com.incident.entity.Incident;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Map-marker fields of a live incident, used where full responses would be too large
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactIncident {
+    private String incidentId;
+    private Incident.IncidentType type;
+    private Incident.IncidentStatus status;
+    private Double latitude;
+    private Double longitude;
+    private Integer confidenceScore;
+    private Integer confirmationCount;
+    private LocalDateTime updatedAt;
+}
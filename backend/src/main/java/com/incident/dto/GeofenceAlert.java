@@ -0,0 +1,22 @@
+package com.incident.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Sent to a subscriber's STOMP destination when an incident inside one of their fences is
+ * created or changes status
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeofenceAlert {
+    private String event; // CREATED or STATUS_CHANGED
+    private List<Long> geofenceIds;
+    private CompactIncident incident;
+}
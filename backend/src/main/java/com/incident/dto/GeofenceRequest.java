@@ -0,0 +1,34 @@
+package com.incident.dto;
+
+import com.incident.entity.Incident;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Either latitude, longitude and radiusMeters (circle) or polygon, a list of [lat, lon] vertices
+ */
+@Data
+public class GeofenceRequest {
+    @NotBlank(message = "Name is required")
+    @Size(max = 100, message = "Name must be at most 100 characters")
+    private String name;
+
+    private List<Incident.IncidentType> types; // Empty matches every type
+
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    @Positive(message = "Radius must be positive")
+    @Max(value = 100000, message = "Radius must be at most 100 km")
+    private Double radiusMeters;
+
+    @Size(min = 3, max = 500, message = "A polygon needs between 3 and 500 vertices")
+    private List<List<Double>> polygon;
+}
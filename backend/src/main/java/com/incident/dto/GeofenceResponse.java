@@ -0,0 +1,27 @@
+package com.incident.dto;
+
+import com.incident.entity.Incident;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeofenceResponse {
+    private Long id;
+    private String name;
+    private String ownerUsername;
+    private List<Incident.IncidentType> types;
+    private Double latitude;
+    private Double longitude;
+    private Double radiusMeters;
+    private List<List<Double>> polygon;
+    private LocalDateTime createdAt;
+    private String alertDestination; // STOMP topic the owner's alerts are sent to
+}
@@ -0,0 +1,16 @@
+package com.incident.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowError {
+    private Long row; // Data row number in the file, starting at 1 after any header
+    private String incidentId; // As given in the row, if any
+    private String message;
+}
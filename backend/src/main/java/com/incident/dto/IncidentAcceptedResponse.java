@@ -0,0 +1,18 @@
+package com.incident.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentAcceptedResponse {
+    private String incidentId; // Pre-assigned; resolvable via /public/{incidentId} once written
+    private String status;
+    private LocalDateTime acceptedAt;
+}
@@ -0,0 +1,25 @@
+package com.incident.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Broadcast frame carrying only the fields of an incident that changed. Versions are the
+ * incident's event log versions: a client holding a version other than baseVersion has
+ * missed an update and should re-fetch the full incident.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentDelta {
+    private Long id;
+    private String incidentId;
+    private Integer baseVersion; // Version the changes apply to
+    private Integer version;
+    private Map<String, Object> changes; // IncidentResponse field name -> new value
+}
@@ -0,0 +1,19 @@
+package com.incident.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Deltas of a bulk change, sent as one frame
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentDeltaBatch {
+    private List<IncidentDelta> deltas;
+}
@@ -0,0 +1,24 @@
+package com.incident.dto;
+
+import com.incident.entity.IncidentImport;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentImportResponse {
+    private String importId; // Send again with the same file to resume
+    private IncidentImport.Format format;
+    private Long skipped; // Rows covered by earlier runs of this import
+    private Long imported;
+    private Long failed;
+    private Long rowsRead; // Over all runs
+    private Boolean completed;
+    private List<ImportRowError> errors; // The first failed rows of this run
+}
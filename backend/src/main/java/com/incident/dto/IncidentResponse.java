@@ -29,8 +29,12 @@ public class IncidentResponse {
     private String reporterUsername;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Boolean archived;
+    private Long clusterId;
+    private Integer version; // Event log version; deltas apply on top of it
     private Double distanceKm; // Distance from query point
     private String adminNotes; // Only visible to ADMIN/RESPONDER
     private List<IncidentResponse> potentialDuplicates; // For duplicate detection
+    private List<ResponderCandidate> nearestResponders; // Admin prioritized view only
 }
 
@@ -0,0 +1,19 @@
+package com.incident.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentStreamSnapshot {
+    private long eventId; // Stream position the snapshot reflects; later events follow it
+    private LocalDateTime generatedAt;
+    private List<CompactIncident> incidents;
+}
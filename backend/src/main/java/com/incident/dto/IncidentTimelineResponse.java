@@ -1,6 +1,7 @@
 package com.incident.dto;
 
 import com.incident.entity.Incident;
+import com.incident.entity.IncidentEvent;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,6 +15,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class IncidentTimelineResponse {
     private Long id;
+    private IncidentEvent.EventType eventType; // Null for entries recorded before the event log
     private Incident.IncidentStatus status;
     private String notes;
     private String updatedBy;
@@ -0,0 +1,20 @@
+package com.incident.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponderCandidate {
+    private String username;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceKm;
+    private LocalDateTime lastSeenAt;
+}
@@ -0,0 +1,22 @@
+package com.incident.dto;
+
+import com.incident.entity.Incident;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TileCluster {
+    private Double latitude; // Centroid of the clustered incidents
+    private Double longitude;
+    private Integer count;
+    private Long incidentId; // Only set when the cluster holds a single incident
+    private Map<Incident.IncidentType, Integer> countsByType;
+    private Map<Incident.IncidentStatus, Integer> countsByStatus;
+}
@@ -0,0 +1,20 @@
+package com.incident.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TileResponse {
+    private Integer z;
+    private Long x;
+    private Long y;
+    private Long totalIncidents;
+    private List<TileCluster> clusters;
+}
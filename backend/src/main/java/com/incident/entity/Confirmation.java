@@ -23,7 +23,8 @@ public class Confirmation {
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "incident_id", nullable = false)
+    // No FK to the partitioned incidents table, see IncidentPartitionInitializer
+    @JoinColumn(name = "incident_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Incident incident;
 
     @ManyToOne(fetch = FetchType.LAZY)
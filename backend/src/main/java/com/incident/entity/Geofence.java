@@ -0,0 +1,53 @@
+package com.incident.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * An area a subscriber (hospital, school, utility operator) wants incident alerts for:
+ * either a circle or a polygon, optionally limited to some incident types. Matching is
+ * done in memory by GeofenceService; this table is the registry it is loaded from.
+ */
+@Entity
+@Table(name = "geofences", indexes = {
+    @Index(name = "idx_geofence_owner", columnList = "owner_username")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Geofence {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "owner_username", nullable = false, length = 50)
+    private String ownerUsername;
+
+    @Column(length = 200)
+    private String types; // Comma-separated IncidentType names; null matches every type
+
+    // Circle: center and radius
+    private Double latitude;
+
+    private Double longitude;
+
+    private Double radiusMeters;
+
+    // Polygon: "lat,lon;lat,lon;..." vertices in order, null for circles
+    @Column(columnDefinition = "TEXT")
+    private String polygon;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
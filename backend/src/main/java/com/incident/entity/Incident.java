@@ -14,11 +14,8 @@ import java.util.List;
 
 
 @Entity
-@Table(name = "incidents", indexes = {
-    @Index(name = "idx_location", columnList = "latitude,longitude"),
-    @Index(name = "idx_status", columnList = "status"),
-    @Index(name = "idx_created_at", columnList = "createdAt")
-})
+// Indexes are created by IncidentPartitionInitializer: Hibernate cannot see indexes on a partitioned table
+@Table(name = "incidents")
 @Data
 @Builder
 @NoArgsConstructor
@@ -28,7 +25,9 @@ public class Incident {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    // Unique through the incident_ids table, which every insert claims the id in (see
+    // IncidentPartitionService); a partitioned table cannot have a unique index on it alone
+    @Column(nullable = false)
     private String incidentId; // Public-facing unique ID
 
     @Enumerated(EnumType.STRING)
@@ -67,7 +66,8 @@ public class Incident {
     private Integer confirmationCount = 0;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "reporter_id")
+    // FK added after partitioning, see IncidentPartitionInitializer
+    @JoinColumn(name = "reporter_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User reporter;
 
     @OneToMany(mappedBy = "incident", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -89,6 +89,24 @@ public class Incident {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // Partition key: closed incidents past the archive age move to the archive partitions
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    @Builder.Default
+    private Boolean archived = false;
+
+    // Event this report was clustered into; see IncidentCluster
+    @Column(name = "cluster_id")
+    private Long clusterId;
+
+    // 64-bit difference hash of the uploaded photo; see ImageHash
+    @Column(name = "image_hash")
+    private Long imageHash;
+
+    // Event log version of this state (see IncidentEvent), written with every change so a
+    // read returns both from the same snapshot
+    @Column(name = "version")
+    private Integer version;
+
     public enum IncidentType {
         ACCIDENT, MEDICAL, FIRE, INFRASTRUCTURE, CRIME
     }
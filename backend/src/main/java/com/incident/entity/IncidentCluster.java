@@ -0,0 +1,70 @@
+package com.incident.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One real-world event: the reports of the same type that IncidentClusteringService linked
+ * in space and time. Aggregates are maintained with atomic upserts as members are added,
+ * confirmed or closed, so reading a cluster never touches its incidents.
+ */
+@Entity
+@Table(name = "incident_clusters", indexes = {
+    @Index(name = "idx_cluster_last_reported", columnList = "last_reported_at"),
+    @Index(name = "idx_cluster_location", columnList = "latitude,longitude")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentCluster {
+    // Ids are taken from the sequence before the first member is written
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "incident_clusters_id_seq")
+    @SequenceGenerator(name = "incident_clusters_id_seq", sequenceName = "incident_clusters_id_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Incident.IncidentType type;
+
+    // Centroid of the members
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    @Column(nullable = false)
+    private Long primaryIncidentId; // First member written
+
+    @Column(nullable = false)
+    private Integer incidentCount;
+
+    @Column(nullable = false)
+    private Integer openCount; // Members not RESOLVED or FALSE
+
+    @Column(nullable = false)
+    private Integer confirmationCount;
+
+    // Product of (1 - member confidence) over members; the cluster is wrong only if every report is
+    @Column(nullable = false)
+    private Double doubtProduct;
+
+    @Column(nullable = false)
+    private Integer confidenceScore; // 100 * (1 - doubtProduct)
+
+    @Column(name = "first_reported_at", nullable = false)
+    private LocalDateTime firstReportedAt;
+
+    @Column(name = "last_reported_at", nullable = false)
+    private LocalDateTime lastReportedAt;
+
+    @Column
+    private Long mergedInto; // Set when a later report joined this cluster to an older one
+}
@@ -0,0 +1,59 @@
+package com.incident.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of a single change to an incident. Only the fields touched by
+ * the event type are set; replaying events in version order rebuilds the incident state.
+ */
+@Entity
+@Table(name = "incident_events", indexes = {
+    @Index(name = "idx_event_incident_version", columnList = "incident_id,version", unique = true)
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "incident_id", nullable = false, updatable = false)
+    private Long incidentId;
+
+    @Column(nullable = false, updatable = false)
+    private Integer version; // Per-incident sequence, starting at 1
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private EventType eventType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
+    private Incident.IncidentStatus status; // CREATED, STATUS_CHANGED
+
+    @Column(updatable = false)
+    private Integer confidenceScore; // CREATED, RESCORED
+
+    @Column(length = 2000, updatable = false)
+    private String notes; // STATUS_CHANGED, NOTES_EDITED
+
+    @Column(length = 100, updatable = false)
+    private String actor;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum EventType {
+        CREATED, CONFIRMED, RESCORED, STATUS_CHANGED, NOTES_EDITED
+    }
+}
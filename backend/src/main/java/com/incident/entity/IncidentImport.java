@@ -0,0 +1,63 @@
+package com.incident.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of a bulk import of historical incidents. rowsRead advances in the same
+ * transaction as each batch of rows, so running the import again with the same id and
+ * file skips exactly the rows already loaded or rejected.
+ */
+@Entity
+@Table(name = "incident_imports")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentImport {
+    @Id
+    @Column(length = 100)
+    private String id; // Chosen by the caller, or generated on the first run
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Format format;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long rowsRead = 0L; // Data rows covered by committed batches
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long imported = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long failed = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean completed = false;
+
+    @Column(length = 100)
+    private String startedBy;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum Format {
+        CSV, NDJSON
+    }
+}
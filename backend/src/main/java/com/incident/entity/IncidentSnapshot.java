@@ -0,0 +1,51 @@
+package com.incident.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projected incident state as of a given event version, so replay only has to
+ * apply the events written after it.
+ */
+@Entity
+@Table(name = "incident_snapshots", indexes = {
+    @Index(name = "idx_snapshot_incident_version", columnList = "incident_id,version", unique = true)
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "incident_id", nullable = false)
+    private Long incidentId;
+
+    @Column(nullable = false)
+    private Integer version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Incident.IncidentStatus status;
+
+    @Column(nullable = false)
+    private Integer confidenceScore;
+
+    @Column(nullable = false)
+    private Integer confirmationCount;
+
+    @Column(length = 2000)
+    private String adminNotes;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -22,7 +22,8 @@ public class IncidentTimeline {
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "incident_id", nullable = false)
+    // No FK to the partitioned incidents table, see IncidentPartitionInitializer
+    @JoinColumn(name = "incident_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Incident incident;
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,39 @@
+package com.incident.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last known position of a responder. Pings are served from memory by
+ * ResponderLocationService and only written here periodically, one row per responder.
+ */
+@Entity
+@Table(name = "responder_locations", indexes = {
+    @Index(name = "idx_responder_location_updated", columnList = "updated_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponderLocation {
+    @Id
+    @Column(length = 50)
+    private String username;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    @Column(nullable = false)
+    private Boolean available;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,14 @@
+package com.incident.repository;
+
+import com.incident.entity.Geofence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GeofenceRepository extends JpaRepository<Geofence, Long> {
+    List<Geofence> findByOwnerUsernameOrderByCreatedAtDesc(String ownerUsername);
+
+    long countByOwnerUsername(String ownerUsername);
+}
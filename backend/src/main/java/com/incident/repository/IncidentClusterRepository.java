@@ -0,0 +1,155 @@
+package com.incident.repository;
+
+import com.incident.entity.IncidentCluster;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cluster aggregates are only changed through the atomic statements below, so concurrent
+ * reports joining the same cluster never lose an update. Statements addressed to a merged
+ * cluster are redirected to the cluster it was merged into; incidents keep the id of the
+ * cluster they joined.
+ */
+@Repository
+public interface IncidentClusterRepository extends JpaRepository<IncidentCluster, Long> {
+    @Query(value = "SELECT nextval('incident_clusters_id_seq')", nativeQuery = true)
+    Long nextId();
+
+    /**
+     * Add a member, creating the cluster on its first committed member
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO incident_clusters AS c (id, type, latitude, longitude, primary_incident_id, incident_count,
+            open_count, confirmation_count, doubt_product, confidence_score, first_reported_at, last_reported_at)
+        VALUES (:id, :type, :lat, :lon, :incidentId, 1, :open, :confirmations, :doubt,
+            ROUND(100 * (1 - :doubt)), :reportedAt, :reportedAt)
+        ON CONFLICT (id) DO UPDATE SET
+            latitude = (c.latitude * c.incident_count + EXCLUDED.latitude) / (c.incident_count + 1),
+            longitude = (c.longitude * c.incident_count + EXCLUDED.longitude) / (c.incident_count + 1),
+            incident_count = c.incident_count + 1,
+            open_count = c.open_count + EXCLUDED.open_count,
+            confirmation_count = c.confirmation_count + EXCLUDED.confirmation_count,
+            doubt_product = c.doubt_product * EXCLUDED.doubt_product,
+            confidence_score = ROUND(100 * (1 - c.doubt_product * EXCLUDED.doubt_product)),
+            first_reported_at = LEAST(c.first_reported_at, EXCLUDED.first_reported_at),
+            last_reported_at = GREATEST(c.last_reported_at, EXCLUDED.last_reported_at)
+        """, nativeQuery = true)
+    void addMember(
+        @Param("id") Long id,
+        @Param("type") String type,
+        @Param("lat") Double latitude,
+        @Param("lon") Double longitude,
+        @Param("incidentId") Long incidentId,
+        @Param("open") int open,
+        @Param("confirmations") int confirmations,
+        @Param("doubt") double doubt,
+        @Param("reportedAt") LocalDateTime reportedAt
+    );
+
+    /**
+     * Record a confirmation of a member whose doubt changed by the given factor
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE incident_clusters SET
+            confirmation_count = confirmation_count + 1,
+            doubt_product = doubt_product * :factor,
+            confidence_score = ROUND(100 * (1 - doubt_product * :factor))
+        WHERE id = COALESCE((SELECT merged_into FROM incident_clusters WHERE id = :id), :id)
+        """, nativeQuery = true)
+    void recordConfirmation(@Param("id") Long id, @Param("factor") double factor);
+
+    @Modifying
+    @Query(value = """
+        UPDATE incident_clusters SET open_count = GREATEST(0, open_count + :delta)
+        WHERE id = COALESCE((SELECT merged_into FROM incident_clusters WHERE id = :id), :id)
+        """, nativeQuery = true)
+    void adjustOpenCount(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * Fold the aggregates of other into root. No-op if other is already merged.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE incident_clusters r SET
+            latitude = CASE WHEN o.incident_count = 0 THEN r.latitude ELSE
+                (r.latitude * r.incident_count + o.latitude * o.incident_count) / (r.incident_count + o.incident_count) END,
+            longitude = CASE WHEN o.incident_count = 0 THEN r.longitude ELSE
+                (r.longitude * r.incident_count + o.longitude * o.incident_count) / (r.incident_count + o.incident_count) END,
+            incident_count = r.incident_count + o.incident_count,
+            open_count = r.open_count + o.open_count,
+            confirmation_count = r.confirmation_count + o.confirmation_count,
+            doubt_product = r.doubt_product * o.doubt_product,
+            confidence_score = ROUND(100 * (1 - r.doubt_product * o.doubt_product)),
+            first_reported_at = LEAST(r.first_reported_at, o.first_reported_at),
+            last_reported_at = GREATEST(r.last_reported_at, o.last_reported_at)
+        FROM incident_clusters o
+        WHERE r.id = :root AND o.id = :other AND o.merged_into IS NULL
+        """, nativeQuery = true)
+    int absorb(@Param("root") Long root, @Param("other") Long other);
+
+    /**
+     * Retire other and redirect clusters merged into it
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE incident_clusters SET
+            merged_into = :root,
+            incident_count = CASE WHEN id = :other THEN 0 ELSE incident_count END,
+            open_count = CASE WHEN id = :other THEN 0 ELSE open_count END
+        WHERE id = :other OR merged_into = :other
+        """, nativeQuery = true)
+    void retire(@Param("root") Long root, @Param("other") Long other);
+
+    /**
+     * The surviving cluster of id and every cluster merged into it. Retiring keeps merged_into
+     * pointing at the survivor, so one level is enough.
+     */
+    @Query(value = """
+        SELECT c.id FROM incident_clusters c,
+            (SELECT COALESCE(merged_into, id) AS root FROM incident_clusters WHERE id = :id) r
+        WHERE c.id = r.root OR c.merged_into = r.root
+        """, nativeQuery = true)
+    List<Long> findMemberClusterIds(@Param("id") Long id);
+
+    // (id, merged_into) of those of the given clusters that were merged
+    @Query(value = "SELECT id, merged_into FROM incident_clusters WHERE id IN (:ids) AND merged_into IS NOT NULL",
+        nativeQuery = true)
+    List<Object[]> findMerged(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+        SELECT c FROM IncidentCluster c
+        WHERE c.mergedInto IS NULL AND c.incidentCount > 0 AND (:activeOnly = false OR c.openCount > 0)
+        ORDER BY c.confidenceScore DESC, c.lastReportedAt DESC
+        """)
+    List<IncidentCluster> findForTriage(@Param("activeOnly") boolean activeOnly, Pageable pageable);
+
+    @Query(value = """
+        SELECT c.* FROM incident_clusters c
+        WHERE c.merged_into IS NULL AND c.open_count > 0
+        AND (CAST(:radius AS double precision) IS NULL OR
+            (6371 * acos(LEAST(1.0, cos(radians(:lat)) * cos(radians(c.latitude)) *
+            cos(radians(c.longitude) - radians(:lon)) +
+            sin(radians(:lat)) * sin(radians(c.latitude))))) <= :radius)
+        AND (:type IS NULL OR c.type = :type)
+        ORDER BY c.confidence_score DESC, c.last_reported_at DESC
+        LIMIT :limit OFFSET :offset
+        """, nativeQuery = true)
+    List<IncidentCluster> findActive(
+        @Param("lat") Double latitude,
+        @Param("lon") Double longitude,
+        @Param("radius") Double radiusKm,
+        @Param("type") String type,
+        @Param("limit") Integer limit,
+        @Param("offset") Integer offset
+    );
+}
@@ -0,0 +1,26 @@
+package com.incident.repository;
+
+import com.incident.entity.IncidentEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IncidentEventRepository extends JpaRepository<IncidentEvent, Long> {
+    List<IncidentEvent> findByIncidentIdOrderByVersionAsc(Long incidentId);
+
+    List<IncidentEvent> findByIncidentIdAndVersionGreaterThanOrderByVersionAsc(Long incidentId, Integer version);
+
+    @Query("SELECT COALESCE(MAX(e.version), 0) FROM IncidentEvent e WHERE e.incidentId = :incidentId")
+    Integer findLatestVersion(@Param("incidentId") Long incidentId);
+
+    /**
+     * [incidentId, latest version] for the given incidents that have events
+     */
+    @Query("SELECT e.incidentId, MAX(e.version) FROM IncidentEvent e WHERE e.incidentId IN :incidentIds GROUP BY e.incidentId")
+    List<Object[]> findLatestVersions(@Param("incidentIds") Collection<Long> incidentIds);
+}
@@ -0,0 +1,9 @@
+package com.incident.repository;
+
+import com.incident.entity.IncidentImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IncidentImportRepository extends JpaRepository<IncidentImport, String> {
+}
@@ -1,14 +1,19 @@
 package com.incident.repository;
 
+import com.incident.dto.CompactIncident;
 import com.incident.entity.Incident;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +21,36 @@ import java.util.Optional;
 public interface IncidentRepository extends JpaRepository<Incident, Long> {
     Optional<Incident> findByIncidentId(String incidentId);
 
+    // Stops at the first row, where count() would scan every partition
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM incidents)", nativeQuery = true)
+    boolean existsAny();
+
+    // Serialises concurrent writers on one incident so event versions stay gap-free
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Incident i WHERE i.id = :id")
+    Optional<Incident> findByIdForUpdate(@Param("id") Long id);
+
+    List<Incident> findByArchivedFalseAndStatusIn(Collection<Incident.IncidentStatus> statuses);
+
+    @Query(value = """
+        SELECT * FROM incidents WHERE archived = false
+        ORDER BY created_at DESC
+        LIMIT :limit OFFSET :offset
+        """, nativeQuery = true)
+    List<Incident> findActive(@Param("offset") int offset, @Param("limit") int limit);
+
+    @Query("SELECT i FROM Incident i WHERE i.archived = false AND i.clusterId IS NOT NULL AND i.createdAt >= :since")
+    List<Incident> findClusteredSince(@Param("since") LocalDateTime since);
+
+    List<Incident> findByClusterIdInOrderByCreatedAtAsc(Collection<Long> clusterIds);
+
+    @Query("""
+        SELECT new com.incident.dto.CompactIncident(i.incidentId, i.type, i.status, i.latitude, i.longitude,
+            i.confidenceScore, i.confirmationCount, i.updatedAt)
+        FROM Incident i WHERE i.archived = false AND i.status IN :statuses
+        """)
+    List<CompactIncident> findCompactByStatusIn(@Param("statuses") Collection<Incident.IncidentStatus> statuses);
+
     @Query(value = """
         SELECT i.*, 
         (6371 * acos(cos(radians(:lat)) * cos(radians(i.latitude)) * 
@@ -25,6 +60,7 @@ public interface IncidentRepository extends JpaRepository<Incident, Long> {
         WHERE (6371 * acos(cos(radians(:lat)) * cos(radians(i.latitude)) * 
         cos(radians(i.longitude) - radians(:lon)) + 
         sin(radians(:lat)) * sin(radians(i.latitude)))) <= :radius
+        AND i.archived = false
         AND (:type IS NULL OR i.type = :type)
         AND (:status IS NULL OR i.status = :status)
         AND (:minConfidence IS NULL OR i.confidence_score >= :minConfidence)
@@ -48,6 +84,7 @@ public interface IncidentRepository extends JpaRepository<Incident, Long> {
         cos(radians(i.longitude) - radians(:lon)) + 
         sin(radians(:lat)) * sin(radians(i.latitude)))) <= :distanceThreshold
         AND i.type = :type
+        AND i.archived = false
         AND i.created_at >= :timeWindow
         AND i.status != 'FALSE'
         ORDER BY i.created_at DESC
@@ -60,19 +97,85 @@ public interface IncidentRepository extends JpaRepository<Incident, Long> {
         @Param("timeWindow") LocalDateTime timeWindow
     );
 
+    @Query(value = """
+        SELECT i.* FROM incidents i, websearch_to_tsquery('english', :text) query
+        WHERE i.search_vector @@ query
+        AND i.archived = false
+        AND (CAST(:radius AS double precision) IS NULL OR
+            (6371 * acos(LEAST(1.0, cos(radians(:lat)) * cos(radians(i.latitude)) *
+            cos(radians(i.longitude) - radians(:lon)) +
+            sin(radians(:lat)) * sin(radians(i.latitude))))) <= :radius)
+        AND (:type IS NULL OR i.type = :type)
+        AND (:status IS NULL OR i.status = :status)
+        AND (:minConfidence IS NULL OR i.confidence_score >= :minConfidence)
+        ORDER BY ts_rank_cd(i.search_vector, query) DESC, i.created_at DESC
+        LIMIT :limit OFFSET :offset
+        """, nativeQuery = true)
+    List<Incident> searchIncidents(
+        @Param("text") String text,
+        @Param("lat") Double latitude,
+        @Param("lon") Double longitude,
+        @Param("radius") Double radiusKm,
+        @Param("type") String type,
+        @Param("status") String status,
+        @Param("minConfidence") Integer minConfidence,
+        @Param("limit") Integer limit,
+        @Param("offset") Integer offset
+    );
+
+    /**
+     * Hot and archived incidents created in [from, to); the range prunes both partition trees
+     */
+    @Query(value = """
+        SELECT i.* FROM incidents i
+        WHERE i.created_at >= :from AND i.created_at < :to
+        AND (:type IS NULL OR i.type = :type)
+        AND (:status IS NULL OR i.status = :status)
+        ORDER BY i.created_at DESC
+        LIMIT :limit OFFSET :offset
+        """, nativeQuery = true)
+    List<Incident> findHistorical(
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("type") String type,
+        @Param("status") String status,
+        @Param("limit") Integer limit,
+        @Param("offset") Integer offset
+    );
+
     Page<Incident> findByStatusOrderByConfidenceScoreDescCreatedAtDesc(
         Incident.IncidentStatus status, Pageable pageable
     );
 
-    @Query("SELECT i FROM Incident i ORDER BY i.confidenceScore DESC, i.createdAt ASC")
+    @Query("SELECT i FROM Incident i WHERE i.archived = false ORDER BY i.confidenceScore DESC, i.createdAt ASC")
     List<Incident> findAllOrderByConfidenceScoreDescCreatedAtAsc();
 
-    @Query("SELECT i FROM Incident i WHERE i.status = :status ORDER BY i.confidenceScore DESC, i.createdAt ASC")
+    @Query("SELECT i FROM Incident i WHERE i.archived = false AND i.status = :status ORDER BY i.confidenceScore DESC, i.createdAt ASC")
     List<Incident> findByStatusOrderByConfidenceScoreDescCreatedAtAsc(@Param("status") Incident.IncidentStatus status);
 
     @Query("SELECT COUNT(i) FROM Incident i WHERE i.status = :status")
     Long countByStatus(@Param("status") Incident.IncidentStatus status);
 
+    /**
+     * Hot incidents written after the (updatedAt, id) position, in that order
+     */
+    @Query(value = """
+        SELECT i.* FROM incidents i
+        WHERE i.archived = false AND (i.updated_at, i.id) > (:since, :afterId)
+        ORDER BY i.updated_at, i.id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Incident> findUpdatedAfter(
+        @Param("since") LocalDateTime since,
+        @Param("afterId") Long afterId,
+        @Param("limit") Integer limit
+    );
+
+    // (id, image_hash) pairs of hot incidents with a photo
+    @Query(value = "SELECT i.id, i.image_hash FROM incidents i WHERE i.archived = false AND i.image_hash IS NOT NULL",
+        nativeQuery = true)
+    List<Object[]> findImageHashes();
+
     @Query(value = """
         SELECT AVG(EXTRACT(EPOCH FROM (COALESCE(
             (SELECT MAX(t.created_at) FROM incident_timeline t 
@@ -0,0 +1,12 @@
+package com.incident.repository;
+
+import com.incident.entity.IncidentSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IncidentSnapshotRepository extends JpaRepository<IncidentSnapshot, Long> {
+    Optional<IncidentSnapshot> findTopByIncidentIdOrderByVersionDesc(Long incidentId);
+}
@@ -0,0 +1,13 @@
+package com.incident.repository;
+
+import com.incident.entity.ResponderLocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ResponderLocationRepository extends JpaRepository<ResponderLocation, String> {
+    List<ResponderLocation> findByUpdatedAtAfter(LocalDateTime since);
+}
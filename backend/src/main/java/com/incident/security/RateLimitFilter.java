@@ -0,0 +1,121 @@
+package com.incident.security;
+
+import com.incident.util.ClientAddress;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client admission control for the public incident endpoints, with separate budgets
+ * for reports, confirmations and reads. Clients are keyed by address and, when the device
+ * header is configured and sent, by device too; a request must fit both buckets. Rejections
+ * are answered with 429 before any database work happens.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String PUBLIC_PREFIX = "/api/incidents/public/";
+    private static final int MAX_DEVICE_ID_LENGTH = 128;
+
+    private final boolean enabled;
+    private final String clientKeyHeader;
+    private final TokenBucketRateLimiter reportLimiter;
+    private final TokenBucketRateLimiter confirmLimiter;
+    private final TokenBucketRateLimiter queryLimiter;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.client-key-header:}") String clientKeyHeader,
+                           @Value("${app.rate-limit.max-clients:1000000}") int maxClients,
+                           @Value("${app.rate-limit.report.rate-per-second:0.2}") double reportRate,
+                           @Value("${app.rate-limit.report.burst:5}") int reportBurst,
+                           @Value("${app.rate-limit.confirm.rate-per-second:1}") double confirmRate,
+                           @Value("${app.rate-limit.confirm.burst:10}") int confirmBurst,
+                           @Value("${app.rate-limit.query.rate-per-second:5}") double queryRate,
+                           @Value("${app.rate-limit.query.burst:30}") int queryBurst,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.clientKeyHeader = clientKeyHeader;
+        this.reportLimiter = new TokenBucketRateLimiter("report", reportRate, reportBurst, maxClients);
+        this.confirmLimiter = new TokenBucketRateLimiter("confirm", confirmRate, confirmBurst, maxClients);
+        this.queryLimiter = new TokenBucketRateLimiter("query", queryRate, queryBurst, maxClients);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("rate_limit.clients", reportLimiter, TokenBucketRateLimiter::size).tag("budget", "report").register(meterRegistry);
+        Gauge.builder("rate_limit.clients", confirmLimiter, TokenBucketRateLimiter::size).tag("budget", "confirm").register(meterRegistry);
+        Gauge.builder("rate_limit.clients", queryLimiter, TokenBucketRateLimiter::size).tag("budget", "query").register(meterRegistry);
+        FunctionCounter.builder("rate_limit.overflowed", reportLimiter, TokenBucketRateLimiter::overflowed).tag("budget", "report").register(meterRegistry);
+        FunctionCounter.builder("rate_limit.overflowed", confirmLimiter, TokenBucketRateLimiter::overflowed).tag("budget", "confirm").register(meterRegistry);
+        FunctionCounter.builder("rate_limit.overflowed", queryLimiter, TokenBucketRateLimiter::overflowed).tag("budget", "query").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith(PUBLIC_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(PUBLIC_PREFIX.length());
+        String budget;
+        TokenBucketRateLimiter limiter;
+        if (path.startsWith("report")) {
+            budget = "report";
+            limiter = reportLimiter;
+        } else if (path.startsWith("confirm")) {
+            budget = "confirm";
+            limiter = confirmLimiter;
+        } else {
+            budget = "query";
+            limiter = queryLimiter;
+        }
+
+        long waitNanos = limiter.tryAcquire("ip:" + ClientAddress.of(request));
+        String deviceId = deviceId(request);
+        if (waitNanos == 0 && deviceId != null) {
+            // A device is held to the budget as well as its address; a new device id cannot reset it
+            waitNanos = limiter.tryAcquire("device:" + deviceId);
+        }
+        if (waitNanos > 0) {
+            meterRegistry.counter("rate_limit.rejected", "budget", budget).increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests\"}");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval-ms:10000}")
+    public void evictIdleBuckets() {
+        reportLimiter.evictIdle();
+        confirmLimiter.evictIdle();
+        queryLimiter.evictIdle();
+    }
+
+    // Client-supplied and unverified, so only ever an additional key; bounded so it cannot bloat the map
+    private String deviceId(HttpServletRequest request) {
+        if (clientKeyHeader.isEmpty()) {
+            return null;
+        }
+        String deviceId = request.getHeader(clientKeyHeader);
+        if (deviceId == null || deviceId.isBlank()) {
+            return null;
+        }
+        return deviceId.length() > MAX_DEVICE_ID_LENGTH ? deviceId.substring(0, MAX_DEVICE_ID_LENGTH) : deviceId;
+    }
+}
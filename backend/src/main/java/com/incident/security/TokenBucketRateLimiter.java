@@ -0,0 +1,129 @@
+package com.incident.security;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free per-client token bucket, implemented as GCRA: each bucket is a single
+ * AtomicLong holding the theoretical arrival time (TAT) of the next request, updated by CAS.
+ * A bucket whose TAT is in the past is indistinguishable from a new one, so idle buckets
+ * can be evicted at any time without changing behaviour. Keys are spread over independent
+ * stripes so eviction sweeps never scan the whole key space at once. A stripe holds at most
+ * its share of maxKeys: when it is full, a new key triggers at most one sweep per backoff,
+ * and keys that still find it full share the stripe's overflow bucket.
+ */
+@Slf4j
+public class TokenBucketRateLimiter {
+    private static final int STRIPES = 16;
+    private static final long SWEEP_BACKOFF_NANOS = 100_000_000L;
+
+    private final String name;
+    private final long emissionIntervalNanos; // Time to earn one token
+    private final long burstToleranceNanos;   // How far TAT may run ahead of now
+    private final int stripeCapacity;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder overflowed = new LongAdder();
+
+    private static final class Stripe {
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        // Shared by the keys that arrive while the stripe is full
+        private final AtomicLong overflow;
+        private final AtomicLong nextSweep;
+
+        private Stripe(long now) {
+            this.overflow = new AtomicLong(now);
+            this.nextSweep = new AtomicLong(now);
+        }
+    }
+
+    public TokenBucketRateLimiter(String name, double ratePerSecond, int burst, int maxKeys) {
+        this.name = name;
+        this.emissionIntervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, burst - 1);
+        this.stripeCapacity = Math.max(1, (maxKeys + STRIPES - 1) / STRIPES);
+        long now = System.nanoTime();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(now);
+        }
+    }
+
+    /**
+     * Take one token for the key
+     * @return 0 if admitted, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), STRIPES)];
+        AtomicLong tat = stripe.buckets.get(key);
+        if (tat == null) {
+            tat = admit(stripe, key, now);
+        }
+
+        while (true) {
+            long current = tat.get();
+            long start = Math.max(current, now);
+            long waitNanos = start - now - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (tat.compareAndSet(current, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            removed += evictIdle(stripe.buckets, now);
+        }
+        if (removed > 0) {
+            log.debug("Evicted {} idle {} rate-limit buckets", removed, name);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    /**
+     * Requests of new keys that found their stripe full and used its shared bucket
+     */
+    public long overflowed() {
+        return overflowed.sum();
+    }
+
+    // Only the caller winning the CAS sweeps a full stripe, and then not again for a backoff,
+    // so a flood of new keys costs one scan per stripe per backoff rather than one per key.
+    // Racing inserts can overshoot the capacity by at most the number of concurrent callers.
+    private AtomicLong admit(Stripe stripe, String key, long now) {
+        if (stripe.buckets.size() >= stripeCapacity) {
+            long next = stripe.nextSweep.get();
+            if (now - next >= 0 && stripe.nextSweep.compareAndSet(next, now + SWEEP_BACKOFF_NANOS)) {
+                evictIdle(stripe.buckets, now);
+            }
+            if (stripe.buckets.size() >= stripeCapacity) {
+                overflowed.increment();
+                return stripe.overflow;
+            }
+        }
+        return stripe.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    // A request racing with eviction may update a removed bucket; it then restarts from a
+    // full bucket, which is what the evicted one was, so at most one token is forgiven
+    private int evictIdle(Map<String, AtomicLong> stripe, long now) {
+        int before = stripe.size();
+        stripe.values().removeIf(tat -> tat.get() <= now);
+        return before - stripe.size();
+    }
+}
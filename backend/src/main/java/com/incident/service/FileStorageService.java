@@ -1,5 +1,8 @@
 package com.incident.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -14,9 +17,15 @@ import java.util.UUID;
 @Service
 public class FileStorageService {
     private final Path uploadDir;
+    private final Timer uploadTimer;
+    private final DistributionSummary uploadBytes;
 
-    public FileStorageService(@Value("${app.file.upload-dir}") String uploadDir) {
+    public FileStorageService(@Value("${app.file.upload-dir}") String uploadDir, MeterRegistry meterRegistry) {
         this.uploadDir = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.uploadTimer = meterRegistry.timer("incident.upload.duration");
+        this.uploadBytes = DistributionSummary.builder("incident.upload.bytes")
+            .baseUnit("bytes")
+            .register(meterRegistry);
         try {
             Files.createDirectories(this.uploadDir);
         } catch (IOException e) {
@@ -36,11 +45,25 @@ public class FileStorageService {
         String filename = UUID.randomUUID().toString() + extension;
 
         Path targetLocation = this.uploadDir.resolve(filename);
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        Timer.Sample sample = Timer.start();
+        long bytes = Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        sample.stop(uploadTimer);
+        uploadBytes.record(bytes);
 
         return "/uploads/" + filename;
     }
 
+    /**
+     * Local path of a stored file, or null for URLs this service did not hand out
+     */
+    public Path resolve(String fileUrl) {
+        if (fileUrl == null || !fileUrl.startsWith("/uploads/")) {
+            return null;
+        }
+        Path filePath = this.uploadDir.resolve(fileUrl.substring("/uploads/".length())).normalize();
+        return filePath.startsWith(this.uploadDir) ? filePath : null;
+    }
+
     public void deleteFile(String fileUrl) {
         if (fileUrl == null || !fileUrl.startsWith("/uploads/")) {
             return;
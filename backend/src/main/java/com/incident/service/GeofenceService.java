@@ -0,0 +1,291 @@
+package com.incident.service;
+
+import com.incident.dto.CompactIncident;
+import com.incident.dto.GeofenceAlert;
+import com.incident.dto.GeofenceRequest;
+import com.incident.dto.GeofenceResponse;
+import com.incident.entity.Geofence;
+import com.incident.entity.Incident;
+import com.incident.entity.User;
+import com.incident.repository.GeofenceRepository;
+import com.incident.repository.UserRepository;
+import com.incident.util.GeofenceIndex;
+import com.incident.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Geofence registry and matching. Fences are stored in the geofences table and mirrored in
+ * a GeofenceIndex; every created or status-changed incident is matched against the index
+ * and each owner with a matching fence gets one alert on their own STOMP destination,
+ * /topic/geofences/{key}, where the key is an HMAC of the username so other clients
+ * cannot guess it.
+ */
+@Slf4j
+@Service
+public class GeofenceService {
+    public static final String DESTINATION_PREFIX = "/topic/geofences/";
+
+    private final GeofenceRepository geofenceRepository;
+    private final UserRepository userRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final IncidentChangeBus changeBus;
+    private final GeofenceIndex index;
+    private final SecretKeySpec destinationKey;
+    private final int maxPerOwner;
+    private final Timer matchTimer;
+    private final Counter alertCounter;
+
+    public GeofenceService(GeofenceRepository geofenceRepository,
+                           UserRepository userRepository,
+                           SimpMessagingTemplate messagingTemplate,
+                           IncidentChangeBus changeBus,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.geofences.destination-secret}") String destinationSecret,
+                           @Value("${app.geofences.base-cell-km:1}") double baseCellKm,
+                           @Value("${app.geofences.max-per-owner:1000}") int maxPerOwner) {
+        this.geofenceRepository = geofenceRepository;
+        this.userRepository = userRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.changeBus = changeBus;
+        this.index = new GeofenceIndex(baseCellKm);
+        this.destinationKey = new SecretKeySpec(destinationSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.maxPerOwner = maxPerOwner;
+        this.matchTimer = meterRegistry.timer("geofence.match");
+        this.alertCounter = meterRegistry.counter("geofence.alerts");
+        meterRegistry.gauge("geofence.registered", index, GeofenceIndex::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadGeofences() {
+        geofenceRepository.findAll().forEach(this::index);
+        log.info("Geofence index loaded with {} fences", index.size());
+    }
+
+    /**
+     * Mirror fences another node created or deleted
+     */
+    @EventListener
+    @Transactional
+    public void onRemoteChanges(IncidentChangeBus.RemoteChanges remote) {
+        if (remote.geofences().isEmpty()) return;
+        Map<Long, Geofence> found = geofenceRepository.findAllById(remote.geofences()).stream()
+            .collect(Collectors.toMap(Geofence::getId, geofence -> geofence));
+        for (Long id : remote.geofences()) {
+            Geofence geofence = found.get(id);
+            if (geofence != null) {
+                index(geofence);
+            } else {
+                index.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Fence changes from other nodes may have been missed; fences are few, so reload them all
+     */
+    @EventListener
+    @Transactional
+    public void onCatchUp(IncidentChangeBus.CatchUp catchUp) {
+        Set<Long> stale = index.ids();
+        for (Geofence geofence : geofenceRepository.findAll()) {
+            stale.remove(geofence.getId());
+            index(geofence);
+        }
+        stale.forEach(index::remove);
+    }
+
+    @Transactional
+    public GeofenceResponse createGeofence(GeofenceRequest request, String username) {
+        User owner = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        if (owner.getRole() != User.Role.ADMIN && geofenceRepository.countByOwnerUsername(username) >= maxPerOwner) {
+            throw new RuntimeException("Geofence limit of " + maxPerOwner + " reached");
+        }
+
+        boolean circle = request.getLatitude() != null && request.getLongitude() != null
+            && request.getRadiusMeters() != null;
+        boolean circleField = request.getLatitude() != null || request.getLongitude() != null
+            || request.getRadiusMeters() != null;
+        boolean polygon = request.getPolygon() != null && !request.getPolygon().isEmpty();
+        if (polygon ? circleField : !circle) {
+            throw new RuntimeException("Give either latitude, longitude and radiusMeters or a polygon");
+        }
+
+        Geofence geofence = Geofence.builder()
+            .name(request.getName())
+            .ownerUsername(username)
+            .types(request.getTypes() == null || request.getTypes().isEmpty() ? null
+                : request.getTypes().stream().map(Enum::name).distinct().collect(Collectors.joining(",")))
+            .latitude(circle ? request.getLatitude() : null)
+            .longitude(circle ? request.getLongitude() : null)
+            .radiusMeters(circle ? request.getRadiusMeters() : null)
+            .polygon(polygon ? formatPolygon(request.getPolygon()) : null)
+            .build();
+        geofence = geofenceRepository.save(geofence);
+
+        GeofenceIndex.Fence fence = toFence(geofence);
+        TransactionHooks.afterCommit(() -> index.add(fence));
+        changeBus.geofenceChanged(geofence.getId());
+        return toResponse(geofence);
+    }
+
+    @Transactional(readOnly = true)
+    public List<GeofenceResponse> getGeofences(String username) {
+        return geofenceRepository.findByOwnerUsernameOrderByCreatedAtDesc(username).stream()
+            .map(this::toResponse)
+            .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public void deleteGeofence(Long id, String username) {
+        Geofence geofence = geofenceRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Geofence not found"));
+        if (!geofence.getOwnerUsername().equals(username)) {
+            User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+            if (user.getRole() != User.Role.ADMIN) {
+                throw new RuntimeException("Only the owner or an administrator can delete a geofence");
+            }
+        }
+        geofenceRepository.delete(geofence);
+        TransactionHooks.afterCommit(() -> index.remove(id));
+        changeBus.geofenceChanged(id);
+    }
+
+    public void onIncidentCreated(Incident incident) {
+        alert(incident, "CREATED");
+    }
+
+    public void onStatusChanged(Incident incident) {
+        alert(incident, "STATUS_CHANGED");
+    }
+
+    public String destinationFor(String username) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(destinationKey);
+            byte[] digest = mac.doFinal(username.getBytes(StandardCharsets.UTF_8));
+            return DESTINATION_PREFIX + HexFormat.of().formatHex(digest, 0, 16);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Could not derive alert destination", e);
+        }
+    }
+
+    /**
+     * Match the incident and send one alert per owner, once its transaction has committed
+     */
+    private void alert(Incident incident, String event) {
+        Map<String, List<Long>> fencesByOwner = new HashMap<>();
+        matchTimer.record(() -> index.match(incident.getType().ordinal(), incident.getLatitude(),
+            incident.getLongitude(), fence ->
+                fencesByOwner.computeIfAbsent(fence.ownerUsername(), k -> new ArrayList<>()).add(fence.id())));
+        if (fencesByOwner.isEmpty()) return;
+
+        CompactIncident compact = CompactIncident.builder()
+            .incidentId(incident.getIncidentId())
+            .type(incident.getType())
+            .status(incident.getStatus())
+            .latitude(incident.getLatitude())
+            .longitude(incident.getLongitude())
+            .confidenceScore(incident.getConfidenceScore())
+            .confirmationCount(incident.getConfirmationCount())
+            .updatedAt(incident.getUpdatedAt())
+            .build();
+        TransactionHooks.afterCommit(() -> fencesByOwner.forEach((owner, fenceIds) -> {
+            messagingTemplate.convertAndSend(destinationFor(owner), GeofenceAlert.builder()
+                .event(event)
+                .geofenceIds(fenceIds)
+                .incident(compact)
+                .build());
+            alertCounter.increment();
+        }));
+    }
+
+    private void index(Geofence geofence) {
+        try {
+            index.add(toFence(geofence));
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping invalid geofence {}: {}", geofence.getId(), e.getMessage());
+        }
+    }
+
+    private GeofenceResponse toResponse(Geofence geofence) {
+        return GeofenceResponse.builder()
+            .id(geofence.getId())
+            .name(geofence.getName())
+            .ownerUsername(geofence.getOwnerUsername())
+            .types(parseTypes(geofence.getTypes()))
+            .latitude(geofence.getLatitude())
+            .longitude(geofence.getLongitude())
+            .radiusMeters(geofence.getRadiusMeters())
+            .polygon(geofence.getPolygon() != null ? parsePolygon(geofence.getPolygon()) : null)
+            .createdAt(geofence.getCreatedAt())
+            .alertDestination(destinationFor(geofence.getOwnerUsername()))
+            .build();
+    }
+
+    private static GeofenceIndex.Fence toFence(Geofence geofence) {
+        int typeMask = 0;
+        for (Incident.IncidentType type : parseTypes(geofence.getTypes())) {
+            typeMask |= 1 << type.ordinal();
+        }
+        if (geofence.getPolygon() == null) {
+            return GeofenceIndex.Fence.circle(geofence.getId(), geofence.getOwnerUsername(), typeMask,
+                geofence.getLatitude(), geofence.getLongitude(), geofence.getRadiusMeters());
+        }
+        List<List<Double>> vertices = parsePolygon(geofence.getPolygon());
+        double[] latitudes = new double[vertices.size()];
+        double[] longitudes = new double[vertices.size()];
+        for (int i = 0; i < vertices.size(); i++) {
+            latitudes[i] = vertices.get(i).get(0);
+            longitudes[i] = vertices.get(i).get(1);
+        }
+        return GeofenceIndex.Fence.polygon(geofence.getId(), geofence.getOwnerUsername(), typeMask, latitudes, longitudes);
+    }
+
+    private static List<Incident.IncidentType> parseTypes(String types) {
+        if (types == null || types.isBlank()) return List.of();
+        return Arrays.stream(types.split(","))
+            .map(Incident.IncidentType::valueOf)
+            .collect(Collectors.toList());
+    }
+
+    private static String formatPolygon(List<List<Double>> vertices) {
+        StringBuilder text = new StringBuilder();
+        for (List<Double> vertex : vertices) {
+            if (vertex == null || vertex.size() != 2 || vertex.get(0) == null || vertex.get(1) == null
+                    || Math.abs(vertex.get(0)) > 90 || Math.abs(vertex.get(1)) > 180) {
+                throw new RuntimeException("Polygon vertices must be [latitude, longitude] pairs");
+            }
+            if (text.length() > 0) text.append(';');
+            text.append(vertex.get(0)).append(',').append(vertex.get(1));
+        }
+        return text.toString();
+    }
+
+    private static List<List<Double>> parsePolygon(String polygon) {
+        return Arrays.stream(polygon.split(";"))
+            .map(vertex -> {
+                String[] parts = vertex.split(",");
+                return List.of(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]));
+            })
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,135 @@
+package com.incident.service;
+
+import com.incident.entity.Incident;
+import com.incident.util.ImageHash;
+import com.incident.util.ImageHashIndex;
+import com.incident.util.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Near-identical photo detection. Every uploaded image gets a 64-bit dHash, stored with its
+ * incident and mirrored in an ImageHashIndex, so a new report is matched against the photos
+ * of all hot incidents, however far away or long ago they were reported, without a query.
+ * Photos are hashed before the report's transaction starts, so decoding never holds a
+ * connection.
+ */
+@Slf4j
+@Service
+public class ImageDuplicateService {
+    private final IncidentShardRouter shardRouter;
+    private final FileStorageService fileStorageService;
+    private final ImageHashIndex index;
+    private final int maxMatches;
+    private final Timer hashTimer;
+    private final Timer matchTimer;
+
+    public ImageDuplicateService(IncidentShardRouter shardRouter,
+                                 FileStorageService fileStorageService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.duplicate.image-hash-distance:10}") int maxDistance,
+                                 @Value("${app.duplicate.max-image-matches:10}") int maxMatches) {
+        this.shardRouter = shardRouter;
+        this.fileStorageService = fileStorageService;
+        this.index = new ImageHashIndex(maxDistance);
+        this.maxMatches = maxMatches;
+        this.hashTimer = meterRegistry.timer("incident.image.hash");
+        this.matchTimer = meterRegistry.timer("incident.image.match");
+        meterRegistry.gauge("incident.image.indexed", index, ImageHashIndex::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHashes() {
+        shardRouter.findImageHashes().forEach(index::add);
+        log.info("Image hash index loaded with {} photos", index.size());
+    }
+
+    /**
+     * Hash of a stored upload, or null when it is missing or not a decodable image
+     */
+    public Long hash(String imageUrl) {
+        Path file = fileStorageService.resolve(imageUrl);
+        if (file == null) return null;
+        Timer.Sample sample = Timer.start();
+        try {
+            return ImageHash.of(file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not hash image {}: {}", imageUrl, e.getMessage());
+            return null;
+        } finally {
+            sample.stop(hashTimer);
+        }
+    }
+
+    /**
+     * Hot, not FALSE incidents with a near-identical photo, most similar first, skipping the
+     * excluded ids. Matches that turn out archived or FALSE are dropped from the index on the
+     * way, so they neither take up the limit nor stay in memory.
+     */
+    public List<Incident> findSimilar(Long hash, Set<Long> excluded) {
+        if (hash == null) return List.of();
+        List<Long> candidates = matchTimer.record(() -> index.search(hash, Integer.MAX_VALUE)).stream()
+            .map(ImageHashIndex.Match::id)
+            .filter(id -> !excluded.contains(id))
+            .toList();
+        List<Incident> similar = new ArrayList<>();
+        for (int from = 0; from < candidates.size() && similar.size() < maxMatches; from += maxMatches) {
+            List<Long> page = candidates.subList(from, Math.min(from + maxMatches, candidates.size()));
+            Map<Long, Incident> found = shardRouter.findAllById(page).stream()
+                .collect(Collectors.toMap(Incident::getId, incident -> incident));
+            for (Long id : page) {
+                Incident incident = found.get(id);
+                if (incident == null || !isMatchable(incident)) {
+                    index.remove(id);
+                } else if (similar.size() < maxMatches) {
+                    similar.add(incident);
+                }
+            }
+        }
+        return similar;
+    }
+
+    /**
+     * Make the incident's photo matchable once its transaction has committed
+     */
+    public void index(Incident incident) {
+        if (incident.getImageHash() == null) return;
+        long id = incident.getId();
+        long hash = incident.getImageHash();
+        TransactionHooks.afterCommit(() -> index.add(id, hash));
+    }
+
+    /**
+     * Drop the photo of an incident marked FALSE, or bring it back when it is reopened
+     */
+    public void onStatusChanged(Incident incident) {
+        if (incident.getImageHash() == null) return;
+        long id = incident.getId();
+        long hash = incident.getImageHash();
+        boolean matchable = isMatchable(incident);
+        TransactionHooks.afterCommit(() -> {
+            if (matchable) {
+                index.add(id, hash);
+            } else {
+                index.remove(id);
+            }
+        });
+    }
+
+    private static boolean isMatchable(Incident incident) {
+        return !incident.getArchived() && incident.getStatus() != Incident.IncidentStatus.FALSE;
+    }
+}
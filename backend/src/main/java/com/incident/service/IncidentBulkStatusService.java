@@ -0,0 +1,278 @@
+package com.incident.service;
+
+import com.incident.dto.BulkStatusUpdateRequest;
+import com.incident.dto.BulkStatusUpdateResponse;
+import com.incident.dto.IncidentDelta;
+import com.incident.entity.Incident;
+import com.incident.entity.IncidentEvent;
+import com.incident.entity.User;
+import com.incident.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Status changes for many incidents at once, e.g. closing everything left over from a large
+ * event. Does the work of updateStatus with set-based statements: one UPDATE ... RETURNING
+ * for the incidents, batched inserts for timeline rows and events, one reputation update
+ * per reporter and one cluster update per cluster, then a single broadcast frame.
+ */
+@Slf4j
+@Service
+public class IncidentBulkStatusService {
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final IncidentEventService eventService;
+    private final IncidentClusteringService clusteringService;
+    private final IncidentService incidentService;
+    private final IncidentShardRouter shardRouter;
+    private final MeterRegistry meterRegistry;
+    private final int maxIncidents;
+
+    /**
+     * An incident as changed by the bulk UPDATE, with the values it had before
+     */
+    private record ChangedIncident(Incident incident, Long reporterId, Incident.IncidentStatus previousStatus,
+                                   String previousNotes, boolean previouslyArchived) {
+    }
+
+    public IncidentBulkStatusService(NamedParameterJdbcTemplate namedJdbcTemplate,
+                                     JdbcTemplate jdbcTemplate,
+                                     UserRepository userRepository,
+                                     IncidentEventService eventService,
+                                     IncidentClusteringService clusteringService,
+                                     IncidentService incidentService,
+                                     IncidentShardRouter shardRouter,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.bulk-status.max-incidents:10000}") int maxIncidents) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.eventService = eventService;
+        this.clusteringService = clusteringService;
+        this.incidentService = incidentService;
+        this.shardRouter = shardRouter;
+        this.meterRegistry = meterRegistry;
+        this.maxIncidents = maxIncidents;
+    }
+
+    @Transactional
+    @Timed(value = "incident.service", extraTags = {"operation", "bulkUpdateStatus"})
+    public BulkStatusUpdateResponse updateStatus(BulkStatusUpdateRequest request, String updatedByUsername) {
+        // The set-based UPDATE runs on the home database only
+        if (shardRouter.isSharded()) {
+            throw new RuntimeException("Bulk status updates are not available with sharded incident storage");
+        }
+        Incident.IncidentStatus status = request.getStatus();
+        User updatedBy = userRepository.findByUsername(updatedByUsername)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        // Same rule as a single update: only ADMIN can verify or mark incidents as false
+        if ((status == Incident.IncidentStatus.VERIFIED || status == Incident.IncidentStatus.FALSE)
+                && updatedBy.getRole() != User.Role.ADMIN) {
+            throw new RuntimeException("Only administrators can verify or mark incidents as false");
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("status", status.name())
+            .addValue("notes", request.getNotes() == null || request.getNotes().isEmpty() ? null : request.getNotes())
+            .addValue("reopened", status != Incident.IncidentStatus.RESOLVED && status != Incident.IncidentStatus.FALSE)
+            .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+            .addValue("limit", maxIncidents);
+        String where = filter(request, params);
+
+        List<ChangedIncident> changed = namedJdbcTemplate.query("""
+            WITH target AS (
+                SELECT id, status AS previous_status, admin_notes AS previous_notes, archived AS previously_archived
+                FROM incidents
+                WHERE %s
+                ORDER BY id
+                LIMIT :limit
+                FOR UPDATE
+            )
+            UPDATE incidents i SET
+                status = :status,
+                admin_notes = COALESCE(CAST(:notes AS varchar), i.admin_notes),
+                archived = CASE WHEN :reopened THEN false ELSE i.archived END,
+                updated_at = :now,
+                -- One STATUS_CHANGED event, plus NOTES_EDITED when the notes change; appendAll
+                -- numbers the events from the same version
+                version = COALESCE(i.version, 0) + CASE
+                    WHEN CAST(:notes AS varchar) IS NOT NULL AND CAST(:notes AS varchar) IS DISTINCT FROM i.admin_notes
+                    THEN 2 ELSE 1 END
+            FROM target t
+            WHERE i.id = t.id
+            RETURNING i.id, i.incident_id, i.type, i.status, i.latitude, i.longitude, i.confidence_score,
+                i.confirmation_count, i.admin_notes, i.archived, i.cluster_id, i.created_at, i.updated_at,
+                i.version, i.reporter_id, t.previous_status, t.previous_notes, t.previously_archived
+            """.formatted(where), params, (rs, rowNum) -> new ChangedIncident(
+                Incident.builder()
+                    .id(rs.getLong("id"))
+                    .incidentId(rs.getString("incident_id"))
+                    .type(Incident.IncidentType.valueOf(rs.getString("type")))
+                    .status(Incident.IncidentStatus.valueOf(rs.getString("status")))
+                    .latitude(rs.getDouble("latitude"))
+                    .longitude(rs.getDouble("longitude"))
+                    .confidenceScore(rs.getInt("confidence_score"))
+                    .confirmationCount(rs.getInt("confirmation_count"))
+                    .adminNotes(rs.getString("admin_notes"))
+                    .archived(rs.getBoolean("archived"))
+                    .clusterId(rs.getObject("cluster_id", Long.class))
+                    .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                    .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                    .version(rs.getInt("version"))
+                    .build(),
+                rs.getObject("reporter_id", Long.class),
+                Incident.IncidentStatus.valueOf(rs.getString("previous_status")),
+                rs.getString("previous_notes"),
+                rs.getBoolean("previously_archived")));
+        changed.sort(Comparator.comparing(c -> c.incident().getId()));
+
+        boolean limitReached = changed.size() >= maxIncidents && Boolean.TRUE.equals(namedJdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM incidents WHERE " + where + ")", params, Boolean.class));
+        if (changed.isEmpty()) {
+            return BulkStatusUpdateResponse.builder().status(status).updated(0).limitReached(false).build();
+        }
+
+        jdbcTemplate.batchUpdate("""
+            INSERT INTO incident_timeline (incident_id, status, notes, updated_by_id, created_at)
+            VALUES (?, ?, ?, ?, now())
+            """, changed.stream()
+            .map(c -> new Object[]{c.incident().getId(), status.name(), request.getNotes(), updatedBy.getId()})
+            .toList());
+
+        List<IncidentEventService.BatchEntry> entries = new ArrayList<>(changed.size());
+        for (ChangedIncident c : changed) {
+            Incident incident = c.incident();
+            boolean notesEdited = request.getNotes() != null && !request.getNotes().isEmpty()
+                && !request.getNotes().equals(c.previousNotes());
+            entries.add(new IncidentEventService.BatchEntry(incident.getId(), incident.getStatus(),
+                incident.getConfidenceScore(), incident.getConfirmationCount(), incident.getAdminNotes(),
+                notesEdited
+                    ? new IncidentEvent.EventType[]{IncidentEvent.EventType.STATUS_CHANGED, IncidentEvent.EventType.NOTES_EDITED}
+                    : new IncidentEvent.EventType[]{IncidentEvent.EventType.STATUS_CHANGED}));
+        }
+        int[] versions = eventService.appendAll(entries, updatedByUsername, request.getNotes());
+
+        updateReporterReputations(changed, status);
+        clusteringService.onStatusesChanged(
+            changed.stream().map(ChangedIncident::incident).toList(),
+            changed.stream().map(ChangedIncident::previousStatus).toList());
+        meterRegistry.counter("incident.status.changes", "status", status.name()).increment(changed.size());
+
+        List<IncidentDelta> deltas = new ArrayList<>(changed.size());
+        for (int i = 0; i < changed.size(); i++) {
+            ChangedIncident c = changed.get(i);
+            deltas.add(IncidentDelta.builder()
+                .id(c.incident().getId())
+                .incidentId(c.incident().getIncidentId())
+                .baseVersion(versions[i] - entries.get(i).types().length)
+                .version(versions[i])
+                .changes(changes(c))
+                .build());
+        }
+        incidentService.broadcastBulkChanges(changed.stream().map(ChangedIncident::incident).toList(), deltas);
+
+        log.info("{} set {} incidents to {}", updatedByUsername, changed.size(), status);
+        return BulkStatusUpdateResponse.builder()
+            .status(status)
+            .updated(changed.size())
+            .limitReached(limitReached)
+            .build();
+    }
+
+    /**
+     * WHERE clause selecting the incidents to change; every value is a bind parameter
+     */
+    private String filter(BulkStatusUpdateRequest request, MapSqlParameterSource params) {
+        List<String> conditions = new ArrayList<>();
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            conditions.add("id IN (:ids)");
+            params.addValue("ids", request.getIds());
+        }
+        if (request.getCurrentStatus() != null) {
+            conditions.add("status = :currentStatus");
+            params.addValue("currentStatus", request.getCurrentStatus().name());
+        }
+        if (request.getType() != null) {
+            conditions.add("type = :type");
+            params.addValue("type", request.getType().name());
+        }
+        if (request.getClusterId() != null) {
+            conditions.add("cluster_id IN (:clusterIds)");
+            params.addValue("clusterIds", clusteringService.memberClusterIds(request.getClusterId()));
+        }
+        if (request.getCreatedBefore() != null) {
+            conditions.add("created_at < :createdBefore");
+            params.addValue("createdBefore", Timestamp.valueOf(request.getCreatedBefore()));
+        }
+        if (conditions.isEmpty()) {
+            throw new RuntimeException("Give incident ids or at least one filter");
+        }
+        conditions.add("status <> :status");
+        return String.join(" AND ", conditions);
+    }
+
+    /**
+     * Reputation changes of a single update applied once per reporter with the summed count
+     */
+    private void updateReporterReputations(List<ChangedIncident> changed, Incident.IncidentStatus status) {
+        if (status != Incident.IncidentStatus.VERIFIED && status != Incident.IncidentStatus.FALSE) {
+            return;
+        }
+        Map<Long, Integer> countsByReporter = new TreeMap<>();
+        for (ChangedIncident c : changed) {
+            if (c.reporterId() != null) {
+                countsByReporter.merge(c.reporterId(), 1, Integer::sum);
+            }
+        }
+        if (status == Incident.IncidentStatus.VERIFIED) {
+            // NEW becomes RELIABLE at 3 verified reports, and anyone becomes TRUSTED at 10
+            jdbcTemplate.batchUpdate("""
+                UPDATE users SET
+                    verified_reports = verified_reports + ?,
+                    reputation = CASE
+                        WHEN reputation = 'TRUSTED' OR verified_reports + ? >= 10 THEN 'TRUSTED'
+                        WHEN reputation = 'NEW' AND verified_reports + ? >= 3 THEN 'RELIABLE'
+                        ELSE reputation END
+                WHERE id = ?
+                """, countsByReporter.entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), e.getValue(), e.getValue(), e.getKey()})
+                .toList());
+        } else {
+            // Demoted to NEW at 3 false reports
+            jdbcTemplate.batchUpdate("""
+                UPDATE users SET
+                    false_reports = false_reports + ?,
+                    reputation = CASE WHEN false_reports + ? >= 3 THEN 'NEW' ELSE reputation END
+                WHERE id = ?
+                """, countsByReporter.entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), e.getValue(), e.getKey()})
+                .toList());
+        }
+    }
+
+    private static Map<String, Object> changes(ChangedIncident c) {
+        Incident incident = c.incident();
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("status", incident.getStatus());
+        if (!Objects.equals(c.previousNotes(), incident.getAdminNotes())) {
+            changes.put("adminNotes", incident.getAdminNotes());
+        }
+        if (c.previouslyArchived() != incident.getArchived()) {
+            changes.put("archived", incident.getArchived());
+        }
+        changes.put("updatedAt", incident.getUpdatedAt());
+        return changes;
+    }
+}
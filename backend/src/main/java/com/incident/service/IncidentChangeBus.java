@@ -0,0 +1,437 @@
+package com.incident.service;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.incident.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Inter-node bus over PostgreSQL LISTEN/NOTIFY, so several backend instances behind a load
+ * balancer see each other's incident and geofence changes without extra infrastructure.
+ * Changes are collected once their transaction commits and sent every flush interval as a
+ * few compact notifications carrying only ids and event versions. Every other node re-reads
+ * those incidents, refreshes its in-memory indexes and re-broadcasts them to its own STOMP
+ * and SSE clients; listeners receive RemoteChanges as an application event.
+ *
+ * Each node numbers its notifications. A receiver that sees a number skipped, or whose
+ * listening connection dropped, publishes CatchUp with a point in time from which every
+ * incident written since has to be re-read. NOTIFY is not durable, so a node that dies
+ * between commit and flush loses its last batch until the next catch-up on another node.
+ */
+@Slf4j
+@Service
+public class IncidentChangeBus {
+    // NOTIFY payloads must stay below 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    // Pending entries that are not versioned changes are told apart by these versions
+    private static final int CREATED = -1;
+    private static final int REPLACED = -2;
+    private static final int REINDEXED = -3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String channel;
+    private final int pollIntervalMillis;
+    private final long catchUpMarginMillis;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final long bootedAt = System.currentTimeMillis();
+    // Guarded by this; keyed by incident or geofence id so repeated changes go out once
+    private Map<Long, Change> pendingChanges = new LinkedHashMap<>();
+    private Set<Long> pendingGeofences = new LinkedHashSet<>();
+    private long nextSeq = 1;
+
+    // Listener thread state
+    private final Map<String, Sender> senders = new HashMap<>();
+    private volatile boolean running;
+    private Thread listener;
+
+    private final Counter sentCounter;
+    private final Counter receivedCounter;
+    private final Counter gapCounter;
+    private final Counter catchUpCounter;
+
+    /**
+     * What another node changed. Listeners re-read the incidents, so they see the latest
+     * state even when several changes were folded into one entry.
+     */
+    public record RemoteChanges(List<Long> created, List<Change> changed, List<Long> replaced,
+                                List<Long> reindexed, List<Long> geofences) {
+        public List<Long> incidentIds() {
+            List<Long> ids = new ArrayList<>(created);
+            changed.forEach(change -> ids.add(change.id()));
+            ids.addAll(replaced);
+            ids.addAll(reindexed);
+            return ids;
+        }
+    }
+
+    /**
+     * Notifications may have been missed: re-read everything written from this point on
+     */
+    public record CatchUp(LocalDateTime since) {
+    }
+
+    /**
+     * Incident change from event version baseVersion to version; serialised as a bare array
+     * to keep notifications small
+     */
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    public record Change(long id, int baseVersion, int version, boolean statusChanged) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private record Message(String node, long seq, long at, List<Long> created, List<Change> changed,
+                           List<Long> replaced, List<Long> reindexed, List<Long> geofences) {
+    }
+
+    private static final class Sender {
+        long lastSeq;
+        long lastAt;
+    }
+
+    public IncidentChangeBus(JdbcTemplate jdbcTemplate,
+                             DataSourceProperties dataSourceProperties,
+                             ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.event-bus.enabled:false}") boolean enabled,
+                             @Value("${app.event-bus.channel:incident_changes}") String channel,
+                             @Value("${app.event-bus.poll-interval-ms:1000}") int pollIntervalMillis,
+                             @Value("${app.event-bus.catch-up-margin-ms:10000}") long catchUpMarginMillis) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Event bus channel must be a lower-case SQL identifier");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.catchUpMarginMillis = catchUpMarginMillis;
+
+        this.sentCounter = meterRegistry.counter("incident.bus.sent");
+        this.receivedCounter = meterRegistry.counter("incident.bus.received");
+        this.gapCounter = meterRegistry.counter("incident.bus.gaps");
+        this.catchUpCounter = meterRegistry.counter("incident.bus.catchups");
+    }
+
+    public void incidentCreated(long id) {
+        record(id, CREATED, CREATED, false);
+    }
+
+    public void incidentChanged(long id, int baseVersion, int version, boolean statusChanged) {
+        record(id, baseVersion, version, statusChanged);
+    }
+
+    /**
+     * Incident that may have changed in any field, such as one rebuilt from its events
+     */
+    public void incidentReplaced(long id) {
+        record(id, REPLACED, REPLACED, false);
+    }
+
+    /**
+     * Incidents whose indexed state changed without a broadcast, such as imported history
+     */
+    public void incidentsReindexed(Collection<Long> ids) {
+        ids.forEach(id -> record(id, REINDEXED, REINDEXED, false));
+    }
+
+    public void geofenceChanged(long id) {
+        if (!enabled) return;
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                pendingGeofences.add(id);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        running = true;
+        listener = new Thread(this::listen, "incident-bus-listener");
+        listener.setDaemon(true);
+        listener.start();
+        log.info("Incident change bus started as node {} on channel {}", nodeId, channel);
+    }
+
+    /**
+     * Send what committed since the last flush, a few hundred changes per notification
+     */
+    @Scheduled(fixedDelayString = "${app.event-bus.flush-interval-ms:50}")
+    public void flush() {
+        if (!enabled) return;
+        Map<Long, Change> changes;
+        Set<Long> geofences;
+        synchronized (this) {
+            if (pendingChanges.isEmpty() && pendingGeofences.isEmpty()) return;
+            changes = pendingChanges;
+            geofences = pendingGeofences;
+            pendingChanges = new LinkedHashMap<>();
+            pendingGeofences = new LinkedHashSet<>();
+        }
+
+        List<String> payloads = new ArrayList<>();
+        encode(new ArrayList<>(changes.values()), new ArrayList<>(geofences), payloads);
+        try {
+            // One round trip; notifications sent in one transaction arrive in order
+            jdbcTemplate.query("SELECT pg_notify(?, payload) FROM unnest(?::text[]) AS payload",
+                rs -> null, channel, payloads.toArray(new String[0]));
+            sentCounter.increment(payloads.size());
+        } catch (RuntimeException e) {
+            // The numbers are used up, so receivers see the gap and catch up
+            log.warn("Could not send {} incident change notifications: {}", payloads.size(), e.getMessage());
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        if (!enabled) return;
+        flush();
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void record(long id, int baseVersion, int version, boolean statusChanged) {
+        if (!enabled) return;
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                pendingChanges.merge(id, new Change(id, baseVersion, version, statusChanged), IncidentChangeBus::fold);
+            }
+        });
+    }
+
+    // Two changes of one incident in a flush become one spanning both; otherwise the entry
+    // that makes receivers do the most wins, since they re-read the incident anyway
+    private static Change fold(Change earlier, Change later) {
+        if (earlier.version() >= 0 && later.version() >= 0) {
+            return new Change(earlier.id(), earlier.baseVersion(), later.version(),
+                earlier.statusChanged() || later.statusChanged());
+        }
+        return weight(later) > weight(earlier) ? later : earlier;
+    }
+
+    private static int weight(Change change) {
+        return switch (change.version()) {
+            case CREATED -> 3;
+            case REPLACED -> 2;
+            case REINDEXED -> 0;
+            default -> 1;
+        };
+    }
+
+    /**
+     * Split the batch into notifications that fit the payload limit, each with the next number
+     */
+    private void encode(List<Change> changes, List<Long> geofences, List<String> payloads) {
+        RemoteChanges parts = partition(changes, geofences);
+        Message message = new Message(nodeId, 0, System.currentTimeMillis(), parts.created(), parts.changed(),
+            parts.replaced(), parts.reindexed(), parts.geofences());
+        if (changes.size() + geofences.size() > 1 && !fits(message)) {
+            if (!changes.isEmpty() && !geofences.isEmpty()) {
+                encode(changes, List.of(), payloads);
+                encode(List.of(), geofences, payloads);
+            } else {
+                int half = (changes.size() + geofences.size()) / 2;
+                encode(changes.subList(0, Math.min(half, changes.size())),
+                    geofences.subList(0, Math.min(half, geofences.size())), payloads);
+                encode(changes.subList(Math.min(half, changes.size()), changes.size()),
+                    geofences.subList(Math.min(half, geofences.size()), geofences.size()), payloads);
+            }
+            return;
+        }
+        long seq;
+        synchronized (this) {
+            seq = nextSeq++;
+        }
+        payloads.add(toJson(new Message(nodeId, seq, message.at(), message.created(), message.changed(),
+            message.replaced(), message.reindexed(), message.geofences())));
+    }
+
+    private boolean fits(Message message) {
+        // Measured with the longest possible number
+        String payload = toJson(new Message(message.node(), Long.MAX_VALUE, message.at(), message.created(),
+            message.changed(), message.replaced(), message.reindexed(), message.geofences()));
+        return payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES;
+    }
+
+    private void listen() {
+        long caughtUpTo = bootedAt;
+        long retryMillis = pollIntervalMillis;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                // Whatever was written while this node was starting or disconnected
+                catchUp(caughtUpTo);
+                retryMillis = pollIntervalMillis;
+
+                while (running) {
+                    long polledAt = System.currentTimeMillis();
+                    PGNotification[] received = notifications.getNotifications(pollIntervalMillis);
+                    if (received == null || received.length == 0) {
+                        // Notices a dead connection, which getNotifications alone would not
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                    } else {
+                        Long failedFrom = deliver(received);
+                        if (failedFrom != null) {
+                            catchUp(failedFrom);
+                        }
+                    }
+                    caughtUpTo = polledAt;
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) break;
+                log.warn("Incident change bus connection lost, reconnecting in {} ms: {}", retryMillis, e.getMessage());
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException interrupted) {
+                    break;
+                }
+                retryMillis = Math.min(retryMillis * 2, 30_000);
+            }
+        }
+    }
+
+    /**
+     * Hand one burst of notifications to the listeners as a single RemoteChanges
+     *
+     * @return the time to catch up from if the listeners failed, otherwise null
+     */
+    private Long deliver(PGNotification[] received) {
+        Map<Long, Change> changes = new LinkedHashMap<>();
+        Set<Long> geofences = new LinkedHashSet<>();
+        Long catchUpFrom = null;
+        long earliest = Long.MAX_VALUE;
+
+        for (PGNotification notification : received) {
+            Message message;
+            try {
+                message = objectMapper.readValue(notification.getParameter(), Message.class);
+            } catch (JsonProcessingException e) {
+                log.warn("Ignoring malformed incident change notification: {}", e.getMessage());
+                continue;
+            }
+            if (nodeId.equals(message.node())) continue;
+            receivedCounter.increment();
+
+            Sender sender = senders.computeIfAbsent(message.node(), node -> new Sender());
+            if (sender.lastSeq != 0 && message.seq() <= sender.lastSeq) continue;
+            if (sender.lastSeq != 0 && message.seq() > sender.lastSeq + 1) {
+                gapCounter.increment();
+                catchUpFrom = catchUpFrom == null ? sender.lastAt : Math.min(catchUpFrom, sender.lastAt);
+            }
+            sender.lastSeq = message.seq();
+            sender.lastAt = message.at();
+            earliest = Math.min(earliest, message.at());
+
+            addAll(changes, message.created(), CREATED);
+            if (message.changed() != null) {
+                message.changed().forEach(change -> changes.merge(change.id(), change, IncidentChangeBus::fold));
+            }
+            addAll(changes, message.replaced(), REPLACED);
+            addAll(changes, message.reindexed(), REINDEXED);
+            if (message.geofences() != null) {
+                geofences.addAll(message.geofences());
+            }
+        }
+
+        if (catchUpFrom != null) {
+            catchUp(catchUpFrom);
+        }
+        if (changes.isEmpty() && geofences.isEmpty()) {
+            return null;
+        }
+        try {
+            eventPublisher.publishEvent(partition(List.copyOf(changes.values()), List.copyOf(geofences)));
+            return null;
+        } catch (RuntimeException e) {
+            log.warn("Could not apply remote incident changes, catching up instead: {}", e.getMessage());
+            return earliest;
+        }
+    }
+
+    private static void addAll(Map<Long, Change> changes, List<Long> ids, int marker) {
+        if (ids == null) return;
+        for (Long id : ids) {
+            changes.merge(id, new Change(id, marker, marker, false), IncidentChangeBus::fold);
+        }
+    }
+
+    private static RemoteChanges partition(List<Change> changes, List<Long> geofences) {
+        List<Long> created = new ArrayList<>();
+        List<Change> changed = new ArrayList<>();
+        List<Long> replaced = new ArrayList<>();
+        List<Long> reindexed = new ArrayList<>();
+        for (Change change : changes) {
+            switch (change.version()) {
+                case CREATED -> created.add(change.id());
+                case REPLACED -> replaced.add(change.id());
+                case REINDEXED -> reindexed.add(change.id());
+                default -> changed.add(change);
+            }
+        }
+        return new RemoteChanges(created, changed, replaced, reindexed, geofences);
+    }
+
+    private void catchUp(long fromMillis) {
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(fromMillis - catchUpMarginMillis),
+            ZoneId.systemDefault());
+        catchUpCounter.increment();
+        eventPublisher.publishEvent(new CatchUp(since));
+    }
+
+    private String toJson(Message message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode incident change notification", e);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.incident.service;
+
+import com.incident.dto.ClusterResponse;
+import com.incident.dto.IncidentQueryRequest;
+import com.incident.entity.Incident;
+import com.incident.entity.IncidentCluster;
+import com.incident.repository.IncidentClusterRepository;
+import com.incident.util.ClusterGrid;
+import com.incident.util.LocationUtil;
+import com.incident.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Groups incoming reports into clusters (real-world events) online. A report of the same
+ * type within the radius and time window of a recent report joins that report's cluster; a
+ * report bridging several clusters merges them into the oldest. Membership is decided in
+ * memory by ClusterGrid and the cluster row is updated with one atomic upsert, so assigning
+ * a report costs O(1) regardless of how many reports an event already has. A merge only
+ * marks the retired cluster's row; its reports keep their cluster id, which readers resolve.
+ */
+@Slf4j
+@Service
+public class IncidentClusteringService {
+    private static final int MAX_LIMIT = 500;
+
+    private final IncidentClusterRepository clusterRepository;
+    private final IncidentShardRouter shardRouter;
+    private final ClusterGrid grid;
+    private final boolean enabled;
+    private final long windowMillis;
+    private final Counter createdCounter;
+    private final Counter joinedCounter;
+    private final Counter mergedCounter;
+
+    /**
+     * Cluster chosen for a report, and the clusters it merged
+     */
+    public record Assignment(long clusterId, long[] merged) {
+    }
+
+    public IncidentClusteringService(IncidentClusterRepository clusterRepository,
+                                     IncidentShardRouter shardRouter,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.clustering.enabled:true}") boolean enabled,
+                                     @Value("${app.clustering.radius-meters:300}") double radiusMeters,
+                                     @Value("${app.clustering.window-minutes:30}") int windowMinutes,
+                                     @Value("${app.clustering.max-points-per-cell:16}") int maxPointsPerCell) {
+        this.clusterRepository = clusterRepository;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.windowMillis = windowMinutes * 60_000L;
+        this.grid = new ClusterGrid(radiusMeters, windowMillis, maxPointsPerCell);
+        this.createdCounter = meterRegistry.counter("incident.clusters.created");
+        this.joinedCounter = meterRegistry.counter("incident.clusters.joined");
+        this.mergedCounter = meterRegistry.counter("incident.clusters.merged");
+        meterRegistry.gauge("incident.clusters.indexed.reports", grid, g -> {
+            synchronized (g) {
+                return g.size();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadRecentReports() {
+        if (!enabled) return;
+        List<Incident> recent = shardRouter.findClusteredSince(
+            LocalDateTime.now().minusNanos(windowMillis * 1_000_000));
+        Set<Long> clusterIds = recent.stream().map(Incident::getClusterId).collect(Collectors.toSet());
+        List<Object[]> merges = clusterIds.isEmpty() ? List.of() : clusterRepository.findMerged(clusterIds);
+        synchronized (grid) {
+            for (Incident incident : recent) {
+                grid.add(incident.getType().ordinal(), incident.getLatitude(), incident.getLongitude(),
+                    toMillis(incident.getCreatedAt()), incident.getClusterId());
+            }
+            for (Object[] merge : merges) {
+                grid.union(((Number) merge[0]).longValue(), ((Number) merge[1]).longValue());
+            }
+        }
+        log.info("Cluster index loaded with {} recent reports", recent.size());
+    }
+
+    /**
+     * Pick the cluster for a new report and index it. Must run in the transaction that writes
+     * the report; the report leaves the index again if that transaction rolls back.
+     *
+     * @return the assignment, or null when clustering is disabled
+     */
+    public Assignment assign(Incident.IncidentType type, double latitude, double longitude) {
+        if (!enabled) return null;
+        long now = System.currentTimeMillis();
+        int typeKey = type.ordinal();
+
+        Assignment assignment = tryJoin(typeKey, latitude, longitude, now, null);
+        if (assignment == null) {
+            // No cluster nearby: take an id outside the lock, then check again in case a
+            // concurrent report opened one meanwhile (the unused id is simply skipped)
+            long newId = clusterRepository.nextId();
+            assignment = tryJoin(typeKey, latitude, longitude, now, newId);
+        }
+        return assignment;
+    }
+
+    /**
+     * Write a report's membership once it has an id. Runs in the report's transaction.
+     */
+    public void recordMember(Incident incident, Assignment assignment) {
+        if (assignment == null) return;
+        for (long other : assignment.merged()) {
+            // Members keep the merged cluster's id; readers resolve it through merged_into
+            if (clusterRepository.absorb(assignment.clusterId(), other) > 0) {
+                clusterRepository.retire(assignment.clusterId(), other);
+                mergedCounter.increment();
+            }
+        }
+        clusterRepository.addMember(
+            assignment.clusterId(),
+            incident.getType().name(),
+            incident.getLatitude(),
+            incident.getLongitude(),
+            incident.getId(),
+            isOpen(incident.getStatus()) ? 1 : 0,
+            incident.getConfirmationCount(),
+            doubt(incident.getConfidenceScore()),
+            incident.getCreatedAt() != null ? incident.getCreatedAt() : LocalDateTime.now());
+    }
+
+    /**
+     * Index a report another node wrote, so reports here can join its cluster
+     */
+    public void onRemoteReport(Incident incident) {
+        if (!enabled || incident.getClusterId() == null) return;
+        synchronized (grid) {
+            grid.add(incident.getType().ordinal(), incident.getLatitude(), incident.getLongitude(),
+                toMillis(incident.getCreatedAt()), incident.getClusterId());
+        }
+    }
+
+    /**
+     * Ids the members of a cluster may carry: its surviving cluster and every cluster merged into it
+     */
+    public List<Long> memberClusterIds(long clusterId) {
+        List<Long> ids = clusterRepository.findMemberClusterIds(clusterId);
+        return ids.isEmpty() ? List.of(clusterId) : ids;
+    }
+
+    public void onConfirmed(Incident incident, int previousScore) {
+        if (incident.getClusterId() == null) return;
+        clusterRepository.recordConfirmation(incident.getClusterId(),
+            doubt(incident.getConfidenceScore()) / doubt(previousScore));
+    }
+
+    public void onStatusChanged(Incident incident, Incident.IncidentStatus previous) {
+        if (incident.getClusterId() == null) return;
+        boolean wasOpen = isOpen(previous);
+        boolean open = isOpen(incident.getStatus());
+        if (wasOpen != open) {
+            clusterRepository.adjustOpenCount(incident.getClusterId(), open ? 1 : -1);
+        }
+    }
+
+    /**
+     * Status changes of many incidents, applied with one open-count update per cluster
+     */
+    public void onStatusesChanged(List<Incident> incidents, List<Incident.IncidentStatus> previous) {
+        Map<Long, Integer> openDeltas = new TreeMap<>();
+        for (int i = 0; i < incidents.size(); i++) {
+            Incident incident = incidents.get(i);
+            boolean wasOpen = isOpen(previous.get(i));
+            boolean open = isOpen(incident.getStatus());
+            if (incident.getClusterId() != null && wasOpen != open) {
+                openDeltas.merge(incident.getClusterId(), open ? 1 : -1, Integer::sum);
+            }
+        }
+        openDeltas.forEach((clusterId, delta) -> {
+            if (delta != 0) {
+                clusterRepository.adjustOpenCount(clusterId, delta);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.clustering.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        synchronized (grid) {
+            grid.evictExpired(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Clusters with open reports, optionally within a radius, highest confidence first
+     */
+    @Transactional(readOnly = true)
+    public List<ClusterResponse> getActiveClusters(IncidentQueryRequest request) {
+        boolean withinRadius = request.getLatitude() != null && request.getLongitude() != null
+            && request.getRadiusKm() != null;
+        List<IncidentCluster> clusters = clusterRepository.findActive(
+            request.getLatitude(),
+            request.getLongitude(),
+            withinRadius ? request.getRadiusKm() : null,
+            request.getType() != null ? request.getType().name() : null,
+            Math.min(request.getLimit(), MAX_LIMIT),
+            request.getOffset());
+        return clusters.stream()
+            .map(cluster -> {
+                ClusterResponse response = toResponse(cluster);
+                if (withinRadius) {
+                    response.setDistanceKm(LocationUtil.calculateDistance(request.getLatitude(),
+                        request.getLongitude(), cluster.getLatitude(), cluster.getLongitude()));
+                }
+                return response;
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Admin triage queue: one row per event instead of one per report
+     */
+    @Transactional(readOnly = true)
+    public List<ClusterResponse> getClustersForTriage(boolean activeOnly, int limit) {
+        return clusterRepository.findForTriage(activeOnly, PageRequest.of(0, Math.max(1, Math.min(limit, MAX_LIMIT))))
+            .stream()
+            .map(IncidentClusteringService::toResponse)
+            .collect(Collectors.toList());
+    }
+
+    private Assignment tryJoin(int typeKey, double latitude, double longitude, long now, Long newId) {
+        ClusterGrid.Point point;
+        long clusterId;
+        long[] merged;
+        synchronized (grid) {
+            long[] linked = grid.linkedClusters(typeKey, latitude, longitude, now);
+            if (linked.length == 0) {
+                if (newId == null) return null;
+                clusterId = newId;
+                merged = new long[0];
+                createdCounter.increment();
+            } else {
+                // The oldest cluster survives a merge
+                clusterId = linked[0];
+                merged = Arrays.copyOfRange(linked, 1, linked.length);
+                joinedCounter.increment();
+            }
+            point = grid.add(typeKey, latitude, longitude, now, clusterId);
+        }
+        // The point is visible right away so concurrent reports can join it, and leaves again
+        // on rollback; merges only exist once committed
+        if (merged.length > 0) {
+            TransactionHooks.afterCommit(() -> {
+                synchronized (grid) {
+                    for (long other : merged) {
+                        grid.union(clusterId, other);
+                    }
+                }
+            });
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        synchronized (grid) {
+                            grid.remove(point);
+                        }
+                    }
+                }
+            });
+        }
+        return new Assignment(clusterId, merged);
+    }
+
+    static ClusterResponse toResponse(IncidentCluster cluster) {
+        return ClusterResponse.builder()
+            .id(cluster.getId())
+            .type(cluster.getType())
+            .latitude(cluster.getLatitude())
+            .longitude(cluster.getLongitude())
+            .primaryIncidentId(cluster.getPrimaryIncidentId())
+            .incidentCount(cluster.getIncidentCount())
+            .openCount(cluster.getOpenCount())
+            .confirmationCount(cluster.getConfirmationCount())
+            .confidenceScore(cluster.getConfidenceScore())
+            .firstReportedAt(cluster.getFirstReportedAt())
+            .lastReportedAt(cluster.getLastReportedAt())
+            .build();
+    }
+
+    private static boolean isOpen(Incident.IncidentStatus status) {
+        return status != Incident.IncidentStatus.RESOLVED && status != Incident.IncidentStatus.FALSE;
+    }
+
+    /**
+     * Chance a report is wrong; capped so one certain report cannot zero the product for good
+     */
+    private static double doubt(int confidenceScore) {
+        return 1.0 - Math.min(99, Math.max(0, confidenceScore)) / 100.0;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
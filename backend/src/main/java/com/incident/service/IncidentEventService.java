@@ -0,0 +1,227 @@
+package com.incident.service;
+
+import com.incident.dto.IncidentTimelineResponse;
+import com.incident.entity.Incident;
+import com.incident.entity.IncidentEvent;
+import com.incident.entity.IncidentSnapshot;
+import com.incident.repository.IncidentEventRepository;
+import com.incident.repository.IncidentSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Append-only incident event log with snapshot-bounded replay.
+ */
+@Service
+@RequiredArgsConstructor
+public class IncidentEventService {
+    private final IncidentEventRepository eventRepository;
+    private final IncidentSnapshotRepository snapshotRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.events.snapshot-interval:50}")
+    private int snapshotInterval;
+
+    /**
+     * Append events describing changes already applied to the incident. Event payloads are
+     * taken from the incident's current state; notes are attached to note-carrying events.
+     *
+     * @return the incident's version after the appended events
+     */
+    @Transactional
+    public int append(Incident incident, String actor, String notes, IncidentEvent.EventType... types) {
+        int latestVersion = eventRepository.findLatestVersion(incident.getId());
+        List<IncidentEvent> events = new ArrayList<>(types.length);
+        int version = latestVersion;
+        for (IncidentEvent.EventType type : types) {
+            events.add(IncidentEvent.builder()
+                .incidentId(incident.getId())
+                .version(++version)
+                .eventType(type)
+                .status(type == IncidentEvent.EventType.CREATED || type == IncidentEvent.EventType.STATUS_CHANGED
+                    ? incident.getStatus() : null)
+                .confidenceScore(type == IncidentEvent.EventType.CREATED || type == IncidentEvent.EventType.RESCORED
+                    ? incident.getConfidenceScore() : null)
+                .notes(type == IncidentEvent.EventType.CREATED || type == IncidentEvent.EventType.STATUS_CHANGED
+                    || type == IncidentEvent.EventType.NOTES_EDITED ? notes : null)
+                .actor(actor)
+                .build());
+        }
+        eventRepository.saveAll(events);
+
+        // Snapshot whenever this batch crossed an interval boundary
+        if (version / snapshotInterval > latestVersion / snapshotInterval) {
+            snapshotRepository.save(IncidentSnapshot.builder()
+                .incidentId(incident.getId())
+                .version(version)
+                .status(incident.getStatus())
+                .confidenceScore(incident.getConfidenceScore())
+                .confirmationCount(incident.getConfirmationCount())
+                .adminNotes(incident.getAdminNotes())
+                .build());
+        }
+        return version;
+    }
+
+    /**
+     * One incident's share of a batch append, with the incident's state after the change
+     */
+    public record BatchEntry(long incidentId, Incident.IncidentStatus status, int confidenceScore,
+                             int confirmationCount, String adminNotes, IncidentEvent.EventType... types) {
+    }
+
+    /**
+     * Same as append for many incidents: one version lookup and batched inserts of the
+     * events and of the snapshots due
+     *
+     * @return each incident's version after its events, in entry order
+     */
+    @Transactional
+    public int[] appendAll(List<BatchEntry> entries, String actor, String notes) {
+        Map<Long, Integer> latestVersions = new HashMap<>();
+        List<Long> incidentIds = entries.stream().map(BatchEntry::incidentId).toList();
+        for (Object[] row : eventRepository.findLatestVersions(incidentIds)) {
+            latestVersions.put((Long) row[0], (Integer) row[1]);
+        }
+
+        int[] versions = new int[entries.size()];
+        List<Object[]> events = new ArrayList<>();
+        List<Object[]> snapshots = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            BatchEntry entry = entries.get(i);
+            int latestVersion = latestVersions.getOrDefault(entry.incidentId(), 0);
+            int version = latestVersion;
+            for (IncidentEvent.EventType type : entry.types()) {
+                events.add(new Object[]{
+                    entry.incidentId(),
+                    ++version,
+                    type.name(),
+                    type == IncidentEvent.EventType.STATUS_CHANGED ? entry.status().name() : null,
+                    type == IncidentEvent.EventType.STATUS_CHANGED || type == IncidentEvent.EventType.NOTES_EDITED
+                        ? notes : null,
+                    actor
+                });
+            }
+            if (version / snapshotInterval > latestVersion / snapshotInterval) {
+                snapshots.add(new Object[]{entry.incidentId(), version, entry.status().name(),
+                    entry.confidenceScore(), entry.confirmationCount(), entry.adminNotes()});
+            }
+            versions[i] = version;
+        }
+
+        jdbcTemplate.batchUpdate("""
+            INSERT INTO incident_events (incident_id, version, event_type, status, notes, actor, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, now())
+            """, events);
+        if (!snapshots.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                INSERT INTO incident_snapshots (incident_id, version, status, confidence_score, confirmation_count,
+                    admin_notes, created_at)
+                VALUES (?, ?, ?, ?, ?, ?, now())
+                """, snapshots);
+        }
+        return versions;
+    }
+
+    /**
+     * Current state of an incident rebuilt from its latest snapshot plus the events after it.
+     * Fails for an incident whose log starts after it was created and has no snapshot yet,
+     * since the state the first event applies to was never recorded.
+     */
+    @Transactional(readOnly = true)
+    public IncidentSnapshot project(Long incidentId) {
+        Optional<IncidentSnapshot> snapshot = snapshotRepository.findTopByIncidentIdOrderByVersionDesc(incidentId);
+        IncidentSnapshot state = snapshot
+            .map(s -> IncidentSnapshot.builder()
+                .incidentId(incidentId)
+                .version(s.getVersion())
+                .status(s.getStatus())
+                .confidenceScore(s.getConfidenceScore())
+                .confirmationCount(s.getConfirmationCount())
+                .adminNotes(s.getAdminNotes())
+                .build())
+            .orElseGet(() -> IncidentSnapshot.builder()
+                .incidentId(incidentId)
+                .version(0)
+                .confirmationCount(0)
+                .build());
+
+        List<IncidentEvent> events =
+            eventRepository.findByIncidentIdAndVersionGreaterThanOrderByVersionAsc(incidentId, state.getVersion());
+        if (snapshot.isEmpty() && !events.isEmpty() && events.get(0).getEventType() != IncidentEvent.EventType.CREATED) {
+            throw new RuntimeException("Incident predates the event log and has no snapshot to rebuild from");
+        }
+        events.forEach(event -> apply(state, event));
+        return state;
+    }
+
+    /**
+     * Overwrite the incident's mutable fields with the state projected from the log
+     */
+    public Incident rebuild(Incident incident) {
+        IncidentSnapshot state = project(incident.getId());
+        if (state.getVersion() == 0) {
+            throw new RuntimeException("No events recorded for incident");
+        }
+        incident.setStatus(state.getStatus());
+        incident.setConfidenceScore(state.getConfidenceScore());
+        incident.setConfirmationCount(state.getConfirmationCount());
+        incident.setAdminNotes(state.getAdminNotes());
+        incident.setVersion(state.getVersion());
+        return incident;
+    }
+
+    /**
+     * Timeline view built from a single ordered read of the incident's events.
+     * Returns an empty list for incidents recorded before the event log existed.
+     */
+    @Transactional(readOnly = true)
+    public List<IncidentTimelineResponse> getTimeline(Long incidentId) {
+        List<IncidentEvent> events = eventRepository.findByIncidentIdOrderByVersionAsc(incidentId);
+        IncidentSnapshot state = IncidentSnapshot.builder().confirmationCount(0).build();
+        List<IncidentTimelineResponse> timeline = new ArrayList<>(events.size());
+        for (IncidentEvent event : events) {
+            apply(state, event);
+            timeline.add(IncidentTimelineResponse.builder()
+                .id(event.getId())
+                .eventType(event.getEventType())
+                .status(state.getStatus())
+                .notes(describe(event, state))
+                .updatedBy(event.getActor())
+                .createdAt(event.getCreatedAt())
+                .build());
+        }
+        return timeline;
+    }
+
+    private void apply(IncidentSnapshot state, IncidentEvent event) {
+        switch (event.getEventType()) {
+            case CREATED -> {
+                state.setStatus(event.getStatus());
+                state.setConfidenceScore(event.getConfidenceScore());
+            }
+            case CONFIRMED -> state.setConfirmationCount(state.getConfirmationCount() + 1);
+            case RESCORED -> state.setConfidenceScore(event.getConfidenceScore());
+            case STATUS_CHANGED -> state.setStatus(event.getStatus());
+            case NOTES_EDITED -> state.setAdminNotes(event.getNotes());
+        }
+        state.setVersion(event.getVersion());
+    }
+
+    private String describe(IncidentEvent event, IncidentSnapshot state) {
+        return switch (event.getEventType()) {
+            case CONFIRMED -> "Confirmed (" + state.getConfirmationCount() + " confirmations)";
+            case RESCORED -> "Confidence score changed to " + state.getConfidenceScore();
+            default -> event.getNotes();
+        };
+    }
+}
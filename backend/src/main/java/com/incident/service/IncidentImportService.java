@@ -0,0 +1,713 @@
+package com.incident.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.incident.dto.ImportRowError;
+import com.incident.dto.IncidentImportResponse;
+import com.incident.entity.Incident;
+import com.incident.entity.IncidentEvent;
+import com.incident.entity.IncidentImport;
+import com.incident.entity.User;
+import com.incident.repository.IncidentImportRepository;
+import com.incident.repository.UserRepository;
+import com.incident.util.ConfidenceScoreCalculator;
+import com.incident.util.CopyRows;
+import com.incident.util.CsvReader;
+import com.incident.util.IncidentIdGenerator;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Bulk import of incident history from another system, as CSV with a header row or as
+ * NDJSON. The input is read as a stream and loaded with COPY in batches, each in one
+ * transaction that also advances the import's checkpoint (IncidentImport), so memory stays
+ * constant and an interrupted import resumes where it stopped. Invalid rows are reported and
+ * skipped; they do not stop the import.
+ *
+ * Each row becomes an incident scored by ConfidenceScoreCalculator, its timeline rows,
+ * its event log with a snapshot of the final state, and a PUBLIC user for an unknown
+ * reporter. Imported history is not broadcast, clustered or matched against geofences;
+ * active incidents are added to the map tiles.
+ */
+@Slf4j
+@Service
+public class IncidentImportService {
+    // Reached VERIFIED or moved on from it; counted towards the reporter's verified reports
+    private static final Set<Incident.IncidentStatus> VERIFIED_OUTCOMES = EnumSet.of(
+        Incident.IncidentStatus.VERIFIED, Incident.IncidentStatus.IN_PROGRESS, Incident.IncidentStatus.RESOLVED);
+    private static final List<String> REQUIRED_COLUMNS = List.of("type", "description", "latitude", "longitude", "createdat");
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IncidentImportRepository importRepository;
+    private final UserRepository userRepository;
+    private final ConfidenceScoreCalculator confidenceScoreCalculator;
+    private final IncidentPartitionService partitionService;
+    private final TileClusterService tileClusterService;
+    private final IncidentQueryCache queryCache;
+    private final IncidentChangeBus changeBus;
+    private final IncidentShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final int maxRecordLength;
+    private final int archiveAfterDays;
+
+    /**
+     * A valid row, mapped to the incident it creates
+     */
+    private record ImportRow(long row, Incident incident, String reporterUsername, String reporterEmail) {
+    }
+
+    /**
+     * One record of the input: its fields by normalised name, or why it could not be read
+     */
+    private record RawRow(Map<String, String> fields, String error) {
+    }
+
+    private interface RowReader extends Closeable {
+        RawRow next() throws IOException; // null at the end of the input
+    }
+
+    /**
+     * State of one run of an import
+     */
+    private static final class Run {
+        final String importId;
+        final String actor;
+        final Long actorId;
+        final Consumer<ImportRowError> errorListener;
+        final List<ImportRowError> reportedErrors = new ArrayList<>();
+        final Set<String> partitions = new HashSet<>();
+        long committedRow;
+        long imported;
+        long failed;
+
+        Run(String importId, String actor, Long actorId, long committedRow, Consumer<ImportRowError> errorListener) {
+            this.importId = importId;
+            this.actor = actor;
+            this.actorId = actorId;
+            this.committedRow = committedRow;
+            this.errorListener = errorListener;
+        }
+    }
+
+    public IncidentImportService(NamedParameterJdbcTemplate namedJdbcTemplate,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 IncidentImportRepository importRepository,
+                                 UserRepository userRepository,
+                                 ConfidenceScoreCalculator confidenceScoreCalculator,
+                                 IncidentPartitionService partitionService,
+                                 TileClusterService tileClusterService,
+                                 IncidentQueryCache queryCache,
+                                 IncidentChangeBus changeBus,
+                                 IncidentShardRouter shardRouter,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.import.batch-size:1000}") int batchSize,
+                                 @Value("${app.import.max-reported-errors:1000}") int maxReportedErrors,
+                                 @Value("${app.import.max-record-length:100000}") int maxRecordLength,
+                                 @Value("${app.archive.closed-older-than-days:30}") int archiveAfterDays) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.importRepository = importRepository;
+        this.userRepository = userRepository;
+        this.confidenceScoreCalculator = confidenceScoreCalculator;
+        this.partitionService = partitionService;
+        this.tileClusterService = tileClusterService;
+        this.queryCache = queryCache;
+        this.changeBus = changeBus;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.maxRecordLength = maxRecordLength;
+        this.archiveAfterDays = archiveAfterDays;
+    }
+
+    /**
+     * Import or resume an import of the given input
+     *
+     * @param importId      checkpoint to resume, or null to start a new import
+     * @param username      importing administrator, or null when run from the command line
+     * @param errorListener called with every rejected row once its batch is committed; may be null
+     */
+    @Timed(value = "incident.service", extraTags = {"operation", "importIncidents"})
+    public IncidentImportResponse importIncidents(InputStream input, IncidentImport.Format format, String importId,
+                                                  String username, Consumer<ImportRowError> errorListener) {
+        // Rows are copied into the home database's incidents table
+        if (shardRouter.isSharded()) {
+            throw new RuntimeException("Importing incidents is not available with sharded incident storage");
+        }
+        String actor = "import";
+        Long actorId = null;
+        if (username != null) {
+            User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+            if (user.getRole() != User.Role.ADMIN) {
+                throw new RuntimeException("Only administrators can import incidents");
+            }
+            actor = username;
+            actorId = user.getId();
+        }
+
+        IncidentImport checkpoint = checkpoint(importId, format, actor);
+        Run run = new Run(checkpoint.getId(), actor, actorId, checkpoint.getRowsRead(), errorListener);
+        long skipped = checkpoint.getRowsRead();
+
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        List<ImportRowError> batchErrors = new ArrayList<>();
+        long row = 0;
+        try (RowReader reader = format == IncidentImport.Format.CSV ? csvReader(input) : ndjsonReader(input)) {
+            RawRow raw;
+            while ((raw = reader.next()) != null) {
+                row++;
+                if (row <= skipped) {
+                    continue;
+                }
+                String incidentId = raw.fields() != null ? raw.fields().get("incidentid") : null;
+                try {
+                    if (raw.error() != null) {
+                        throw new IllegalArgumentException(raw.error());
+                    }
+                    batch.add(parse(row, raw.fields()));
+                } catch (IllegalArgumentException e) {
+                    batchErrors.add(ImportRowError.builder().row(row).incidentId(incidentId).message(e.getMessage()).build());
+                }
+                if (batch.size() + batchErrors.size() >= batchSize) {
+                    flush(run, batch, batchErrors, row, false);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read import " + run.importId + " after row " + run.committedRow
+                + ": " + e.getMessage());
+        }
+        flush(run, batch, batchErrors, Math.max(row, run.committedRow), true);
+
+        log.info("{} imported {} incidents ({} rows rejected, {} skipped) in import {}",
+            actor, run.imported, run.failed, Math.min(row, skipped), run.importId);
+        return IncidentImportResponse.builder()
+            .importId(run.importId)
+            .format(format)
+            .skipped(Math.min(row, skipped))
+            .imported(run.imported)
+            .failed(run.failed)
+            .rowsRead(run.committedRow)
+            .completed(true)
+            .errors(run.reportedErrors)
+            .build();
+    }
+
+    private IncidentImport checkpoint(String importId, IncidentImport.Format format, String actor) {
+        if (importId == null || importId.isBlank()) {
+            importId = "import-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+                + "-" + UUID.randomUUID().toString().substring(0, 8);
+        } else if (importId.length() > 100) {
+            throw new RuntimeException("Import id must be at most 100 characters");
+        }
+        String id = importId;
+        IncidentImport checkpoint = importRepository.findById(id)
+            .orElseGet(() -> importRepository.save(IncidentImport.builder()
+                .id(id)
+                .format(format)
+                .startedBy(actor)
+                .build()));
+        if (checkpoint.getFormat() != format) {
+            throw new RuntimeException("Import " + id + " was started as " + checkpoint.getFormat());
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Write a batch and advance the checkpoint to toRow in one transaction
+     */
+    private void flush(Run run, List<ImportRow> batch, List<ImportRowError> errors, long toRow, boolean last) {
+        // Outside the batch transaction: a failed CREATE TABLE would abort it
+        for (ImportRow row : batch) {
+            Incident incident = row.incident();
+            String key = incident.getArchived()
+                ? "archive-" + incident.getCreatedAt().getYear()
+                : "hot-" + YearMonth.from(incident.getCreatedAt());
+            if (run.partitions.add(key)) {
+                partitionService.createPartitionFor(incident.getCreatedAt(), incident.getArchived());
+            }
+        }
+
+        List<Incident> written = transactionTemplate.execute(status -> write(run, batch, errors, toRow, last));
+        run.committedRow = toRow;
+        run.imported += written.size();
+        run.failed += errors.size();
+        for (ImportRowError error : errors) {
+            if (run.reportedErrors.size() < maxReportedErrors) {
+                run.reportedErrors.add(error);
+            }
+            if (run.errorListener != null) {
+                run.errorListener.accept(error);
+            }
+        }
+        written.forEach(tileClusterService::onIncidentChanged);
+        queryCache.invalidate(written);
+        changeBus.incidentsReindexed(written.stream().map(Incident::getId).toList());
+        meterRegistry.counter("incident.imported").increment(written.size());
+        meterRegistry.counter("incident.import.rejected").increment(errors.size());
+        batch.clear();
+        errors.clear();
+    }
+
+    private List<Incident> write(Run run, List<ImportRow> batch, List<ImportRowError> errors, long toRow, boolean last) {
+        // First, so a concurrent run of the same import waits here and then fails
+        int advanced = jdbcTemplate.update("""
+            UPDATE incident_imports SET rows_read = ?, completed = ?, updated_at = now()
+            WHERE id = ? AND rows_read = ?
+            """, toRow, last, run.importId, run.committedRow);
+        if (advanced == 0) {
+            throw new RuntimeException("Import " + run.importId + " was advanced by another run; send it again to resume");
+        }
+
+        List<ImportRow> rows = withoutExistingIds(batch, errors);
+        if (!rows.isEmpty()) {
+            Map<String, User> reporters = resolveReporters(rows);
+            List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT nextval('incidents_id_seq') FROM generate_series(1, ?)", Long.class, rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                Incident incident = rows.get(i).incident();
+                incident.setId(ids.get(i));
+                incident.setReporter(reporters.get(rows.get(i).reporterUsername()));
+                if (incident.getIncidentId() == null) {
+                    incident.setIncidentId(IncidentIdGenerator.generate(incident.getCreatedAt()));
+                }
+                incident.setConfidenceScore(confidenceScoreCalculator.calculate(incident));
+            }
+            insertIncidents(rows);
+            insertHistory(run, rows);
+            updateReporterReputations(rows);
+        }
+
+        jdbcTemplate.update("UPDATE incident_imports SET imported = imported + ?, failed = failed + ? WHERE id = ?",
+            rows.size(), errors.size(), run.importId);
+        return rows.stream().map(ImportRow::incident).toList();
+    }
+
+    /**
+     * Rows whose incident id is new; the others are rejected, so importing a file again
+     * under a new import id does not duplicate incidents that carry their own ids. The
+     * lookup includes created_at, like the unique key, so each id probes one partition.
+     */
+    private List<ImportRow> withoutExistingIds(List<ImportRow> batch, List<ImportRowError> errors) {
+        List<Incident> given = batch.stream()
+            .map(ImportRow::incident)
+            .filter(incident -> incident.getIncidentId() != null)
+            .toList();
+        Set<String> seen = new HashSet<>();
+        if (!given.isEmpty()) {
+            seen.addAll(namedJdbcTemplate.queryForList("""
+                SELECT i.incident_id
+                FROM unnest(CAST(:ids AS text[]), CAST(:createdAts AS timestamp[])) AS v(incident_id, created_at)
+                JOIN incidents i ON i.incident_id = v.incident_id AND i.created_at = v.created_at
+                """, Map.of(
+                    "ids", given.stream().map(Incident::getIncidentId).toArray(String[]::new),
+                    "createdAts", given.stream().map(incident -> incident.getCreatedAt().toString()).toArray(String[]::new)),
+                String.class));
+        }
+        List<ImportRow> rows = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            String incidentId = row.incident().getIncidentId();
+            if (incidentId != null && !seen.add(incidentId)) {
+                errors.add(ImportRowError.builder()
+                    .row(row.row())
+                    .incidentId(incidentId)
+                    .message("Incident " + incidentId + " already exists")
+                    .build());
+            } else {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Reporters by username, creating PUBLIC users for the ones not seen before
+     */
+    private Map<String, User> resolveReporters(List<ImportRow> rows) {
+        Map<String, String> emails = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            emails.putIfAbsent(row.reporterUsername(), row.reporterEmail());
+        }
+        Map<String, User> reporters = findUsers(emails.keySet());
+        if (reporters.size() < emails.size()) {
+            List<Object[]> missing = emails.entrySet().stream()
+                .filter(e -> !reporters.containsKey(e.getKey()))
+                .map(e -> new Object[]{e.getKey(), e.getValue() != null ? e.getValue() : e.getKey() + "@anonymous.local"})
+                .toList();
+            // Same defaults as a first report through the API
+            jdbcTemplate.batchUpdate("""
+                INSERT INTO users (username, email, password, role, reputation, verified_reports, false_reports,
+                    created_at, active)
+                VALUES (?, ?, 'N/A', 'PUBLIC', 'NEW', 0, 0, now(), true)
+                ON CONFLICT (username) DO NOTHING
+                """, missing);
+            reporters.putAll(findUsers(missing.stream().map(m -> (String) m[0]).toList()));
+        }
+        return reporters;
+    }
+
+    private Map<String, User> findUsers(Collection<String> usernames) {
+        Map<String, User> users = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, username, reputation FROM users WHERE username IN (:usernames)",
+            Map.of("usernames", usernames), rs -> {
+                users.put(rs.getString("username"), User.builder()
+                    .id(rs.getLong("id"))
+                    .username(rs.getString("username"))
+                    .reputation(User.ReputationLevel.valueOf(rs.getString("reputation")))
+                    .build());
+            });
+        return users;
+    }
+
+    private void insertIncidents(List<ImportRow> rows) {
+        CopyRows incidents = new CopyRows();
+        for (ImportRow row : rows) {
+            Incident incident = row.incident();
+            incidents.col(incident.getId()).col(incident.getIncidentId()).col(incident.getType().name())
+                .col(incident.getDescription()).col(incident.getLatitude()).col(incident.getLongitude())
+                .col(incident.getAddress()).col(incident.getGpsAccuracy()).col(incident.getImageUrl())
+                .col(incident.getStatus().name()).col(incident.getConfidenceScore())
+                .col(incident.getConfirmationCount()).col(incident.getReporter().getId()).col(incident.getAdminNotes())
+                .col(incident.getCreatedAt()).col(incident.getUpdatedAt()).col(incident.getArchived())
+                .col(incident.getVersion());
+            incidents.end();
+        }
+        copy(incidents, """
+            COPY incidents (id, incident_id, type, description, latitude, longitude, address, gps_accuracy,
+                image_url, status, confidence_score, confirmation_count, reporter_id, admin_notes, created_at,
+                updated_at, archived, version) FROM STDIN
+            """);
+    }
+
+    /**
+     * Timeline rows and events as the application would have written them: the report,
+     * then the final status and notes, plus a snapshot so replay restores the
+     * confirmation count that has no events of its own
+     */
+    private void insertHistory(Run run, List<ImportRow> rows) {
+        CopyRows timeline = new CopyRows();
+        CopyRows events = new CopyRows();
+        CopyRows snapshots = new CopyRows();
+        LocalDateTime now = LocalDateTime.now();
+        for (ImportRow row : rows) {
+            Incident incident = row.incident();
+            timeline.col(incident.getId()).col(Incident.IncidentStatus.UNVERIFIED.name()).col("Incident reported")
+                .col((Long) null).col(incident.getCreatedAt());
+            timeline.end();
+            int version = 1;
+            events.col(incident.getId()).col(version).col(IncidentEvent.EventType.CREATED.name())
+                .col(Incident.IncidentStatus.UNVERIFIED.name()).col(incident.getConfidenceScore())
+                .col("Incident reported").col(row.reporterUsername()).col(incident.getCreatedAt());
+            events.end();
+            if (incident.getStatus() != Incident.IncidentStatus.UNVERIFIED) {
+                timeline.col(incident.getId()).col(incident.getStatus().name()).col(incident.getAdminNotes())
+                    .col(run.actorId).col(incident.getUpdatedAt());
+                timeline.end();
+                events.col(incident.getId()).col(++version).col(IncidentEvent.EventType.STATUS_CHANGED.name())
+                    .col(incident.getStatus().name()).col((Long) null).col(incident.getAdminNotes())
+                    .col(run.actor).col(incident.getUpdatedAt());
+                events.end();
+            }
+            if (incident.getAdminNotes() != null) {
+                events.col(incident.getId()).col(++version).col(IncidentEvent.EventType.NOTES_EDITED.name())
+                    .col((String) null).col((Long) null).col(incident.getAdminNotes())
+                    .col(run.actor).col(incident.getUpdatedAt());
+                events.end();
+            }
+            snapshots.col(incident.getId()).col(version).col(incident.getStatus().name())
+                .col(incident.getConfidenceScore()).col(incident.getConfirmationCount()).col(incident.getAdminNotes())
+                .col(now);
+            snapshots.end();
+        }
+        copy(timeline, "COPY incident_timeline (incident_id, status, notes, updated_by_id, created_at) FROM STDIN");
+        copy(events, """
+            COPY incident_events (incident_id, version, event_type, status, confidence_score, notes, actor,
+                created_at) FROM STDIN
+            """);
+        copy(snapshots, """
+            COPY incident_snapshots (incident_id, version, status, confidence_score, confirmation_count,
+                admin_notes, created_at) FROM STDIN
+            """);
+    }
+
+    /**
+     * Verified and false reports counted per reporter and applied in one statement, with
+     * the same reputation rules as a status change
+     */
+    private void updateReporterReputations(List<ImportRow> rows) {
+        Map<Long, int[]> countsByReporter = new TreeMap<>();
+        for (ImportRow row : rows) {
+            Incident incident = row.incident();
+            int[] counts = countsByReporter.computeIfAbsent(incident.getReporter().getId(), id -> new int[2]);
+            if (VERIFIED_OUTCOMES.contains(incident.getStatus())) {
+                counts[0]++;
+            } else if (incident.getStatus() == Incident.IncidentStatus.FALSE) {
+                counts[1]++;
+            }
+        }
+        countsByReporter.values().removeIf(counts -> counts[0] + counts[1] == 0);
+        if (countsByReporter.isEmpty()) {
+            return;
+        }
+        // Demoted to NEW at 3 false reports; otherwise TRUSTED at 10 verified, and NEW becomes RELIABLE at 3
+        namedJdbcTemplate.update("""
+            UPDATE users u SET
+                verified_reports = u.verified_reports + c.verified,
+                false_reports = u.false_reports + c.falsified,
+                reputation = CASE
+                    WHEN u.false_reports + c.falsified >= 3 THEN 'NEW'
+                    WHEN u.reputation = 'TRUSTED' OR u.verified_reports + c.verified >= 10 THEN 'TRUSTED'
+                    WHEN u.reputation = 'NEW' AND u.verified_reports + c.verified >= 3 THEN 'RELIABLE'
+                    ELSE u.reputation END
+            FROM unnest(CAST(:ids AS bigint[]), CAST(:verified AS integer[]), CAST(:falsified AS integer[]))
+                AS c(id, verified, falsified)
+            WHERE u.id = c.id
+            """, Map.of(
+                "ids", countsByReporter.keySet().toArray(Long[]::new),
+                "verified", countsByReporter.values().stream().map(counts -> counts[0]).toArray(Integer[]::new),
+                "falsified", countsByReporter.values().stream().map(counts -> counts[1]).toArray(Integer[]::new)));
+    }
+
+    private void copy(CopyRows rows, String sql) {
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> rows.copyIn(connection, sql));
+    }
+
+    /**
+     * Validate a row and map it to an incident; fails with the message for the row error
+     */
+    private ImportRow parse(long row, Map<String, String> fields) {
+        Incident.IncidentType type = enumValue(Incident.IncidentType.class,
+            required(fields, "type", "Incident type is required"), "type");
+        String description = required(fields, "description", "Description is required");
+        maxLength(description, 2000, "Description");
+        double latitude = number(required(fields, "latitude", "Latitude is required"), "latitude");
+        if (latitude < -90 || latitude > 90) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+        double longitude = number(required(fields, "longitude", "Longitude is required"), "longitude");
+        if (longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+        LocalDateTime createdAt = time(required(fields, "createdat", "createdAt is required"), "createdAt");
+        if (createdAt.isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("createdAt is in the future");
+        }
+        String updatedAtValue = fields.get("updatedat");
+        LocalDateTime updatedAt = updatedAtValue != null ? time(updatedAtValue, "updatedAt") : createdAt;
+        if (updatedAt.isBefore(createdAt)) {
+            updatedAt = createdAt;
+        }
+
+        Incident.IncidentStatus status = fields.get("status") != null
+            ? enumValue(Incident.IncidentStatus.class, fields.get("status"), "status")
+            : Incident.IncidentStatus.UNVERIFIED;
+        String gpsAccuracy = fields.get("gpsaccuracy");
+        String confirmations = fields.get("confirmationcount");
+        int confirmationCount = confirmations != null ? (int) number(confirmations, "confirmationCount") : 0;
+        if (confirmationCount < 0) {
+            throw new IllegalArgumentException("confirmationCount must not be negative");
+        }
+        String incidentId = fields.get("incidentid");
+        String reporterUsername = Objects.requireNonNullElse(fields.get("reporterusername"), "anonymous");
+        maxLength(incidentId, 255, "incidentId");
+        maxLength(fields.get("address"), 500, "Address");
+        maxLength(fields.get("imageurl"), 500, "imageUrl");
+        maxLength(fields.get("adminnotes"), 2000, "adminNotes");
+        maxLength(reporterUsername, 100, "reporterUsername");
+        maxLength(fields.get("reporteremail"), 100, "reporterEmail");
+
+        boolean closed = status == Incident.IncidentStatus.RESOLVED || status == Incident.IncidentStatus.FALSE;
+        Incident incident = Incident.builder()
+            .incidentId(incidentId)
+            .type(type)
+            .description(description)
+            .latitude(latitude)
+            .longitude(longitude)
+            .address(fields.get("address"))
+            .gpsAccuracy(gpsAccuracy != null ? number(gpsAccuracy, "gpsAccuracy") : null)
+            .imageUrl(fields.get("imageurl"))
+            .status(status)
+            .confirmationCount(confirmationCount)
+            .adminNotes(fields.get("adminnotes"))
+            .createdAt(createdAt)
+            .updatedAt(updatedAt)
+            .archived(closed && createdAt.isBefore(LocalDateTime.now().minusDays(archiveAfterDays)))
+            // The events insertHistory writes: CREATED, then the final status and the notes
+            .version(1 + (status != Incident.IncidentStatus.UNVERIFIED ? 1 : 0) + (fields.get("adminnotes") != null ? 1 : 0))
+            .build();
+        return new ImportRow(row, incident, reporterUsername, fields.get("reporteremail"));
+    }
+
+    private static String required(Map<String, String> fields, String name, String message) {
+        String value = fields.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException(message);
+        }
+        return value;
+    }
+
+    private static void maxLength(String value, int max, String name) {
+        if (value != null && value.length() > max) {
+            throw new IllegalArgumentException(name + " must be at most " + max + " characters");
+        }
+    }
+
+    private static double number(String value, String name) {
+        try {
+            double number = Double.parseDouble(value);
+            if (!Double.isFinite(number)) {
+                throw new NumberFormatException();
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + name + ": " + value);
+        }
+    }
+
+    /**
+     * ISO date-time with or without an offset (offsets are converted to local time), with
+     * 'T' or a space between date and time, or a plain date
+     */
+    private static LocalDateTime time(String value, String name) {
+        try {
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay();
+            }
+            TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parseBest(value.replace(' ', 'T'),
+                OffsetDateTime::from, LocalDateTime::from);
+            return parsed instanceof OffsetDateTime offset
+                ? offset.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime()
+                : (LocalDateTime) parsed;
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Column and field names are matched ignoring case, underscores, dashes and spaces,
+     * so created_at, Created At and createdAt are the same field
+     */
+    private static String normalise(String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[_\\-\\s]", "");
+    }
+
+    private RowReader csvReader(InputStream input) throws IOException {
+        CsvReader csv = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8), maxRecordLength);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new RuntimeException("CSV input is empty");
+        }
+        List<String> columns = header.stream().map(name -> name == null ? "" : normalise(name)).toList();
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.contains(required)) {
+                throw new RuntimeException("CSV header has no " + required + " column");
+            }
+        }
+        return new RowReader() {
+            @Override
+            public RawRow next() throws IOException {
+                List<String> record = csv.readRecord();
+                if (record == null) {
+                    return null;
+                }
+                if (record.size() != columns.size()) {
+                    return new RawRow(null, "Expected " + columns.size() + " fields, found " + record.size());
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    String value = record.get(i) != null ? record.get(i).trim() : null;
+                    fields.put(columns.get(i), value == null || value.isEmpty() ? null : value);
+                }
+                return new RawRow(fields, null);
+            }
+
+            @Override
+            public void close() throws IOException {
+                csv.close();
+            }
+        };
+    }
+
+    private RowReader ndjsonReader(InputStream input) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        return new RowReader() {
+            @Override
+            public RawRow next() throws IOException {
+                String line;
+                do {
+                    line = reader.readLine();
+                    if (line == null) {
+                        return null;
+                    }
+                } while (line.isBlank());
+                if (line.length() > maxRecordLength) {
+                    return new RawRow(null, "Line longer than " + maxRecordLength + " characters");
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    return new RawRow(null, "Invalid JSON: " + e.getOriginalMessage());
+                }
+                if (!node.isObject()) {
+                    return new RawRow(null, "Expected a JSON object");
+                }
+                Map<String, String> fields = new HashMap<>();
+                node.fields().forEachRemaining(field -> {
+                    JsonNode value = field.getValue();
+                    String text = value.isNull() ? null : value.isValueNode() ? value.asText().trim() : value.toString();
+                    fields.put(normalise(field.getKey()), text == null || text.isEmpty() ? null : text);
+                });
+                return new RawRow(fields, null);
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+}
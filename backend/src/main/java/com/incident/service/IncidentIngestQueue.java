@@ -0,0 +1,173 @@
+package com.incident.service;
+
+import com.incident.dto.IncidentCreateRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded in-memory queue for the asynchronous report mode. The controller enqueues
+ * validated reports and returns immediately; a fixed pool of writers drains the queue in
+ * micro-batches, one transaction per batch. A full queue rejects new reports instead of
+ * letting request threads and connections pile up.
+ */
+@Slf4j
+@Service
+public class IncidentIngestQueue {
+    private final IncidentService incidentService;
+    private final ImageDuplicateService imageDuplicateService;
+    private final boolean asyncMode;
+    private final int writers;
+    private final int batchSize;
+    private final BlockingQueue<PendingReport> queue;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService writerPool;
+
+    private final Timer waitTimer;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final DistributionSummary batchSizes;
+
+    public IncidentIngestQueue(IncidentService incidentService,
+                               ImageDuplicateService imageDuplicateService,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.ingest.mode:sync}") String mode,
+                               @Value("${app.ingest.queue-capacity:10000}") int capacity,
+                               @Value("${app.ingest.writers:4}") int writers,
+                               @Value("${app.ingest.batch-size:100}") int batchSize) {
+        this.incidentService = incidentService;
+        this.imageDuplicateService = imageDuplicateService;
+        this.asyncMode = "async".equalsIgnoreCase(mode);
+        this.writers = writers;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        Gauge.builder("ingest.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("ingest.queue.capacity", () -> capacity).register(meterRegistry);
+        this.waitTimer = meterRegistry.timer("ingest.queue.wait");
+        this.droppedCounter = meterRegistry.counter("ingest.dropped");
+        this.failedCounter = meterRegistry.counter("ingest.failed");
+        this.batchSizes = meterRegistry.summary("ingest.batch.size");
+    }
+
+    public boolean isAsyncMode() {
+        return asyncMode;
+    }
+
+    /**
+     * @return false when the queue is full and the report was shed
+     */
+    public boolean offer(String incidentId, IncidentCreateRequest request, String imageUrl, String reporterUsername) {
+        boolean accepted = queue.offer(new PendingReport(
+            incidentId, request, imageUrl, null, reporterUsername, System.nanoTime()));
+        if (!accepted) {
+            droppedCounter.increment();
+        }
+        return accepted;
+    }
+
+    public int getDepth() {
+        return queue.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!asyncMode || !running.compareAndSet(false, true)) {
+            return;
+        }
+        writerPool = Executors.newFixedThreadPool(writers, runnable -> {
+            Thread thread = new Thread(runnable, "incident-ingest-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < writers; i++) {
+            writerPool.submit(this::drainLoop);
+        }
+        log.info("Async ingest started with {} writers, batch size {}, capacity {}",
+            writers, batchSize, queue.remainingCapacity() + queue.size());
+    }
+
+    // Context close fires before the message broker and datasource stop, so drained reports still broadcast
+    @EventListener(ContextClosedEvent.class)
+    public void stop() throws InterruptedException {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        // Writers finish what is already queued before exiting
+        writerPool.shutdown();
+        if (!writerPool.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Ingest writers did not drain in time; {} reports left in queue", queue.size());
+            writerPool.shutdownNow();
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingReport> batch = new ArrayList<>(batchSize);
+        while (running.get() || !queue.isEmpty()) {
+            try {
+                PendingReport first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingReport> batch) {
+        long now = System.nanoTime();
+        for (PendingReport report : batch) {
+            waitTimer.record(now - report.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+        }
+        batchSizes.record(batch.size());
+
+        // Photos are decoded here, off the request thread and before the batch transaction
+        List<PendingReport> reports = batch.stream()
+            .map(report -> report.withImageHash(imageDuplicateService.hash(report.imageUrl())))
+            .toList();
+        try {
+            incidentService.createIncidents(reports);
+        } catch (Exception batchFailure) {
+            // One bad report rolls back the whole batch; retry one by one to isolate it
+            for (PendingReport report : reports) {
+                try {
+                    incidentService.createIncidents(List.of(report));
+                } catch (Exception e) {
+                    failedCounter.increment();
+                    log.warn("Dropping queued report {}: {}", report.incidentId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    public record PendingReport(String incidentId, IncidentCreateRequest request, String imageUrl, Long imageHash,
+                                String reporterUsername, long enqueuedAtNanos) {
+        PendingReport withImageHash(Long hash) {
+            return new PendingReport(incidentId, request, imageUrl, hash, reporterUsername, enqueuedAtNanos);
+        }
+    }
+}
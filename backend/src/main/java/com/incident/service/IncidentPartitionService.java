@@ -0,0 +1,197 @@
+package com.incident.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Maintains the partitions of the incidents table. Rows are list-partitioned on
+ * archived into incidents_hot and incidents_archive, and each side is range-partitioned
+ * on created_at (monthly when hot, yearly when archived). Queries that filter on
+ * archived = false only touch the hot months; closed incidents past the archive age are
+ * moved across by flipping the flag.
+ */
+@Slf4j
+@Service
+public class IncidentPartitionService {
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int archiveAfterDays;
+    private final int archiveBatchSize;
+    private final Counter archivedCounter;
+
+    // Set once IncidentPartitionInitializer has the partitioned layout in place
+    private volatile boolean partitioned;
+
+    public IncidentPartitionService(JdbcTemplate jdbcTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.partitions.months-ahead:3}") int monthsAhead,
+                                    @Value("${app.archive.closed-older-than-days:30}") int archiveAfterDays,
+                                    @Value("${app.archive.batch-size:1000}") int archiveBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterDays = archiveAfterDays;
+        this.archiveBatchSize = archiveBatchSize;
+        this.archivedCounter = meterRegistry.counter("incident.archived");
+    }
+
+    public void markPartitioned() {
+        partitioned = true;
+    }
+
+    /**
+     * Create monthly hot partitions from the given month through monthsAhead past the current one
+     */
+    public void createHotPartitions(YearMonth from) {
+        createHotPartitions(jdbcTemplate, from);
+    }
+
+    /**
+     * Same, in another database holding an incidents table of this layout, such as a shard
+     */
+    public void createHotPartitions(JdbcTemplate target, YearMonth from) {
+        YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+        for (YearMonth month = from; !month.isAfter(last); month = month.plusMonths(1)) {
+            createHotPartition(target, month);
+        }
+    }
+
+    /**
+     * Make incident_id unique again. A unique index on a partitioned table must include the
+     * partition columns, so every insert instead claims its id in the plain incident_ids
+     * table. A row moving to the archive keeps its claim; claims are never released, so an id
+     * is not reused.
+     */
+    public void enforceUniqueIncidentIds() {
+        enforceUniqueIncidentIds(jdbcTemplate);
+    }
+
+    /**
+     * Same, in another database holding an incidents table of this layout, such as a shard
+     */
+    public void enforceUniqueIncidentIds(JdbcTemplate target) {
+        target.execute("CREATE TABLE IF NOT EXISTS incident_ids (incident_id varchar(255) PRIMARY KEY, id bigint NOT NULL)");
+        target.execute("""
+            CREATE OR REPLACE FUNCTION claim_incident_id() RETURNS trigger AS $$
+            BEGIN
+                INSERT INTO incident_ids (incident_id, id) VALUES (NEW.incident_id, NEW.id) ON CONFLICT DO NOTHING;
+                IF NOT FOUND AND NOT EXISTS (
+                    SELECT 1 FROM incident_ids WHERE incident_id = NEW.incident_id AND id = NEW.id) THEN
+                    RAISE unique_violation USING CONSTRAINT = 'incident_ids_pkey',
+                        MESSAGE = 'duplicate incident_id ' || NEW.incident_id;
+                END IF;
+                RETURN NEW;
+            END
+            $$ LANGUAGE plpgsql
+            """);
+        Boolean installed = target.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = 'incidents_claim_incident_id')", Boolean.class);
+        if (Boolean.TRUE.equals(installed)) return;
+        target.execute("CREATE TRIGGER incidents_claim_incident_id BEFORE INSERT ON incidents"
+            + " FOR EACH ROW EXECUTE FUNCTION claim_incident_id()");
+        // Rows written before the trigger existed
+        int claimed = target.update("""
+            INSERT INTO incident_ids (incident_id, id)
+            SELECT incident_id, MIN(id) FROM incidents GROUP BY incident_id
+            ON CONFLICT DO NOTHING
+            """);
+        log.info("Claimed {} existing incident ids", claimed);
+    }
+
+    /**
+     * Create the partition for rows with this creation time and archive flag, for writes
+     * outside the months kept ahead, such as imported history
+     */
+    public void createPartitionFor(LocalDateTime createdAt, boolean archived) {
+        if (!partitioned) {
+            return;
+        }
+        if (archived) {
+            createArchivePartition(jdbcTemplate, createdAt.getYear());
+        } else {
+            createHotPartition(jdbcTemplate, YearMonth.from(createdAt));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.partitions.maintenance-interval-ms:3600000}")
+    public void createUpcomingPartitions() {
+        if (partitioned) {
+            createHotPartitions(YearMonth.now());
+        }
+    }
+
+    /**
+     * Move RESOLVED and FALSE incidents older than the archive age to the archive partitions,
+     * in short batches so no transaction holds row locks for long
+     */
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms:3600000}",
+               initialDelayString = "${app.archive.initial-delay-ms:60000}")
+    public void archiveClosedIncidents() {
+        if (partitioned) {
+            archiveClosedIncidents(jdbcTemplate);
+        }
+    }
+
+    /**
+     * Same, in another database holding an incidents table of this layout, such as a shard
+     */
+    public void archiveClosedIncidents(JdbcTemplate target) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+
+        List<Integer> years = target.queryForList("""
+            SELECT DISTINCT CAST(EXTRACT(YEAR FROM created_at) AS integer) FROM incidents
+            WHERE archived = false AND status IN ('RESOLVED', 'FALSE') AND created_at < ?
+            """, Integer.class, cutoff);
+        for (int year : years) {
+            createArchivePartition(target, year);
+        }
+
+        int total = 0;
+        int moved;
+        do {
+            moved = target.update("""
+                UPDATE incidents SET archived = true
+                WHERE archived = false AND (id, created_at) IN (
+                    SELECT id, created_at FROM incidents
+                    WHERE archived = false AND status IN ('RESOLVED', 'FALSE') AND created_at < ?
+                    ORDER BY created_at
+                    LIMIT ?)
+                """, cutoff, archiveBatchSize);
+            total += moved;
+        } while (moved == archiveBatchSize);
+
+        if (total > 0) {
+            archivedCounter.increment(total);
+            log.info("Archived {} closed incidents created before {}", total, cutoff);
+        }
+    }
+
+    private void createHotPartition(JdbcTemplate target, YearMonth month) {
+        createPartition(target, "incidents_hot", String.format("incidents_hot_p%d_%02d", month.getYear(), month.getMonthValue()),
+            month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+    }
+
+    private void createArchivePartition(JdbcTemplate target, int year) {
+        createPartition(target, "incidents_archive", "incidents_archive_p" + year,
+            LocalDateTime.of(year, 1, 1, 0, 0), LocalDateTime.of(year + 1, 1, 1, 0, 0));
+    }
+
+    private void createPartition(JdbcTemplate target, String parent, String name, LocalDateTime from, LocalDateTime to) {
+        try {
+            target.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + parent
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        } catch (DataAccessException e) {
+            // Typically rows for this range already sit in the default partition
+            log.warn("Could not create partition {}: {}", name, e.getMessage());
+        }
+    }
+}
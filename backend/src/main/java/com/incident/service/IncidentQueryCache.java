@@ -0,0 +1,300 @@
+package com.incident.service;
+
+import com.incident.dto.IncidentQueryRequest;
+import com.incident.dto.IncidentResponse;
+import com.incident.entity.Incident;
+import com.incident.util.LocationUtil;
+import com.incident.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Micro-cache of /public/query results for crowds opening the map around the same spot.
+ * Requests are keyed by their centre snapped to a grid, radius, filters and page, and are
+ * answered for the snapped centre. Concurrent misses for one key share a single query: the
+ * first caller runs it and the others wait for its result, up to a timeout after which they
+ * query directly. An entry is dropped once a change to an incident inside its circle commits;
+ * an entry still loading at that moment answers its waiters but is not kept. Entries are
+ * indexed by the coarse cells their circle overlaps, so a change only checks the entries
+ * around it.
+ */
+@Service
+public class IncidentQueryCache {
+    private static final double KM_PER_DEGREE = 111.32;
+    // Slack for rounding differences between this check and the database's distance
+    private static final double MARGIN_KM = 0.001;
+    private static final double CELL_DEGREES = 0.1;
+    // Circles overlapping more cells than this are checked on every change instead
+    private static final int MAX_CELLS_PER_KEY = 64;
+
+    private final boolean enabled;
+    private final double quantumDegrees;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long waitTimeoutMs;
+    private final int clearThreshold;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Key>> keysByCell = new ConcurrentHashMap<>();
+    // Keys without a circle, or with one too large to index by cell
+    private final Set<Key> unindexedKeys = ConcurrentHashMap.newKeySet();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter timedOut;
+    private final Counter invalidated;
+
+    private record Key(Double latitude, Double longitude, Double radiusKm, Incident.IncidentType type,
+                       Incident.IncidentStatus status, Integer minConfidenceScore, Integer limit, Integer offset) {
+        boolean covers(Incident incident) {
+            // Queries without a circle page through all active incidents
+            if (latitude == null || radiusKm == null) return true;
+            if (Math.abs(incident.getLatitude() - latitude) * KM_PER_DEGREE > radiusKm + MARGIN_KM) return false;
+            return LocationUtil.calculateDistance(latitude, longitude, incident.getLatitude(),
+                incident.getLongitude()) <= radiusKm + MARGIN_KM;
+        }
+
+        /**
+         * Cells overlapped by the circle's bounding box, or null to check it on every change
+         */
+        long[] cells() {
+            if (latitude == null || radiusKm == null) return null;
+            double dLat = (radiusKm + MARGIN_KM) / KM_PER_DEGREE;
+            double south = latitude - dLat, north = latitude + dLat;
+            if (south < -90 || north > 90) return null;
+            double dLon = dLat / Math.cos(Math.toRadians(Math.max(Math.abs(south), Math.abs(north))));
+            double west = longitude - dLon, east = longitude + dLon;
+            if (west < -180 || east > 180) return null; // Crosses the antimeridian
+            int row0 = cellIndex(south), row1 = cellIndex(north);
+            int col0 = cellIndex(west), col1 = cellIndex(east);
+            if ((long) (row1 - row0 + 1) * (col1 - col0 + 1) > MAX_CELLS_PER_KEY) return null;
+            long[] cells = new long[(row1 - row0 + 1) * (col1 - col0 + 1)];
+            int i = 0;
+            for (int row = row0; row <= row1; row++) {
+                for (int col = col0; col <= col1; col++) {
+                    cells[i++] = cell(row, col);
+                }
+            }
+            return cells;
+        }
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<List<IncidentResponse>> result = new CompletableFuture<>();
+        private volatile long loadedAt;
+        private volatile boolean loaded;
+
+        boolean expired(long now, long ttlNanos) {
+            return loaded && now - loadedAt >= ttlNanos;
+        }
+    }
+
+    public IncidentQueryCache(MeterRegistry meterRegistry,
+                              @Value("${app.query-cache.enabled:true}") boolean enabled,
+                              @Value("${app.query-cache.quantum-degrees:0.001}") double quantumDegrees,
+                              @Value("${app.query-cache.ttl-ms:2000}") long ttlMs,
+                              @Value("${app.query-cache.max-entries:10000}") int maxEntries,
+                              @Value("${app.query-cache.wait-timeout-ms:1000}") long waitTimeoutMs,
+                              @Value("${app.query-cache.clear-threshold:1000}") int clearThreshold) {
+        this.enabled = enabled;
+        this.quantumDegrees = quantumDegrees;
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.maxEntries = maxEntries;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.clearThreshold = clearThreshold;
+        this.hits = meterRegistry.counter("incident.query.cache", "result", "hit");
+        this.misses = meterRegistry.counter("incident.query.cache", "result", "miss");
+        this.coalesced = meterRegistry.counter("incident.query.cache", "result", "coalesced");
+        this.timedOut = meterRegistry.counter("incident.query.cache", "result", "timeout");
+        this.invalidated = meterRegistry.counter("incident.query.cache.invalidated");
+        meterRegistry.gauge("incident.query.cache.entries", entries, Map::size);
+    }
+
+    /**
+     * Cached result for the request, running the query for it only if no fresh or loading
+     * entry exists
+     */
+    public List<IncidentResponse> get(IncidentQueryRequest request,
+                                      Function<IncidentQueryRequest, List<IncidentResponse>> query) {
+        if (!enabled) {
+            return query.apply(request);
+        }
+        IncidentQueryRequest snapped = snap(request);
+        Key key = new Key(snapped.getLatitude(), snapped.getLongitude(), snapped.getRadiusKm(), snapped.getType(),
+            snapped.getStatus(), snapped.getMinConfidenceScore(), snapped.getLimit(), snapped.getOffset());
+        long now = System.nanoTime();
+        Entry created = new Entry();
+        Entry entry = entries.compute(key, (k, current) -> {
+            if (current != null && !current.expired(now, ttlNanos)) return current;
+            // Indexed before the entry is visible, so an invalidation cannot miss it
+            index(k);
+            return created;
+        });
+        if (entry != created) {
+            (entry.result.isDone() ? hits : coalesced).increment();
+            return await(entry, snapped, query);
+        }
+
+        misses.increment();
+        evictIfFull();
+        try {
+            List<IncidentResponse> result = query.apply(snapped);
+            entry.loadedAt = System.nanoTime();
+            entry.loaded = true;
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            remove(key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drop the entries whose area holds one of the incidents, once the current transaction
+     * has committed so a query cannot re-cache the state from before the change
+     */
+    public void invalidate(Collection<Incident> incidents) {
+        if (!enabled || incidents.isEmpty()) return;
+        List<Incident> changed = List.copyOf(incidents);
+        TransactionHooks.afterCommit(() -> {
+            // Large bulk changes would touch most entries anyway
+            if (changed.size() > clearThreshold) {
+                invalidated.increment(entries.size());
+                clear();
+                return;
+            }
+            Set<Key> candidates = new HashSet<>(unindexedKeys);
+            for (Incident incident : changed) {
+                long cell = cell(cellIndex(incident.getLatitude()), cellIndex(incident.getLongitude()));
+                candidates.addAll(keysByCell.getOrDefault(cell, Set.of()));
+            }
+            for (Key key : candidates) {
+                if (changed.stream().anyMatch(key::covers)) {
+                    Entry entry = entries.get(key);
+                    if (entry != null && remove(key, entry)) {
+                        invalidated.increment();
+                    }
+                }
+            }
+        });
+    }
+
+    public void invalidate(Incident incident) {
+        invalidate(List.of(incident));
+    }
+
+    private IncidentQueryRequest snap(IncidentQueryRequest request) {
+        IncidentQueryRequest snapped = new IncidentQueryRequest();
+        if (request.getLatitude() != null && request.getLongitude() != null) {
+            snapped.setLatitude(Math.round(request.getLatitude() / quantumDegrees) * quantumDegrees);
+            snapped.setLongitude(Math.round(request.getLongitude() / quantumDegrees) * quantumDegrees);
+            snapped.setRadiusKm(request.getRadiusKm());
+        }
+        snapped.setType(request.getType());
+        snapped.setStatus(request.getStatus());
+        snapped.setMinConfidenceScore(request.getMinConfidenceScore());
+        snapped.setLimit(request.getLimit());
+        snapped.setOffset(request.getOffset());
+        return snapped;
+    }
+
+    private void evictIfFull() {
+        if (entries.size() <= maxEntries) return;
+        long now = System.nanoTime();
+        entries.forEach((key, entry) -> {
+            if (entry.expired(now, ttlNanos)) remove(key, entry);
+        });
+        if (entries.size() > maxEntries) {
+            clear();
+        }
+    }
+
+    private void index(Key key) {
+        long[] cells = key.cells();
+        if (cells == null) {
+            unindexedKeys.add(key);
+            return;
+        }
+        for (long cell : cells) {
+            keysByCell.computeIfAbsent(cell, c -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    // The key is unindexed inside the same atomic step that drops it, so a reload racing
+    // with the removal re-indexes it afterwards
+    private boolean remove(Key key, Entry entry) {
+        boolean[] removed = new boolean[1];
+        entries.computeIfPresent(key, (k, current) -> {
+            if (current != entry) return current;
+            unindex(k);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    private void unindex(Key key) {
+        long[] cells = key.cells();
+        if (cells == null) {
+            unindexedKeys.remove(key);
+            return;
+        }
+        for (long cell : cells) {
+            keysByCell.computeIfPresent(cell, (c, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private void clear() {
+        entries.keySet().forEach(key -> {
+            Entry entry = entries.get(key);
+            if (entry != null) remove(key, entry);
+        });
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cell(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Result of the query another caller is running; past the wait timeout the caller runs
+     * the query itself rather than pile up behind a slow one
+     */
+    private List<IncidentResponse> await(Entry entry, IncidentQueryRequest snapped,
+                                         Function<IncidentQueryRequest, List<IncidentResponse>> query) {
+        try {
+            return entry.result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            return query.apply(snapped);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a query", e);
+        }
+    }
+}
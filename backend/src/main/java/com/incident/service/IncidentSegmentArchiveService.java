@@ -0,0 +1,250 @@
+package com.incident.service;
+
+import com.incident.dto.ArchiveQueryResponse;
+import com.incident.dto.ArchivedIncident;
+import com.incident.entity.Incident;
+import com.incident.util.IncidentSegment;
+import com.incident.util.IncidentSegmentWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Exports archived incidents into immutable columnar segment files and answers historical
+ * queries from memory-mapped segments without going to PostgreSQL. Segments are append-only:
+ * an incident reopened after export keeps its exported snapshot.
+ */
+@Slf4j
+@Service
+public class IncidentSegmentArchiveService {
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int MAX_LIMIT = 10000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IncidentShardRouter shardRouter;
+    private final Path directory;
+    private final int rowsPerSegment;
+    private final List<IncidentSegment> segments = new CopyOnWriteArrayList<>();
+    private final Counter exportedCounter;
+    private final Timer scanTimer;
+
+    public IncidentSegmentArchiveService(JdbcTemplate jdbcTemplate,
+                                         IncidentShardRouter shardRouter,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${app.segments.dir:./segments}") String directory,
+                                         @Value("${app.segments.rows-per-segment:100000}") int rowsPerSegment) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.rowsPerSegment = rowsPerSegment;
+        this.exportedCounter = meterRegistry.counter("archive.segments.exported.rows");
+        this.scanTimer = meterRegistry.timer("archive.segments.scan");
+        Gauge.builder("archive.segments.count", segments, List::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSegments() throws IOException {
+        // Marks rows already written to a segment; metadata-only change on PostgreSQL 11+
+        jdbcTemplate.execute(
+            "ALTER TABLE incidents ADD COLUMN IF NOT EXISTS segment_exported boolean NOT NULL DEFAULT false");
+
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted().toList()) {
+                if (file.toString().endsWith(SEGMENT_SUFFIX)) {
+                    segments.add(IncidentSegment.open(file));
+                } else if (file.toString().endsWith(".tmp")) {
+                    Files.delete(file); // Left behind by an interrupted export
+                }
+            }
+        }
+        long rows = segments.stream().mapToLong(IncidentSegment::getRowCount).sum();
+        log.info("Mapped {} archive segments with {} incidents from {}", segments.size(), rows, directory);
+    }
+
+    @Scheduled(fixedDelayString = "${app.segments.export-interval-ms:3600000}",
+               initialDelayString = "${app.segments.initial-delay-ms:120000}")
+    public void exportScheduled() {
+        int exported = exportArchived();
+        if (exported > 0) {
+            log.info("Exported {} archived incidents to segments", exported);
+        }
+    }
+
+    /**
+     * Write every archived incident not yet exported into new segments, from each shard in turn
+     * when sharded
+     *
+     * @return number of incidents exported
+     */
+    public synchronized int exportArchived() {
+        int total = 0;
+        for (JdbcTemplate database : shardRouter.incidentDatabases()) {
+            total += exportArchived(database);
+        }
+        return total;
+    }
+
+    private int exportArchived(JdbcTemplate database) {
+        int total = 0;
+        while (true) {
+            List<IncidentSegmentWriter.Row> rows = database.query("""
+                SELECT id, incident_id, created_at, latitude, longitude, type, status, description, address
+                FROM incidents
+                WHERE archived = true AND segment_exported = false
+                ORDER BY created_at, id
+                LIMIT ?
+                """, (rs, i) -> new IncidentSegmentWriter.Row(
+                    rs.getLong("id"),
+                    rs.getString("incident_id"),
+                    rs.getTimestamp("created_at").toLocalDateTime().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                    rs.getDouble("latitude"),
+                    rs.getDouble("longitude"),
+                    rs.getString("type"),
+                    rs.getString("status"),
+                    rs.getString("description"),
+                    rs.getString("address")),
+                rowsPerSegment);
+            if (rows.isEmpty()) {
+                return total;
+            }
+
+            Path file = directory.resolve(String.format("incidents-%d-%d%s",
+                rows.get(0).createdAtMillis(), System.currentTimeMillis(), SEGMENT_SUFFIX));
+            try {
+                IncidentSegmentWriter.write(file, rows);
+                // Without the flag update the rows are exported again next run, so drop the file
+                markExported(database, rows);
+                segments.add(IncidentSegment.open(file));
+            } catch (IOException e) {
+                deleteQuietly(file);
+                throw new RuntimeException("Could not write archive segment " + file, e);
+            } catch (RuntimeException e) {
+                deleteQuietly(file);
+                throw e;
+            }
+            exportedCounter.increment(rows.size());
+            total += rows.size();
+            if (rows.size() < rowsPerSegment) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Scan the mapped segments. Bounds default to everything; incidents are returned in
+     * creation order within each segment, up to the limit.
+     */
+    public ArchiveQueryResponse query(LocalDateTime from, LocalDateTime to,
+                                      Incident.IncidentType type, Incident.IncidentStatus status,
+                                      Double south, Double west, Double north, Double east, int limit) {
+        long fromMillis = from != null ? from.toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MIN_VALUE;
+        long toMillis = to != null ? to.toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MAX_VALUE;
+        double s = south != null ? south : -90, n = north != null ? north : 90;
+        double w = west != null ? west : -180, e = east != null ? east : 180;
+        if (fromMillis >= toMillis || s > n || w > e) {
+            throw new RuntimeException("Empty time range or bounding box");
+        }
+        int remaining = Math.max(0, Math.min(limit, MAX_LIMIT));
+
+        long started = System.nanoTime();
+        long matched = 0, scanned = 0;
+        int segmentsScanned = 0;
+        Map<String, Long> countsByType = new TreeMap<>();
+        Map<String, Long> countsByStatus = new TreeMap<>();
+        List<ArchivedIncident> incidents = new ArrayList<>(Math.min(remaining, 1024));
+
+        for (IncidentSegment segment : segments) {
+            if (!segment.overlaps(fromMillis, toMillis, s, w, n, e)) continue;
+            int typeCode = type != null ? segment.typeCode(type.name()) : -1;
+            int statusCode = status != null ? segment.statusCode(status.name()) : -1;
+            // The segment has no rows of the requested type or status at all
+            if ((type != null && typeCode < 0) || (status != null && statusCode < 0)) continue;
+
+            segmentsScanned++;
+            scanned += segment.lowerBound(toMillis) - segment.lowerBound(fromMillis);
+            IncidentSegment.Matches matches = segment.scan(fromMillis, toMillis, typeCode, statusCode, s, w, n, e, remaining);
+            matched += matches.matched;
+            String[] types = segment.getTypes();
+            String[] statuses = segment.getStatuses();
+            for (int i = 0; i < types.length; i++) {
+                if (matches.countsByType[i] > 0) countsByType.merge(types[i], matches.countsByType[i], Long::sum);
+            }
+            for (int i = 0; i < statuses.length; i++) {
+                if (matches.countsByStatus[i] > 0) countsByStatus.merge(statuses[i], matches.countsByStatus[i], Long::sum);
+            }
+            List<String[]> texts = segment.getText(matches.rows, matches.collected);
+            for (int i = 0; i < matches.collected; i++) {
+                incidents.add(toArchivedIncident(segment, matches.rows[i], texts.get(i)));
+            }
+            remaining -= matches.collected;
+        }
+        long elapsed = System.nanoTime() - started;
+        scanTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+        return ArchiveQueryResponse.builder()
+            .matched(matched)
+            .rowsScanned(scanned)
+            .segmentsScanned(segmentsScanned)
+            .scanMillis(elapsed / 1_000_000.0)
+            .countsByType(countsByType)
+            .countsByStatus(countsByStatus)
+            .incidents(incidents)
+            .build();
+    }
+
+    private static void markExported(JdbcTemplate database, List<IncidentSegmentWriter.Row> rows) {
+        Long[] ids = rows.stream().map(IncidentSegmentWriter.Row::id).toArray(Long[]::new);
+        database.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                "UPDATE incidents SET segment_exported = true WHERE archived = true AND id = ANY(?)");
+            Array array = connection.createArrayOf("bigint", ids);
+            statement.setArray(1, array);
+            return statement;
+        });
+    }
+
+    private static ArchivedIncident toArchivedIncident(IncidentSegment segment, int row, String[] text) {
+        return ArchivedIncident.builder()
+            .id(segment.getId(row))
+            .incidentId(text[0])
+            .type(segment.getType(row))
+            .status(segment.getStatus(row))
+            .latitude(segment.getLatitude(row))
+            .longitude(segment.getLongitude(row))
+            .createdAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(segment.getCreatedMillis(row)), ZoneOffset.UTC))
+            .description(text[1])
+            .address(text[2].isEmpty() ? null : text[2])
+            .build();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete incomplete segment {}", file);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.incident.service;
 
+import com.incident.config.WebSocketSubscriptionTracker;
 import com.incident.dto.*;
 import com.incident.entity.*;
 import com.incident.repository.ConfirmationRepository;
@@ -9,29 +10,52 @@ import com.incident.repository.UserRepository;
 import com.incident.util.ConfidenceScoreCalculator;
 import com.incident.util.IncidentIdGenerator;
 import com.incident.util.LocationUtil;
+import com.incident.util.TransactionHooks;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class IncidentService {
+    private static final int CATCH_UP_PAGE_SIZE = 500;
+
     private final IncidentRepository incidentRepository;
+    private final IncidentShardRouter shardRouter;
     private final UserRepository userRepository;
     private final ConfirmationRepository confirmationRepository;
     private final IncidentTimelineRepository timelineRepository;
     private final ConfidenceScoreCalculator confidenceCalculator;
     private final FileStorageService fileStorageService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final TileClusterService tileClusterService;
+    private final IncidentQueryCache queryCache;
+    private final IncidentStreamService streamService;
+    private final IncidentClusteringService clusteringService;
+    private final IncidentEventService eventService;
+    private final WebSocketSubscriptionTracker subscriptionTracker;
+    private final ResponderLocationService responderLocationService;
+    private final GeofenceService geofenceService;
+    private final ImageDuplicateService imageDuplicateService;
+    private final IncidentChangeBus changeBus;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.duplicate.distance-threshold-meters:300}")
     private double duplicateDistanceThresholdMeters;
@@ -39,15 +63,43 @@ public class IncidentService {
     @Value("${app.duplicate.time-window-minutes:10}")
     private int duplicateTimeWindowMinutes;
 
+    @Value("${app.responders.candidates-per-incident:3}")
+    private int responderCandidatesPerIncident;
+
+    /**
+     * @param imageHash hash of the stored photo, computed by the caller before the transaction
+     */
+    @Transactional
+    @Timed(value = "incident.service", extraTags = {"operation", "create"})
+    public IncidentResponse createIncident(IncidentCreateRequest request, String imageUrl, Long imageHash,
+                                           String reporterUsername) {
+        return createIncident(IncidentIdGenerator.generate(), request, imageUrl, imageHash, reporterUsername);
+    }
+
+    /**
+     * Write a micro-batch of queued reports in one transaction
+     */
     @Transactional
-    public IncidentResponse createIncident(IncidentCreateRequest request, String imageUrl, String reporterUsername) {
+    @Timed(value = "incident.service", extraTags = {"operation", "createBatch"})
+    public void createIncidents(List<IncidentIngestQueue.PendingReport> reports) {
+        for (IncidentIngestQueue.PendingReport report : reports) {
+            createIncident(report.incidentId(), report.request(), report.imageUrl(), report.imageHash(),
+                report.reporterUsername());
+        }
+    }
+
+    private IncidentResponse createIncident(String incidentId, IncidentCreateRequest request, String imageUrl,
+                                            Long imageHash, String reporterUsername) {
         // Check for duplicates
-        List<Incident> potentialDuplicates = findPotentialDuplicates(
+        List<Incident> potentialDuplicates = withSimilarImages(findPotentialDuplicates(
             request.getLatitude(), request.getLongitude(), request.getType()
-        );
+        ), imageHash);
+
+        IncidentClusteringService.Assignment cluster = clusteringService.assign(
+            request.getType(), request.getLatitude(), request.getLongitude());
 
         Incident incident = Incident.builder()
-            .incidentId(IncidentIdGenerator.generate())
+            .incidentId(incidentId)
             .type(request.getType())
             .description(request.getDescription())
             .latitude(request.getLatitude())
@@ -55,12 +107,21 @@ public class IncidentService {
             .address(request.getAddress())
             .gpsAccuracy(request.getGpsAccuracy())
             .imageUrl(imageUrl)
+            .imageHash(imageHash)
             .status(Incident.IncidentStatus.UNVERIFIED)
             .reporter(getOrCreatePublicUser(reporterUsername))
+            .clusterId(cluster != null ? cluster.clusterId() : null)
+            .version(1) // The CREATED event appended below
             .build();
 
         incident.setConfidenceScore(confidenceCalculator.calculate(incident));
-        incident = incidentRepository.save(incident);
+        incident = shardRouter.save(incident);
+        clusteringService.recordMember(incident, cluster);
+        imageDuplicateService.index(incident);
+        meterRegistry.counter("incident.created", "type", incident.getType().name()).increment();
+        if (!potentialDuplicates.isEmpty()) {
+            meterRegistry.counter("incident.duplicates.flagged").increment();
+        }
 
         // Create initial timeline entry
         IncidentTimeline timeline = IncidentTimeline.builder()
@@ -69,13 +130,16 @@ public class IncidentService {
             .notes("Incident reported")
             .build();
         timelineRepository.save(timeline);
+        eventService.append(incident, reporterUsername, "Incident reported", IncidentEvent.EventType.CREATED);
 
         // Broadcast via WebSocket
-        broadcastIncidentUpdate(incident);
+        broadcastIncident(incident);
+        geofenceService.onIncidentCreated(incident);
+        changeBus.incidentCreated(incident.getId());
 
         IncidentResponse response = toResponse(incident);
         response.setPotentialDuplicates(potentialDuplicates.stream()
-            .map(this::toResponse)
+            .map(IncidentService::toResponse)
             .collect(Collectors.toList()));
         
         return response;
@@ -85,15 +149,31 @@ public class IncidentService {
         double thresholdKm = LocationUtil.metersToKm(duplicateDistanceThresholdMeters);
         LocalDateTime timeWindow = LocalDateTime.now().minusMinutes(duplicateTimeWindowMinutes);
         
-        return incidentRepository.findPotentialDuplicates(
+        return shardRouter.findPotentialDuplicates(
             latitude, longitude, thresholdKm, type.name(), timeWindow
         );
     }
 
+    /**
+     * Add hot incidents with a near-identical photo, wherever and whenever they were reported
+     */
+    private List<Incident> withSimilarImages(List<Incident> nearby, Long imageHash) {
+        Set<Long> flagged = nearby.stream().map(Incident::getId).collect(Collectors.toSet());
+        List<Incident> similar = imageDuplicateService.findSimilar(imageHash, flagged);
+        if (similar.isEmpty()) return nearby;
+
+        meterRegistry.counter("incident.duplicates.image").increment();
+        List<Incident> duplicates = new ArrayList<>(nearby);
+        duplicates.addAll(similar);
+        return duplicates;
+    }
+
     @Transactional
+    @Timed(value = "incident.service", extraTags = {"operation", "confirm"})
     public IncidentResponse confirmIncident(Long incidentId, Double latitude, Double longitude, String username) {
-        Incident incident = incidentRepository.findById(incidentId)
+        Incident incident = shardRouter.findByIdForUpdate(incidentId)
             .orElseThrow(() -> new RuntimeException("Incident not found"));
+        IncidentResponse before = toResponse(incident);
 
         User user = getOrCreatePublicUser(username);
 
@@ -109,21 +189,31 @@ public class IncidentService {
             .longitude(longitude)
             .build();
         confirmationRepository.save(confirmation);
+        meterRegistry.counter("incident.confirmations").increment();
 
         // Update confirmation count and recalculate confidence
+        int previousScore = incident.getConfidenceScore();
         incident.setConfirmationCount(incident.getConfirmationCount() + 1);
         incident.setConfidenceScore(confidenceCalculator.calculate(incident));
-        incident = incidentRepository.save(incident);
-
-        broadcastIncidentUpdate(incident);
+        IncidentEvent.EventType[] events = incident.getConfidenceScore() != previousScore
+            ? new IncidentEvent.EventType[]{IncidentEvent.EventType.CONFIRMED, IncidentEvent.EventType.RESCORED}
+            : new IncidentEvent.EventType[]{IncidentEvent.EventType.CONFIRMED};
+        int version = eventService.append(incident, username, null, events);
+        incident.setVersion(version);
+        incident = shardRouter.save(incident);
+        clusteringService.onConfirmed(incident, previousScore);
+
+        broadcastIncidentChanges(incident, before, version - events.length, version);
         return toResponse(incident);
     }
 
     @Transactional
+    @Timed(value = "incident.service", extraTags = {"operation", "updateStatus"})
     public IncidentResponse updateStatus(Long incidentId, Incident.IncidentStatus status, String notes, String updatedByUsername) {
-        Incident incident = incidentRepository.findById(incidentId)
+        Incident incident = shardRouter.findByIdForUpdate(incidentId)
             .orElseThrow(() -> new RuntimeException("Incident not found"));
 
+        IncidentResponse before = toResponse(incident);
         User updatedBy = userRepository.findByUsername(updatedByUsername)
             .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -134,10 +224,16 @@ public class IncidentService {
             }
         }
 
+        boolean notesEdited = notes != null && !notes.isEmpty() && !notes.equals(incident.getAdminNotes());
+        Incident.IncidentStatus previousStatus = incident.getStatus();
         incident.setStatus(status);
         if (notes != null && !notes.isEmpty()) {
             incident.setAdminNotes(notes);
         }
+        // A reopened incident moves back to the hot partitions
+        if (status != Incident.IncidentStatus.RESOLVED && status != Incident.IncidentStatus.FALSE) {
+            incident.setArchived(false);
+        }
 
         // Update reporter reputation if status changed to VERIFIED or FALSE
         if (status == Incident.IncidentStatus.VERIFIED && incident.getReporter() != null) {
@@ -146,7 +242,14 @@ public class IncidentService {
             updateReporterReputation(incident.getReporter(), false);
         }
 
-        incident = incidentRepository.save(incident);
+        IncidentEvent.EventType[] events = notesEdited
+            ? new IncidentEvent.EventType[]{IncidentEvent.EventType.STATUS_CHANGED, IncidentEvent.EventType.NOTES_EDITED}
+            : new IncidentEvent.EventType[]{IncidentEvent.EventType.STATUS_CHANGED};
+        int version = eventService.append(incident, updatedByUsername, notes, events);
+        incident.setVersion(version);
+        incident = shardRouter.save(incident);
+        clusteringService.onStatusChanged(incident, previousStatus);
+        meterRegistry.counter("incident.status.changes", "status", status.name()).increment();
 
         // Create timeline entry
         IncidentTimeline timeline = IncidentTimeline.builder()
@@ -157,7 +260,11 @@ public class IncidentService {
             .build();
         timelineRepository.save(timeline);
 
-        broadcastIncidentUpdate(incident);
+        broadcastIncidentChanges(incident, before, version - events.length, version);
+        if (status != previousStatus) {
+            geofenceService.onStatusChanged(incident);
+            imageDuplicateService.onStatusChanged(incident);
+        }
         return toResponse(incident);
     }
 
@@ -182,11 +289,13 @@ public class IncidentService {
         userRepository.save(reporter);
     }
 
+    @Transactional(readOnly = true)
+    @Timed(value = "incident.service", extraTags = {"operation", "query"})
     public List<IncidentResponse> queryIncidents(IncidentQueryRequest request) {
         List<Incident> incidents;
         
         if (request.getLatitude() != null && request.getLongitude() != null && request.getRadiusKm() != null) {
-            incidents = incidentRepository.findIncidentsWithinRadius(
+            incidents = shardRouter.findIncidentsWithinRadius(
                 request.getLatitude(),
                 request.getLongitude(),
                 request.getRadiusKm(),
@@ -197,89 +306,193 @@ public class IncidentService {
                 request.getOffset()
             );
         } else {
-            Pageable pageable = PageRequest.of(request.getOffset() / request.getLimit(), request.getLimit());
-            Page<Incident> page = incidentRepository.findAll(pageable);
-            incidents = page.getContent();
+            incidents = shardRouter.findActive(request.getOffset(), request.getLimit());
         }
 
-        return incidents.stream()
-            .map(incident -> {
-                IncidentResponse response = toResponse(incident);
-                if (request.getLatitude() != null && request.getLongitude() != null) {
-                    double distance = LocationUtil.calculateDistance(
-                        request.getLatitude(), request.getLongitude(),
-                        incident.getLatitude(), incident.getLongitude()
-                    );
-                    response.setDistanceKm(distance);
-                }
-                return response;
-            })
+        return toResponsesWithDistance(incidents, request);
+    }
+
+    @Transactional(readOnly = true)
+    public List<IncidentResponse> searchIncidents(String text, IncidentQueryRequest request) {
+        if (text == null || text.isBlank()) {
+            throw new RuntimeException("Search text is required");
+        }
+        boolean withinRadius = request.getLatitude() != null && request.getLongitude() != null
+            && request.getRadiusKm() != null;
+
+        List<Incident> incidents = shardRouter.searchIncidents(
+            text,
+            request.getLatitude(),
+            request.getLongitude(),
+            withinRadius ? request.getRadiusKm() : null,
+            request.getType() != null ? request.getType().name() : null,
+            request.getStatus() != null ? request.getStatus().name() : null,
+            request.getMinConfidenceScore(),
+            request.getLimit(),
+            request.getOffset()
+        );
+        return toResponsesWithDistance(incidents, request);
+    }
+
+    /**
+     * Explicit search over hot and archived incidents; regular queries only read the hot partitions
+     */
+    @Transactional(readOnly = true)
+    public List<IncidentResponse> getHistoricalIncidents(LocalDateTime from, LocalDateTime to, IncidentQueryRequest request) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        if (from == null || !from.isBefore(end)) {
+            throw new RuntimeException("History search needs a 'from' before 'to'");
+        }
+        List<Incident> incidents = shardRouter.findHistorical(
+            from,
+            end,
+            request.getType() != null ? request.getType().name() : null,
+            request.getStatus() != null ? request.getStatus().name() : null,
+            request.getLimit(),
+            request.getOffset()
+        );
+        return toResponsesWithDistance(incidents, request);
+    }
+
+    private List<IncidentResponse> toResponsesWithDistance(List<Incident> incidents, IncidentQueryRequest request) {
+        List<IncidentResponse> responses = incidents.stream()
+            .map(IncidentService::toResponse)
+            .collect(Collectors.toList());
+        if (request.getLatitude() == null || request.getLongitude() == null) {
+            return responses;
+        }
+
+        int n = incidents.size();
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        double[] distances = new double[n];
+        for (int i = 0; i < n; i++) {
+            lats[i] = incidents.get(i).getLatitude();
+            lons[i] = incidents.get(i).getLongitude();
+        }
+        LocationUtil.calculateDistances(request.getLatitude(), request.getLongitude(), lats, lons, distances);
+        for (int i = 0; i < n; i++) {
+            responses.get(i).setDistanceKm(distances[i]);
+        }
+        return responses;
+    }
+
+    /**
+     * Reports clustered into one event, including those of clusters merged into it, oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<IncidentResponse> getClusterIncidents(Long clusterId) {
+        return shardRouter.findByClusterIdInOrderByCreatedAtAsc(clusteringService.memberClusterIds(clusterId)).stream()
+            .map(IncidentService::toResponse)
             .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public IncidentResponse getIncidentById(Long id) {
-        Incident incident = incidentRepository.findById(id)
+        Incident incident = shardRouter.findById(id)
             .orElseThrow(() -> new RuntimeException("Incident not found"));
         return toResponse(incident);
     }
 
+    @Transactional(readOnly = true)
     public IncidentResponse getIncidentByIncidentId(String incidentId) {
-        Incident incident = incidentRepository.findByIncidentId(incidentId)
+        Incident incident = shardRouter.findByIncidentId(incidentId)
             .orElseThrow(() -> new RuntimeException("Incident not found"));
         return toResponse(incident);
     }
 
+    @Transactional(readOnly = true)
     public List<IncidentResponse> getAllIncidentsForAdmin(String status) {
-        List<Incident> incidents;
-        
-        if (status != null && !status.isEmpty()) {
-            Incident.IncidentStatus incidentStatus = Incident.IncidentStatus.valueOf(status);
-            incidents = incidentRepository.findByStatusOrderByConfidenceScoreDescCreatedAtAsc(incidentStatus);
-        } else {
-            incidents = incidentRepository.findAllOrderByConfidenceScoreDescCreatedAtAsc();
+        return getAdminListing(status, Integer.MAX_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public List<IncidentResponse> getPrioritizedIncidents(String status, int limit) {
+        List<IncidentResponse> prioritized = getAdminListing(status, limit);
+        // Candidate responders for items still needing one, from the in-memory index
+        for (IncidentResponse incident : prioritized) {
+            if (incident.getStatus() != Incident.IncidentStatus.RESOLVED
+                    && incident.getStatus() != Incident.IncidentStatus.FALSE) {
+                incident.setNearestResponders(responderLocationService.findNearest(
+                    incident.getLatitude(), incident.getLongitude(), responderCandidatesPerIncident));
+            }
         }
+        return prioritized;
+    }
 
-        return incidents.stream()
-            .map(this::toResponse)
+    // Highest confidence first, oldest first within a score
+    private List<IncidentResponse> getAdminListing(String status, int limit) {
+        Incident.IncidentStatus incidentStatus = status != null && !status.isEmpty()
+            ? Incident.IncidentStatus.valueOf(status) : null;
+        return shardRouter.findForAdmin(incidentStatus, limit).stream()
+            .map(IncidentService::toResponse)
             .collect(Collectors.toList());
     }
 
-    public List<IncidentResponse> getPrioritizedIncidents(String status, int limit) {
-        List<IncidentResponse> allIncidents = getAllIncidentsForAdmin(status);
-        return allIncidents.stream()
-            .limit(limit)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<ResponderCandidate> getNearestResponders(Long id, int k) {
+        Incident incident = shardRouter.findById(id)
+            .orElseThrow(() -> new RuntimeException("Incident not found"));
+        return responderLocationService.findNearest(incident.getLatitude(), incident.getLongitude(), k);
     }
 
+    @Transactional(readOnly = true)
     public List<IncidentTimelineResponse> getIncidentTimeline(Long incidentId) {
-        Incident incident = incidentRepository.findById(incidentId)
+        List<IncidentTimelineResponse> events = eventService.getTimeline(incidentId);
+        if (!events.isEmpty() && events.get(0).getEventType() == IncidentEvent.EventType.CREATED) {
+            return events;
+        }
+
+        // Incidents recorded before the event log have legacy timeline rows for their earlier
+        // history; rows written alongside events repeat them, so only the older ones are kept
+        Incident incident = shardRouter.findById(incidentId)
             .orElseThrow(() -> new RuntimeException("Incident not found"));
+        LocalDateTime logStarted = events.isEmpty() ? null : events.get(0).getCreatedAt();
         
         List<IncidentTimeline> timeline = timelineRepository.findByIncidentOrderByCreatedAtAsc(incident);
         
-        return timeline.stream()
-            .map(t -> IncidentTimelineResponse.builder()
-                .id(t.getId())
-                .status(t.getStatus())
-                .notes(t.getNotes())
-                .updatedBy(t.getUpdatedBy() != null ? t.getUpdatedBy().getUsername() : null)
-                .createdAt(t.getCreatedAt())
-                .build())
+        return Stream.concat(
+                timeline.stream()
+                    .filter(t -> logStarted == null || t.getCreatedAt().isBefore(logStarted))
+                    .map(t -> IncidentTimelineResponse.builder()
+                        .id(t.getId())
+                        .status(t.getStatus())
+                        .notes(t.getNotes())
+                        .updatedBy(t.getUpdatedBy() != null ? t.getUpdatedBy().getUsername() : null)
+                        .createdAt(t.getCreatedAt())
+                        .build()),
+                events.stream())
+            .sorted(Comparator.comparing(IncidentTimelineResponse::getCreatedAt))
             .collect(Collectors.toList());
     }
 
+    @Transactional
+    public IncidentResponse rebuildFromEvents(Long incidentId) {
+        Incident incident = shardRouter.findByIdForUpdate(incidentId)
+            .orElseThrow(() -> new RuntimeException("Incident not found"));
+        Incident.IncidentStatus previousStatus = incident.getStatus();
+        incident = shardRouter.save(eventService.rebuild(incident));
+        clusteringService.onStatusChanged(incident, previousStatus);
+        imageDuplicateService.onStatusChanged(incident);
+        // A repair can touch any field, so clients get the whole incident again
+        broadcastIncident(incident);
+        changeBus.incidentReplaced(incident.getId());
+        return toResponse(incident);
+    }
+
+    @Transactional(readOnly = true)
+    @Timed(value = "incident.service", extraTags = {"operation", "dashboardStats"})
     public DashboardStatsResponse getDashboardStats() {
-        long total = incidentRepository.count();
-        long verified = incidentRepository.countByStatus(Incident.IncidentStatus.VERIFIED);
-        long resolved = incidentRepository.countByStatus(Incident.IncidentStatus.RESOLVED);
+        long total = shardRouter.count(null);
+        long verified = shardRouter.count(Incident.IncidentStatus.VERIFIED);
+        long resolved = shardRouter.count(Incident.IncidentStatus.RESOLVED);
         
         double accuracyRate = total > 0 ? (double) verified / total * 100 : 0.0;
-        Double avgResponseTime = incidentRepository.getAverageResponseTimeHours();
+        // Joins incidents with their timeline, so with sharded storage it is not available
+        Double avgResponseTime = shardRouter.isSharded() ? null : incidentRepository.getAverageResponseTimeHours();
         
-        List<RecentIncident> recent = incidentRepository.findAll()
+        List<RecentIncident> recent = shardRouter.findRecent(10)
             .stream()
-            .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-            .limit(10)
             .map(i -> RecentIncident.builder()
                 .incidentId(i.getIncidentId())
                 .type(i.getType())
@@ -313,7 +526,7 @@ public class IncidentService {
             });
     }
 
-    private IncidentResponse toResponse(Incident incident) {
+    static IncidentResponse toResponse(Incident incident) {
         IncidentResponse response = IncidentResponse.builder()
             .id(incident.getId())
             .incidentId(incident.getIncidentId())
@@ -331,12 +544,181 @@ public class IncidentService {
             .adminNotes(incident.getAdminNotes())
             .createdAt(incident.getCreatedAt())
             .updatedAt(incident.getUpdatedAt())
+            .archived(incident.getArchived())
+            .clusterId(incident.getClusterId())
+            .version(incident.getVersion())
             .build();
         return response;
     }
 
-    private void broadcastIncidentUpdate(Incident incident) {
+    /**
+     * Full frame, sent when an incident is created or rebuilt
+     */
+    private void broadcastIncident(Incident incident) {
+        tileClusterService.onIncidentChanged(incident);
+        queryCache.invalidate(incident);
         IncidentResponse response = toResponse(incident);
-        messagingTemplate.convertAndSend("/topic/incidents", response);
+        send(response, "full");
+    }
+
+    /**
+     * Delta frame with only the fields that differ from the state before the change
+     */
+    private void broadcastIncidentChanges(Incident incident, IncidentResponse before, int baseVersion, int version) {
+        tileClusterService.onIncidentChanged(incident);
+        queryCache.invalidate(incident);
+        Map<String, Object> changes = changedFields(before, toResponse(incident));
+        if (changes.isEmpty()) {
+            return;
+        }
+        changeBus.incidentChanged(incident.getId(), baseVersion, version, changes.containsKey("status"));
+        IncidentDelta delta = IncidentDelta.builder()
+            .id(incident.getId())
+            .incidentId(incident.getIncidentId())
+            .baseVersion(baseVersion)
+            .version(version)
+            .changes(changes)
+            .build();
+        send(delta, "delta");
+    }
+
+    /**
+     * One frame with the deltas of a bulk change, instead of one frame per incident
+     */
+    public void broadcastBulkChanges(List<Incident> incidents, List<IncidentDelta> deltas) {
+        queryCache.invalidate(incidents);
+        for (Incident incident : incidents) {
+            tileClusterService.onIncidentChanged(incident);
+            geofenceService.onStatusChanged(incident);
+            imageDuplicateService.onStatusChanged(incident);
+        }
+        for (IncidentDelta delta : deltas) {
+            changeBus.incidentChanged(delta.getId(), delta.getBaseVersion(), delta.getVersion(), true);
+        }
+        IncidentDeltaBatch batch = IncidentDeltaBatch.builder().deltas(deltas).build();
+        send(batch, "batch");
+    }
+
+    /**
+     * Apply incidents another node changed to this node's indexes and clients. Runs on the
+     * primary, since a replica may not have the change yet.
+     */
+    @EventListener
+    @Transactional
+    public void onRemoteChanges(IncidentChangeBus.RemoteChanges remote) {
+        Map<Long, Incident> incidents = shardRouter.findAllById(remote.incidentIds()).stream()
+            .collect(Collectors.toMap(Incident::getId, incident -> incident));
+        for (Long id : remote.created()) {
+            Incident incident = incidents.get(id);
+            if (incident == null) continue;
+            clusteringService.onRemoteReport(incident);
+            imageDuplicateService.index(incident);
+            broadcastIncident(incident);
+            geofenceService.onIncidentCreated(incident);
+        }
+        for (Long id : remote.replaced()) {
+            Incident incident = incidents.get(id);
+            if (incident == null) continue;
+            broadcastIncident(incident);
+        }
+
+        // The incident may have moved on since the change was sent, so every field goes
+        // out; the versions still let clients notice what they missed
+        List<IncidentDelta> deltas = new ArrayList<>();
+        for (IncidentChangeBus.Change change : remote.changed()) {
+            Incident incident = incidents.get(change.id());
+            if (incident == null) continue;
+            tileClusterService.onIncidentChanged(incident);
+            queryCache.invalidate(incident);
+            deltas.add(IncidentDelta.builder()
+                .id(incident.getId())
+                .incidentId(incident.getIncidentId())
+                .baseVersion(change.baseVersion())
+                .version(change.version())
+                .changes(changedFields(new IncidentResponse(), toResponse(incident)))
+                .build());
+            if (change.statusChanged()) {
+                geofenceService.onStatusChanged(incident);
+                imageDuplicateService.onStatusChanged(incident);
+            }
+        }
+        if (deltas.size() == 1) {
+            send(deltas.get(0), "delta");
+        } else if (!deltas.isEmpty()) {
+            IncidentDeltaBatch batch = IncidentDeltaBatch.builder().deltas(deltas).build();
+            send(batch, "batch");
+        }
+
+        for (Long id : remote.reindexed()) {
+            Incident incident = incidents.get(id);
+            if (incident != null) {
+                tileClusterService.onIncidentChanged(incident);
+                queryCache.invalidate(incident);
+            }
+        }
+    }
+
+    /**
+     * Notifications from other nodes were missed: re-read and re-broadcast every hot incident
+     * written since, page by page. Geofence alerts and cluster links of those are not repeated.
+     */
+    @EventListener
+    @Transactional
+    public void onCatchUp(IncidentChangeBus.CatchUp catchUp) {
+        LocalDateTime since = catchUp.since();
+        long afterId = 0;
+        List<Incident> page;
+        do {
+            page = shardRouter.findUpdatedAfter(since, afterId, CATCH_UP_PAGE_SIZE);
+            for (Incident incident : page) {
+                broadcastIncident(incident);
+                imageDuplicateService.index(incident);
+            }
+            if (!page.isEmpty()) {
+                Incident last = page.get(page.size() - 1);
+                since = last.getUpdatedAt();
+                afterId = last.getId();
+            }
+        } while (page.size() == CATCH_UP_PAGE_SIZE);
+    }
+
+    /**
+     * Send a frame to STOMP and SSE clients once the current transaction has committed, so a
+     * rolled-back change (e.g. a queued batch retried report by report) is never seen
+     */
+    private void send(Object frame, String kind) {
+        TransactionHooks.afterCommit(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            messagingTemplate.convertAndSend("/topic/incidents", frame);
+            sample.stop(meterRegistry.timer("incident.broadcast", "frame", kind));
+            meterRegistry.summary("incident.broadcast.fanout")
+                .record(subscriptionTracker.getSubscriberCount("/topic/incidents"));
+            streamService.publish(frame);
+        });
+    }
+
+    static Map<String, Object> changedFields(IncidentResponse before, IncidentResponse after) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfChanged(changes, "type", before.getType(), after.getType());
+        putIfChanged(changes, "description", before.getDescription(), after.getDescription());
+        putIfChanged(changes, "latitude", before.getLatitude(), after.getLatitude());
+        putIfChanged(changes, "longitude", before.getLongitude(), after.getLongitude());
+        putIfChanged(changes, "address", before.getAddress(), after.getAddress());
+        putIfChanged(changes, "imageUrl", before.getImageUrl(), after.getImageUrl());
+        putIfChanged(changes, "status", before.getStatus(), after.getStatus());
+        putIfChanged(changes, "confidenceScore", before.getConfidenceScore(), after.getConfidenceScore());
+        putIfChanged(changes, "confirmationCount", before.getConfirmationCount(), after.getConfirmationCount());
+        putIfChanged(changes, "reporterUsername", before.getReporterUsername(), after.getReporterUsername());
+        putIfChanged(changes, "adminNotes", before.getAdminNotes(), after.getAdminNotes());
+        putIfChanged(changes, "archived", before.getArchived(), after.getArchived());
+        putIfChanged(changes, "clusterId", before.getClusterId(), after.getClusterId());
+        putIfChanged(changes, "updatedAt", before.getUpdatedAt(), after.getUpdatedAt());
+        return changes;
+    }
+
+    private static void putIfChanged(Map<String, Object> changes, String field, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            changes.put(field, after);
+        }
     }
-}
\ No newline at end of file
+}
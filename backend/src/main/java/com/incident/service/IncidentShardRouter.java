@@ -0,0 +1,866 @@
+package com.incident.service;
+
+import com.incident.dto.CompactIncident;
+import com.incident.entity.Incident;
+import com.incident.entity.User;
+import com.incident.repository.IncidentRepository;
+import com.incident.repository.UserRepository;
+import com.incident.util.GeoShardMap;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Geo-sharded incident storage, enabled by listing shard JDBC URLs in app.shards.urls.
+ * Each incident row lives on the shard owning its coarse lat/lon cell (see GeoShardMap);
+ * users, timeline, events and everything else stay on the home database, which also hands
+ * out incident ids so they stay unique across shards. Radius queries go only to the shards
+ * whose cells meet the search circle; listings read every shard and k-way merge the
+ * per-shard sorted results. Without shards every call goes straight to IncidentRepository.
+ *
+ * Writes in a transaction are held until it is about to commit and then sent to their
+ * shards, so a request that rolls back leaves no incident behind. There is no two-phase
+ * commit: a home commit failing after the shard write leaves that row without its events.
+ */
+@Slf4j
+@Service
+public class IncidentShardRouter {
+    private static final String COLUMNS = """
+        i.id, i.incident_id, i.type, i.description, i.latitude, i.longitude, i.address, i.gps_accuracy,
+        i.image_url, i.status, i.confidence_score, i.confirmation_count, i.reporter_id, i.admin_notes,
+        i.created_at, i.updated_at, i.archived, i.cluster_id, i.image_hash, i.version""";
+
+    private static final String DISTANCE = """
+        (6371 * acos(LEAST(1.0, cos(radians(:lat)) * cos(radians(i.latitude)) *
+        cos(radians(i.longitude) - radians(:lon)) + sin(radians(:lat)) * sin(radians(i.latitude)))))""";
+
+    private static final String INSERT = """
+        INSERT INTO incidents (id, incident_id, type, description, latitude, longitude, address, gps_accuracy,
+            image_url, status, confidence_score, confirmation_count, reporter_id, admin_notes, created_at,
+            updated_at, archived, cluster_id, image_hash, version)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    // Location, creation time and image hash never change, so the row stays on its shard and the
+    // (id, created_at) match prunes to one partition on each side of archived
+    private static final String UPDATE = """
+        UPDATE incidents SET type = ?, description = ?, address = ?, gps_accuracy = ?, image_url = ?,
+            status = ?, confidence_score = ?, confirmation_count = ?, reporter_id = ?, admin_notes = ?,
+            updated_at = ?, archived = ?, cluster_id = ?, version = ?
+        WHERE id = ? AND created_at = ?""";
+
+    private static final Comparator<Row> BY_DISTANCE = Comparator.<Row>comparingDouble(Row::sortKey)
+        .thenComparing(row -> row.incident().getCreatedAt(), Comparator.reverseOrder());
+    private static final Comparator<Row> BY_RANK = Comparator.<Row>comparingDouble(Row::sortKey).reversed()
+        .thenComparing(row -> row.incident().getCreatedAt(), Comparator.reverseOrder());
+    private static final Comparator<Row> NEWEST_FIRST = Comparator.<Row, LocalDateTime>comparing(
+        row -> row.incident().getCreatedAt()).reversed();
+    private static final Comparator<Row> OLDEST_FIRST = Comparator.comparing(row -> row.incident().getCreatedAt());
+    private static final Comparator<Row> BY_PRIORITY = Comparator.<Row>comparingInt(
+            row -> row.incident().getConfidenceScore()).reversed()
+        .thenComparing(row -> row.incident().getCreatedAt());
+    private static final Comparator<Row> BY_UPDATE = Comparator.<Row, LocalDateTime>comparing(
+            row -> row.incident().getUpdatedAt())
+        .thenComparing(row -> row.incident().getId());
+
+    private final IncidentRepository incidentRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final IncidentPartitionService partitionService;
+    private final List<Shard> shards;
+    private final GeoShardMap shardMap;
+    private final ExecutorService fanOutPool;
+    private final DistributionSummary fanOut;
+
+    private record Shard(int index, HikariDataSource pool, NamedParameterJdbcTemplate jdbc) {
+    }
+
+    // An incident read from a shard; sortKey carries the distance or search rank it was ordered by
+    private record Row(Incident incident, Long reporterId, double sortKey) {
+    }
+
+    private record PendingWrite(Incident incident, boolean insert) {
+    }
+
+    public IncidentShardRouter(IncidentRepository incidentRepository,
+                               UserRepository userRepository,
+                               JdbcTemplate jdbcTemplate,
+                               IncidentPartitionService partitionService,
+                               DataSourceProperties properties,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.shards.urls:}") List<String> urls,
+                               @Value("${app.shards.username:${spring.datasource.username}}") String username,
+                               @Value("${app.shards.password:${spring.datasource.password}}") String password,
+                               @Value("${app.shards.pool-size:10}") int poolSize,
+                               @Value("${app.shards.cell-degrees:1.0}") double cellDegrees,
+                               @Value("${app.shards.fan-out-threads:8}") int fanOutThreads) {
+        this.incidentRepository = incidentRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionService = partitionService;
+
+        List<String> shardUrls = urls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        this.shards = new ArrayList<>(shardUrls.size());
+        for (int i = 0; i < shardUrls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + i);
+            pool.setJdbcUrl(shardUrls.get(i));
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setDriverClassName(properties.determineDriverClassName());
+            pool.setMaximumPoolSize(poolSize);
+            shards.add(new Shard(i, pool, new NamedParameterJdbcTemplate(pool)));
+        }
+        this.shardMap = shards.isEmpty() ? null : new GeoShardMap(cellDegrees, shards.size());
+        this.fanOutPool = shards.size() < 2 ? null
+            : Executors.newFixedThreadPool(Math.max(1, fanOutThreads), runnable -> {
+                Thread thread = new Thread(runnable, "incident-shard-fanout");
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.fanOut = meterRegistry.summary("incident.shard.fanout");
+
+        for (Shard shard : shards) {
+            initializeShard(shard);
+        }
+        if (!shards.isEmpty()) {
+            log.info("Incident storage sharded over {} databases in {}-degree cells", shards.size(), cellDegrees);
+        }
+    }
+
+    public boolean isSharded() {
+        return !shards.isEmpty();
+    }
+
+    /**
+     * Databases holding incident rows: every shard, or the home database when not sharded
+     */
+    public List<JdbcTemplate> incidentDatabases() {
+        if (!isSharded()) {
+            return List.of(jdbcTemplate);
+        }
+        return shards.stream().map(shard -> shard.jdbc().getJdbcTemplate()).toList();
+    }
+
+    /**
+     * Insert or update an incident on the shard owning its location. Assigns the id and
+     * timestamps that the JPA mapping would otherwise fill in, and claims the incident id.
+     */
+    public Incident save(Incident incident) {
+        if (!isSharded()) {
+            return incidentRepository.save(incident);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        boolean insert = incident.getId() == null;
+        if (insert) {
+            incident.setId(jdbcTemplate.queryForObject("SELECT nextval('incidents_id_seq')", Long.class));
+            // The shards cannot see each other's rows, so incident_id is claimed on the home database
+            jdbcTemplate.update("INSERT INTO incident_ids (incident_id, id) VALUES (?, ?)",
+                incident.getIncidentId(), incident.getId());
+            if (incident.getCreatedAt() == null) {
+                incident.setCreatedAt(now);
+            }
+        }
+        incident.setUpdatedAt(now);
+
+        Map<Long, PendingWrite> pending = pendingWrites();
+        if (pending == null) {
+            writeToShards(List.of(new PendingWrite(incident, insert)));
+        } else {
+            PendingWrite earlier = pending.get(incident.getId());
+            pending.put(incident.getId(), new PendingWrite(incident, insert || earlier != null && earlier.insert()));
+        }
+        return incident;
+    }
+
+    public Optional<Incident> findById(Long id) {
+        if (!isSharded()) {
+            return incidentRepository.findById(id);
+        }
+        Optional<Incident> written = findPending(incident -> incident.getId().equals(id));
+        if (written.isPresent()) {
+            return written;
+        }
+        return findOne("WHERE i.id = :id", new MapSqlParameterSource("id", id));
+    }
+
+    /**
+     * Incident for a change; concurrent writers on one incident are serialised by a
+     * transaction-scoped advisory lock on the home database instead of a row lock
+     */
+    public Optional<Incident> findByIdForUpdate(Long id) {
+        if (!isSharded()) {
+            return incidentRepository.findByIdForUpdate(id);
+        }
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, id);
+        return findById(id);
+    }
+
+    public List<Incident> findAllById(Collection<Long> ids) {
+        if (!isSharded()) {
+            return incidentRepository.findAllById(ids);
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        String sql = "SELECT " + COLUMNS + " FROM incidents i WHERE i.id IN (:ids)";
+        return concat(fanOut(all(), shard -> shard.jdbc().query(sql, params, rowMapper(null))));
+    }
+
+    /**
+     * Hot incidents written after the (updatedAt, id) position, in that order, so a caller
+     * can page through everything changed since a point in time
+     */
+    public List<Incident> findUpdatedAfter(LocalDateTime since, long afterId, int limit) {
+        if (!isSharded()) {
+            return incidentRepository.findUpdatedAfter(since, afterId, limit);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("since", since)
+            .addValue("afterId", afterId)
+            .addValue("limit", limit);
+        String sql = "SELECT " + COLUMNS + " FROM incidents i"
+            + " WHERE i.archived = false AND (i.updated_at, i.id) > (:since, :afterId)"
+            + " ORDER BY i.updated_at, i.id LIMIT :limit";
+        return merge(fanOut(all(), shard -> shard.jdbc().query(sql, params, rowMapper(null))),
+            BY_UPDATE, 0, limit);
+    }
+
+    /**
+     * Image hashes of hot incidents with a photo, by incident id
+     */
+    public Map<Long, Long> findImageHashes() {
+        Map<Long, Long> hashes = new HashMap<>();
+        if (!isSharded()) {
+            for (Object[] row : incidentRepository.findImageHashes()) {
+                hashes.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+            }
+            return hashes;
+        }
+        String sql = "SELECT id, image_hash FROM incidents WHERE archived = false AND image_hash IS NOT NULL";
+        fanOut(all(), shard -> shard.jdbc().query(sql, (rs, n) -> new long[]{rs.getLong(1), rs.getLong(2)}))
+            .forEach(rows -> rows.forEach(row -> hashes.put(row[0], row[1])));
+        return hashes;
+    }
+
+    public Optional<Incident> findByIncidentId(String incidentId) {
+        if (!isSharded()) {
+            return incidentRepository.findByIncidentId(incidentId);
+        }
+        return findOne("WHERE i.incident_id = :incidentId", new MapSqlParameterSource("incidentId", incidentId));
+    }
+
+    public boolean existsAny() {
+        if (!isSharded()) {
+            return incidentRepository.existsAny();
+        }
+        return fanOut(all(), shard -> shard.jdbc().query("SELECT EXISTS (SELECT 1 FROM incidents)",
+                (rs, n) -> rs.getBoolean(1)))
+            .stream().flatMap(List::stream).anyMatch(Boolean::booleanValue);
+    }
+
+    /**
+     * Hot incidents within the radius, nearest first; each intersecting shard returns its
+     * first offset + limit rows and the merge keeps the requested page
+     */
+    public List<Incident> findIncidentsWithinRadius(Double latitude, Double longitude, Double radiusKm, String type,
+                                                    String status, Integer minConfidence, Integer limit,
+                                                    Integer offset) {
+        if (!isSharded()) {
+            return incidentRepository.findIncidentsWithinRadius(
+                latitude, longitude, radiusKm, type, status, minConfidence, limit, offset);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("lat", latitude)
+            .addValue("lon", longitude)
+            .addValue("radius", radiusKm)
+            .addValue("limit", offset + limit);
+        String sql = "SELECT " + COLUMNS + ", " + DISTANCE + " AS distance FROM incidents i WHERE "
+            + DISTANCE + " <= :radius AND i.archived = false" + filters(params, type, status, minConfidence)
+            + " ORDER BY distance ASC, i.created_at DESC LIMIT :limit";
+        return merge(fanOut(shardMap.shardsWithin(latitude, longitude, radiusKm),
+            shard -> shard.jdbc().query(sql, params, rowMapper("distance"))), BY_DISTANCE, offset, limit);
+    }
+
+    public List<Incident> findPotentialDuplicates(Double latitude, Double longitude, Double distanceThresholdKm,
+                                                  String type, LocalDateTime timeWindow) {
+        if (!isSharded()) {
+            return incidentRepository.findPotentialDuplicates(
+                latitude, longitude, distanceThresholdKm, type, timeWindow);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("lat", latitude)
+            .addValue("lon", longitude)
+            .addValue("radius", distanceThresholdKm)
+            .addValue("type", type)
+            .addValue("since", timeWindow);
+        String sql = "SELECT " + COLUMNS + ", " + DISTANCE + " AS distance FROM incidents i WHERE "
+            + DISTANCE + " <= :radius AND i.type = :type AND i.archived = false AND i.created_at >= :since"
+            + " AND i.status != 'FALSE' ORDER BY distance ASC, i.created_at DESC";
+        return merge(fanOut(shardMap.shardsWithin(latitude, longitude, distanceThresholdKm),
+            shard -> shard.jdbc().query(sql, params, rowMapper("distance"))), BY_DISTANCE, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Hot incidents for the admin views, highest confidence first and oldest first within a
+     * score; optionally of one status
+     */
+    public List<Incident> findForAdmin(Incident.IncidentStatus status, int limit) {
+        if (!isSharded()) {
+            List<Incident> incidents = status != null
+                ? incidentRepository.findByStatusOrderByConfidenceScoreDescCreatedAtAsc(status)
+                : incidentRepository.findAllOrderByConfidenceScoreDescCreatedAtAsc();
+            return incidents.size() > limit ? incidents.subList(0, limit) : incidents;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        String sql = "SELECT " + COLUMNS + " FROM incidents i WHERE i.archived = false"
+            + filters(params, null, status != null ? status.name() : null, null)
+            + " ORDER BY i.confidence_score DESC, i.created_at ASC LIMIT :limit";
+        return merge(fanOut(all(), shard -> shard.jdbc().query(sql, params, rowMapper(null))),
+            BY_PRIORITY, 0, limit);
+    }
+
+    /**
+     * A page of hot incidents, newest first so pages come out in a stable order
+     */
+    public List<Incident> findActive(int offset, int limit) {
+        if (!isSharded()) {
+            return incidentRepository.findActive(offset, limit);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", offset + limit);
+        String sql = "SELECT " + COLUMNS + " FROM incidents i WHERE i.archived = false"
+            + " ORDER BY i.created_at DESC LIMIT :limit";
+        return merge(fanOut(all(), shard -> shard.jdbc().query(sql, params, rowMapper(null))),
+            NEWEST_FIRST, offset, limit);
+    }
+
+    /**
+     * Full-text matches, best ranked first; shards are narrowed to the search circle when one is given
+     */
+    public List<Incident> searchIncidents(String text, Double latitude, Double longitude, Double radiusKm,
+                                          String type, String status, Integer minConfidence, Integer limit,
+                                          Integer offset) {
+        if (!isSharded()) {
+            return incidentRepository.searchIncidents(
+                text, latitude, longitude, radiusKm, type, status, minConfidence, limit, offset);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("text", text)
+            .addValue("limit", offset + limit);
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + ", ts_rank_cd(i.search_vector, query) AS rank"
+            + " FROM incidents i, websearch_to_tsquery('english', :text) query"
+            + " WHERE i.search_vector @@ query AND i.archived = false");
+        BitSet targets = all();
+        if (radiusKm != null) {
+            params.addValue("lat", latitude).addValue("lon", longitude).addValue("radius", radiusKm);
+            sql.append(" AND ").append(DISTANCE).append(" <= :radius");
+            targets = shardMap.shardsWithin(latitude, longitude, radiusKm);
+        }
+        sql.append(filters(params, type, status, minConfidence))
+            .append(" ORDER BY rank DESC, i.created_at DESC LIMIT :limit");
+        String query = sql.toString();
+        return merge(fanOut(targets, shard -> shard.jdbc().query(query, params, rowMapper("rank"))),
+            BY_RANK, offset, limit);
+    }
+
+    public List<Incident> findHistorical(LocalDateTime from, LocalDateTime to, String type, String status,
+                                         Integer limit, Integer offset) {
+        if (!isSharded()) {
+            return incidentRepository.findHistorical(from, to, type, status, limit, offset);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("from", from)
+            .addValue("to", to)
+            .addValue("limit", offset + limit);
+        String sql = "SELECT " + COLUMNS + " FROM incidents i WHERE i.created_at >= :from AND i.created_at < :to"
+            + filters(params, type, status, null) + " ORDER BY i.created_at DESC LIMIT :limit";
+        return merge(fanOut(all(), shard -> shard.jdbc().query(sql, params, rowMapper(null))),
+            NEWEST_FIRST, offset, limit);
+    }
+
+    /**
+     * Incidents of any age, hot and archived; of one status when given
+     */
+    public long count(Incident.IncidentStatus status) {
+        if (!isSharded()) {
+            return status != null ? incidentRepository.countByStatus(status) : incidentRepository.count();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT COUNT(*) FROM incidents i WHERE true" + filters(params, null,
+            status != null ? status.name() : null, null);
+        return fanOut(all(), shard -> shard.jdbc().query(sql, params, (rs, n) -> rs.getLong(1)))
+            .stream().flatMap(List::stream).mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Most recently reported incidents, hot and archived
+     */
+    public List<Incident> findRecent(int limit) {
+        if (!isSharded()) {
+            return incidentRepository.findAll().stream()
+                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
+                .limit(limit)
+                .collect(Collectors.toList());
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        String sql = "SELECT " + COLUMNS + " FROM incidents i ORDER BY i.created_at DESC LIMIT :limit";
+        return merge(fanOut(all(), shard -> shard.jdbc().query(sql, params, rowMapper(null))),
+            NEWEST_FIRST, 0, limit);
+    }
+
+    public List<Incident> findClusteredSince(LocalDateTime since) {
+        if (!isSharded()) {
+            return incidentRepository.findClusteredSince(since);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("since", since);
+        String sql = "SELECT " + COLUMNS + " FROM incidents i"
+            + " WHERE i.archived = false AND i.cluster_id IS NOT NULL AND i.created_at >= :since";
+        return concat(fanOut(all(), shard -> shard.jdbc().query(sql, params, rowMapper(null))));
+    }
+
+    public List<Incident> findByClusterIdInOrderByCreatedAtAsc(Collection<Long> clusterIds) {
+        if (!isSharded()) {
+            return incidentRepository.findByClusterIdInOrderByCreatedAtAsc(clusterIds);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("clusterIds", clusterIds);
+        String sql = "SELECT " + COLUMNS + " FROM incidents i WHERE i.cluster_id IN (:clusterIds) ORDER BY i.created_at";
+        return merge(fanOut(all(), shard -> shard.jdbc().query(sql, params, rowMapper(null))),
+            OLDEST_FIRST, 0, Integer.MAX_VALUE);
+    }
+
+    public List<Incident> findByArchivedFalseAndStatusIn(Collection<Incident.IncidentStatus> statuses) {
+        if (!isSharded()) {
+            return incidentRepository.findByArchivedFalseAndStatusIn(statuses);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("statuses", names(statuses));
+        String sql = "SELECT " + COLUMNS + " FROM incidents i WHERE i.archived = false AND i.status IN (:statuses)";
+        return concat(fanOut(all(), shard -> shard.jdbc().query(sql, params, rowMapper(null))));
+    }
+
+    public List<CompactIncident> findCompactByStatusIn(Collection<Incident.IncidentStatus> statuses) {
+        if (!isSharded()) {
+            return incidentRepository.findCompactByStatusIn(statuses);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("statuses", names(statuses));
+        String sql = """
+            SELECT incident_id, type, status, latitude, longitude, confidence_score, confirmation_count, updated_at
+            FROM incidents WHERE archived = false AND status IN (:statuses)
+            """;
+        return fanOut(all(), shard -> shard.jdbc().query(sql, params, (rs, n) -> new CompactIncident(
+                rs.getString("incident_id"),
+                Incident.IncidentType.valueOf(rs.getString("type")),
+                Incident.IncidentStatus.valueOf(rs.getString("status")),
+                rs.getDouble("latitude"),
+                rs.getDouble("longitude"),
+                rs.getInt("confidence_score"),
+                rs.getInt("confirmation_count"),
+                rs.getTimestamp("updated_at").toLocalDateTime())))
+            .stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${app.partitions.maintenance-interval-ms:3600000}")
+    public void createUpcomingPartitions() {
+        for (Shard shard : shards) {
+            partitionService.createHotPartitions(shard.jdbc().getJdbcTemplate(), YearMonth.now());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms:3600000}",
+               initialDelayString = "${app.archive.initial-delay-ms:60000}")
+    public void archiveClosedIncidents() {
+        for (Shard shard : shards) {
+            partitionService.archiveClosedIncidents(shard.jdbc().getJdbcTemplate());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (fanOutPool != null) {
+            fanOutPool.shutdownNow();
+        }
+        shards.forEach(shard -> shard.pool().close());
+    }
+
+    /**
+     * Create the partitioned incidents table on a shard. Same layout and indexes as the home
+     * table, without the id sequence and the reporter foreign key, which live on the home database.
+     */
+    private void initializeShard(Shard shard) {
+        JdbcTemplate jdbc = shard.jdbc().getJdbcTemplate();
+        jdbc.execute("""
+            CREATE TABLE IF NOT EXISTS incidents (
+                id bigint NOT NULL,
+                incident_id varchar(255) NOT NULL,
+                type varchar(255) NOT NULL,
+                description varchar(2000) NOT NULL,
+                latitude double precision NOT NULL,
+                longitude double precision NOT NULL,
+                address varchar(500),
+                gps_accuracy double precision,
+                image_url varchar(500),
+                status varchar(255) NOT NULL,
+                confidence_score integer NOT NULL,
+                confirmation_count integer NOT NULL,
+                reporter_id bigint,
+                admin_notes varchar(2000),
+                created_at timestamp(6) NOT NULL,
+                updated_at timestamp(6) NOT NULL,
+                archived boolean NOT NULL DEFAULT false,
+                cluster_id bigint,
+                image_hash bigint,
+                version integer,
+                segment_exported boolean NOT NULL DEFAULT false,
+                search_vector tsvector GENERATED ALWAYS AS (
+                    setweight(to_tsvector('english', coalesce(description, '')), 'A') ||
+                    setweight(to_tsvector('english', coalesce(address, '')), 'B')
+                ) STORED,
+                PRIMARY KEY (id, archived, created_at)
+            ) PARTITION BY LIST (archived)
+            """);
+        // Shards created before image hashing and row versions
+        jdbc.execute("ALTER TABLE incidents ADD COLUMN IF NOT EXISTS image_hash bigint");
+        jdbc.execute("ALTER TABLE incidents ADD COLUMN IF NOT EXISTS version integer");
+        backfillVersions(shard);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS incidents_hot PARTITION OF incidents"
+            + " FOR VALUES IN (false) PARTITION BY RANGE (created_at)");
+        jdbc.execute("CREATE TABLE IF NOT EXISTS incidents_hot_default PARTITION OF incidents_hot DEFAULT");
+        jdbc.execute("CREATE TABLE IF NOT EXISTS incidents_archive PARTITION OF incidents"
+            + " FOR VALUES IN (true) PARTITION BY RANGE (created_at)");
+        jdbc.execute("CREATE TABLE IF NOT EXISTS incidents_archive_default PARTITION OF incidents_archive DEFAULT");
+
+        jdbc.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_incidents_incident_id"
+            + " ON incidents (incident_id, archived, created_at)");
+        jdbc.execute("CREATE INDEX IF NOT EXISTS idx_location ON incidents (latitude, longitude)");
+        jdbc.execute("CREATE INDEX IF NOT EXISTS idx_status ON incidents (status)");
+        jdbc.execute("CREATE INDEX IF NOT EXISTS idx_created_at ON incidents (created_at)");
+        jdbc.execute("CREATE INDEX IF NOT EXISTS idx_cluster ON incidents (cluster_id)");
+        jdbc.execute("CREATE INDEX IF NOT EXISTS idx_incidents_search ON incidents USING GIN (search_vector)");
+
+        partitionService.createHotPartitions(jdbc, YearMonth.now());
+    }
+
+    /**
+     * Copy the event log version onto shard rows written before rows carried it. The events
+     * live on the home database, so this goes in batches rather than as one joined UPDATE.
+     */
+    private void backfillVersions(Shard shard) {
+        NamedParameterJdbcTemplate home = new NamedParameterJdbcTemplate(jdbcTemplate);
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = shard.jdbc().getJdbcTemplate().queryForList(
+                "SELECT id FROM incidents WHERE version IS NULL LIMIT 1000", Long.class);
+            if (ids.isEmpty()) break;
+            Map<Long, Integer> versions = new HashMap<>();
+            home.query("SELECT incident_id, MAX(version) FROM incident_events WHERE incident_id IN (:ids) GROUP BY incident_id",
+                new MapSqlParameterSource("ids", ids), rs -> {
+                    versions.put(rs.getLong(1), rs.getInt(2));
+                });
+            shard.jdbc().getJdbcTemplate().batchUpdate("UPDATE incidents SET version = ? WHERE id = ? AND version IS NULL",
+                ids.stream().map(id -> new Object[]{versions.getOrDefault(id, 0), id}).toList());
+            total += ids.size();
+        } while (ids.size() == 1000);
+        if (total > 0) {
+            log.info("Backfilled versions of {} incidents on shard {}", total, shard.index());
+        }
+    }
+
+    private Optional<Incident> findOne(String where, MapSqlParameterSource params) {
+        String sql = "SELECT " + COLUMNS + " FROM incidents i " + where + " LIMIT 1";
+        return concat(fanOut(all(), shard -> shard.jdbc().query(sql, params, rowMapper(null))))
+            .stream().findFirst();
+    }
+
+    // Optional filters are only added when set: an untyped NULL parameter cannot be planned
+    private static String filters(MapSqlParameterSource params, String type, String status, Integer minConfidence) {
+        StringBuilder sql = new StringBuilder();
+        if (type != null) {
+            sql.append(" AND i.type = :type");
+            params.addValue("type", type);
+        }
+        if (status != null) {
+            sql.append(" AND i.status = :status");
+            params.addValue("status", status);
+        }
+        if (minConfidence != null) {
+            sql.append(" AND i.confidence_score >= :minConfidence");
+            params.addValue("minConfidence", minConfidence);
+        }
+        return sql.toString();
+    }
+
+    private static List<String> names(Collection<Incident.IncidentStatus> statuses) {
+        return statuses.stream().map(Enum::name).toList();
+    }
+
+    private BitSet all() {
+        BitSet targets = new BitSet(shards.size());
+        targets.set(0, shards.size());
+        return targets;
+    }
+
+    /**
+     * Run the query on each target shard, in parallel when there is more than one
+     */
+    private <T> List<List<T>> fanOut(BitSet targets, Function<Shard, List<T>> query) {
+        fanOut.record(targets.cardinality());
+        if (targets.cardinality() == 1) {
+            return List.of(query.apply(shards.get(targets.nextSetBit(0))));
+        }
+        List<Future<List<T>>> futures = new ArrayList<>(targets.cardinality());
+        for (int i = targets.nextSetBit(0); i >= 0; i = targets.nextSetBit(i + 1)) {
+            Shard shard = shards.get(i);
+            futures.add(fanOutPool.submit(() -> query.apply(shard)));
+        }
+        List<List<T>> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<List<T>> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Interrupted while querying shards");
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * K-way merge of per-shard lists that are each sorted by the comparator, keeping
+     * [offset, offset + limit) of the combined order
+     */
+    private List<Incident> merge(List<List<Row>> sorted, Comparator<Row> order, int offset, int limit) {
+        record Cursor(List<Row> rows, int position) {
+            Row head() {
+                return rows.get(position);
+            }
+        }
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Math.max(1, sorted.size()),
+            Comparator.comparing(Cursor::head, order));
+        for (List<Row> rows : sorted) {
+            if (!rows.isEmpty()) {
+                heads.add(new Cursor(rows, 0));
+            }
+        }
+        List<Row> page = new ArrayList<>();
+        int skipped = 0;
+        while (!heads.isEmpty() && page.size() < limit) {
+            Cursor cursor = heads.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page.add(cursor.head());
+            }
+            if (cursor.position() + 1 < cursor.rows().size()) {
+                heads.add(new Cursor(cursor.rows(), cursor.position() + 1));
+            }
+        }
+        return withReporters(page);
+    }
+
+    private List<Incident> concat(List<List<Row>> rows) {
+        return withReporters(rows.stream().flatMap(List::stream).toList());
+    }
+
+    // Reporters live on the home database: one lookup for the whole result
+    private List<Incident> withReporters(List<Row> rows) {
+        List<Long> reporterIds = rows.stream().map(Row::reporterId).filter(id -> id != null).distinct().toList();
+        Map<Long, User> reporters = reporterIds.isEmpty() ? Map.of()
+            : userRepository.findAllById(reporterIds).stream().collect(Collectors.toMap(User::getId, user -> user));
+        List<Incident> incidents = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (row.reporterId() != null) {
+                row.incident().setReporter(reporters.get(row.reporterId()));
+            }
+            incidents.add(row.incident());
+        }
+        return incidents;
+    }
+
+    private static RowMapper<Row> rowMapper(String sortColumn) {
+        return (rs, n) -> new Row(Incident.builder()
+                .id(rs.getLong("id"))
+                .incidentId(rs.getString("incident_id"))
+                .type(Incident.IncidentType.valueOf(rs.getString("type")))
+                .description(rs.getString("description"))
+                .latitude(rs.getDouble("latitude"))
+                .longitude(rs.getDouble("longitude"))
+                .address(rs.getString("address"))
+                .gpsAccuracy(rs.getObject("gps_accuracy", Double.class))
+                .imageUrl(rs.getString("image_url"))
+                .status(Incident.IncidentStatus.valueOf(rs.getString("status")))
+                .confidenceScore(rs.getInt("confidence_score"))
+                .confirmationCount(rs.getInt("confirmation_count"))
+                .adminNotes(rs.getString("admin_notes"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                .archived(rs.getBoolean("archived"))
+                .clusterId(rs.getObject("cluster_id", Long.class))
+                .imageHash(rs.getObject("image_hash", Long.class))
+                .version(rs.getObject("version", Integer.class))
+                .build(),
+            rs.getObject("reporter_id", Long.class),
+            sortColumn != null ? rs.getDouble(sortColumn) : 0);
+    }
+
+    // Writes held for the current transaction, or null outside one
+    @SuppressWarnings("unchecked")
+    private Map<Long, PendingWrite> pendingWrites() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Map<Long, PendingWrite> pending = (Map<Long, PendingWrite>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, PendingWrite> writes = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, writes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    writeToShards(writes.values());
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(IncidentShardRouter.this);
+                }
+            });
+            pending = writes;
+        }
+        return pending;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<Incident> findPending(Predicate<Incident> match) {
+        Map<Long, PendingWrite> pending = TransactionSynchronizationManager.isSynchronizationActive()
+            ? (Map<Long, PendingWrite>) TransactionSynchronizationManager.getResource(this) : null;
+        if (pending == null) {
+            return Optional.empty();
+        }
+        return pending.values().stream().map(PendingWrite::incident).filter(match).findFirst();
+    }
+
+    /**
+     * Send writes to their shards, one transaction and one batch per statement for each shard
+     */
+    private void writeToShards(Collection<PendingWrite> writes) {
+        Map<Integer, List<PendingWrite>> byShard = writes.stream().collect(Collectors.groupingBy(
+            write -> shardMap.shardOf(write.incident().getLatitude(), write.incident().getLongitude())));
+        for (Map.Entry<Integer, List<PendingWrite>> entry : byShard.entrySet()) {
+            Shard shard = shards.get(entry.getKey());
+            try (Connection connection = shard.pool().getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement insert = connection.prepareStatement(INSERT);
+                     PreparedStatement update = connection.prepareStatement(UPDATE)) {
+                    int inserts = 0;
+                    int updates = 0;
+                    for (PendingWrite write : entry.getValue()) {
+                        if (write.insert()) {
+                            bindInsert(insert, write.incident());
+                            insert.addBatch();
+                            inserts++;
+                        } else {
+                            bindUpdate(update, write.incident());
+                            update.addBatch();
+                            updates++;
+                        }
+                    }
+                    if (inserts > 0) {
+                        insert.executeBatch();
+                    }
+                    if (updates > 0) {
+                        update.executeBatch();
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                throw shard.jdbc().getJdbcTemplate().getExceptionTranslator()
+                    .translate("Writing incidents to shard " + shard.index(), null, e);
+            }
+        }
+    }
+
+    private static void bindInsert(PreparedStatement statement, Incident incident) throws SQLException {
+        statement.setLong(1, incident.getId());
+        statement.setString(2, incident.getIncidentId());
+        statement.setString(3, incident.getType().name());
+        statement.setString(4, incident.getDescription());
+        statement.setDouble(5, incident.getLatitude());
+        statement.setDouble(6, incident.getLongitude());
+        statement.setString(7, incident.getAddress());
+        statement.setObject(8, incident.getGpsAccuracy(), Types.DOUBLE);
+        statement.setString(9, incident.getImageUrl());
+        statement.setString(10, incident.getStatus().name());
+        statement.setInt(11, incident.getConfidenceScore());
+        statement.setInt(12, incident.getConfirmationCount());
+        statement.setObject(13, incident.getReporter() != null ? incident.getReporter().getId() : null, Types.BIGINT);
+        statement.setString(14, incident.getAdminNotes());
+        statement.setTimestamp(15, Timestamp.valueOf(incident.getCreatedAt()));
+        statement.setTimestamp(16, Timestamp.valueOf(incident.getUpdatedAt()));
+        statement.setBoolean(17, incident.getArchived());
+        statement.setObject(18, incident.getClusterId(), Types.BIGINT);
+        statement.setObject(19, incident.getImageHash(), Types.BIGINT);
+        statement.setObject(20, incident.getVersion(), Types.INTEGER);
+    }
+
+    private static void bindUpdate(PreparedStatement statement, Incident incident) throws SQLException {
+        statement.setString(1, incident.getType().name());
+        statement.setString(2, incident.getDescription());
+        statement.setString(3, incident.getAddress());
+        statement.setObject(4, incident.getGpsAccuracy(), Types.DOUBLE);
+        statement.setString(5, incident.getImageUrl());
+        statement.setString(6, incident.getStatus().name());
+        statement.setInt(7, incident.getConfidenceScore());
+        statement.setInt(8, incident.getConfirmationCount());
+        statement.setObject(9, incident.getReporter() != null ? incident.getReporter().getId() : null, Types.BIGINT);
+        statement.setString(10, incident.getAdminNotes());
+        statement.setTimestamp(11, Timestamp.valueOf(incident.getUpdatedAt()));
+        statement.setBoolean(12, incident.getArchived());
+        statement.setObject(13, incident.getClusterId(), Types.BIGINT);
+        statement.setObject(14, incident.getVersion(), Types.INTEGER);
+        statement.setLong(15, incident.getId());
+        statement.setTimestamp(16, Timestamp.valueOf(incident.getCreatedAt()));
+    }
+}
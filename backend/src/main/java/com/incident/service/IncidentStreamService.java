@@ -0,0 +1,297 @@
+package com.incident.service;
+
+import com.incident.dto.CompactIncident;
+import com.incident.dto.IncidentDelta;
+import com.incident.dto.IncidentDeltaBatch;
+import com.incident.dto.IncidentStreamSnapshot;
+import com.incident.entity.Incident;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-Sent Events feed of incident updates. Every update gets a monotonically increasing
+ * event id and is kept in a fixed-size replay ring. A client reconnecting with Last-Event-ID
+ * receives only the events it missed; when the gap is no longer in the ring it gets one
+ * compact snapshot of live incidents followed by the events after it. The snapshot is shared
+ * by every client reconnecting within snapshot-max-age, so a reconnect storm costs one query.
+ * Publishing only queues events per client; a small sender pool writes them out, so a slow
+ * client delays itself and is dropped once its queue is full, never the publisher.
+ */
+@Slf4j
+@Service
+public class IncidentStreamService {
+    private static final List<Incident.IncidentStatus> LIVE_STATUSES = List.of(
+        Incident.IncidentStatus.UNVERIFIED,
+        Incident.IncidentStatus.VERIFIED,
+        Incident.IncidentStatus.IN_PROGRESS
+    );
+
+    private final IncidentShardRouter shardRouter;
+    private final long timeoutMillis;
+    private final long retryMillis;
+    private final long snapshotMaxAgeMillis;
+    private final int maxPendingEvents;
+    private final ExecutorService senders;
+
+    // Ring of the latest events; event id n lives at n % capacity. Guarded by this.
+    private final Object[] ringEvents;
+    // Ids start at the boot time in microseconds so they keep increasing across restarts
+    private final long firstId = System.currentTimeMillis() * 1000;
+    private long lastId = firstId;
+
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private final Object snapshotLock = new Object();
+    private IncidentStreamSnapshot cachedSnapshot;
+    private long cachedSnapshotAt;
+
+    private final Counter replayedCounter;
+    private final Counter snapshotsSentCounter;
+    private final Counter snapshotsBuiltCounter;
+    private final Counter overflowCounter;
+
+    public IncidentStreamService(IncidentShardRouter shardRouter,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.sse.replay-buffer-size:4096}") int replayBufferSize,
+                                 @Value("${app.sse.timeout-ms:1800000}") long timeoutMillis,
+                                 @Value("${app.sse.retry-ms:3000}") long retryMillis,
+                                 @Value("${app.sse.snapshot-max-age-ms:2000}") long snapshotMaxAgeMillis,
+                                 @Value("${app.sse.max-pending-events:1000}") int maxPendingEvents,
+                                 @Value("${app.sse.sender-threads:4}") int senderThreads) {
+        this.shardRouter = shardRouter;
+        this.timeoutMillis = timeoutMillis;
+        this.retryMillis = retryMillis;
+        this.snapshotMaxAgeMillis = snapshotMaxAgeMillis;
+        this.maxPendingEvents = maxPendingEvents;
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ringEvents = new Object[replayBufferSize];
+
+        this.replayedCounter = meterRegistry.counter("sse.replayed.events");
+        this.snapshotsSentCounter = meterRegistry.counter("sse.snapshots.sent");
+        this.snapshotsBuiltCounter = meterRegistry.counter("sse.snapshots.built");
+        this.overflowCounter = meterRegistry.counter("sse.clients.overflowed");
+        Gauge.builder("sse.clients", clients, List::size).register(meterRegistry);
+    }
+
+    /**
+     * Append a committed update (a full IncidentResponse or an IncidentDelta) to the ring and
+     * queue it for every connected client
+     */
+    public synchronized void publish(Object incident) {
+        long id = ++lastId;
+        ringEvents[(int) (id % ringEvents.length)] = incident;
+        for (Client client : clients) {
+            client.enqueue(incidentEvent(id, incident));
+        }
+    }
+
+    /**
+     * Open a stream. Without a Last-Event-ID the client starts at the current position; with
+     * one it first receives the missed events, or a snapshot if they are no longer buffered.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Client client = new Client(emitter);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+
+        Long resumeFrom = parseEventId(lastEventId);
+        if (resumeFrom != null && canReplayAfter(resumeFrom)) {
+            attach(client, resumeFrom, null);
+        } else if (resumeFrom != null) {
+            IncidentStreamSnapshot snapshot = snapshot();
+            snapshotsSentCounter.increment();
+            attach(client, snapshot.getEventId(), snapshot);
+        } else {
+            attach(client, -1, null);
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        // Comment lines keep idle connections open through proxies and detect dead clients
+        for (Client client : clients) {
+            client.enqueue(SseEmitter.event().comment("ping"));
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void close() {
+        clients.forEach(client -> client.emitter.complete());
+        clients.clear();
+        senders.shutdownNow();
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * Queue the initial events and register the client in one step, so no update published
+     * in between is lost or sent twice. A negative position means "start from now".
+     */
+    private synchronized void attach(Client client, long position, IncidentStreamSnapshot snapshot) {
+        SseEmitter.SseEventBuilder first;
+        if (snapshot != null) {
+            first = SseEmitter.event().id(String.valueOf(position)).name("snapshot").data(snapshot);
+        } else if (position < 0) {
+            // Gives the client a Last-Event-ID even if it drops before the next update
+            first = SseEmitter.event().id(String.valueOf(lastId)).name("ready").data(lastId);
+        } else {
+            first = SseEmitter.event();
+        }
+        client.enqueueInitial(first.reconnectTime(retryMillis));
+        if (position >= 0) {
+            // A snapshot older than the ring replays whatever is still buffered after it
+            long from = Math.max(position, lastId - ringEvents.length) + 1;
+            for (long id = from; id <= lastId; id++) {
+                client.enqueueInitial(incidentEvent(id, ringEvents[(int) (id % ringEvents.length)]));
+                replayedCounter.increment();
+            }
+        }
+        clients.add(client);
+    }
+
+    private synchronized boolean canReplayAfter(long eventId) {
+        // Ids before this boot or beyond the latest come from another server run
+        return eventId >= firstId && eventId <= lastId && lastId - eventId <= ringEvents.length;
+    }
+
+    private IncidentStreamSnapshot snapshot() {
+        synchronized (snapshotLock) {
+            long now = System.currentTimeMillis();
+            if (cachedSnapshot != null && now - cachedSnapshotAt < snapshotMaxAgeMillis) {
+                return cachedSnapshot;
+            }
+            // Position taken before the query: events after it are replayed on top, and
+            // clients apply updates by incidentId, so one seen twice is harmless
+            long position;
+            synchronized (this) {
+                position = lastId;
+            }
+            List<CompactIncident> incidents = shardRouter.findCompactByStatusIn(LIVE_STATUSES);
+            cachedSnapshot = IncidentStreamSnapshot.builder()
+                .eventId(position)
+                .generatedAt(LocalDateTime.now())
+                .incidents(incidents)
+                .build();
+            cachedSnapshotAt = now;
+            snapshotsBuiltCounter.increment();
+            return cachedSnapshot;
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder incidentEvent(long id, Object incident) {
+        String name = incident instanceof IncidentDelta ? "delta"
+            : incident instanceof IncidentDeltaBatch ? "deltas" : "incident";
+        return SseEmitter.event().id(String.valueOf(id)).name(name).data(incident);
+    }
+
+    /**
+     * A connected stream and the events queued for it. At most one sender drains a client at a
+     * time, which keeps its events in order.
+     */
+    private final class Client {
+        private final SseEmitter emitter;
+        private final ArrayDeque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        // Initial events still queued; they are allowed on top of the live backlog limit. They are
+        // queued before the client is registered, so they sit at the head and drain first
+        private int initialEvents;
+
+        private Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            add(event, true);
+        }
+
+        void enqueueInitial(SseEmitter.SseEventBuilder event) {
+            add(event, false);
+        }
+
+        private void add(SseEmitter.SseEventBuilder event, boolean live) {
+            synchronized (this) {
+                if (closed) return;
+                if (!live) {
+                    initialEvents++;
+                } else if (pending.size() >= maxPendingEvents + initialEvents) {
+                    // Too far behind: drop it, it reconnects and resumes from its Last-Event-ID
+                    closed = true;
+                    pending.clear();
+                    overflowCounter.increment();
+                    clients.remove(this);
+                    senders.execute(emitter::complete);
+                    return;
+                }
+                pending.add(event);
+                if (draining) return;
+                draining = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    event = pending.poll();
+                    if (event == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                    if (initialEvents > 0) {
+                        initialEvents--;
+                    }
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the container completes the emitter
+                    synchronized (this) {
+                        closed = true;
+                        pending.clear();
+                        draining = false;
+                    }
+                    clients.remove(this);
+                    log.debug("Dropped SSE client: {}", e.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+
+    private static Long parseEventId(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0L; // Unknown position: treat as a gap and send a snapshot
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.incident.service;
+
+import com.incident.dto.ResponderCandidate;
+import com.incident.entity.ResponderLocation;
+import com.incident.repository.ResponderLocationRepository;
+import com.incident.util.ResponderIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Responder positions. Pings arrive every few seconds per responder and only update the
+ * in-memory ResponderIndex; the latest position of each responder that moved is written to
+ * responder_locations in one batch per persist interval, so ping traffic never reaches the
+ * database directly. Nearest-responder lookups are answered from the index.
+ */
+@Slf4j
+@Service
+public class ResponderLocationService {
+    private static final int MAX_CANDIDATES = 50;
+    private static final String UPSERT_SQL = """
+        INSERT INTO responder_locations (username, latitude, longitude, available, updated_at)
+        VALUES (?, ?, ?, ?, ?)
+        ON CONFLICT (username) DO UPDATE SET
+            latitude = EXCLUDED.latitude,
+            longitude = EXCLUDED.longitude,
+            available = EXCLUDED.available,
+            updated_at = EXCLUDED.updated_at
+        WHERE responder_locations.updated_at <= EXCLUDED.updated_at
+        """;
+
+    private final ResponderLocationRepository locationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ResponderIndex index;
+    private final long staleAfterMillis;
+    private final double maxDistanceKm;
+    // Latest unsaved position per responder
+    private final Map<String, ResponderIndex.Location> dirty = new ConcurrentHashMap<>();
+    private final Counter pingCounter;
+    private final Timer nearestTimer;
+
+    public ResponderLocationService(ResponderLocationRepository locationRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.responders.cell-km:1}") double cellKm,
+                                    @Value("${app.responders.stale-after-ms:120000}") long staleAfterMillis,
+                                    @Value("${app.responders.max-distance-km:50}") double maxDistanceKm) {
+        this.locationRepository = locationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.index = new ResponderIndex(cellKm);
+        this.staleAfterMillis = staleAfterMillis;
+        this.maxDistanceKm = maxDistanceKm;
+        this.pingCounter = meterRegistry.counter("responders.pings");
+        this.nearestTimer = meterRegistry.timer("responders.nearest");
+        meterRegistry.gauge("responders.tracked", index, ResponderIndex::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadRecentLocations() {
+        List<ResponderLocation> recent = locationRepository.findByUpdatedAtAfter(
+            LocalDateTime.now().minusNanos(staleAfterMillis * 1_000_000));
+        for (ResponderLocation location : recent) {
+            index.update(location.getUsername(), location.getLatitude(), location.getLongitude(),
+                location.getAvailable(), toMillis(location.getUpdatedAt()));
+        }
+        log.info("Responder index loaded with {} recent locations", recent.size());
+    }
+
+    public void recordPing(String username, double latitude, double longitude, boolean available) {
+        ResponderIndex.Location location = index.update(username, latitude, longitude, available,
+            System.currentTimeMillis());
+        dirty.put(username, location);
+        pingCounter.increment();
+    }
+
+    /**
+     * Available responders seen recently, closest to the given point first
+     */
+    public List<ResponderCandidate> findNearest(double latitude, double longitude, int k) {
+        long minUpdated = System.currentTimeMillis() - staleAfterMillis;
+        List<ResponderIndex.Candidate> candidates = nearestTimer.record(() ->
+            index.nearest(latitude, longitude, Math.min(k, MAX_CANDIDATES), maxDistanceKm, minUpdated));
+        return candidates.stream()
+            .map(ResponderLocationService::toCandidate)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Write the latest position of every responder that pinged since the last run, then drop
+     * responders that went quiet from the index.
+     */
+    @Scheduled(fixedDelayString = "${app.responders.persist-interval-ms:10000}")
+    public void persist() {
+        List<ResponderIndex.Location> batch = new ArrayList<>(dirty.values());
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch, batch.size(), (ps, location) -> {
+                ps.setString(1, location.responderId());
+                ps.setDouble(2, location.latitude());
+                ps.setDouble(3, location.longitude());
+                ps.setBoolean(4, location.available());
+                ps.setTimestamp(5, new Timestamp(location.updatedAtMillis()));
+            });
+            // Keep entries replaced by a newer ping meanwhile for the next run
+            batch.forEach(location -> dirty.remove(location.responderId(), location));
+        }
+        index.evictOlderThan(System.currentTimeMillis() - staleAfterMillis);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void flush() {
+        try {
+            persist();
+        } catch (Exception e) {
+            log.warn("Could not save {} responder locations on shutdown: {}", dirty.size(), e.getMessage());
+        }
+    }
+
+    private static ResponderCandidate toCandidate(ResponderIndex.Candidate candidate) {
+        ResponderIndex.Location location = candidate.location();
+        return ResponderCandidate.builder()
+            .username(location.responderId())
+            .latitude(location.latitude())
+            .longitude(location.longitude())
+            .distanceKm(candidate.distanceKm())
+            .lastSeenAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(location.updatedAtMillis()), ZoneId.systemDefault()))
+            .build();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
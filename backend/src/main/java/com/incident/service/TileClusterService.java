@@ -0,0 +1,249 @@
+package com.incident.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.incident.dto.TileCluster;
+import com.incident.dto.TileResponse;
+import com.incident.entity.Incident;
+import com.incident.util.TileMath;
+import com.incident.util.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical grid index over active incidents used to serve pre-clustered map tiles.
+ * Every zoom level splits each tile into a fixed grid of cells; a cell at zoom z is the
+ * parent of the four cells below it at zoom z+1, so an incident lives in exactly one
+ * cell per level and updates touch maxZoom+1 cells.
+ */
+@Slf4j
+@Service
+public class TileClusterService {
+    private static final List<Incident.IncidentStatus> ACTIVE_STATUSES = List.of(
+        Incident.IncidentStatus.UNVERIFIED,
+        Incident.IncidentStatus.VERIFIED,
+        Incident.IncidentStatus.IN_PROGRESS
+    );
+
+    private final IncidentShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final int maxZoom;
+    private final int cellBits;
+    private final int maxCachedTiles;
+
+    // levels[z]: tileKey -> (cellKey -> cell)
+    private final List<Map<Long, Map<Long, Cell>>> levels = new ArrayList<>();
+    private final Map<Long, IndexedPoint> points = new HashMap<>();
+    private final Map<Long, byte[]> tileCache = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public TileClusterService(IncidentShardRouter shardRouter,
+                              ObjectMapper objectMapper,
+                              @Value("${app.tiles.max-zoom:18}") int maxZoom,
+                              @Value("${app.tiles.cell-bits:5}") int cellBits,
+                              @Value("${app.tiles.max-cached-tiles:20000}") int maxCachedTiles) {
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.maxZoom = maxZoom;
+        this.cellBits = cellBits;
+        this.maxCachedTiles = maxCachedTiles;
+        for (int z = 0; z <= maxZoom; z++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadActiveIncidents() {
+        List<Incident> active = shardRouter.findByArchivedFalseAndStatusIn(ACTIVE_STATUSES);
+        lock.writeLock().lock();
+        try {
+            active.forEach(this::upsert);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        tileCache.clear();
+        log.info("Tile cluster index loaded with {} active incidents", active.size());
+    }
+
+    /**
+     * Apply a created or changed incident to the index and drop the cached tiles it touched,
+     * once the current transaction has committed
+     */
+    public void onIncidentChanged(Incident incident) {
+        TransactionHooks.afterCommit(() -> apply(incident));
+    }
+
+    private void apply(Incident incident) {
+        lock.writeLock().lock();
+        try {
+            IndexedPoint previous = points.get(incident.getId());
+            if (previous != null) {
+                remove(previous);
+                invalidate(previous);
+            }
+            if (ACTIVE_STATUSES.contains(incident.getStatus())) {
+                invalidate(upsert(incident));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * JSON-encoded tile, served from cache when nothing in the tile has changed
+     */
+    public byte[] getEncodedTile(int z, long x, long y) {
+        if (!TileMath.isValidTile(z, x, y, maxZoom)) {
+            throw new RuntimeException("Invalid tile " + z + "/" + x + "/" + y);
+        }
+        long key = TileMath.tileKey(z, x, y);
+        byte[] cached = tileCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        byte[] encoded;
+        lock.readLock().lock();
+        try {
+            encoded = encode(buildTile(z, x, y));
+            if (tileCache.size() >= maxCachedTiles) {
+                tileCache.clear();
+            }
+            // Store under the read lock so an invalidation cannot slip in between build and put
+            tileCache.put(key, encoded);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return encoded;
+    }
+
+    private TileResponse buildTile(int z, long x, long y) {
+        Map<Long, Cell> cells = levels.get(z).getOrDefault(TileMath.tileKey(z, x, y), Map.of());
+        List<TileCluster> clusters = new ArrayList<>(cells.size());
+        long total = 0;
+        for (Cell cell : cells.values()) {
+            total += cell.count;
+            clusters.add(cell.toCluster());
+        }
+        return TileResponse.builder()
+            .z(z)
+            .x(x)
+            .y(y)
+            .totalIncidents(total)
+            .clusters(clusters)
+            .build();
+    }
+
+    private byte[] encode(TileResponse tile) {
+        try {
+            return objectMapper.writeValueAsBytes(tile);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not encode tile", e);
+        }
+    }
+
+    private IndexedPoint upsert(Incident incident) {
+        int finestZoom = maxZoom + cellBits;
+        IndexedPoint point = new IndexedPoint(
+            incident.getId(),
+            incident.getLatitude(),
+            incident.getLongitude(),
+            incident.getType(),
+            incident.getStatus(),
+            TileMath.cell(TileMath.lonToX(incident.getLongitude(), finestZoom), finestZoom),
+            TileMath.cell(TileMath.latToY(incident.getLatitude(), finestZoom), finestZoom)
+        );
+        points.put(point.id, point);
+        for (int z = 0; z <= maxZoom; z++) {
+            long cx = point.cellX >> (maxZoom - z);
+            long cy = point.cellY >> (maxZoom - z);
+            long tileKey = TileMath.tileKey(z, cx >> cellBits, cy >> cellBits);
+            levels.get(z)
+                .computeIfAbsent(tileKey, k -> new HashMap<>())
+                .computeIfAbsent((cx << 32) | cy, k -> new Cell())
+                .add(point, 1);
+        }
+        return point;
+    }
+
+    private void remove(IndexedPoint point) {
+        points.remove(point.id);
+        for (int z = 0; z <= maxZoom; z++) {
+            long cx = point.cellX >> (maxZoom - z);
+            long cy = point.cellY >> (maxZoom - z);
+            long tileKey = TileMath.tileKey(z, cx >> cellBits, cy >> cellBits);
+            Map<Long, Cell> tile = levels.get(z).get(tileKey);
+            if (tile == null) continue;
+            long cellKey = (cx << 32) | cy;
+            Cell cell = tile.get(cellKey);
+            if (cell == null) continue;
+            cell.add(point, -1);
+            if (cell.count == 0) {
+                tile.remove(cellKey);
+                if (tile.isEmpty()) {
+                    levels.get(z).remove(tileKey);
+                }
+            }
+        }
+    }
+
+    private void invalidate(IndexedPoint point) {
+        for (int z = 0; z <= maxZoom; z++) {
+            int shift = maxZoom - z + cellBits;
+            tileCache.remove(TileMath.tileKey(z, point.cellX >> shift, point.cellY >> shift));
+        }
+    }
+
+    // cellX/cellY are the coordinates at the finest grid (maxZoom + cellBits)
+    private record IndexedPoint(Long id, double latitude, double longitude,
+                                Incident.IncidentType type, Incident.IncidentStatus status,
+                                long cellX, long cellY) {
+    }
+
+    private static class Cell {
+        private int count;
+        private double sumLat;
+        private double sumLon;
+        private long sumIds; // Equals the incident id when count == 1
+        private final int[] typeCounts = new int[Incident.IncidentType.values().length];
+        private final int[] statusCounts = new int[Incident.IncidentStatus.values().length];
+
+        void add(IndexedPoint point, int sign) {
+            count += sign;
+            sumLat += sign * point.latitude;
+            sumLon += sign * point.longitude;
+            sumIds += sign * point.id;
+            typeCounts[point.type.ordinal()] += sign;
+            statusCounts[point.status.ordinal()] += sign;
+        }
+
+        TileCluster toCluster() {
+            Map<Incident.IncidentType, Integer> byType = new EnumMap<>(Incident.IncidentType.class);
+            for (Incident.IncidentType type : Incident.IncidentType.values()) {
+                if (typeCounts[type.ordinal()] > 0) byType.put(type, typeCounts[type.ordinal()]);
+            }
+            Map<Incident.IncidentStatus, Integer> byStatus = new EnumMap<>(Incident.IncidentStatus.class);
+            for (Incident.IncidentStatus status : Incident.IncidentStatus.values()) {
+                if (statusCounts[status.ordinal()] > 0) byStatus.put(status, statusCounts[status.ordinal()]);
+            }
+            return TileCluster.builder()
+                .latitude(sumLat / count)
+                .longitude(sumLon / count)
+                .count(count)
+                .incidentId(count == 1 ? sumIds : null)
+                .countsByType(byType)
+                .countsByStatus(byStatus)
+                .build();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.incident.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Network identity of the client behind a request. With server.forward-headers-strategy set,
+ * the servlet container replaces the remote address with the one a trusted proxy forwarded,
+ * so this is the real client rather than the load balancer; headers from untrusted hops are
+ * ignored and cannot be used to pose as another client.
+ */
+public final class ClientAddress {
+    private ClientAddress() {
+    }
+
+    public static String of(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Address of the client whose request the current thread serves, null off request threads
+     */
+    public static String current() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return of(attributes.getRequest());
+        }
+        return null;
+    }
+}
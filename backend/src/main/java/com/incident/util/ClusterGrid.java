@@ -0,0 +1,173 @@
+package com.incident.util;
+
+import java.util.*;
+
+/**
+ * In-memory index for online clustering of reports. Two reports of the same type are linked
+ * when they are within the radius and the time window of each other; linked reports share a
+ * cluster, and a report linking several clusters merges them (union-find). Recent reports sit
+ * in a grid of radius-sized cells, so a lookup reads the 3x3 cells around the report and each
+ * cell keeps at most maxPointsPerCell reports: insertion is O(1) however large a cluster grows.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public class ClusterGrid {
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    private final double radiusKm;
+    private final double cellDegrees;
+    private final long windowMillis;
+    private final int maxPointsPerCell;
+    private final Map<Long, ArrayDeque<Point>> cells = new HashMap<>();
+    private final Map<Long, Long> parents = new HashMap<>();
+    private int size;
+
+    /**
+     * A report held in the grid. Returned by add so a caller can remove it again.
+     */
+    public static final class Point {
+        private final long cellKey;
+        private final double latitude;
+        private final double longitude;
+        private final long timeMillis;
+        private long clusterId;
+
+        private Point(long cellKey, double latitude, double longitude, long timeMillis, long clusterId) {
+            this.cellKey = cellKey;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.timeMillis = timeMillis;
+            this.clusterId = clusterId;
+        }
+    }
+
+    public ClusterGrid(double radiusMeters, long windowMillis, int maxPointsPerCell) {
+        this.radiusKm = radiusMeters / 1000.0;
+        this.cellDegrees = radiusMeters / METERS_PER_DEGREE;
+        this.windowMillis = windowMillis;
+        this.maxPointsPerCell = maxPointsPerCell;
+    }
+
+    /**
+     * Clusters linked to a report at this place and time, as distinct root ids in ascending order
+     */
+    public long[] linkedClusters(int type, double latitude, double longitude, long timeMillis) {
+        long cutoff = timeMillis - windowMillis;
+        long[] found = new long[4];
+        int count = 0;
+        long row = latRow(latitude);
+        for (long r = row - 1; r <= row + 1; r++) {
+            long column = lonColumn(longitude, r);
+            for (long c = column - 1; c <= column + 1; c++) {
+                ArrayDeque<Point> cell = cells.get(cellKey(type, r, c));
+                if (cell == null) continue;
+                for (Point point : cell) {
+                    if (point.timeMillis < cutoff) continue;
+                    long root = find(point.clusterId);
+                    if (contains(found, count, root)) continue;
+                    if (LocationUtil.calculateDistance(latitude, longitude, point.latitude, point.longitude) <= radiusKm) {
+                        if (count == found.length) found = Arrays.copyOf(found, count * 2);
+                        found[count++] = root;
+                    }
+                }
+            }
+        }
+        long[] roots = Arrays.copyOf(found, count);
+        Arrays.sort(roots);
+        return roots;
+    }
+
+    public Point add(int type, double latitude, double longitude, long timeMillis, long clusterId) {
+        long key = cellKey(type, latRow(latitude), lonColumn(longitude, latRow(latitude)));
+        Point point = new Point(key, latitude, longitude, timeMillis, clusterId);
+        ArrayDeque<Point> cell = cells.computeIfAbsent(key, k -> new ArrayDeque<>());
+        cell.addLast(point);
+        size++;
+        // A full cell is already dense with this cluster; its oldest report adds the least
+        if (cell.size() > maxPointsPerCell) {
+            cell.removeFirst();
+            size--;
+        }
+        return point;
+    }
+
+    public void remove(Point point) {
+        ArrayDeque<Point> cell = cells.get(point.cellKey);
+        if (cell != null && cell.remove(point)) {
+            size--;
+            if (cell.isEmpty()) cells.remove(point.cellKey);
+        }
+    }
+
+    /**
+     * Merge the clusters of a and b; the one with the lower (older) root id survives
+     */
+    public void union(long a, long b) {
+        long rootA = find(a);
+        long rootB = find(b);
+        if (rootA != rootB) {
+            parents.put(Math.max(rootA, rootB), Math.min(rootA, rootB));
+        }
+    }
+
+    public long find(long clusterId) {
+        Long parent = parents.get(clusterId);
+        if (parent == null) return clusterId;
+        long root = find(parent);
+        if (root != parent) parents.put(clusterId, root); // Path compression
+        return root;
+    }
+
+    /**
+     * Drop reports older than the window and point the rest at their cluster roots, which
+     * lets the merge history be forgotten
+     *
+     * @return number of reports dropped
+     */
+    public int evictExpired(long nowMillis) {
+        long cutoff = nowMillis - windowMillis;
+        int before = size;
+        Iterator<ArrayDeque<Point>> iterator = cells.values().iterator();
+        while (iterator.hasNext()) {
+            ArrayDeque<Point> cell = iterator.next();
+            Iterator<Point> points = cell.iterator();
+            while (points.hasNext()) {
+                Point point = points.next();
+                if (point.timeMillis < cutoff) {
+                    points.remove();
+                    size--;
+                } else {
+                    point.clusterId = find(point.clusterId);
+                }
+            }
+            if (cell.isEmpty()) iterator.remove();
+        }
+        parents.clear();
+        return before - size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private long latRow(double latitude) {
+        return (long) Math.floor(latitude / cellDegrees);
+    }
+
+    private long lonColumn(double longitude, long row) {
+        // Columns are at least one radius wide anywhere in the row and the rows next to it
+        double edgeLatitude = Math.min(89.0, (Math.abs(row) + 2) * cellDegrees);
+        return (long) Math.floor(longitude * Math.cos(Math.toRadians(edgeLatitude)) / cellDegrees);
+    }
+
+    private static long cellKey(int type, long row, long column) {
+        return ((long) type << 56) ^ ((row & 0xFFFFFFFL) << 28) ^ (column & 0xFFFFFFFL);
+    }
+
+    private static boolean contains(long[] values, int count, long value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+package com.incident.util;
+
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Rows in PostgreSQL COPY text format, built column by column and sent with
+ * COPY ... FROM STDIN; several times faster than batched INSERTs for bulk loads.
+ */
+public class CopyRows {
+    private final StringBuilder text = new StringBuilder(1 << 16);
+    private long count;
+    private boolean first = true;
+
+    public CopyRows col(String value) {
+        separate();
+        if (value == null) {
+            text.append("\\N");
+            return this;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> text.append("\\\\");
+                case '\t' -> text.append("\\t");
+                case '\n' -> text.append("\\n");
+                case '\r' -> text.append("\\r");
+                default -> text.append(c);
+            }
+        }
+        return this;
+    }
+
+    public CopyRows col(long value) {
+        separate();
+        text.append(value);
+        return this;
+    }
+
+    public CopyRows col(double value) {
+        separate();
+        text.append(value);
+        return this;
+    }
+
+    public CopyRows col(boolean value) {
+        separate();
+        text.append(value ? 't' : 'f');
+        return this;
+    }
+
+    public CopyRows col(Number value) {
+        return value == null ? col((String) null) : value instanceof Double || value instanceof Float
+            ? col(value.doubleValue()) : col(value.longValue());
+    }
+
+    public CopyRows col(LocalDateTime value) {
+        return col(value == null ? null : value.toString());
+    }
+
+    public void end() {
+        text.append('\n');
+        count++;
+        first = true;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Send the rows on the given connection, in its current transaction
+     *
+     * @param sql COPY table (columns) FROM STDIN
+     */
+    public long copyIn(Connection connection, String sql) throws SQLException {
+        if (count == 0) {
+            return 0;
+        }
+        try {
+            return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(text.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void separate() {
+        if (!first) {
+            text.append('\t');
+        }
+        first = false;
+    }
+}
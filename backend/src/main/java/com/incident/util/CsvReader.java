@@ -0,0 +1,119 @@
+package com.incident.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: one record at a time, so memory is bounded by the longest
+ * record rather than the file. Quoted fields may contain separators, doubled quotes and
+ * line breaks; blank lines are skipped.
+ */
+public class CsvReader implements Closeable {
+    private final Reader reader;
+    private final int maxRecordLength;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private boolean firstRead = true;
+
+    public CsvReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Next record's fields, or null at the end of the input
+     */
+    public List<String> readRecord() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            if (c == '\r' || c == '\n') {
+                continue; // Blank line
+            }
+            return readFields(c);
+        }
+    }
+
+    private List<String> readFields(int c) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean quoted = false;
+        boolean fieldWasQuoted = false;
+        while (true) {
+            if (++length > maxRecordLength) {
+                throw new IOException("Record longer than " + maxRecordLength + " characters; unbalanced quote?");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field at end of input");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(fieldWasQuoted ? field.toString() : emptyToNull(field));
+                field.setLength(0);
+                fieldWasQuoted = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n' && next != -1) {
+                        position--; // Lone CR ends the record; keep the next character
+                    }
+                }
+                fields.add(fieldWasQuoted ? field.toString() : emptyToNull(field));
+                return fields;
+            } else if (c == '"' && field.length() == 0 && !fieldWasQuoted) {
+                quoted = true;
+                fieldWasQuoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+            if (firstRead) {
+                firstRead = false;
+                if (buffer[0] == '\uFEFF') {
+                    position = 1; // Byte order mark written by spreadsheet exports
+                    return read();
+                }
+            }
+        }
+        return buffer[position++];
+    }
+
+    private static String emptyToNull(StringBuilder field) {
+        return field.length() == 0 ? null : field.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
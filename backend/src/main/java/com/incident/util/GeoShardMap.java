@@ -0,0 +1,91 @@
+package com.incident.util;
+
+import java.util.BitSet;
+
+/**
+ * Maps locations to shards through a coarse grid of cellDegrees-sized lat/lon cells. Each
+ * cell belongs to one shard, picked by hashing the cell, so an incident's shard never changes
+ * and neighbouring regions spread over the shards. A search circle maps to the shards owning
+ * any cell its bounding box touches, which is a small superset of the cells the circle covers.
+ *
+ * Changing the shard count or cell size reassigns cells, so existing rows would have to move.
+ */
+public class GeoShardMap {
+    private static final double KM_PER_DEGREE = Math.toRadians(6371.0);
+    // Above this many cells a search is wide enough to go to every shard anyway
+    private static final int MAX_ENUMERATED_CELLS = 4096;
+
+    private final double cellDegrees;
+    private final int shardCount;
+    private final int lonCells;
+    private final int latCells;
+
+    public GeoShardMap(double cellDegrees, int shardCount) {
+        if (cellDegrees <= 0 || cellDegrees > 90) {
+            throw new IllegalArgumentException("Shard cell size must be in (0, 90] degrees");
+        }
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.cellDegrees = cellDegrees;
+        this.shardCount = shardCount;
+        this.lonCells = (int) Math.ceil(360.0 / cellDegrees);
+        this.latCells = (int) Math.ceil(180.0 / cellDegrees);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(double latitude, double longitude) {
+        return shardOfCell(latRow(latitude), lonColumn(longitude));
+    }
+
+    /**
+     * Shards owning a cell within radiusKm of the point
+     */
+    public BitSet shardsWithin(double latitude, double longitude, double radiusKm) {
+        BitSet shards = new BitSet(shardCount);
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double poleward = Math.min(90.0, Math.abs(latitude) + latSpan);
+        double lonSpan = poleward >= 89.99 ? 180.0 : latSpan / Math.cos(Math.toRadians(poleward));
+
+        int firstRow = latRow(latitude - latSpan);
+        int lastRow = latRow(latitude + latSpan);
+        int columns = lonSpan >= 180.0 ? lonCells
+            : Math.min(lonCells, (int) (Math.floor((longitude + lonSpan + 180.0) / cellDegrees)
+                - Math.floor((longitude - lonSpan + 180.0) / cellDegrees)) + 1);
+        if ((long) (lastRow - firstRow + 1) * columns > MAX_ENUMERATED_CELLS) {
+            shards.set(0, shardCount);
+            return shards;
+        }
+
+        int firstColumn = columns == lonCells ? 0 : lonColumn(longitude - lonSpan);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int c = 0; c < columns; c++) {
+                shards.set(shardOfCell(row, (firstColumn + c) % lonCells));
+                if (shards.cardinality() == shardCount) {
+                    return shards;
+                }
+            }
+        }
+        return shards;
+    }
+
+    private int latRow(double latitude) {
+        return Math.min(latCells - 1, Math.max(0, (int) Math.floor((latitude + 90.0) / cellDegrees)));
+    }
+
+    // Wraps across the antimeridian
+    private int lonColumn(double longitude) {
+        return Math.floorMod((long) Math.floor((longitude + 180.0) / cellDegrees), lonCells);
+    }
+
+    private int shardOfCell(int row, int column) {
+        long h = (long) row * 0x9E3779B97F4A7C15L + column * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 31;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 29;
+        return (int) Math.floorMod(h, (long) shardCount);
+    }
+}
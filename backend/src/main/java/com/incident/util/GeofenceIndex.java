@@ -0,0 +1,222 @@
+package com.incident.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * In-memory index of geofences (circles and polygons) for matching incident locations.
+ * Fences live in a hierarchy of grids whose cells grow fourfold per level; each fence is
+ * filed at the finest level where its bounding box spans at most a few cells, so a fence
+ * is stored in a bounded number of cells however large it is. A point is looked up in one
+ * cell per populated level, and only fences whose cell it falls in are tested exactly.
+ * Cells hold copy-on-write arrays, so matching never blocks on registrations.
+ */
+public class GeofenceIndex {
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final int LEVEL_FACTOR = 4;
+    private static final int MAX_CELLS_PER_SIDE = 4;
+    private static final Fence[] NO_FENCES = new Fence[0];
+
+    private final double[] cellDegrees;
+    private final List<Map<Long, Fence[]>> levels = new ArrayList<>();
+    private final AtomicIntegerArray fencesPerLevel;
+    private final Map<Long, Fence> fences = new ConcurrentHashMap<>();
+
+    /**
+     * A registered fence. typeMask has one bit per incident type ordinal; 0 matches all types.
+     */
+    public static final class Fence {
+        private final long id;
+        private final String ownerUsername;
+        private final int typeMask;
+        private final double minLatitude;
+        private final double minLongitude;
+        private final double maxLatitude;
+        private final double maxLongitude;
+        // Circle
+        private final double centerLatitude;
+        private final double centerLongitude;
+        private final double radiusKm;
+        // Polygon, vertices in order; null for circles
+        private final double[] latitudes;
+        private final double[] longitudes;
+
+        private Fence(long id, String ownerUsername, int typeMask, double minLatitude, double minLongitude,
+                      double maxLatitude, double maxLongitude, double centerLatitude, double centerLongitude,
+                      double radiusKm, double[] latitudes, double[] longitudes) {
+            this.id = id;
+            this.ownerUsername = ownerUsername;
+            this.typeMask = typeMask;
+            this.minLatitude = minLatitude;
+            this.minLongitude = minLongitude;
+            this.maxLatitude = maxLatitude;
+            this.maxLongitude = maxLongitude;
+            this.centerLatitude = centerLatitude;
+            this.centerLongitude = centerLongitude;
+            this.radiusKm = radiusKm;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+        }
+
+        public static Fence circle(long id, String ownerUsername, int typeMask, double latitude, double longitude,
+                                   double radiusMeters) {
+            double radiusKm = radiusMeters / 1000.0;
+            double latitudeSpan = radiusKm / KM_PER_DEGREE;
+            double longitudeSpan = radiusKm / (KM_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+            return new Fence(id, ownerUsername, typeMask,
+                latitude - latitudeSpan, longitude - longitudeSpan, latitude + latitudeSpan, longitude + longitudeSpan,
+                latitude, longitude, radiusKm, null, null);
+        }
+
+        public static Fence polygon(long id, String ownerUsername, int typeMask, double[] latitudes, double[] longitudes) {
+            if (latitudes.length < 3 || latitudes.length != longitudes.length) {
+                throw new IllegalArgumentException("A polygon needs at least 3 vertices");
+            }
+            double minLatitude = Double.MAX_VALUE, minLongitude = Double.MAX_VALUE;
+            double maxLatitude = -Double.MAX_VALUE, maxLongitude = -Double.MAX_VALUE;
+            for (int i = 0; i < latitudes.length; i++) {
+                minLatitude = Math.min(minLatitude, latitudes[i]);
+                maxLatitude = Math.max(maxLatitude, latitudes[i]);
+                minLongitude = Math.min(minLongitude, longitudes[i]);
+                maxLongitude = Math.max(maxLongitude, longitudes[i]);
+            }
+            return new Fence(id, ownerUsername, typeMask, minLatitude, minLongitude, maxLatitude, maxLongitude,
+                0, 0, 0, latitudes.clone(), longitudes.clone());
+        }
+
+        public long id() {
+            return id;
+        }
+
+        public String ownerUsername() {
+            return ownerUsername;
+        }
+
+        boolean contains(int typeOrdinal, double latitude, double longitude) {
+            if (typeMask != 0 && (typeMask & (1 << typeOrdinal)) == 0) return false;
+            if (latitude < minLatitude || latitude > maxLatitude
+                    || longitude < minLongitude || longitude > maxLongitude) {
+                return false;
+            }
+            if (latitudes == null) {
+                return LocationUtil.calculateDistance(centerLatitude, centerLongitude, latitude, longitude) <= radiusKm;
+            }
+            // Even-odd ray casting in the latitude/longitude plane
+            boolean inside = false;
+            for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+                if ((latitudes[i] > latitude) != (latitudes[j] > latitude)
+                        && longitude < (longitudes[j] - longitudes[i]) * (latitude - latitudes[i])
+                        / (latitudes[j] - latitudes[i]) + longitudes[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+    }
+
+    public GeofenceIndex(double baseCellKm) {
+        List<Double> sizes = new ArrayList<>();
+        // Enough levels for the top one to cover the whole globe in a single cell
+        for (double cell = baseCellKm / KM_PER_DEGREE; ; cell *= LEVEL_FACTOR) {
+            sizes.add(cell);
+            levels.add(new ConcurrentHashMap<>());
+            if (cell >= 360) break;
+        }
+        this.cellDegrees = sizes.stream().mapToDouble(Double::doubleValue).toArray();
+        this.fencesPerLevel = new AtomicIntegerArray(cellDegrees.length);
+    }
+
+    /**
+     * Add a fence, replacing any fence with the same id
+     */
+    public synchronized void add(Fence fence) {
+        remove(fence.id());
+        int level = levelFor(fence);
+        forEachCell(fence, level, key -> levels.get(level).merge(key, new Fence[]{fence}, GeofenceIndex::concat));
+        fences.put(fence.id(), fence);
+        fencesPerLevel.incrementAndGet(level);
+    }
+
+    public synchronized boolean remove(long id) {
+        Fence fence = fences.remove(id);
+        if (fence == null) return false;
+        int level = levelFor(fence);
+        forEachCell(fence, level, key -> levels.get(level).computeIfPresent(key, (k, cell) -> without(cell, id)));
+        fencesPerLevel.decrementAndGet(level);
+        return true;
+    }
+
+    /**
+     * Pass every fence containing the point that accepts the given incident type to the consumer
+     */
+    public void match(int typeOrdinal, double latitude, double longitude, Consumer<Fence> consumer) {
+        for (int level = 0; level < cellDegrees.length; level++) {
+            if (fencesPerLevel.get(level) == 0) continue;
+            Fence[] cell = levels.get(level).getOrDefault(
+                cellKey(cell(latitude, cellDegrees[level]), cell(longitude, cellDegrees[level])), NO_FENCES);
+            for (Fence fence : cell) {
+                if (fence.contains(typeOrdinal, latitude, longitude)) {
+                    consumer.accept(fence);
+                }
+            }
+        }
+    }
+
+    public List<Fence> match(int typeOrdinal, double latitude, double longitude) {
+        List<Fence> matches = new ArrayList<>();
+        match(typeOrdinal, latitude, longitude, matches::add);
+        return matches;
+    }
+
+    public int size() {
+        return fences.size();
+    }
+
+    public Set<Long> ids() {
+        return new HashSet<>(fences.keySet());
+    }
+
+    private int levelFor(Fence fence) {
+        for (int level = 0; level < cellDegrees.length - 1; level++) {
+            double size = cellDegrees[level];
+            long rows = cell(fence.maxLatitude, size) - cell(fence.minLatitude, size) + 1;
+            long columns = cell(fence.maxLongitude, size) - cell(fence.minLongitude, size) + 1;
+            if (rows <= MAX_CELLS_PER_SIDE && columns <= MAX_CELLS_PER_SIDE) {
+                return level;
+            }
+        }
+        return cellDegrees.length - 1;
+    }
+
+    private void forEachCell(Fence fence, int level, LongConsumer action) {
+        double size = cellDegrees[level];
+        for (long row = cell(fence.minLatitude, size); row <= cell(fence.maxLatitude, size); row++) {
+            for (long column = cell(fence.minLongitude, size); column <= cell(fence.maxLongitude, size); column++) {
+                action.accept(cellKey(row, column));
+            }
+        }
+    }
+
+    private static long cell(double degrees, double cellDegrees) {
+        return (long) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long cellKey(long row, long column) {
+        return (row << 32) ^ (column & 0xFFFFFFFFL);
+    }
+
+    private static Fence[] concat(Fence[] cell, Fence[] added) {
+        Fence[] result = Arrays.copyOf(cell, cell.length + added.length);
+        System.arraycopy(added, 0, result, cell.length, added.length);
+        return result;
+    }
+
+    private static Fence[] without(Fence[] cell, long id) {
+        Fence[] result = Arrays.stream(cell).filter(f -> f.id() != id).toArray(Fence[]::new);
+        // Returning null drops the emptied cell
+        return result.length == 0 ? null : result;
+    }
+}
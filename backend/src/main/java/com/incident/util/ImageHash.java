@@ -0,0 +1,82 @@
+package com.incident.util;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * 64-bit difference hash (dHash) of a photo. The image is shrunk to a 9x8 grid of average
+ * luminances and each bit records whether a cell is brighter than its right-hand neighbour,
+ * so re-encoding, rescaling and small edits of the same picture flip only a few bits.
+ */
+public final class ImageHash {
+    private static final int COLUMNS = 9;
+    private static final int ROWS = 8;
+    // Decode at roughly this many pixels on the short side; the grid needs far fewer
+    private static final int DECODE_SIZE = 64;
+
+    private ImageHash() {
+    }
+
+    /**
+     * Hash of the image file, or null when no installed reader can decode it
+     */
+    public static Long of(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Subsampled decoding skips most of the pixels of a full-size camera photo
+                int step = Math.max(1, Math.min(reader.getWidth(0), reader.getHeight(0)) / DECODE_SIZE);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return of(reader.read(0, param));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    public static long of(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[] cells = new double[COLUMNS * ROWS];
+        int[] counts = new int[COLUMNS * ROWS];
+        for (int y = 0; y < height; y++) {
+            int row = y * ROWS / height;
+            for (int x = 0; x < width; x++) {
+                int rgb = image.getRGB(x, y);
+                int cell = row * COLUMNS + x * COLUMNS / width;
+                cells[cell] += 0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF);
+                counts[cell]++;
+            }
+        }
+        for (int i = 0; i < cells.length; i++) {
+            // Images narrower than the grid leave cells empty; they compare as black
+            if (counts[i] > 0) cells[i] /= counts[i];
+        }
+
+        long hash = 0;
+        for (int row = 0; row < ROWS; row++) {
+            for (int column = 0; column < COLUMNS - 1; column++) {
+                hash <<= 1;
+                if (cells[row * COLUMNS + column] > cells[row * COLUMNS + column + 1]) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
@@ -0,0 +1,104 @@
+package com.incident.util;
+
+import java.util.*;
+
+/**
+ * In-memory multi-index hash table of 64-bit image hashes for Hamming-distance search. Each
+ * hash is split into four 16-bit chunks with one table per chunk. Two hashes within distance
+ * k differ in at most k / 4 bits of at least one chunk, so a search looks up every chunk value
+ * within that radius of the query's chunks and checks the full distance of what it finds;
+ * for the default k of 10 that is 4 x 137 table lookups, independent of the index size.
+ */
+public class ImageHashIndex {
+    private static final int CHUNKS = 4;
+    private static final int CHUNK_BITS = 16;
+    private static final long[] NO_IDS = new long[0];
+
+    private final int maxDistance;
+    private final int[] probes;
+    private final Map<Long, Long> hashes = new HashMap<>();
+    private final List<Map<Integer, long[]>> tables = new ArrayList<>();
+
+    public record Match(long id, int distance) {
+    }
+
+    public ImageHashIndex(int maxDistance) {
+        if (maxDistance < 0 || maxDistance > 64) {
+            throw new IllegalArgumentException("Hash distance must be between 0 and 64");
+        }
+        this.maxDistance = maxDistance;
+        this.probes = masksWithinRadius(maxDistance / CHUNKS);
+        for (int i = 0; i < CHUNKS; i++) {
+            tables.add(new HashMap<>());
+        }
+    }
+
+    public synchronized void add(long id, long hash) {
+        remove(id);
+        hashes.put(id, hash);
+        for (int i = 0; i < CHUNKS; i++) {
+            tables.get(i).merge(chunk(hash, i), new long[]{id}, ImageHashIndex::concat);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        Long hash = hashes.remove(id);
+        if (hash == null) return;
+        for (int i = 0; i < CHUNKS; i++) {
+            tables.get(i).computeIfPresent(chunk(hash, i), (chunk, ids) -> without(ids, id));
+        }
+    }
+
+    /**
+     * Indexed ids whose hash is within the maximum distance, nearest first, at most limit
+     */
+    public synchronized List<Match> search(long hash, int limit) {
+        Map<Long, Integer> found = new HashMap<>();
+        for (int i = 0; i < CHUNKS; i++) {
+            Map<Integer, long[]> table = tables.get(i);
+            int chunk = chunk(hash, i);
+            for (int probe : probes) {
+                for (long id : table.getOrDefault(chunk ^ probe, NO_IDS)) {
+                    if (found.containsKey(id)) continue;
+                    int distance = ImageHash.distance(hash, hashes.get(id));
+                    found.put(id, distance <= maxDistance ? distance : -1);
+                }
+            }
+        }
+        return found.entrySet().stream()
+            .filter(e -> e.getValue() >= 0)
+            .map(e -> new Match(e.getKey(), e.getValue()))
+            .sorted(Comparator.comparingInt(Match::distance).thenComparing(Match::id, Comparator.reverseOrder()))
+            .limit(limit)
+            .toList();
+    }
+
+    public synchronized int size() {
+        return hashes.size();
+    }
+
+    private static int chunk(long hash, int index) {
+        return (int) (hash >>> (index * CHUNK_BITS)) & 0xFFFF;
+    }
+
+    // Every 16-bit mask with at most radius bits set, starting with 0
+    private static int[] masksWithinRadius(int radius) {
+        List<Integer> masks = new ArrayList<>();
+        for (int mask = 0; mask < 1 << CHUNK_BITS; mask++) {
+            if (Integer.bitCount(mask) <= radius) masks.add(mask);
+        }
+        return masks.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static long[] concat(long[] ids, long[] added) {
+        long[] result = Arrays.copyOf(ids, ids.length + added.length);
+        System.arraycopy(added, 0, result, ids.length, added.length);
+        return result;
+    }
+
+    private static long[] without(long[] ids, long id) {
+        long[] result = Arrays.stream(ids).filter(other -> other != id).toArray();
+        // Returning null drops the emptied bucket
+        return result.length == 0 ? null : result;
+    }
+}
@@ -2,16 +2,25 @@ package com.incident.util;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class IncidentIdGenerator {
-    private static final Random random = new Random();
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    // Sequential suffix from a random start: unique within a process for up to 10k ids per second,
+    // which matters now that ids can be handed out before the incident is written
+    private static final AtomicInteger sequence = new AtomicInteger(ThreadLocalRandom.current().nextInt(10000));
 
     public static String generate() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String randomSuffix = String.format("%04d", random.nextInt(10000));
-        return "INC-" + timestamp + "-" + randomSuffix;
+        return generate(LocalDateTime.now());
     }
-}
-
 
+    /**
+     * Id for an incident created at the given time, e.g. one imported from an older system
+     */
+    public static String generate(LocalDateTime createdAt) {
+        String timestamp = createdAt.format(TIMESTAMP_FORMAT);
+        String suffix = String.format("%04d", Math.floorMod(sequence.getAndIncrement(), 10000));
+        return "INC-" + timestamp + "-" + suffix;
+    }
+}
@@ -0,0 +1,336 @@
+package com.incident.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.incident.util.IncidentSegmentWriter.*;
+
+/**
+ * Read-only, memory-mapped view of a segment written by IncidentSegmentWriter. Rows are in
+ * creation order, so a time range resolves to a contiguous row range through the block index;
+ * type, status and bounding-box filters then run over the fixed-width columns only. Text is
+ * inflated just for the rows that are returned.
+ */
+public class IncidentSegment {
+    private final Path file;
+    private final ByteBuffer data;
+    private final int rowCount;
+    private final long minCreatedMillis;
+    private final long maxCreatedMillis;
+    private final int minLat, maxLat, minLon, maxLon;
+    private final int idsOffset, latOffset, lonOffset, typeOffset, statusOffset;
+    private final int timeIndexOffset, timeDataOffset, textIndexOffset, textDataOffset;
+    private final String[] types;
+    private final String[] statuses;
+
+    /**
+     * Matches of one scan: totals over all matching rows, row numbers only up to the limit
+     */
+    public static class Matches {
+        public long matched;
+        public final long[] countsByType;
+        public final long[] countsByStatus;
+        public final int[] rows;
+        public int collected;
+
+        Matches(int typeCount, int statusCount, int limit) {
+            countsByType = new long[typeCount];
+            countsByStatus = new long[statusCount];
+            rows = new int[limit];
+        }
+    }
+
+    private IncidentSegment(Path file, ByteBuffer data) throws IOException {
+        this.file = file;
+        this.data = data;
+        if (data.getLong(0) != MAGIC || data.getInt(8) != VERSION) {
+            throw new IOException("Not an incident segment: " + file);
+        }
+        rowCount = data.getInt(12);
+        minCreatedMillis = data.getLong(16);
+        maxCreatedMillis = data.getLong(24);
+        minLat = data.getInt(32);
+        maxLat = data.getInt(36);
+        minLon = data.getInt(40);
+        maxLon = data.getInt(44);
+        int[] offsets = new int[10];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = Math.toIntExact(data.getLong(48 + i * 8));
+        }
+        idsOffset = offsets[0];
+        latOffset = offsets[1];
+        lonOffset = offsets[2];
+        typeOffset = offsets[3];
+        statusOffset = offsets[4];
+        timeIndexOffset = offsets[5];
+        timeDataOffset = offsets[6];
+        textIndexOffset = offsets[7];
+        textDataOffset = offsets[8];
+
+        int[] position = {offsets[9]};
+        types = readDictionary(position);
+        statuses = readDictionary(position);
+    }
+
+    public static IncidentSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new IncidentSegment(file, mapped.order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getMinCreatedMillis() {
+        return minCreatedMillis;
+    }
+
+    public long getMaxCreatedMillis() {
+        return maxCreatedMillis;
+    }
+
+    public String[] getTypes() {
+        return types.clone();
+    }
+
+    public String[] getStatuses() {
+        return statuses.clone();
+    }
+
+    /**
+     * Dictionary code of a type or status value in this segment, -1 when the segment has none
+     */
+    public int typeCode(String type) {
+        return Arrays.asList(types).indexOf(type);
+    }
+
+    public int statusCode(String status) {
+        return Arrays.asList(statuses).indexOf(status);
+    }
+
+    /**
+     * Whether any row could match; lets callers skip segments on header statistics alone
+     */
+    public boolean overlaps(long fromMillis, long toMillis, double south, double west, double north, double east) {
+        return fromMillis <= maxCreatedMillis && toMillis > minCreatedMillis
+            && toFixedPoint(south) <= maxLat && toFixedPoint(north) >= minLat
+            && toFixedPoint(west) <= maxLon && toFixedPoint(east) >= minLon;
+    }
+
+    /**
+     * Scan rows created in [fromMillis, toMillis) inside the bounding box.
+     *
+     * @param typeCode   dictionary code to match, or -1 for any type
+     * @param statusCode dictionary code to match, or -1 for any status
+     * @param limit      number of matching row numbers to collect; all matches are still counted
+     */
+    public Matches scan(long fromMillis, long toMillis, int typeCode, int statusCode,
+                        double south, double west, double north, double east, int limit) {
+        Matches matches = new Matches(types.length, statuses.length, limit);
+        int first = lowerBound(fromMillis);
+        int last = lowerBound(toMillis);
+        int minLatFp = toFixedPoint(south), minLonFp = toFixedPoint(west);
+        int maxLatFp = toFixedPoint(north), maxLonFp = toFixedPoint(east);
+        // A segment entirely inside the box needs no per-row coordinate check
+        boolean checkBox = minLatFp > minLat || maxLatFp < maxLat || minLonFp > minLon || maxLonFp < maxLon;
+        // Range checks as one unsigned compare each: (v - min) + MIN_VALUE <= span + MIN_VALUE
+        int latSpan = maxLatFp - minLatFp + Integer.MIN_VALUE;
+        int lonSpan = maxLonFp - minLonFp + Integer.MIN_VALUE;
+        boolean anyType = typeCode < 0;
+        boolean anyStatus = statusCode < 0;
+
+        ByteBuffer buffer = data;
+        long[] byType = matches.countsByType;
+        long[] byStatus = matches.countsByStatus;
+        int[] rows = matches.rows;
+        long matched = 0;
+        int collected = 0;
+        for (int row = first; row < last; row++) {
+            int type = buffer.get(typeOffset + row) & 0xFF;
+            if (!anyType && type != typeCode) continue;
+            int status = buffer.get(statusOffset + row) & 0xFF;
+            if (!anyStatus && status != statusCode) continue;
+            if (checkBox) {
+                int lat = buffer.getInt(latOffset + (row << 2)) - minLatFp + Integer.MIN_VALUE;
+                int lon = buffer.getInt(lonOffset + (row << 2)) - minLonFp + Integer.MIN_VALUE;
+                if (lat > latSpan | lon > lonSpan) continue;
+            }
+            matched++;
+            byType[type]++;
+            byStatus[status]++;
+            if (collected < limit) {
+                rows[collected++] = row;
+            }
+        }
+        matches.matched = matched;
+        matches.collected = collected;
+        return matches;
+    }
+
+    /**
+     * First row created at or after the given time
+     */
+    public int lowerBound(long millis) {
+        if (millis <= minCreatedMillis) return 0;
+        if (millis > maxCreatedMillis) return rowCount;
+        int blocks = (rowCount + TIME_BLOCK - 1) / TIME_BLOCK;
+        // Last block whose first row is before millis
+        int lo = 0, hi = blocks - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (blockFirstMillis(mid) < millis) lo = mid;
+            else hi = mid - 1;
+        }
+        int row = lo * TIME_BLOCK;
+        int end = Math.min(rowCount, row + TIME_BLOCK);
+        long value = blockFirstMillis(lo);
+        int position = timeDataOffset + data.getInt(timeIndexOffset + lo * 12 + 8);
+        while (value < millis && ++row < end) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data.get(position++);
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            value += delta;
+        }
+        return row;
+    }
+
+    public long getId(int row) {
+        return data.getLong(idsOffset + row * 8);
+    }
+
+    public double getLatitude(int row) {
+        return data.getInt(latOffset + row * 4) / FIXED_POINT_SCALE;
+    }
+
+    public double getLongitude(int row) {
+        return data.getInt(lonOffset + row * 4) / FIXED_POINT_SCALE;
+    }
+
+    public String getType(int row) {
+        return types[data.get(typeOffset + row) & 0xFF];
+    }
+
+    public String getStatus(int row) {
+        return statuses[data.get(statusOffset + row) & 0xFF];
+    }
+
+    public long getCreatedMillis(int row) {
+        int block = row / TIME_BLOCK;
+        long value = blockFirstMillis(block);
+        int position = timeDataOffset + data.getInt(timeIndexOffset + block * 12 + 8);
+        for (int i = block * TIME_BLOCK; i < row; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data.get(position++);
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            value += delta;
+        }
+        return value;
+    }
+
+    /**
+     * incidentId, description and address of the given rows, which must be ascending.
+     * Each text block is inflated once however many of its rows are requested.
+     */
+    public List<String[]> getText(int[] rows, int count) {
+        List<String[]> result = new ArrayList<>(count);
+        Inflater inflater = new Inflater();
+        try {
+            int block = -1;
+            int next = 0; // Next row number the cursor would decode
+            ByteBuffer text = null;
+            for (int r = 0; r < count; r++) {
+                int row = rows[r];
+                if (row / TEXT_BLOCK != block) {
+                    block = row / TEXT_BLOCK;
+                    text = ByteBuffer.wrap(inflateBlock(inflater, block));
+                    next = block * TEXT_BLOCK;
+                }
+                String[] values = new String[3];
+                for (; next <= row; next++) {
+                    for (int field = 0; field < 3; field++) {
+                        int length = (int) readVarLong(text);
+                        if (next == row) {
+                            values[field] = new String(text.array(), text.position(), length, StandardCharsets.UTF_8);
+                        }
+                        text.position(text.position() + length);
+                    }
+                }
+                result.add(values);
+            }
+        } finally {
+            inflater.end();
+        }
+        return result;
+    }
+
+    private byte[] inflateBlock(Inflater inflater, int block) {
+        int entry = textIndexOffset + block * 12;
+        byte[] compressed = new byte[data.getInt(entry + 4)];
+        byte[] raw = new byte[data.getInt(entry + 8)];
+        data.get(textDataOffset + data.getInt(entry), compressed);
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            inflater.inflate(raw);
+        } catch (DataFormatException e) {
+            throw new RuntimeException("Corrupt text block in " + file, e);
+        }
+        return raw;
+    }
+
+    private long blockFirstMillis(int block) {
+        return data.getLong(timeIndexOffset + block * 12);
+    }
+
+    private String[] readDictionary(int[] position) {
+        ByteBuffer view = data.duplicate().order(ByteOrder.LITTLE_ENDIAN).position(position[0]);
+        String[] values = new String[(int) readVarLong(view)];
+        for (int i = 0; i < values.length; i++) {
+            byte[] bytes = new byte[(int) readVarLong(view)];
+            view.get(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        position[0] = view.position();
+        return values;
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
@@ -0,0 +1,208 @@
+package com.incident.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes immutable columnar incident segments read by IncidentSegment. Rows are sorted by
+ * creation time; every column is stored separately so scans only touch the bytes they filter on.
+ *
+ * Layout (little-endian): header, then
+ *   ids          int64 per row
+ *   latitude     int32 per row, degrees * 1e6
+ *   longitude    int32 per row, degrees * 1e6
+ *   type         uint8 dictionary code per row
+ *   status       uint8 dictionary code per row
+ *   time index   per block of TIME_BLOCK rows: first timestamp (int64) and data offset (int32)
+ *   time data    per row after a block's first: millis since the previous row, as a varint
+ *   text index   per block of TEXT_BLOCK rows: data offset, compressed and raw length (int32 each)
+ *   text data    deflated incidentId, description and address of each row, varint length-prefixed
+ *   dictionaries type then status names
+ */
+public class IncidentSegmentWriter {
+    static final long MAGIC = 0x3130474553434E49L; // "INCSEG01"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 128;
+    static final int TIME_BLOCK = 4096;
+    static final int TEXT_BLOCK = 256;
+    static final double FIXED_POINT_SCALE = 1_000_000.0;
+
+    public record Row(long id, String incidentId, long createdAtMillis, double latitude, double longitude,
+                      String type, String status, String description, String address) {
+    }
+
+    /**
+     * Write rows to a new segment file. The file appears atomically under its final name.
+     */
+    public static void write(Path file, List<Row> input) throws IOException {
+        if (input.isEmpty()) {
+            throw new IllegalArgumentException("Segment needs at least one row");
+        }
+        List<Row> rows = new ArrayList<>(input);
+        rows.sort(Comparator.comparingLong(Row::createdAtMillis).thenComparingLong(Row::id));
+        int n = rows.size();
+
+        Map<String, Integer> typeDict = new LinkedHashMap<>();
+        Map<String, Integer> statusDict = new LinkedHashMap<>();
+        ByteBuffer ids = buffer(n * 8);
+        ByteBuffer lats = buffer(n * 4);
+        ByteBuffer lons = buffer(n * 4);
+        ByteBuffer types = buffer(n);
+        ByteBuffer statuses = buffer(n);
+        int minLat = Integer.MAX_VALUE, maxLat = Integer.MIN_VALUE;
+        int minLon = Integer.MAX_VALUE, maxLon = Integer.MIN_VALUE;
+
+        for (Row row : rows) {
+            int lat = toFixedPoint(row.latitude());
+            int lon = toFixedPoint(row.longitude());
+            minLat = Math.min(minLat, lat);
+            maxLat = Math.max(maxLat, lat);
+            minLon = Math.min(minLon, lon);
+            maxLon = Math.max(maxLon, lon);
+            ids.putLong(row.id());
+            lats.putInt(lat);
+            lons.putInt(lon);
+            types.put(code(typeDict, row.type()));
+            statuses.put(code(statusDict, row.status()));
+        }
+
+        int timeBlocks = (n + TIME_BLOCK - 1) / TIME_BLOCK;
+        ByteBuffer timeIndex = buffer(timeBlocks * 12);
+        ByteArrayOutputStream timeData = new ByteArrayOutputStream(n * 2);
+        for (int i = 0; i < n; i++) {
+            long millis = rows.get(i).createdAtMillis();
+            if (i % TIME_BLOCK == 0) {
+                timeIndex.putLong(millis);
+                timeIndex.putInt(timeData.size());
+            } else {
+                writeVarLong(timeData, millis - rows.get(i - 1).createdAtMillis());
+            }
+        }
+
+        int textBlocks = (n + TEXT_BLOCK - 1) / TEXT_BLOCK;
+        ByteBuffer textIndex = buffer(textBlocks * 12);
+        ByteArrayOutputStream textData = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            for (int block = 0; block < textBlocks; block++) {
+                ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                for (int i = block * TEXT_BLOCK; i < Math.min(n, (block + 1) * TEXT_BLOCK); i++) {
+                    Row row = rows.get(i);
+                    writeString(raw, row.incidentId());
+                    writeString(raw, row.description());
+                    writeString(raw, row.address());
+                }
+                byte[] compressed = deflate(deflater, raw.toByteArray());
+                textIndex.putInt(textData.size());
+                textIndex.putInt(compressed.length);
+                textIndex.putInt(raw.size());
+                textData.write(compressed);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        ByteArrayOutputStream dictionaries = new ByteArrayOutputStream();
+        writeDictionary(dictionaries, typeDict);
+        writeDictionary(dictionaries, statusDict);
+
+        for (ByteBuffer column : List.of(ids, lats, lons, types, statuses, timeIndex, textIndex)) {
+            column.flip();
+        }
+        List<ByteBuffer> sections = List.of(ids, lats, lons, types, statuses, timeIndex,
+            ByteBuffer.wrap(timeData.toByteArray()), textIndex,
+            ByteBuffer.wrap(textData.toByteArray()), ByteBuffer.wrap(dictionaries.toByteArray()));
+
+        ByteBuffer header = buffer(HEADER_BYTES);
+        header.putLong(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(n);
+        header.putLong(rows.get(0).createdAtMillis());
+        header.putLong(rows.get(n - 1).createdAtMillis());
+        header.putInt(minLat).putInt(maxLat).putInt(minLon).putInt(maxLon);
+        long offset = HEADER_BYTES;
+        for (ByteBuffer section : sections) {
+            header.putLong(offset);
+            offset += section.remaining();
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            header.clear();
+            writeFully(channel, header);
+            for (ByteBuffer section : sections) {
+                writeFully(channel, section);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static int toFixedPoint(double degrees) {
+        return (int) Math.round(degrees * FIXED_POINT_SCALE);
+    }
+
+    private static ByteBuffer buffer(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static byte code(Map<String, Integer> dictionary, String value) {
+        Integer code = dictionary.computeIfAbsent(value, v -> dictionary.size());
+        if (code > 255) {
+            throw new IllegalArgumentException("More than 256 distinct values in a dictionary column");
+        }
+        return (byte) (int) code;
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] input) {
+        deflater.reset();
+        deflater.setInput(input);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 2));
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeDictionary(ByteArrayOutputStream out, Map<String, Integer> dictionary) {
+        writeVarLong(out, dictionary.size());
+        dictionary.keySet().forEach(value -> writeString(out, value));
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
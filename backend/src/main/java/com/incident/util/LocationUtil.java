@@ -2,6 +2,9 @@ package com.incident.util;
 
 public class LocationUtil {
     private static final double EARTH_RADIUS_KM = 6371.0;
+    // Beyond these the equirectangular fast path is not worth its recheck band
+    private static final double MAX_APPROXIMATION_LATITUDE = 80.0;
+    private static final double MAX_APPROXIMATION_ERROR = 0.01;
 
     /**
      * Calculate distance between two coordinates using Haversine formula
@@ -19,6 +22,106 @@ public class LocationUtil {
         return EARTH_RADIUS_KM * c;
     }
 
+    /**
+     * Haversine distances from one origin to many points. The origin's trigonometry is
+     * computed once; the loop is a plain counted loop over primitive arrays so the JIT
+     * can unroll it and a Vector API port can map it lane-for-lane.
+     * @param out receives distances in kilometers, must be at least lats.length long
+     */
+    public static void calculateDistances(double originLat, double originLon,
+                                          double[] lats, double[] lons, double[] out) {
+        double lat1 = Math.toRadians(originLat);
+        double lon1 = Math.toRadians(originLon);
+        double cosLat1 = Math.cos(lat1);
+        int n = lats.length;
+        for (int i = 0; i < n; i++) {
+            double lat2 = Math.toRadians(lats[i]);
+            double sinDLat = Math.sin((lat2 - lat1) * 0.5);
+            double sinDLon = Math.sin((Math.toRadians(lons[i]) - lon1) * 0.5);
+            double a = sinDLat * sinDLat + cosLat1 * Math.cos(lat2) * sinDLon * sinDLon;
+            out[i] = 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1.0, a)));
+        }
+    }
+
+    /**
+     * Equirectangular approximation of distances from one origin, using only multiplies
+     * and one sqrt per point. Relative error versus haversine is below
+     * {@link #approximationErrorBound(double, double)}: about 0.08% at 10 km and 0.4% at
+     * 50 km for latitudes up to 70 degrees. Intended for radii up to 50 km away from the poles.
+     * @param out receives distances in kilometers, must be at least lats.length long
+     */
+    public static void approximateDistances(double originLat, double originLon,
+                                            double[] lats, double[] lons, double[] out) {
+        double kmPerDegLat = Math.toRadians(EARTH_RADIUS_KM);
+        double kmPerDegLon = kmPerDegLat * Math.cos(Math.toRadians(originLat));
+        int n = lats.length;
+        for (int i = 0; i < n; i++) {
+            double dx = wrapLongitude(lons[i] - originLon) * kmPerDegLon;
+            double dy = (lats[i] - originLat) * kmPerDegLat;
+            out[i] = Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    /**
+     * Conservative upper bound on the relative error of {@link #approximateDistances}
+     * for points within distanceKm of an origin at originLat
+     */
+    public static double approximationErrorBound(double originLat, double distanceKm) {
+        return distanceKm * (Math.abs(Math.tan(Math.toRadians(originLat))) + 1.0) / (2 * EARTH_RADIUS_KM);
+    }
+
+    /**
+     * Mark which points lie within radiusKm of the origin (exact haversine semantics).
+     * Points are classified with the equirectangular fast path, comparing squared
+     * distances; only points inside the approximation's error band are rechecked exactly.
+     * @return number of points inside the radius
+     */
+    public static int withinRadius(double originLat, double originLon, double[] lats, double[] lons,
+                                   double radiusKm, boolean[] mask) {
+        int n = lats.length;
+        double error = approximationErrorBound(originLat, 2 * radiusKm);
+        if (Math.abs(originLat) > MAX_APPROXIMATION_LATITUDE || error > MAX_APPROXIMATION_ERROR) {
+            return withinRadiusExact(originLat, originLon, lats, lons, radiusKm, mask);
+        }
+
+        double kmPerDegLat = Math.toRadians(EARTH_RADIUS_KM);
+        double kmPerDegLon = kmPerDegLat * Math.cos(Math.toRadians(originLat));
+        double innerSq = square(radiusKm * (1 - error));
+        double outerSq = square(radiusKm * (1 + error));
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            double dx = wrapLongitude(lons[i] - originLon) * kmPerDegLon;
+            double dy = (lats[i] - originLat) * kmPerDegLat;
+            double dSq = dx * dx + dy * dy;
+            boolean inside = dSq <= innerSq
+                || (dSq <= outerSq && calculateDistance(originLat, originLon, lats[i], lons[i]) <= radiusKm);
+            mask[i] = inside;
+            count += inside ? 1 : 0;
+        }
+        return count;
+    }
+
+    private static int withinRadiusExact(double originLat, double originLon, double[] lats, double[] lons,
+                                         double radiusKm, boolean[] mask) {
+        double[] distances = new double[lats.length];
+        calculateDistances(originLat, originLon, lats, lons, distances);
+        int count = 0;
+        for (int i = 0; i < distances.length; i++) {
+            mask[i] = distances[i] <= radiusKm;
+            count += mask[i] ? 1 : 0;
+        }
+        return count;
+    }
+
+    private static double wrapLongitude(double deltaDegrees) {
+        // Shortest way round across the antimeridian
+        return deltaDegrees - 360.0 * Math.rint(deltaDegrees / 360.0);
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+
     /**
      * Convert distance in kilometers to meters
      */
@@ -0,0 +1,173 @@
+package com.incident.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lock-free in-memory index of responder positions. The latest position of each responder is
+ * an immutable record in a concurrent map, which is the source of truth; a grid of cells
+ * holds the same records by cell and may briefly hold a stale one while a responder moves,
+ * which lookups filter out. Nearest-neighbour queries search rings of cells outwards and
+ * stop once no unvisited cell can hold anything closer.
+ */
+public class ResponderIndex {
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final double cellDegrees;
+    private final Map<String, Location> locations = new ConcurrentHashMap<>();
+    private final Map<Long, Map<String, Location>> cells = new ConcurrentHashMap<>();
+
+    public record Location(String responderId, double latitude, double longitude, boolean available,
+                           long updatedAtMillis, long cellKey) {
+    }
+
+    public record Candidate(Location location, double distanceKm) {
+    }
+
+    public ResponderIndex(double cellKm) {
+        this.cellDegrees = cellKm / KM_PER_DEGREE;
+    }
+
+    public Location update(String responderId, double latitude, double longitude, boolean available, long nowMillis) {
+        long key = cellKey(row(latitude), column(longitude));
+        Location location = new Location(responderId, latitude, longitude, available, nowMillis, key);
+        Location previous = locations.put(responderId, location);
+        cells.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(responderId, location);
+        if (previous != null && previous.cellKey() != key) {
+            unlink(previous);
+        }
+        return location;
+    }
+
+    public Location get(String responderId) {
+        return locations.get(responderId);
+    }
+
+    public Collection<Location> all() {
+        return Collections.unmodifiableCollection(locations.values());
+    }
+
+    /**
+     * Up to k available responders updated at or after minUpdatedMillis, closest first.
+     * Candidates are ranked by the equirectangular distance, which is within 0.4% of the
+     * haversine distance at the radii searched; returned distances are exact.
+     */
+    public List<Candidate> nearest(double latitude, double longitude, int k, double maxKm, long minUpdatedMillis) {
+        if (k <= 0) return List.of();
+        // Max-heap on distance holding the best k so far
+        PriorityQueue<Candidate> best = new PriorityQueue<>(k + 1,
+            Comparator.comparingDouble(Candidate::distanceKm).reversed());
+        double kmPerDegreeLongitude = KM_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+        long row = row(latitude);
+        long column = column(longitude);
+        for (int ring = 0; ; ring++) {
+            for (long r = row - ring; r <= row + ring; r++) {
+                boolean edgeRow = r == row - ring || r == row + ring;
+                // Inner rows of the ring only have their two edge cells
+                long step = edgeRow ? 1 : Math.max(1, 2L * ring);
+                for (long c = column - ring; c <= column + ring; c += step) {
+                    collect(cellKey(r, c), latitude, longitude, kmPerDegreeLongitude, k, maxKm, minUpdatedMillis, best);
+                }
+            }
+            if (best.size() == k && best.peek().distanceKm() <= reach(latitude, longitude, row, column, ring)
+                    || reach(latitude, longitude, row, column, ring) >= maxKm) {
+                break;
+            }
+        }
+        List<Candidate> result = new ArrayList<>(best.size());
+        for (Candidate candidate : best) {
+            Location location = candidate.location();
+            result.add(new Candidate(location, LocationUtil.calculateDistance(latitude, longitude,
+                location.latitude(), location.longitude())));
+        }
+        result.sort(Comparator.comparingDouble(Candidate::distanceKm));
+        return result;
+    }
+
+    /**
+     * Forget responders not heard from since the given time
+     *
+     * @return number of responders removed
+     */
+    public int evictOlderThan(long minUpdatedMillis) {
+        int removed = 0;
+        for (Location location : locations.values()) {
+            // Only remove the exact record seen, not a fresh ping that replaced it meanwhile
+            if (location.updatedAtMillis() < minUpdatedMillis && locations.remove(location.responderId(), location)) {
+                unlink(location);
+                removed++;
+            }
+        }
+        cells.values().removeIf(Map::isEmpty);
+        return removed;
+    }
+
+    public int size() {
+        return locations.size();
+    }
+
+    private void collect(long key, double latitude, double longitude, double kmPerDegreeLongitude, int k,
+                         double maxKm, long minUpdatedMillis, PriorityQueue<Candidate> best) {
+        Map<String, Location> cell = cells.get(key);
+        if (cell == null) return;
+        for (Location location : cell.values()) {
+            if (!location.available() || location.updatedAtMillis() < minUpdatedMillis) {
+                continue;
+            }
+            double dx = (location.longitude() - longitude) * kmPerDegreeLongitude;
+            double dy = (location.latitude() - latitude) * KM_PER_DEGREE;
+            double distance = Math.sqrt(dx * dx + dy * dy);
+            if (distance > maxKm || (best.size() == k && distance >= best.peek().distanceKm())) {
+                continue;
+            }
+            // Only records that would be kept are checked against the source of truth, which
+            // skips ones left behind in a cell the responder has since moved out of
+            if (locations.get(location.responderId()) != location) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(new Candidate(location, distance));
+            } else if (distance < best.peek().distanceKm()) {
+                best.poll();
+                best.add(new Candidate(location, distance));
+            }
+        }
+    }
+
+    /**
+     * Distance from the query point to the nearest cell outside the rings searched so far
+     */
+    private double reach(double latitude, double longitude, long row, long column, int ring) {
+        double latitudeGap = Math.min(latitude - (row - ring) * cellDegrees, (row + ring + 1) * cellDegrees - latitude);
+        double longitudeGap = Math.min(longitude - (column - ring) * cellDegrees,
+            (column + ring + 1) * cellDegrees - longitude);
+        // Degrees of longitude shrink towards the pole-side edge of the searched square
+        double edgeLatitude = Math.min(89.0, Math.abs(latitude) + latitudeGap);
+        return Math.min(latitudeGap * KM_PER_DEGREE,
+            longitudeGap * KM_PER_DEGREE * Math.cos(Math.toRadians(edgeLatitude)));
+    }
+
+    private void unlink(Location location) {
+        Map<String, Location> cell = cells.get(location.cellKey());
+        if (cell != null) {
+            cell.remove(location.responderId());
+        }
+        // A concurrent update may have moved the responder back into this cell
+        Location current = locations.get(location.responderId());
+        if (current != null && current.cellKey() == location.cellKey()) {
+            cells.computeIfAbsent(location.cellKey(), k -> new ConcurrentHashMap<>()).put(location.responderId(), current);
+        }
+    }
+
+    private long row(double latitude) {
+        return (long) Math.floor(latitude / cellDegrees);
+    }
+
+    private long column(double longitude) {
+        return (long) Math.floor(longitude / cellDegrees);
+    }
+
+    private static long cellKey(long row, long column) {
+        return (row << 32) ^ (column & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,43 @@
+package com.incident.util;
+
+public class TileMath {
+    // Web Mercator cannot represent the poles; clamp to the usual slippy-map limit
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    /**
+     * Fractional global X coordinate (0..2^zoom) for a longitude
+     */
+    public static double lonToX(double longitude, int zoom) {
+        return (longitude + 180.0) / 360.0 * (1L << zoom);
+    }
+
+    /**
+     * Fractional global Y coordinate (0..2^zoom) for a latitude
+     */
+    public static double latToY(double latitude, int zoom) {
+        double lat = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        double y = (1.0 - Math.log(Math.tan(lat) + 1.0 / Math.cos(lat)) / Math.PI) / 2.0;
+        return y * (1L << zoom);
+    }
+
+    /**
+     * Integer cell coordinate of a point in a grid of 2^zoom cells per axis
+     */
+    public static long cell(double fractional, int zoom) {
+        long max = (1L << zoom) - 1;
+        return Math.max(0, Math.min(max, (long) Math.floor(fractional)));
+    }
+
+    /**
+     * Pack a z/x/y tile address into a single long key
+     */
+    public static long tileKey(int z, long x, long y) {
+        return ((long) z << 58) | (x << 29) | y;
+    }
+
+    public static boolean isValidTile(int z, long x, long y, int maxZoom) {
+        if (z < 0 || z > maxZoom) return false;
+        long n = 1L << z;
+        return x >= 0 && x < n && y >= 0 && y < n;
+    }
+}
@@ -0,0 +1,30 @@
+package com.incident.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Deferral of in-memory side effects - indexes, caches, broadcasts - until the surrounding
+ * transaction has committed, so a rollback never leaves them describing writes that did not happen.
+ */
+public final class TransactionHooks {
+    private TransactionHooks() {
+    }
+
+    /**
+     * Run the action once the current transaction commits, or right away outside one.
+     * Actions registered in one transaction run in registration order.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
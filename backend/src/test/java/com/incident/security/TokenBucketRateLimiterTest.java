@@ -0,0 +1,101 @@
+package com.incident.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    @Test
+    void admitsTheBurstThenRejectsWithAWait() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 0.1, 3, 1000);
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("client")).isZero();
+        }
+        long wait = limiter.tryAcquire("client");
+        // One token every 10 s
+        assertThat(wait).isPositive().isLessThanOrEqualTo(10_000_000_000L);
+    }
+
+    @Test
+    void keepsClientsApart() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 0.1, 1, 1000);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+        assertThat(limiter.size()).isEqualTo(2);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 100, 1, 1000);
+        assertThat(limiter.tryAcquire("client")).isZero();
+        assertThat(limiter.tryAcquire("client")).isPositive();
+        Thread.sleep(20);
+        assertThat(limiter.tryAcquire("client")).isZero();
+    }
+
+    @Test
+    void evictsOnlyIdleBuckets() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 1000, 1, 1000);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        Thread.sleep(5);
+        limiter.evictIdle();
+        assertThat(limiter.size()).isZero();
+
+        TokenBucketRateLimiter slow = new TokenBucketRateLimiter("test", 0.1, 1, 1000);
+        slow.tryAcquire("a");
+        slow.evictIdle();
+        assertThat(slow.size()).isEqualTo(1);
+    }
+
+    @Test
+    void neverHoldsMoreThanMaxKeys() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 0.1, 1, 64);
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("client-" + i);
+        }
+        assertThat(limiter.size()).isLessThanOrEqualTo(64);
+        assertThat(limiter.overflowed()).isGreaterThanOrEqualTo(10_000 - 64);
+    }
+
+    @Test
+    void newKeysShareABucketWhileTheirStripeIsFull() {
+        // maxKeys 16 leaves room for one key per stripe
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 0.1, 1, 16);
+        List<String> keys = sameStripe(3);
+        assertThat(limiter.tryAcquire(keys.get(0))).isZero();
+        assertThat(limiter.tryAcquire(keys.get(1))).isZero();
+        // The second and third keys share the overflow bucket the second one just drained
+        assertThat(limiter.tryAcquire(keys.get(2))).isPositive();
+        assertThat(limiter.overflowed()).isEqualTo(2);
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void fullStripeMakesRoomOnceBucketsGoIdle() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 1000, 1, 16);
+        List<String> keys = sameStripe(2);
+        limiter.tryAcquire(keys.get(0));
+        // Past the sweep backoff, a new key sweeps the stripe and gets its own bucket
+        Thread.sleep(150);
+        assertThat(limiter.tryAcquire(keys.get(1))).isZero();
+        assertThat(limiter.overflowed()).isZero();
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    private static List<String> sameStripe(int count) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; keys.size() < count; i++) {
+            String key = "client-" + i;
+            if (Math.floorMod(key.hashCode(), 16) == 0) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
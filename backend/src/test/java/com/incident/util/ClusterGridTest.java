@@ -0,0 +1,103 @@
+package com.incident.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClusterGridTest {
+    private static final long WINDOW = 60_000;
+    private static final int FIRE = 0;
+    private static final int FLOOD = 1;
+
+    // 100 m radius; 0.0005 degrees of latitude is about 56 m
+    private final ClusterGrid grid = new ClusterGrid(100, WINDOW, 8);
+
+    @Test
+    void linksReportsWithinTheRadius() {
+        grid.add(FIRE, 40.0, -74.0, 0, 1);
+        assertThat(grid.linkedClusters(FIRE, 40.0005, -74.0, 1000)).containsExactly(1L);
+        assertThat(grid.linkedClusters(FIRE, 40.0015, -74.0, 1000)).isEmpty();
+    }
+
+    @Test
+    void linksAcrossCellEdges() {
+        // Neighbours either side of many cell boundaries, east-west and north-south
+        for (int i = 0; i < 200; i++) {
+            double lat = 51.0 + i * 0.00037;
+            double lon = -0.1 + i * 0.00053;
+            ClusterGrid fresh = new ClusterGrid(100, WINDOW, 8);
+            fresh.add(FIRE, lat, lon, 0, 1);
+            assertThat(fresh.linkedClusters(FIRE, lat + 0.0006, lon, 0)).containsExactly(1L);
+            assertThat(fresh.linkedClusters(FIRE, lat, lon + 0.0009, 0)).containsExactly(1L);
+            assertThat(fresh.linkedClusters(FIRE, lat - 0.0004, lon - 0.0007, 0)).containsExactly(1L);
+        }
+    }
+
+    @Test
+    void keepsTypesApart() {
+        grid.add(FIRE, 40.0, -74.0, 0, 1);
+        assertThat(grid.linkedClusters(FLOOD, 40.0, -74.0, 0)).isEmpty();
+    }
+
+    @Test
+    void ignoresReportsOutsideTheWindow() {
+        grid.add(FIRE, 40.0, -74.0, 0, 1);
+        assertThat(grid.linkedClusters(FIRE, 40.0, -74.0, WINDOW)).containsExactly(1L);
+        assertThat(grid.linkedClusters(FIRE, 40.0, -74.0, WINDOW + 1)).isEmpty();
+    }
+
+    @Test
+    void returnsEachClusterOnceInAscendingOrder() {
+        grid.add(FIRE, 40.0, -74.0, 0, 7);
+        grid.add(FIRE, 40.0001, -74.0, 0, 7);
+        grid.add(FIRE, 40.0, -74.0003, 0, 3);
+        assertThat(grid.linkedClusters(FIRE, 40.0002, -74.0002, 0)).containsExactly(3L, 7L);
+    }
+
+    @Test
+    void unionKeepsTheOlderRoot() {
+        grid.add(FIRE, 40.0, -74.0, 0, 5);
+        grid.add(FIRE, 40.0001, -74.0, 0, 9);
+        grid.union(9, 5);
+        assertThat(grid.find(9)).isEqualTo(5);
+        assertThat(grid.linkedClusters(FIRE, 40.0, -74.0, 0)).containsExactly(5L);
+
+        // Merging two merged clusters links the larger root under the smaller one
+        grid.union(12, 20);
+        grid.union(20, 9);
+        assertThat(grid.find(12)).isEqualTo(5);
+        assertThat(grid.find(20)).isEqualTo(5);
+        assertThat(grid.find(5)).isEqualTo(5);
+    }
+
+    @Test
+    void capsReportsPerCell() {
+        for (int i = 0; i < 20; i++) {
+            grid.add(FIRE, 40.0, -74.0, i, i + 1);
+        }
+        assertThat(grid.size()).isEqualTo(8);
+        // The oldest reports made room
+        assertThat(grid.linkedClusters(FIRE, 40.0, -74.0, 20)).containsExactly(13L, 14L, 15L, 16L, 17L, 18L, 19L, 20L);
+    }
+
+    @Test
+    void removesAReport() {
+        ClusterGrid.Point point = grid.add(FIRE, 40.0, -74.0, 0, 1);
+        grid.remove(point);
+        grid.remove(point);
+        assertThat(grid.size()).isZero();
+        assertThat(grid.linkedClusters(FIRE, 40.0, -74.0, 0)).isEmpty();
+    }
+
+    @Test
+    void evictionDropsOldReportsAndKeepsMerges() {
+        grid.add(FIRE, 40.0, -74.0, 0, 1);
+        grid.add(FIRE, 40.0001, -74.0, 30_000, 2);
+        grid.union(1, 2);
+        assertThat(grid.evictExpired(WINDOW + 1)).isEqualTo(1);
+        assertThat(grid.size()).isEqualTo(1);
+        // The surviving report now carries the root, so the forgotten merge still holds
+        assertThat(grid.find(2)).isEqualTo(2);
+        assertThat(grid.linkedClusters(FIRE, 40.0, -74.0, WINDOW + 1)).containsExactly(1L);
+    }
+}
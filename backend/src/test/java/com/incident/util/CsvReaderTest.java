@@ -0,0 +1,116 @@
+package com.incident.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void readsPlainRecords() throws IOException {
+        assertThat(readAll("type,latitude\nFIRE,40.7\n")).containsExactly(
+            List.of("type", "latitude"), List.of("FIRE", "40.7"));
+    }
+
+    @Test
+    void handlesEveryLineEnding() throws IOException {
+        List<List<String>> expected = List.of(List.of("a", "b"), List.of("c", "d"), List.of("e", "f"));
+        assertThat(readAll("a,b\r\nc,d\r\ne,f")).isEqualTo(expected);
+        assertThat(readAll("a,b\rc,d\re,f\r")).isEqualTo(expected);
+        assertThat(readAll("a,b\nc,d\r\ne,f\n")).isEqualTo(expected);
+    }
+
+    @Test
+    void skipsBlankLines() throws IOException {
+        assertThat(readAll("\n\na,b\n\r\n\nc,d\n\n")).containsExactly(List.of("a", "b"), List.of("c", "d"));
+    }
+
+    @Test
+    void readsQuotedFields() throws IOException {
+        assertThat(readAll("\"Main St, 5\",\"said \"\"help\"\"\",\"two\nlines\"\n\"\"\"\",x\n")).containsExactly(
+            List.of("Main St, 5", "said \"help\"", "two\nlines"), List.of("\"", "x"));
+    }
+
+    @Test
+    void tellsEmptyQuotedFieldsFromMissingOnes() throws IOException {
+        assertThat(readAll(",\"\",\n")).containsExactly(Arrays.asList(null, "", null));
+    }
+
+    @Test
+    void skipsAByteOrderMark() throws IOException {
+        assertThat(readAll("\uFEFFtype,status\n")).containsExactly(List.of("type", "status"));
+    }
+
+    @Test
+    void readsRecordsSplitAcrossBufferRefills() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        List<List<String>> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            csv.append(i).append(",\"note ").append(i).append(", \"\"quoted\"\"\r\nline\"\r\n");
+            expected.add(List.of(String.valueOf(i), "note " + i + ", \"quoted\"\r\nline"));
+        }
+        // Larger than the 8192-character buffer, and again one character per read
+        assertThat(readAll(new StringReader(csv.toString()))).isEqualTo(expected);
+        assertThat(readAll(new OneCharReader(new StringReader(csv.toString())))).isEqualTo(expected);
+        assertThat(readAll(new OneCharReader(new StringReader("a,b\rc,d")))).containsExactly(
+            List.of("a", "b"), List.of("c", "d"));
+    }
+
+    @Test
+    void rejectsUnterminatedQuotes() {
+        assertThatThrownBy(() -> readAll("a,\"open\n")).isInstanceOf(IOException.class)
+            .hasMessageContaining("Unterminated");
+    }
+
+    @Test
+    void rejectsOverlongRecords() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("short\n" + "x".repeat(200) + "\n"), 100)) {
+            assertThat(reader.readRecord()).containsExactly("short");
+            assertThatThrownBy(reader::readRecord).isInstanceOf(IOException.class).hasMessageContaining("100");
+        }
+    }
+
+    @Test
+    void returnsNullAtTheEnd() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("a\n"), 100)) {
+            assertThat(reader.readRecord()).containsExactly("a");
+            assertThat(reader.readRecord()).isNull();
+            assertThat(reader.readRecord()).isNull();
+        }
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        return readAll(new StringReader(csv));
+    }
+
+    private static List<List<String>> readAll(Reader input) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(input, 10_000)) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static final class OneCharReader extends FilterReader {
+        OneCharReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            return super.read(buffer, offset, Math.min(1, length));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.incident.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeoShardMapTest {
+
+    @Test
+    void keepsEachCellOnOneShard() {
+        GeoShardMap map = new GeoShardMap(1.0, 4);
+        assertThat(map.shardOf(40.2, -73.9)).isEqualTo(map.shardOf(40.8, -73.1));
+        assertThat(map.shardOf(40.2, -73.9)).isEqualTo(new GeoShardMap(1.0, 4).shardOf(40.2, -73.9));
+        // The antimeridian and the poles fall into valid cells
+        assertThat(map.shardOf(10, 180)).isEqualTo(map.shardOf(10, -180));
+        assertThat(map.shardOf(90, 0)).isEqualTo(map.shardOf(89.5, 0));
+        assertThat(map.shardOf(-90, 0)).isEqualTo(map.shardOf(-89.5, 0));
+    }
+
+    @Test
+    void spreadsCellsOverTheShards() {
+        GeoShardMap map = new GeoShardMap(1.0, 4);
+        int[] cells = new int[4];
+        for (int lat = -90; lat < 90; lat++) {
+            for (int lon = -180; lon < 180; lon++) {
+                cells[map.shardOf(lat + 0.5, lon + 0.5)]++;
+            }
+        }
+        int total = 180 * 360;
+        for (int count : cells) {
+            assertThat(count).isBetween(total / 4 * 9 / 10, total / 4 * 11 / 10);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"40.7, -74.0, 50", "0.5, 0.5, 200", "51.5, 179.9, 100", "-33.0, -179.95, 300",
+        "89.9, 10, 100", "-89.5, -60, 500", "70, 20, 800", "1, 1, 0.5"})
+    void searchCoversEveryShardAPointInRangeCanLiveOn(double lat, double lon, double radiusKm) {
+        GeoShardMap map = new GeoShardMap(0.5, 16);
+        BitSet shards = map.shardsWithin(lat, lon, radiusKm);
+        Random random = new Random(5);
+        for (int i = 0; i < 5000; i++) {
+            double[] point = destination(lat, lon, radiusKm * Math.sqrt(random.nextDouble()),
+                2 * Math.PI * random.nextDouble());
+            assertThat(shards.get(map.shardOf(point[0], point[1])))
+                .as("point %.5f, %.5f", point[0], point[1]).isTrue();
+        }
+    }
+
+    @Test
+    void smallSearchesTouchFewShards() {
+        GeoShardMap map = new GeoShardMap(1.0, 16);
+        assertThat(map.shardsWithin(40.5, -73.5, 1).cardinality()).isEqualTo(1);
+        assertThat(map.shardsWithin(40.5, -73.5, 100).cardinality()).isLessThanOrEqualTo(9);
+    }
+
+    @Test
+    void wideSearchesGoToEveryShard() {
+        GeoShardMap map = new GeoShardMap(0.1, 8);
+        assertThat(map.shardsWithin(0, 0, 5000).cardinality()).isEqualTo(8);
+        assertThat(map.shardsWithin(89.95, 0, 20).cardinality()).isEqualTo(8);
+    }
+
+    @Test
+    void singleShardOwnsEverything() {
+        GeoShardMap map = new GeoShardMap(1.0, 1);
+        assertThat(map.shardOf(-45, 120)).isZero();
+        assertThat(map.shardsWithin(10, 10, 1000).stream().toArray()).containsExactly(0);
+    }
+
+    @Test
+    void validatesItsConfiguration() {
+        assertThatThrownBy(() -> new GeoShardMap(0, 4)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new GeoShardMap(91, 4)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new GeoShardMap(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Great-circle destination point, with longitude wrapped into [-180, 180)
+    private static double[] destination(double lat, double lon, double distanceKm, double bearing) {
+        double phi1 = Math.toRadians(lat);
+        double delta = distanceKm / 6371.0;
+        double phi2 = Math.asin(Math.sin(phi1) * Math.cos(delta)
+            + Math.cos(phi1) * Math.sin(delta) * Math.cos(bearing));
+        double lambda2 = Math.toRadians(lon) + Math.atan2(Math.sin(bearing) * Math.sin(delta) * Math.cos(phi1),
+            Math.cos(delta) - Math.sin(phi1) * Math.sin(phi2));
+        double wrapped = Math.toDegrees(lambda2);
+        wrapped = wrapped - 360.0 * Math.floor((wrapped + 180.0) / 360.0);
+        return new double[]{Math.toDegrees(phi2), wrapped};
+    }
+}
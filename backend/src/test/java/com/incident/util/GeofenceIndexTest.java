@@ -0,0 +1,113 @@
+package com.incident.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeofenceIndexTest {
+    private static final int FIRE = 0;
+    private static final int FLOOD = 1;
+
+    private final GeofenceIndex index = new GeofenceIndex(1.0);
+
+    @Test
+    void matchesPointsInsideACircle() {
+        index.add(GeofenceIndex.Fence.circle(1, "alice", 0, 40.0, -74.0, 500));
+        assertThat(ids(index.match(FIRE, 40.004, -74.0))).containsExactly(1L);
+        assertThat(index.match(FIRE, 40.006, -74.0)).isEmpty();
+        // Inside the bounding box but outside the circle
+        assertThat(index.match(FIRE, 40.004, -74.0052)).isEmpty();
+    }
+
+    @Test
+    void matchesPointsInsideAConcavePolygon() {
+        // An L shape: the square 0..2 x 0..2 without its north-east quarter
+        index.add(GeofenceIndex.Fence.polygon(1, "alice", 0,
+            new double[]{0, 0, 2, 2, 1, 1}, new double[]{0, 2, 2, 1, 1, 0}));
+        assertThat(ids(index.match(FIRE, 0.5, 0.5))).containsExactly(1L);
+        assertThat(ids(index.match(FIRE, 1.5, 1.5))).containsExactly(1L);
+        assertThat(ids(index.match(FIRE, 0.5, 1.5))).containsExactly(1L);
+        assertThat(index.match(FIRE, 1.5, 0.5)).isEmpty();
+        assertThat(index.match(FIRE, 2.5, 0.5)).isEmpty();
+    }
+
+    @Test
+    void respectsTheTypeMask() {
+        index.add(GeofenceIndex.Fence.circle(1, "alice", 1 << FLOOD, 40.0, -74.0, 500));
+        assertThat(index.match(FIRE, 40.0, -74.0)).isEmpty();
+        assertThat(ids(index.match(FLOOD, 40.0, -74.0))).containsExactly(1L);
+    }
+
+    @Test
+    void replacesAndRemovesFences() {
+        index.add(GeofenceIndex.Fence.circle(1, "alice", 0, 40.0, -74.0, 500));
+        index.add(GeofenceIndex.Fence.circle(1, "alice", 0, 10.0, 10.0, 500));
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.match(FIRE, 40.0, -74.0)).isEmpty();
+        assertThat(ids(index.match(FIRE, 10.0, 10.0))).containsExactly(1L);
+
+        assertThat(index.remove(1)).isTrue();
+        assertThat(index.remove(1)).isFalse();
+        assertThat(index.size()).isZero();
+        assertThat(index.match(FIRE, 10.0, 10.0)).isEmpty();
+    }
+
+    @Test
+    void matchesFencesOfEverySize() {
+        index.add(GeofenceIndex.Fence.circle(1, "alice", 0, 48.85, 2.35, 50));
+        index.add(GeofenceIndex.Fence.circle(2, "bob", 0, 48.85, 2.35, 40_000));
+        index.add(GeofenceIndex.Fence.polygon(3, "carol", 0, new double[]{-60, -60, 70, 70},
+            new double[]{-170, 170, 170, -170}));
+        assertThat(ids(index.match(FIRE, 48.85, 2.35))).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(ids(index.match(FIRE, 48.95, 2.35))).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(ids(index.match(FIRE, 0, 100))).containsExactly(3L);
+    }
+
+    @Test
+    void agreesWithTestingEveryFence() {
+        Random random = new Random(3);
+        List<GeofenceIndex.Fence> all = new ArrayList<>();
+        for (int id = 0; id < 500; id++) {
+            double lat = 40 + 2 * random.nextDouble();
+            double lon = -75 + 2 * random.nextDouble();
+            int mask = random.nextInt(4);
+            GeofenceIndex.Fence fence;
+            if (id % 2 == 0) {
+                fence = GeofenceIndex.Fence.circle(id, "user", mask, lat, lon, 100 + 50_000 * Math.pow(random.nextDouble(), 3));
+            } else {
+                double span = 0.01 + 0.5 * random.nextDouble();
+                fence = GeofenceIndex.Fence.polygon(id, "user", mask,
+                    new double[]{lat, lat + span, lat - span / 2}, new double[]{lon, lon + span / 3, lon + span});
+            }
+            all.add(fence);
+            index.add(fence);
+        }
+        for (int i = 0; i < 2000; i++) {
+            int type = random.nextInt(2);
+            double lat = 39.5 + 3 * random.nextDouble();
+            double lon = -75.5 + 3 * random.nextDouble();
+            List<Long> expected = new ArrayList<>();
+            for (GeofenceIndex.Fence fence : all) {
+                if (fence.contains(type, lat, lon)) expected.add(fence.id());
+            }
+            assertThat(ids(index.match(type, lat, lon))).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    void rejectsDegeneratePolygons() {
+        assertThatThrownBy(() -> GeofenceIndex.Fence.polygon(1, "alice", 0, new double[]{0, 1}, new double[]{0, 1}))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> GeofenceIndex.Fence.polygon(1, "alice", 0, new double[]{0, 1, 2}, new double[]{0, 1}))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Long> ids(List<GeofenceIndex.Fence> fences) {
+        return fences.stream().map(GeofenceIndex.Fence::id).toList();
+    }
+}
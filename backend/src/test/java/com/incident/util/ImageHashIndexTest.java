@@ -0,0 +1,101 @@
+package com.incident.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageHashIndexTest {
+    private final ImageHashIndex index = new ImageHashIndex(10);
+    private final Random random = new Random(9);
+
+    @Test
+    void findsHashesUpToTheMaximumDistance() {
+        long hash = random.nextLong();
+        index.add(1, hash);
+        assertThat(index.search(hash, 10)).containsExactly(new ImageHashIndex.Match(1, 0));
+        // Ten flipped bits bunched in one chunk, and spread over all four
+        assertThat(index.search(hash ^ 0x3FFL, 10)).containsExactly(new ImageHashIndex.Match(1, 10));
+        assertThat(index.search(hash ^ 0x0007_0007_0003_0003L, 10)).containsExactly(new ImageHashIndex.Match(1, 10));
+        assertThat(index.search(hash ^ 0x7FFL, 10)).isEmpty();
+        assertThat(index.search(hash ^ 0x0007_0007_0007_0007L, 10)).isEmpty();
+    }
+
+    @Test
+    void returnsTheNearestFirstAndHonoursTheLimit() {
+        long hash = random.nextLong();
+        index.add(1, hash ^ 0b111);
+        index.add(2, hash ^ 0b1);
+        index.add(3, hash ^ 0b11);
+        index.add(4, hash ^ (0b11L << 40));
+        assertThat(index.search(hash, 10)).extracting(ImageHashIndex.Match::id).containsExactly(2L, 4L, 3L, 1L);
+        assertThat(index.search(hash, 2)).extracting(ImageHashIndex.Match::id).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void replacesAndRemovesHashes() {
+        long hash = random.nextLong();
+        index.add(1, hash);
+        index.add(1, ~hash);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search(hash, 10)).isEmpty();
+        assertThat(index.search(~hash, 10)).extracting(ImageHashIndex.Match::id).containsExactly(1L);
+
+        index.remove(1);
+        index.remove(1);
+        assertThat(index.size()).isZero();
+        assertThat(index.search(~hash, 10)).isEmpty();
+    }
+
+    @Test
+    void agreesWithComparingEveryHash() {
+        long[] bases = new long[20];
+        for (int i = 0; i < bases.length; i++) {
+            bases[i] = random.nextLong();
+        }
+        // Near-duplicates of a few photos among unrelated ones
+        long[] hashes = new long[5000];
+        for (int id = 0; id < hashes.length; id++) {
+            hashes[id] = id % 2 == 0 ? random.nextLong() : flip(bases[id % bases.length], random.nextInt(16));
+            index.add(id, hashes[id]);
+        }
+        for (int q = 0; q < 200; q++) {
+            long query = flip(bases[q % bases.length], random.nextInt(6));
+            List<ImageHashIndex.Match> expected = new ArrayList<>();
+            for (int id = 0; id < hashes.length; id++) {
+                int distance = ImageHash.distance(query, hashes[id]);
+                if (distance <= 10) expected.add(new ImageHashIndex.Match(id, distance));
+            }
+            expected.sort(Comparator.comparingInt(ImageHashIndex.Match::distance)
+                .thenComparing(ImageHashIndex.Match::id, Comparator.reverseOrder()));
+            assertThat(index.search(query, Integer.MAX_VALUE)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void zeroDistanceFindsOnlyExactMatches() {
+        ImageHashIndex exact = new ImageHashIndex(0);
+        exact.add(1, 42);
+        assertThat(exact.search(42, 10)).containsExactly(new ImageHashIndex.Match(1, 0));
+        assertThat(exact.search(43, 10)).isEmpty();
+    }
+
+    @Test
+    void validatesTheDistance() {
+        assertThatThrownBy(() -> new ImageHashIndex(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ImageHashIndex(65)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private long flip(long hash, int bits) {
+        long result = hash;
+        while (Long.bitCount(result ^ hash) < bits) {
+            result ^= 1L << random.nextInt(64);
+        }
+        return result;
+    }
+}
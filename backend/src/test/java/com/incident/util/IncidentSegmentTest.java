@@ -0,0 +1,169 @@
+package com.incident.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class IncidentSegmentTest {
+    private static final long START = 1_700_000_000_000L;
+    private static final String[] TYPES = {"FIRE", "FLOOD", "ACCIDENT"};
+    private static final String[] STATUSES = {"RESOLVED", "FALSE"};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsEveryColumn() throws IOException {
+        List<IncidentSegmentWriter.Row> rows = rows(10_000);
+        IncidentSegment segment = write(rows);
+
+        assertThat(segment.getRowCount()).isEqualTo(rows.size());
+        assertThat(segment.getMinCreatedMillis()).isEqualTo(START);
+        assertThat(segment.getMaxCreatedMillis()).isEqualTo(START + (rows.size() - 1) * 1000L);
+        assertThat(segment.getTypes()).containsExactlyInAnyOrder(TYPES);
+        assertThat(segment.getStatuses()).containsExactlyInAnyOrder(STATUSES);
+
+        int[] all = new int[rows.size()];
+        for (int row = 0; row < all.length; row++) {
+            all[row] = row;
+        }
+        List<String[]> text = segment.getText(all, all.length);
+        // Ids follow creation order, so each row's id indexes its input
+        for (int row = 0; row < rows.size(); row++) {
+            IncidentSegmentWriter.Row expected = rows.get((int) segment.getId(row));
+            assertThat(segment.getCreatedMillis(row)).isEqualTo(expected.createdAtMillis());
+            assertThat(segment.getLatitude(row)).isCloseTo(expected.latitude(), within(1e-6));
+            assertThat(segment.getLongitude(row)).isCloseTo(expected.longitude(), within(1e-6));
+            assertThat(segment.getType(row)).isEqualTo(expected.type());
+            assertThat(segment.getStatus(row)).isEqualTo(expected.status());
+            assertThat(text.get(row)).containsExactly(expected.incidentId(), expected.description(),
+                expected.address() != null ? expected.address() : "");
+        }
+    }
+
+    @Test
+    void scanMatchesAFilterOverTheRows() throws IOException {
+        List<IncidentSegmentWriter.Row> rows = rows(10_000);
+        IncidentSegment segment = write(rows);
+        long from = START + 2_500_000L;
+        long to = START + 7_321_000L;
+        double south = 10, west = -20, north = 40, east = 30;
+
+        IncidentSegment.Matches matches = segment.scan(from, to, segment.typeCode("FIRE"),
+            segment.statusCode("RESOLVED"), south, west, north, east, 50);
+
+        long expected = rows.stream()
+            .filter(r -> r.createdAtMillis() >= from && r.createdAtMillis() < to)
+            .filter(r -> r.type().equals("FIRE") && r.status().equals("RESOLVED"))
+            .filter(r -> r.latitude() >= south && r.latitude() <= north && r.longitude() >= west && r.longitude() <= east)
+            .count();
+        assertThat(expected).isGreaterThan(50);
+        assertThat(matches.matched).isEqualTo(expected);
+        assertThat(matches.countsByType[segment.typeCode("FIRE")]).isEqualTo(expected);
+        assertThat(matches.countsByStatus[segment.statusCode("RESOLVED")]).isEqualTo(expected);
+        assertThat(matches.collected).isEqualTo(50);
+        for (int i = 0; i < matches.collected; i++) {
+            int row = matches.rows[i];
+            assertThat(segment.getCreatedMillis(row)).isBetween(from, to - 1);
+            assertThat(segment.getType(row)).isEqualTo("FIRE");
+            assertThat(segment.getLatitude(row)).isBetween(south, north);
+            if (i > 0) {
+                assertThat(row).isGreaterThan(matches.rows[i - 1]);
+            }
+        }
+    }
+
+    @Test
+    void scanWithoutFiltersCountsEveryRowInRange() throws IOException {
+        IncidentSegment segment = write(rows(10_000));
+        IncidentSegment.Matches matches = segment.scan(Long.MIN_VALUE, Long.MAX_VALUE, -1, -1, -90, -180, 90, 180, 0);
+        assertThat(matches.matched).isEqualTo(10_000);
+        assertThat(matches.collected).isZero();
+        assertThat(sum(matches.countsByType)).isEqualTo(10_000);
+        assertThat(sum(matches.countsByStatus)).isEqualTo(10_000);
+    }
+
+    @Test
+    void lowerBoundFindsTheFirstRowAtOrAfterATime() throws IOException {
+        IncidentSegment segment = write(rows(10_000));
+        assertThat(segment.lowerBound(START - 1)).isZero();
+        assertThat(segment.lowerBound(START)).isZero();
+        assertThat(segment.lowerBound(START + 1)).isEqualTo(1);
+        // Either side of the 4096-row time block boundary
+        assertThat(segment.lowerBound(START + 4095_000L)).isEqualTo(4095);
+        assertThat(segment.lowerBound(START + 4096_000L)).isEqualTo(4096);
+        assertThat(segment.lowerBound(START + 4096_500L)).isEqualTo(4097);
+        assertThat(segment.lowerBound(START + 9999_000L)).isEqualTo(9999);
+        assertThat(segment.lowerBound(START + 9999_001L)).isEqualTo(10_000);
+    }
+
+    @Test
+    void overlapsUsesTheHeaderBounds() throws IOException {
+        IncidentSegment segment = write(rows(100));
+        long end = segment.getMaxCreatedMillis();
+        assertThat(segment.overlaps(START, end, -90, -180, 90, 180)).isTrue();
+        assertThat(segment.overlaps(end + 1, end + 1000, -90, -180, 90, 180)).isFalse();
+        assertThat(segment.overlaps(START - 1000, START, -90, -180, 90, 180)).isFalse();
+        assertThat(segment.overlaps(START, end, 60, -180, 90, 180)).isFalse();
+        assertThat(segment.overlaps(START, end, -90, 60, 90, 180)).isFalse();
+    }
+
+    @Test
+    void unknownValuesHaveNoCode() throws IOException {
+        IncidentSegment segment = write(rows(10));
+        assertThat(segment.typeCode("EARTHQUAKE")).isEqualTo(-1);
+        assertThat(segment.statusCode("ACTIVE")).isEqualTo(-1);
+    }
+
+    @Test
+    void rejectsEmptySegmentsAndForeignFiles() throws IOException {
+        assertThatThrownBy(() -> IncidentSegmentWriter.write(dir.resolve("empty.seg"), List.of()))
+            .isInstanceOf(IllegalArgumentException.class);
+        Path other = Files.write(dir.resolve("other.seg"), new byte[256]);
+        assertThatThrownBy(() -> IncidentSegment.open(other)).isInstanceOf(IOException.class);
+    }
+
+    private IncidentSegment write(List<IncidentSegmentWriter.Row> rows) throws IOException {
+        // The writer sorts by creation time itself
+        List<IncidentSegmentWriter.Row> shuffled = new ArrayList<>(rows);
+        Collections.shuffle(shuffled, new Random(11));
+        Path file = dir.resolve("incidents.seg");
+        IncidentSegmentWriter.write(file, shuffled);
+        return IncidentSegment.open(file);
+    }
+
+    /**
+     * Rows one second apart with ids in creation order, inside [-50, 50] degrees; every
+     * seventh row has no address
+     */
+    private static List<IncidentSegmentWriter.Row> rows(int count) {
+        Random random = new Random(7);
+        List<IncidentSegmentWriter.Row> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new IncidentSegmentWriter.Row(i, "INC-" + i, START + i * 1000L,
+                -50 + 100 * random.nextDouble(), -50 + 100 * random.nextDouble(),
+                TYPES[random.nextInt(TYPES.length)], STATUSES[random.nextInt(STATUSES.length)],
+                "Report number " + i, i % 7 == 0 ? null : i + " Main Street"));
+        }
+        return rows;
+    }
+
+    private static long sum(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,119 @@
+package com.incident.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LocationUtilTest {
+    private static final double KM_PER_DEGREE = Math.toRadians(6371.0);
+
+    @Test
+    void knownDistances() {
+        // One degree of latitude, and a quarter of the equator
+        assertThat(LocationUtil.calculateDistance(0, 0, 1, 0)).isCloseTo(111.195, within(0.001));
+        assertThat(LocationUtil.calculateDistance(0, 0, 0, 90)).isCloseTo(10007.543, within(0.001));
+        assertThat(LocationUtil.calculateDistance(0, 179.5, 0, -179.5)).isCloseTo(111.195, within(0.001));
+        assertThat(LocationUtil.calculateDistance(89.9, 0, 89.9, 180)).isCloseTo(22.239, within(0.001));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0, 0", "45, 10", "-33.9, 151.2", "89.95, 0", "-89.95, 120", "10, 179.99", "-60, -179.99"})
+    void batchDistancesMatchScalarHaversine(double lat, double lon) {
+        double[][] points = pointsAround(lat, lon, 200, 1000);
+        double[] distances = new double[points[0].length];
+        LocationUtil.calculateDistances(lat, lon, points[0], points[1], distances);
+        for (int i = 0; i < distances.length; i++) {
+            double expected = LocationUtil.calculateDistance(lat, lon, points[0][i], points[1][i]);
+            assertThat(distances[i]).isCloseTo(expected, within(1e-9 + expected * 1e-12));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0, 0, 10", "0, 0, 50", "45, 10, 50", "70, -20, 10", "70, -20, 50", "30, 179.95, 50", "-30, -179.95, 50"})
+    void approximationStaysWithinItsErrorBound(double lat, double lon, double radiusKm) {
+        double[][] points = pointsAround(lat, lon, radiusKm, 1000);
+        double[] approximate = new double[points[0].length];
+        LocationUtil.approximateDistances(lat, lon, points[0], points[1], approximate);
+        double bound = LocationUtil.approximationErrorBound(lat, radiusKm);
+        for (int i = 0; i < approximate.length; i++) {
+            double exact = LocationUtil.calculateDistance(lat, lon, points[0][i], points[1][i]);
+            assertThat(approximate[i]).isCloseTo(exact, within(exact * bound + 1e-9));
+        }
+    }
+
+    @Test
+    void approximationCrossesTheAntimeridianTheShortWay() {
+        double[] out = new double[1];
+        LocationUtil.approximateDistances(0, 179.9, new double[]{0}, new double[]{-179.9}, out);
+        assertThat(out[0]).isCloseTo(0.2 * KM_PER_DEGREE, within(1e-9));
+    }
+
+    @Test
+    void errorBoundGrowsWithDistanceAndLatitude() {
+        assertThat(LocationUtil.approximationErrorBound(0, 10)).isLessThan(LocationUtil.approximationErrorBound(0, 50));
+        assertThat(LocationUtil.approximationErrorBound(0, 10)).isLessThan(LocationUtil.approximationErrorBound(60, 10));
+        assertThat(LocationUtil.approximationErrorBound(-60, 10)).isEqualTo(LocationUtil.approximationErrorBound(60, 10));
+        assertThat(LocationUtil.approximationErrorBound(70, 50)).isLessThan(0.02);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0, 0, 5", "40.7, -74.0, 1", "60, 25, 50", "78, 15, 20", "85, 0, 10", "89.99, 45, 5",
+        "-89.99, 0, 5", "0, 180, 10", "51.5, -179.999, 30", "-20, 179.99, 3", "10, 20, 400"})
+    void withinRadiusMatchesExactHaversine(double lat, double lon, double radiusKm) {
+        // Points up to twice the radius away, with many right at the boundary
+        double[][] points = pointsAround(lat, lon, 2 * radiusKm, 5000);
+        boolean[] mask = new boolean[points[0].length];
+        int count = LocationUtil.withinRadius(lat, lon, points[0], points[1], radiusKm, mask);
+
+        int expectedCount = 0;
+        for (int i = 0; i < mask.length; i++) {
+            boolean inside = LocationUtil.calculateDistance(lat, lon, points[0][i], points[1][i]) <= radiusKm;
+            assertThat(mask[i]).as("point %d", i).isEqualTo(inside);
+            expectedCount += inside ? 1 : 0;
+        }
+        assertThat(count).isEqualTo(expectedCount).isPositive();
+    }
+
+    @Test
+    void withinRadiusHandlesNoPoints() {
+        assertThat(LocationUtil.withinRadius(0, 0, new double[0], new double[0], 5, new boolean[0])).isZero();
+    }
+
+    /**
+     * Random points up to maxKm from the origin, half of them within 1% of maxKm / 2, with
+     * latitudes folded back over the pole and longitudes wrapped into [-180, 180)
+     */
+    private static double[][] pointsAround(double lat, double lon, double maxKm, int count) {
+        Random random = new Random(42);
+        double[] lats = new double[count];
+        double[] lons = new double[count];
+        for (int i = 0; i < count; i++) {
+            double distanceKm = i % 2 == 0
+                ? maxKm * random.nextDouble()
+                : maxKm / 2 * (0.99 + 0.02 * random.nextDouble());
+            double bearing = 2 * Math.PI * random.nextDouble();
+            double[] point = destination(lat, lon, distanceKm, bearing);
+            lats[i] = point[0];
+            lons[i] = point[1];
+        }
+        return new double[][]{lats, lons};
+    }
+
+    // Great-circle destination point, so points near a pole or the antimeridian come out valid
+    private static double[] destination(double lat, double lon, double distanceKm, double bearing) {
+        double phi1 = Math.toRadians(lat);
+        double delta = distanceKm / 6371.0;
+        double phi2 = Math.asin(Math.sin(phi1) * Math.cos(delta)
+            + Math.cos(phi1) * Math.sin(delta) * Math.cos(bearing));
+        double lambda2 = Math.toRadians(lon) + Math.atan2(Math.sin(bearing) * Math.sin(delta) * Math.cos(phi1),
+            Math.cos(delta) - Math.sin(phi1) * Math.sin(phi2));
+        double wrapped = Math.toDegrees(lambda2);
+        wrapped = wrapped - 360.0 * Math.floor((wrapped + 180.0) / 360.0);
+        return new double[]{Math.toDegrees(phi2), wrapped};
+    }
+}
@@ -0,0 +1,53 @@
+package com.incident.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TileMathTest {
+
+    @Test
+    void mapsTheWorldOntoTheGrid() {
+        assertThat(TileMath.lonToX(-180, 3)).isEqualTo(0.0);
+        assertThat(TileMath.lonToX(0, 3)).isEqualTo(4.0);
+        assertThat(TileMath.lonToX(180, 3)).isEqualTo(8.0);
+        assertThat(TileMath.latToY(0, 3)).isCloseTo(4.0, within(1e-9));
+        assertThat(TileMath.latToY(85.05112878, 3)).isCloseTo(0.0, within(1e-6));
+        assertThat(TileMath.latToY(-85.05112878, 3)).isCloseTo(8.0, within(1e-6));
+    }
+
+    @Test
+    void matchesKnownSlippyMapTile() {
+        // Berlin at zoom 10 is tile 550/335
+        assertThat(TileMath.cell(TileMath.lonToX(13.4050, 10), 10)).isEqualTo(550);
+        assertThat(TileMath.cell(TileMath.latToY(52.5200, 10), 10)).isEqualTo(335);
+    }
+
+    @Test
+    void clampsPolesAndEdgesIntoTheGrid() {
+        assertThat(TileMath.latToY(90, 4)).isEqualTo(TileMath.latToY(85.05112878, 4));
+        assertThat(TileMath.latToY(-90, 4)).isEqualTo(TileMath.latToY(-85.05112878, 4));
+        assertThat(TileMath.cell(TileMath.lonToX(180, 4), 4)).isEqualTo(15);
+        assertThat(TileMath.cell(TileMath.latToY(-90, 4), 4)).isEqualTo(15);
+        assertThat(TileMath.cell(-0.5, 4)).isZero();
+    }
+
+    @Test
+    void packsDistinctKeys() {
+        assertThat(TileMath.tileKey(3, 1, 2)).isNotEqualTo(TileMath.tileKey(3, 2, 1));
+        assertThat(TileMath.tileKey(3, 1, 2)).isNotEqualTo(TileMath.tileKey(4, 1, 2));
+        long max = (1L << 20) - 1;
+        assertThat(TileMath.tileKey(20, max, max) >>> 58).isEqualTo(20);
+    }
+
+    @Test
+    void validatesTileAddresses() {
+        assertThat(TileMath.isValidTile(0, 0, 0, 18)).isTrue();
+        assertThat(TileMath.isValidTile(2, 3, 3, 18)).isTrue();
+        assertThat(TileMath.isValidTile(2, 4, 0, 18)).isFalse();
+        assertThat(TileMath.isValidTile(2, 0, -1, 18)).isFalse();
+        assertThat(TileMath.isValidTile(19, 0, 0, 18)).isFalse();
+        assertThat(TileMath.isValidTile(-1, 0, 0, 18)).isFalse();
+    }
+}
@@ -1,6 +1,8 @@
-import { useState, useEffect } from 'react'
+import { useState, useEffect, useRef } from 'react'
 import { incidentApi } from '../services/api'
-import { connectWebSocket, disconnectWebSocket } from '../services/websocket'
+import {
+  connectWebSocket, disconnectWebSocket, isIncidentDelta, missesUpdate, applyIncidentDelta, replaceIncident,
+} from '../services/websocket'
 import { useAuth } from '../context/AuthContext'
 
 export default function AdminPanel() {
@@ -8,8 +10,16 @@ export default function AdminPanel() {
   const isAdmin = user?.role === 'ADMIN'
   const isResponder = user?.role === 'RESPONDER'
   const [incidents, setIncidents] = useState([])
+  // Latest list, kept in step synchronously so WebSocket frames can be checked against it
+  // before React renders; every change goes through updateIncidents
+  const incidentsRef = useRef([])
+  const updateIncidents = (update) => {
+    incidentsRef.current = update(incidentsRef.current)
+    setIncidents(incidentsRef.current)
+  }
   const [selectedIncident, setSelectedIncident] = useState(null)
   const [timeline, setTimeline] = useState([])
+  const [responders, setResponders] = useState([])
   const [statusFilter, setStatusFilter] = useState('')
   const [loading, setLoading] = useState(true)
   const [updating, setUpdating] = useState(false)
@@ -23,12 +33,17 @@ export default function AdminPanel() {
     try {
       wsClient = connectWebSocket(
         (incident) => {
-          setIncidents(prev => {
-            const existing = prev.findIndex(i => i.id === incident.id)
-            if (existing >= 0) {
-              const updated = [...prev]
-              updated[existing] = incident
-              return updated
+          if (isIncidentDelta(incident)) {
+            const gap = missesUpdate(incidentsRef.current, incident)
+            updateIncidents(prev => applyIncidentDelta(prev, incident))
+            if (gap) {
+              refreshIncident(incident)
+            }
+            return
+          }
+          updateIncidents(prev => {
+            if (prev.some(i => i.id === incident.id)) {
+              return replaceIncident(prev, incident)
             }
             return [incident, ...prev].sort((a, b) => {
               if (b.confidenceScore !== a.confidenceScore) {
@@ -57,21 +72,35 @@ export default function AdminPanel() {
     loadIncidents()
   }, [statusFilter])
 
+  // Called when a delta shows a missed update; replaces the incident with the server copy,
+  // retrying a few times while the read still comes back older than the delta
+  const refreshIncident = async (delta, attempt = 0) => {
+    try {
+      const response = await incidentApi.getById(delta.incidentId)
+      updateIncidents(prev => replaceIncident(prev, response.data))
+      if (response.data.version < delta.version && attempt < 3) {
+        setTimeout(() => refreshIncident(delta, attempt + 1), 1000)
+      }
+    } catch (error) {
+      console.warn('Failed to refresh incident:', error)
+    }
+  }
+
   const loadIncidents = async () => {
     setLoading(true)
     setError(null)
     try {
       const response = await incidentApi.getAllIncidents(statusFilter || undefined)
       if (Array.isArray(response.data)) {
-        setIncidents(response.data)
+        updateIncidents(() => response.data)
       } else {
         setError('Invalid response format from server')
-        setIncidents([])
+        updateIncidents(() => [])
       }
     } catch (error) {
       console.error('Failed to load incidents:', error)
       setError(error.response?.data?.error || 'Failed to load incidents. Please check your connection.')
-      setIncidents([])
+      updateIncidents(() => [])
     } finally {
       setLoading(false)
     }
@@ -87,6 +116,16 @@ export default function AdminPanel() {
     }
   }
 
+  const loadResponders = async (incidentId) => {
+    try {
+      const response = await incidentApi.getNearestResponders(incidentId)
+      setResponders(response.data || [])
+    } catch (error) {
+      console.warn('Failed to load nearest responders:', error)
+      setResponders([])
+    }
+  }
+
   const handleStatusUpdate = async (incidentId, newStatus) => {
     setUpdating(true)
     try {
@@ -113,7 +152,7 @@ export default function AdminPanel() {
 
   const handleIncidentSelect = async (incident) => {
     setSelectedIncident(incident)
-    await loadTimeline(incident.id)
+    await Promise.all([loadTimeline(incident.id), loadResponders(incident.id)])
   }
 
   const getStatusBadge = (status) => {
@@ -300,6 +339,24 @@ export default function AdminPanel() {
                 </div>
               )}
 
+              <div>
+                <h3 className="text-sm font-semibold text-gray-900 mb-2">Nearest Responders</h3>
+                {responders.length === 0 ? (
+                  <p className="text-xs text-gray-500">No available responders nearby</p>
+                ) : (
+                  <div className="space-y-1">
+                    {responders.map((responder) => (
+                      <div key={responder.username} className="flex items-center justify-between text-xs">
+                        <span className="font-medium text-gray-900">{responder.username}</span>
+                        <span className="text-gray-500">
+                          {responder.distanceKm?.toFixed(2)} km • seen {new Date(responder.lastSeenAt).toLocaleTimeString()}
+                        </span>
+                      </div>
+                    ))}
+                  </div>
+                )}
+              </div>
+
               <div>
                 <h3 className="text-sm font-semibold text-gray-900 mb-2">Incident Timeline</h3>
                 <div className="space-y-2 max-h-48 overflow-y-auto">
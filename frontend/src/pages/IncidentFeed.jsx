@@ -1,7 +1,9 @@
 import { useState, useEffect, useRef } from 'react'
 import { MapContainer, TileLayer, Marker, Popup } from 'react-leaflet'
 import { incidentApi } from '../services/api'
-import { connectWebSocket, disconnectWebSocket } from '../services/websocket'
+import {
+  connectWebSocket, disconnectWebSocket, isIncidentDelta, missesUpdate, applyIncidentDelta, replaceIncident,
+} from '../services/websocket'
 import 'leaflet/dist/leaflet.css'
 import L from 'leaflet'
 
@@ -15,6 +17,13 @@ L.Icon.Default.mergeOptions({
 
 export default function IncidentFeed() {
   const [incidents, setIncidents] = useState([])
+  // Latest list, kept in step synchronously so WebSocket frames can be checked against it
+  // before React renders; every change goes through updateIncidents
+  const incidentsRef = useRef([])
+  const updateIncidents = (update) => {
+    incidentsRef.current = update(incidentsRef.current)
+    setIncidents(incidentsRef.current)
+  }
   const [filters, setFilters] = useState({
     type: '',
     status: '',
@@ -35,15 +44,17 @@ export default function IncidentFeed() {
     try {
       wsClient = connectWebSocket(
         (incident) => {
-          setIncidents(prev => {
-            const existing = prev.findIndex(i => i.id === incident.id)
-            if (existing >= 0) {
-              const updated = [...prev]
-              updated[existing] = incident
-              return updated
+          if (isIncidentDelta(incident)) {
+            const gap = missesUpdate(incidentsRef.current, incident)
+            updateIncidents(prev => applyIncidentDelta(prev, incident))
+            if (gap) {
+              refreshIncident(incident)
             }
-            return [incident, ...prev]
-          })
+            return
+          }
+          updateIncidents(prev => (
+            prev.some(i => i.id === incident.id) ? replaceIncident(prev, incident) : [incident, ...prev]
+          ))
         },
         (error) => {
           console.warn('WebSocket error (non-critical):', error)
@@ -81,6 +92,20 @@ export default function IncidentFeed() {
     }
   }
 
+  // Called when a delta shows a missed update; replaces the incident with the server copy,
+  // retrying a few times while the read still comes back older than the delta
+  const refreshIncident = async (delta, attempt = 0) => {
+    try {
+      const response = await incidentApi.getById(delta.incidentId)
+      updateIncidents(prev => replaceIncident(prev, response.data))
+      if (response.data.version < delta.version && attempt < 3) {
+        setTimeout(() => refreshIncident(delta, attempt + 1), 1000)
+      }
+    } catch (error) {
+      console.warn('Failed to refresh incident:', error)
+    }
+  }
+
   const loadIncidents = async () => {
     setLoading(true)
     try {
@@ -98,7 +123,7 @@ export default function IncidentFeed() {
       })
 
       const response = await incidentApi.query(params)
-      setIncidents(response.data)
+      updateIncidents(() => response.data)
     } catch (error) {
       console.error('Failed to load incidents:', error)
     } finally {
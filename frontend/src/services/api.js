@@ -89,6 +89,12 @@ export const incidentApi = {
     return api.get(`/api/incidents/admin/${id}/timeline`)
   },
 
+  getNearestResponders: async (id, k = 5) => {
+    return api.get(`/api/incidents/admin/${id}/responders`, {
+      params: { k },
+    })
+  },
+
   updateStatus: async (id, status, notes) => {
     return api.put(`/api/incidents/admin/${id}/status`, { status, notes })
   },
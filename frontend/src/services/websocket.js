@@ -33,8 +33,12 @@ export function connectWebSocket(onMessage, onError) {
       try {
         client.subscribe('/topic/incidents', (message) => {
           try {
-            const incident = JSON.parse(message.body)
-            onMessage(incident)
+            const frame = JSON.parse(message.body)
+            if (Array.isArray(frame.deltas)) {
+              frame.deltas.forEach(onMessage)
+            } else {
+              onMessage(frame)
+            }
           } catch (error) {
             console.error('Failed to parse WebSocket message:', error)
           }
@@ -67,6 +71,49 @@ export function connectWebSocket(onMessage, onError) {
   return client
 }
 
+// Frames on /topic/incidents are a full incident on create, otherwise a delta:
+// { id, incidentId, baseVersion, version, changes } with only the changed fields.
+// A bulk status change arrives as one { deltas: [...] } frame, passed on delta by delta.
+export function isIncidentDelta(frame) {
+  return frame && frame.changes !== undefined
+}
+
+// Incidents carry the event log version of their state; a delta applies to the version in
+// its baseVersion. True when the held copy has not seen an update this delta builds on, so
+// the caller should re-fetch the incident. Call it before applying the delta.
+export function missesUpdate(incidents, delta) {
+  const current = incidents.find(i => i.id === delta.id)
+  return current != null && current.version != null
+    && delta.version > current.version && delta.baseVersion !== current.version
+}
+
+// Patch the matching incident; deltas for incidents not shown, or already applied, are
+// ignored. A delta over a gap still brings its fields in but keeps the held version, so the
+// copy is not taken for current until a re-fetch replaces it.
+export function applyIncidentDelta(incidents, delta) {
+  const index = incidents.findIndex(i => i.id === delta.id)
+  if (index < 0) {
+    return incidents
+  }
+  const current = incidents[index]
+  if (current.version != null && delta.version <= current.version) {
+    return incidents
+  }
+  const inOrder = current.version == null || delta.baseVersion === current.version
+  const updated = [...incidents]
+  updated[index] = { ...current, ...delta.changes, version: inOrder ? delta.version : current.version }
+  return updated
+}
+
+// Put a full incident, from a frame or a re-fetch, in place of the held copy unless that copy
+// is newer: a read can be served by a replica that has not caught up yet
+export function replaceIncident(incidents, incident) {
+  return incidents.map(i => (
+    i.id === incident.id && !(i.version != null && incident.version != null && incident.version < i.version)
+      ? incident : i
+  ))
+}
+
 export function disconnectWebSocket() {
   if (client) {
     client.deactivate()